@@ -0,0 +1,93 @@
+package restaurant.benchmarks;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class counts latencies in microseconds so percentiles can be read without keeping every
+ * sample. Values below 128 get a bucket each, larger values share a bucket with values that have
+ * the same top seven bits, so a percentile is off by less than 2%. Many threads can record at once.
+ *
+ * @version Dec 15, 2025
+ */
+
+final class LatencyHistogram {
+    private static final int EXACT = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int BUCKETS = EXACT + (64 - 7) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Counts one latency
+     *
+     * @param micros the latency in microseconds, negative values count as 0
+     */
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucket(value));
+        total.increment();
+        sum.add(value);
+    }
+
+    long getCount() {
+        return total.sum();
+    }
+
+    double getMean() {
+        long count = total.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Gets the latency that the given fraction of samples are at or below
+     *
+     * @param fraction from 0 to 1, for example 0.999 for p999
+     * @return the upper end of the bucket holding that sample, 0 if nothing was recorded
+     */
+    long getPercentile(double fraction) {
+        long count = total.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    long getMax() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return upperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    private static int bucket(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - 6;
+        return EXACT + (exponent - 7) * SUB_BUCKETS + (int) ((value >> shift) - SUB_BUCKETS);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int exponent = 7 + (bucket - EXACT) / SUB_BUCKETS;
+        long mantissa = SUB_BUCKETS + (bucket - EXACT) % SUB_BUCKETS;
+        int shift = exponent - 6;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,360 @@
+package restaurant.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is a headless load generator that talks to a running RestaurantServer over sockets
+ * the same way Client and GUIClient do. Guest sessions arrive at a fixed average rate, each one
+ * logs in, looks at tables, books one of them, and sometimes cancels it again. Every command's
+ * latency and outcome is counted, and p50, p99, and p999 latency with an error breakdown for each
+ * command is printed at the end.
+ *
+ * <p>Sessions arrive on an open schedule, a slow server does not slow down arrivals. When every
+ * connection is busy the waiting time before a session starts is reported as queue delay.</p>
+ *
+ * <p>Options are given as --name=value: host, port, rate (sessions per second), duration
+ * (seconds), connections (most sessions at once), users (guest accounts to use), browse (table
+ * lookups per session), cancel (chance a booking is cancelled), think (milliseconds between
+ * commands), timeout (milliseconds to wait for a response), and restaurants (how many restaurants
+ * the guests are spread over, loc-0 and so on, which the server must host; 0 books at the default
+ * restaurant).</p>
+ *
+ * @version Dec 15, 2025
+ */
+
+public final class LoadGenerator {
+    static final String LOGIN = "Logging in";
+    static final String MAKE_ACCOUNT = "Making account";
+    static final String GET_TABLES = "Getting All Available Tables";
+    static final String MAKE_RESERVATION = "Making Reservation";
+    static final String CANCEL_RESERVATION = "Canceling Reservation";
+    static final String AT_RESTAURANT = "At Restaurant";
+
+    private static final String[] DAYS = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday",
+        "sunday"};
+    private static final int[] TIMES = {11, 12, 13, 14, 17, 18, 19, 20};
+    private static final String PASSWORD_PREFIX = "load-password-";
+
+    private final String host;
+    private final int port;
+    private final double rate;
+    private final int durationSeconds;
+    private final int connections;
+    private final int users;
+    private final int browse;
+    private final double cancel;
+    private final int thinkMillis;
+    private final int timeoutMillis;
+    private final int restaurants;
+
+    private final Map<String, CommandStats> stats = new LinkedHashMap<>();
+    private final LatencyHistogram queueDelay = new LatencyHistogram();
+    private final LatencyHistogram sessionTime = new LatencyHistogram();
+    private final AtomicInteger nextUser = new AtomicInteger();
+    private final LongAdder connectFailures = new LongAdder();
+
+    /**
+     * This class is the latency and outcome counts of one command
+     */
+    static final class CommandStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        private final LongAdder successes = new LongAdder();
+
+        void record(long micros, String outcome, boolean success) {
+            latency.record(micros);
+            if (success) {
+                successes.increment();
+            } else {
+                outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    LoadGenerator(Map<String, String> options) {
+        this.host = options.getOrDefault("host", "localhost");
+        this.port = Integer.parseInt(options.getOrDefault("port", "4242"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        this.connections = Integer.parseInt(options.getOrDefault("connections", "200"));
+        this.users = Integer.parseInt(options.getOrDefault("users", "500"));
+        this.browse = Integer.parseInt(options.getOrDefault("browse", "2"));
+        this.cancel = Double.parseDouble(options.getOrDefault("cancel", "0.5"));
+        this.thinkMillis = Integer.parseInt(options.getOrDefault("think", "0"));
+        this.timeoutMillis = Integer.parseInt(options.getOrDefault("timeout", "5000"));
+        this.restaurants = Integer.parseInt(options.getOrDefault("restaurants", "0"));
+        for (String command : new String[]{LOGIN, GET_TABLES, MAKE_RESERVATION, CANCEL_RESERVATION}) {
+            stats.put(command, new CommandStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.out.println("Options are --name=value, for example --rate=100 --duration=60");
+                return;
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadGenerator generator = new LoadGenerator(options);
+        generator.createAccounts();
+        generator.run();
+        generator.printReport(System.out);
+    }
+
+    /**
+     * Makes the guest accounts, an account that already exists from an earlier run is fine
+     */
+    void createAccounts() throws IOException {
+        try (Socket socket = connect()) {
+            BufferedReader in = reader(socket);
+            PrintWriter out = writer(socket);
+            for (int i = 0; i < users; i++) {
+                out.println(MAKE_ACCOUNT);
+                out.println(username(i));
+                out.println(PASSWORD_PREFIX + i);
+                //Sent back to back, the server answers them in order
+                if (i % 64 == 63 || i == users - 1) {
+                    out.flush();
+                    for (int j = i - i % 64; j <= i; j++) {
+                        in.readLine();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts sessions at the arrival rate until the duration is over and waits for them to end
+     */
+    void run() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(connections, r -> {
+            Thread thread = new Thread(r, "load-session");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long next = start;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            long scheduled = next;
+            pool.execute(() -> {
+                queueDelay.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                session();
+            });
+            //Poisson arrivals, the gaps between sessions are exponential
+            next += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) / rate * 1e9);
+        }
+
+        pool.shutdown();
+        pool.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+    }
+
+    //One guest: log in, look at tables a few times, book a free table, and maybe cancel it
+    private void session() {
+        long sessionStart = System.nanoTime();
+        int user = nextUser.getAndIncrement() % users;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String restaurant = restaurants > 0 ? "loc-" + user % restaurants : null;
+
+        try (Socket socket = connect()) {
+            BufferedReader in = reader(socket);
+            PrintWriter out = writer(socket);
+
+            if (!"Success".equals(send(in, out, null, LOGIN, username(user), PASSWORD_PREFIX + user))) {
+                return;
+            }
+
+            String day = DAYS[random.nextInt(DAYS.length)];
+            int time = TIMES[random.nextInt(TIMES.length)];
+            String tables = null;
+            for (int i = 0; i < Math.max(1, browse); i++) {
+                think();
+                day = DAYS[random.nextInt(DAYS.length)];
+                time = TIMES[random.nextInt(TIMES.length)];
+                tables = send(in, out, restaurant, GET_TABLES, day, String.valueOf(time));
+                if (tables == null) {
+                    return;
+                }
+            }
+
+            int table = pickSmallTable(tables, random);
+            if (table < 0) {
+                return;
+            }
+            think();
+            String booked = send(in, out, restaurant, MAKE_RESERVATION, username(user), day,
+                    String.valueOf(table), "2", String.valueOf(time), "No");
+
+            if ("Reservation Made".equals(booked) && random.nextDouble() < cancel) {
+                think();
+                send(in, out, restaurant, CANCEL_RESERVATION, username(user), day);
+            }
+        } catch (IOException e) {
+            connectFailures.increment();
+        } finally {
+            sessionTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sessionStart));
+        }
+    }
+
+    /**
+     * Sends one command, at a restaurant unless it is null, and times it until its response line arrives
+     *
+     * @return the response, or null if the connection failed
+     */
+    private String send(BufferedReader in, PrintWriter out, String restaurant, String command, String... args) {
+        CommandStats commandStats = stats.get(command);
+        long start = System.nanoTime();
+        if (restaurant != null) {
+            out.println(AT_RESTAURANT);
+            out.println(restaurant);
+        }
+        out.println(command);
+        for (String arg : args) {
+            out.println(arg);
+        }
+        out.flush();
+
+        String response;
+        try {
+            response = in.readLine();
+        } catch (SocketTimeoutException e) {
+            commandStats.record(micros(start), "timeout", false);
+            return null;
+        } catch (IOException e) {
+            commandStats.record(micros(start), e.getClass().getSimpleName(), false);
+            return null;
+        }
+
+        if (response == null) {
+            commandStats.record(micros(start), "connection closed", false);
+        } else {
+            commandStats.record(micros(start), response, isSuccess(command, response));
+        }
+        return response;
+    }
+
+    private static boolean isSuccess(String command, String response) {
+        switch (command) {
+            case GET_TABLES:
+                return true;
+            case MAKE_RESERVATION:
+                return response.equals("Reservation Made");
+            default:
+                return response.equals("Success");
+        }
+    }
+
+    //Picks a random free table for two out of a table lookup, -1 if there is none
+    private static int pickSmallTable(String tables, ThreadLocalRandom random) {
+        if (tables == null || tables.isEmpty()) {
+            return -1;
+        }
+        String[] rows = tables.split(";");
+        int offset = random.nextInt(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            String[] fields = rows[(offset + i) % rows.length].split(",");
+            if (fields.length > 2 && fields[2].equals("2")) {
+                return Integer.parseInt(fields[1]);
+            }
+        }
+        return -1;
+    }
+
+    private void think() {
+        if (thinkMillis > 0) {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(thinkMillis * 2 + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+        socket.setSoTimeout(timeoutMillis);
+        socket.setTcpNoDelay(true);
+        return socket;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static PrintWriter writer(Socket socket) throws IOException {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                StandardCharsets.UTF_8)));
+    }
+
+    private static String username(int user) {
+        return "load-user-" + user;
+    }
+
+    private static long micros(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Prints the latency percentiles in milliseconds and the failed outcomes of every command
+     *
+     * @param out where to print
+     */
+    void printReport(PrintStream out) {
+        out.printf("%d sessions at %.1f/s for %ds, %d connection failures%n", sessionTime.getCount(), rate,
+                durationSeconds, connectFailures.sum());
+        out.printf("%d restaurants, %.1f reservations made per second%n", Math.max(1, restaurants),
+                stats.get(MAKE_RESERVATION).successes.sum() / (double) durationSeconds);
+        out.printf("%-30s %8s %8s %9s %9s %9s %9s %9s%n", "command", "count", "errors", "mean ms", "p50 ms",
+                "p99 ms", "p999 ms", "max ms");
+        printRow(out, "queue delay", queueDelay, 0);
+        printRow(out, "session", sessionTime, 0);
+        for (Map.Entry<String, CommandStats> entry : stats.entrySet()) {
+            CommandStats commandStats = entry.getValue();
+            long errors = commandStats.latency.getCount() - commandStats.successes.sum();
+            printRow(out, entry.getKey(), commandStats.latency, errors);
+        }
+
+        for (Map.Entry<String, CommandStats> entry : stats.entrySet()) {
+            Map<String, LongAdder> outcomes = new TreeMap<>(entry.getValue().outcomes);
+            for (Map.Entry<String, LongAdder> outcome : outcomes.entrySet()) {
+                out.printf("  %s -> %s: %d%n", entry.getKey(), outcome.getKey(), outcome.getValue().sum());
+            }
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, LatencyHistogram histogram, long errors) {
+        out.printf("%-30s %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getCount(), errors,
+                histogram.getMean() / 1000.0, histogram.getPercentile(0.50) / 1000.0,
+                histogram.getPercentile(0.99) / 1000.0, histogram.getPercentile(0.999) / 1000.0,
+                histogram.getMax() / 1000.0);
+    }
+}
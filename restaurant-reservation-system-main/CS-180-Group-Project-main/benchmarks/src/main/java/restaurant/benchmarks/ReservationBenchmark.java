@@ -0,0 +1,149 @@
+package restaurant.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the RestaurantDatabase calls the server makes for every client request.
+ * Each benchmark runs over fresh day files in the working directory, once with the journal over
+ * text day files the server uses by default, once with the same journal booking in OPTIMISTIC
+ * mode, once over every storage backend RestaurantDriver offers saving each change straight to the
+ * store, and once over JdbcRestaurantDatabase.
+ *
+ * <p>A booking is always measured together with its cancellation so the restaurant never fills
+ * up during a run. The 21:00 slot is left to the admin benchmark, which takes it away and brings
+ * it back.</p>
+ *
+ * @version Dec 19, 2025
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ReservationBenchmark {
+    static final String JOURNAL = "benchmark.journal";
+    static final String[] DAYS = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+    static final int[] TIMES = {11, 12, 13, 14, 17, 18, 19, 20};
+
+    private static final AtomicInteger GUESTS = new AtomicInteger();
+
+    @Param({"journal", "optimistic", "text", "binary", "mapped", "memory", "keyvalue", "sql"})
+    public String storage;
+
+    private Object db;
+    private final Object[] dayMonitors = new Object[DAYS.length];
+
+    /**
+     * This class is one benchmark thread acting as one guest with its own username
+     */
+    @State(Scope.Thread)
+    public static class Guest {
+        private String username;
+        private int dayIndex;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            int guest = GUESTS.incrementAndGet();
+            username = "guest-" + guest;
+            dayIndex = guest % DAYS.length;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Files.deleteIfExists(Paths.get(JOURNAL));
+        Subjects.initializeFiles();
+        if (storage.equals("journal")) {
+            db = Subjects.newRestaurantDatabase("text", JOURNAL);
+        } else if (storage.equals("optimistic")) {
+            db = Subjects.newRestaurantDatabase("text", JOURNAL, "OPTIMISTIC");
+        } else {
+            db = Subjects.newRestaurantDatabase(storage, null);
+        }
+        for (int i = 0; i < dayMonitors.length; i++) {
+            dayMonitors[i] = new Object();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Subjects.close(db);
+    }
+
+    //A two person booking at a random small table and time, then its cancellation
+    @Benchmark
+    public String makeAndCancelReservation(Guest guest) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String day = DAYS[random.nextInt(DAYS.length)];
+        int table = 1 + random.nextInt(7);
+        int time = TIMES[random.nextInt(TIMES.length)];
+
+        Subjects.makeReservation(db, guest.username, day, table, 2, time, false, "No");
+        return Subjects.cancelReservation(db, guest.username, day);
+    }
+
+    //A cancellation for a guest with no reservation, the most common wrong request
+    @Benchmark
+    public String cancelReservationWithoutBooking(Guest guest) {
+        return Subjects.cancelReservation(db, guest.username, DAYS[ThreadLocalRandom.current().nextInt(DAYS.length)]);
+    }
+
+    @Benchmark
+    public Object getAllAvailableTablesForDayAndTime() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Subjects.getAllAvailableTables(db, DAYS[random.nextInt(DAYS.length)],
+                TIMES[random.nextInt(TIMES.length)]);
+    }
+
+    @Benchmark
+    public String getAvailableTables() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Subjects.getAvailableTables(db, DAYS[random.nextInt(DAYS.length)], TIMES[random.nextInt(TIMES.length)]);
+    }
+
+    @Benchmark
+    public long getFreeTableMask() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Subjects.getFreeTableMask(db, DAYS[random.nextInt(DAYS.length)], TIMES[random.nextInt(TIMES.length)]);
+    }
+
+    @Benchmark
+    public String getWeekAvailability() {
+        return Subjects.getWeekAvailability(db);
+    }
+
+    /**
+     * Closes a day early and then late again, which leaves the day as it was. Threads that share a
+     * day take turns so every call starts from the day open late, the same work each time.
+     */
+    @Benchmark
+    public String adminChange(Guest guest) {
+        synchronized (dayMonitors[guest.dayIndex]) {
+            Subjects.adminChange(db, DAYS[guest.dayIndex], false);
+            return Subjects.adminChange(db, DAYS[guest.dayIndex], true);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package restaurant.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks bookings spread over several restaurants of one RestaurantRegistry. Every
+ * restaurant keeps its files in its own directory, journaled over text day files the way
+ * RestaurantDriver opens them or only in memory, and every thread is a guest at one of them. With
+ * one restaurant every thread books the same tables and waits on the same locks and journal, and
+ * with more restaurants the threads are spread out over separate ones, so total throughput grows
+ * with the number of restaurants for as long as there are cores and disks to run them.
+ *
+ * @version Dec 19, 2025
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ShardingBenchmark {
+    static final Path ROOT = Paths.get("benchmark-restaurants");
+    static final String JOURNAL = "reservations.journal";
+
+    private static final AtomicInteger GUESTS = new AtomicInteger();
+
+    @Param({"1", "4", "16"})
+    public int restaurants;
+
+    @Param({"journal", "memory"})
+    public String storage;
+
+    private Object defaultDB;
+    private Object registry;
+
+    /**
+     * This class is one benchmark thread acting as one guest at one restaurant
+     */
+    @State(Scope.Thread)
+    public static class Guest {
+        private String username;
+        private String restaurant;
+
+        @Setup(Level.Trial)
+        public void setUp(ShardingBenchmark benchmark) {
+            int guest = GUESTS.incrementAndGet();
+            username = "guest-" + guest;
+            restaurant = "loc-" + guest % benchmark.restaurants;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        deleteRoot();
+        Subjects.initializeFiles();
+        defaultDB = Subjects.newRestaurantDatabase("memory", null);
+        registry = Subjects.newRestaurantRegistry(defaultDB, ROOT, directory -> storage.equals("journal")
+                ? Subjects.newRestaurantDatabase("text", directory, directory.resolve(JOURNAL).toString())
+                : Subjects.newRestaurantDatabase(storage, directory, null));
+        for (int i = 0; i < restaurants; i++) {
+            Subjects.createRestaurant(registry, "loc-" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Subjects.closeRegistry(registry);
+        Subjects.close(defaultDB);
+        deleteRoot();
+    }
+
+    //A two person booking at a random small table, day and time of the guest's restaurant, then its cancellation
+    @Benchmark
+    public Object makeAndCancelReservation(Guest guest) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String day = ReservationBenchmark.DAYS[random.nextInt(ReservationBenchmark.DAYS.length)];
+        int table = 1 + random.nextInt(7);
+        int time = ReservationBenchmark.TIMES[random.nextInt(ReservationBenchmark.TIMES.length)];
+
+        return Subjects.applyAtRestaurant(registry, guest.restaurant, db -> {
+            Subjects.makeReservation(db, guest.username, day, table, 2, time, false, "No");
+            return Subjects.cancelReservation(db, guest.username, day);
+        });
+    }
+
+    private static void deleteRoot() throws IOException {
+        if (!Files.exists(ROOT)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(ROOT)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
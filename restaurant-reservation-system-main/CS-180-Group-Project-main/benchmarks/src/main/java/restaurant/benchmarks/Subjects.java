@@ -0,0 +1,347 @@
+package restaurant.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.function.Function;
+
+/**
+ * This class calls into the server classes for the benchmarks. The server classes live in the
+ * default package, which a class in a package can not name, and JMH does not allow benchmarks in
+ * the default package. So every call goes through a method handle kept in a static final field,
+ * which the JIT inlines like a direct call.
+ *
+ * @version Dec 19, 2025
+ */
+
+final class Subjects {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private static final Class<?> RESTAURANT_DATABASE = load("RestaurantDatabaseInterface");
+    private static final Class<?> USER_DATABASE = load("UserDatabase");
+    private static final Class<?> RESERVATION_JOURNAL = load("ReservationJournal");
+    private static final Class<?> PASSWORD_HASH = load("PasswordHash");
+    private static final Class<?> DAY_STORE = load("DayStoreInterface");
+
+    private static final MethodHandle INITIALIZE_FILES = findStatic(load("InitializeRestaurantFiles"),
+            "initializeFiles", void.class);
+    private static final MethodHandle OPEN_STORE = findStatic(load("RestaurantDriver"), "openStore", DAY_STORE,
+            String.class).asType(MethodType.methodType(Object.class, String.class));
+    private static final Class<?> BOOKING_MODE = load("RestaurantDatabase$BookingMode");
+    private static final MethodHandle NEW_RESTAURANT_DATABASE = constructor(load("RestaurantDatabase"), DAY_STORE,
+            RESERVATION_JOURNAL, BOOKING_MODE);
+    private static final MethodHandle NEW_JDBC_DATABASE = constructor(load("JdbcRestaurantDatabase"), String.class);
+    private static final MethodHandle NEW_JOURNAL = constructor(RESERVATION_JOURNAL, String.class);
+    private static final MethodHandle NEW_USER_DATABASE = constructor(USER_DATABASE, String.class,
+            RESTAURANT_DATABASE);
+    private static final Class<?> RESTAURANT_REGISTRY = load("RestaurantRegistry");
+    private static final MethodHandle OPEN_STORE_IN = findStatic(load("RestaurantDriver"), "openStore", DAY_STORE,
+            String.class, Path.class).asType(MethodType.methodType(Object.class, String.class, Path.class));
+    private static final MethodHandle NEW_REGISTRY = constructor(RESTAURANT_REGISTRY, RESTAURANT_DATABASE,
+            Path.class, Function.class);
+    private static final MethodHandle CREATE_RESTAURANT = findVirtual(RESTAURANT_REGISTRY, "create", boolean.class,
+            String.class);
+    private static final MethodHandle APPLY_AT_RESTAURANT = findVirtual(RESTAURANT_REGISTRY, "apply", Object.class,
+            String.class, Function.class);
+    private static final MethodHandle CLOSE_REGISTRY = findVirtual(RESTAURANT_REGISTRY, "close", void.class);
+
+    private static final MethodHandle MAKE_RESERVATION = findVirtual(RESTAURANT_DATABASE, "makeReservation",
+            String.class, String.class, String.class, int.class, int.class, int.class, boolean.class, String.class);
+    private static final MethodHandle CANCEL_RESERVATION = findVirtual(RESTAURANT_DATABASE, "cancelReservation",
+            String.class, String.class, String.class);
+    private static final MethodHandle GET_TABLES = findVirtual(RESTAURANT_DATABASE,
+            "getAllAvailableTablesForDayAndTime", ArrayList.class, String.class, int.class)
+            .asType(MethodType.methodType(Object.class, Object.class, String.class, int.class));
+    private static final MethodHandle GET_TABLES_TEXT = findVirtual(RESTAURANT_DATABASE, "getAvailableTables",
+            String.class, String.class, int.class);
+    private static final MethodHandle GET_FREE_MASK = findVirtual(RESTAURANT_DATABASE, "getFreeTableMask",
+            long.class, String.class, int.class);
+    private static final MethodHandle GET_WEEK = findVirtual(RESTAURANT_DATABASE, "getWeekAvailability",
+            String.class);
+    private static final MethodHandle ADMIN_CHANGE = findVirtual(RESTAURANT_DATABASE, "adminChange",
+            String.class, String.class, boolean.class);
+    private static final MethodHandle CLOSE = findVirtual(RESTAURANT_DATABASE, "close", void.class);
+
+    private static final MethodHandle LOGIN = findVirtual(USER_DATABASE, "login", boolean.class, String.class,
+            String.class);
+    private static final MethodHandle ADD_USER = findVirtual(USER_DATABASE, "addUser", String.class, String.class,
+            String.class);
+
+    private static final MethodHandle CREATE_HASH = findStatic(PASSWORD_HASH, "create", PASSWORD_HASH, String.class)
+            .asType(MethodType.methodType(Object.class, String.class));
+    private static final MethodHandle HASH_FIELD = findVirtual(PASSWORD_HASH, "toField", String.class);
+
+    private Subjects() {
+    }
+
+    /**
+     * Writes fresh day files into the working directory
+     */
+    static void initializeFiles() {
+        try {
+            INITIALIZE_FILES.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Makes a RestaurantDatabase over the day files in the working directory that books with slot locks,
+     * or a JdbcRestaurantDatabase that imports them for the sql backend
+     *
+     * @param backend     the storage backend as RestaurantDriver names it, for example text, mapped or sql
+     * @param journalFile the journal to record changes in, or null to save days on every change
+     * @return the RestaurantDatabase
+     */
+    static Object newRestaurantDatabase(String backend, String journalFile) {
+        return newRestaurantDatabase(backend, journalFile, "LOCKING");
+    }
+
+    /**
+     * Makes a RestaurantDatabase over the day files in the working directory, or a JdbcRestaurantDatabase
+     * that imports them for the sql backend
+     *
+     * @param backend     the storage backend as RestaurantDriver names it, for example text, mapped or sql
+     * @param journalFile the journal to record changes in, or null to save days on every change
+     * @param bookingMode the name of a RestaurantDatabase.BookingMode, LOCKING or OPTIMISTIC
+     * @return the RestaurantDatabase
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object newRestaurantDatabase(String backend, String journalFile, String bookingMode) {
+        try {
+            if (backend.equals("sql")) {
+                //initializeFiles deletes this database so every trial imports fresh day files
+                return (Object) NEW_JDBC_DATABASE.invokeExact("jdbc:h2:./restaurant;DB_CLOSE_ON_EXIT=FALSE");
+            }
+            Object store = (Object) OPEN_STORE.invokeExact(backend);
+            Object journal = journalFile == null ? null : (Object) NEW_JOURNAL.invokeExact(journalFile);
+            Object mode = Enum.valueOf((Class) BOOKING_MODE, bookingMode);
+            return (Object) NEW_RESTAURANT_DATABASE.invokeExact(store, journal, mode);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Makes a RestaurantDatabase over the day files in a restaurant's directory that books with slot locks
+     *
+     * @param backend     the storage backend as RestaurantDriver names it, for example text or mapped
+     * @param directory   the directory of the restaurant's files
+     * @param journalFile the journal to record changes in, or null to save days on every change
+     * @return the RestaurantDatabase
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object newRestaurantDatabase(String backend, Path directory, String journalFile) {
+        try {
+            Object store = (Object) OPEN_STORE_IN.invokeExact(backend, directory);
+            Object journal = journalFile == null ? null : (Object) NEW_JOURNAL.invokeExact(journalFile);
+            Object mode = Enum.valueOf((Class) BOOKING_MODE, "LOCKING");
+            return (Object) NEW_RESTAURANT_DATABASE.invokeExact(store, journal, mode);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Makes a RestaurantRegistry that opens the restaurants under root with opener
+     *
+     * @param defaultDB the database of the default restaurant
+     * @param root      the directory holding a directory for each restaurant
+     * @param opener    opens the RestaurantDatabase of a restaurant from its directory
+     * @return the RestaurantRegistry
+     */
+    static Object newRestaurantRegistry(Object defaultDB, Path root, Function<Path, Object> opener) {
+        try {
+            return (Object) NEW_REGISTRY.invokeExact(defaultDB, root, (Function) opener);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean createRestaurant(Object registry, String id) {
+        try {
+            return (boolean) CREATE_RESTAURANT.invokeExact(registry, id);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Runs an action against the RestaurantDatabase of one restaurant of a registry
+     *
+     * @return what the action gave back, or null if the restaurant is not in the registry
+     */
+    static Object applyAtRestaurant(Object registry, String id, Function<Object, Object> action) {
+        try {
+            return (Object) APPLY_AT_RESTAURANT.invokeExact(registry, id, (Function) action);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void closeRegistry(Object registry) {
+        try {
+            CLOSE_REGISTRY.invokeExact(registry);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newUserDatabase(String fileName, Object restaurantDatabase) {
+        try {
+            return (Object) NEW_USER_DATABASE.invokeExact(fileName, restaurantDatabase);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static String makeReservation(Object db, String username, String day, int tableNum, int partySize, int time,
+                                  boolean isSpecial, String creditCard) {
+        try {
+            return (String) MAKE_RESERVATION.invokeExact(db, username, day, tableNum, partySize, time, isSpecial,
+                    creditCard);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static String cancelReservation(Object db, String username, String day) {
+        try {
+            return (String) CANCEL_RESERVATION.invokeExact(db, username, day);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object getAllAvailableTables(Object db, String day, int time) {
+        try {
+            return (Object) GET_TABLES.invokeExact(db, day, time);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static String getAvailableTables(Object db, String day, int time) {
+        try {
+            return (String) GET_TABLES_TEXT.invokeExact(db, day, time);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long getFreeTableMask(Object db, String day, int time) {
+        try {
+            return (long) GET_FREE_MASK.invokeExact(db, day, time);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static String getWeekAvailability(Object db) {
+        try {
+            return (String) GET_WEEK.invokeExact(db);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static String adminChange(Object db, String day, boolean closingLater) {
+        try {
+            return (String) ADMIN_CHANGE.invokeExact(db, day, closingLater);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void close(Object db) {
+        try {
+            CLOSE.invokeExact(db);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean login(Object users, String username, String password) {
+        try {
+            return (boolean) LOGIN.invokeExact(users, username, password);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static String addUser(Object users, String username, String password) {
+        try {
+            return (String) ADD_USER.invokeExact(users, username, password);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Hashes a password the way UserDatabase stores it
+     *
+     * @param password the password
+     * @return the password field of a user line
+     */
+    static String hashField(String password) {
+        try {
+            Object hash = (Object) CREATE_HASH.invokeExact(password);
+            return (String) HASH_FIELD.invokeExact(hash);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(name + " is not on the class path", e);
+        }
+    }
+
+    //The receiver is typed as Object so call sites can use invokeExact without naming the class
+    private static MethodHandle findVirtual(Class<?> owner, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            MethodHandle handle = LOOKUP.findVirtual(owner, name, MethodType.methodType(returnType, params));
+            return handle.asType(handle.type().changeParameterType(0, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing " + owner.getName() + "." + name, e);
+        }
+    }
+
+    private static MethodHandle findStatic(Class<?> owner, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            return LOOKUP.findStatic(owner, name, MethodType.methodType(returnType, params));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing " + owner.getName() + "." + name, e);
+        }
+    }
+
+    private static MethodHandle constructor(Class<?> owner, Class<?>... params) {
+        try {
+            MethodHandle handle = LOOKUP.findConstructor(owner, MethodType.methodType(void.class, params));
+            MethodType generic = handle.type().changeReturnType(Object.class);
+            for (int i = 0; i < params.length; i++) {
+                if (!params[i].getName().startsWith("java.")) {
+                    generic = generic.changeParameterType(i, Object.class);
+                }
+            }
+            return handle.asType(generic);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing constructor of " + owner.getName(), e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
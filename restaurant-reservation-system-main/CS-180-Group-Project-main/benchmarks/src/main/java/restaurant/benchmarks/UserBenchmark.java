@@ -0,0 +1,87 @@
+package restaurant.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks UserDatabase login and sign up with a user file of userCount users.
+ * Every user has the same password hash so the file can be written without hashing each user,
+ * UserDatabase only reads the hashes when it loads.
+ *
+ * @version Dec 14, 2025
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class UserBenchmark {
+    static final String USERS_FILE = "benchmark-users.txt";
+    static final String PASSWORD = "benchmark-password";
+
+    private static final AtomicLong NEW_USERS = new AtomicLong();
+
+    @Param({"1000", "100000"})
+    public int userCount;
+
+    private Object users;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String hash = Subjects.hashField(PASSWORD);
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(Paths.get(USERS_FILE)))) {
+            for (int i = 0; i < userCount; i++) {
+                pw.println("user" + i + "," + hash);
+            }
+        }
+        users = Subjects.newUserDatabase(USERS_FILE, null);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return Subjects.login(users, "user" + ThreadLocalRandom.current().nextInt(userCount), PASSWORD);
+    }
+
+    @Benchmark
+    public boolean loginWrongPassword() {
+        return Subjects.login(users, "user" + ThreadLocalRandom.current().nextInt(userCount), "wrong");
+    }
+
+    @Benchmark
+    public boolean loginUnknownUser() {
+        return Subjects.login(users, "nobody" + ThreadLocalRandom.current().nextInt(userCount), PASSWORD);
+    }
+
+    //Every call signs up a new user so the table keeps growing the way it does in production
+    @Benchmark
+    public String addUser() {
+        return Subjects.addUser(users, "new" + NEW_USERS.incrementAndGet(), PASSWORD);
+    }
+
+    @Benchmark
+    public String addTakenUser() {
+        return Subjects.addUser(users, "user" + ThreadLocalRandom.current().nextInt(userCount), PASSWORD);
+    }
+}
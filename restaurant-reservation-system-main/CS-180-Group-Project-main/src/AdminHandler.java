@@ -11,8 +11,8 @@ import java.net.Socket;
 
 public class AdminHandler implements Runnable, AdminHandlerInterface {
     private Socket socket;
-    private RestaurantDatabase restaurantDB;
-    private UserDatabase userDB;
+    private ReservationProtocol protocol;
+    private String restaurant;
     private BufferedReader in;
     private PrintWriter out;
 
@@ -25,10 +25,24 @@ public class AdminHandler implements Runnable, AdminHandlerInterface {
      * @param out The writer for the socket
      */
     public AdminHandler(Socket socket, UserDatabase userDB,
-                         RestaurantDatabase restaurantDB, BufferedReader in, PrintWriter out) {
+                         RestaurantDatabaseInterface restaurantDB, BufferedReader in, PrintWriter out) {
+        this(socket, new ReservationProtocol(userDB, restaurantDB), null, in, out);
+    }
+
+    /**
+     * This constructor initializes the socket, the protocol of the client that logged in, the restaurant
+     * the admin logged in at, and the reader and writer
+     * @param socket The socket to communicate with admin
+     * @param protocol The protocol the client was served with
+     * @param restaurant The id of the restaurant, or null for the default restaurant
+     * @param in The reader for the socket
+     * @param out The writer for the socket
+     */
+    public AdminHandler(Socket socket, ReservationProtocol protocol, String restaurant,
+                        BufferedReader in, PrintWriter out) {
         this.socket = socket;
-        this.userDB = userDB;
-        this.restaurantDB = restaurantDB;
+        this.protocol = protocol;
+        this.restaurant = restaurant;
         this.in = in;
         this.out = out;
     }
@@ -42,18 +56,8 @@ public class AdminHandler implements Runnable, AdminHandlerInterface {
             String day = in.readLine();
             String command = in.readLine();
 
-            String result;
-            if (command.equals("Close Late")) {
-                result = restaurantDB.adminChange(day, true);
-            } else {
-                result = restaurantDB.adminChange(day, false);
-            }
-
-            if (result.equals("Change Successful")) {
-                out.println("Success");
-            } else {
-                out.println("Failure");
-            }
+            out.println(protocol.executeAdmin(restaurant, day, command).getResponse());
+            out.flush();
 
             socket.close();
         } catch (Exception e) {
@@ -0,0 +1,154 @@
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class provides jUnit test cases for reserving the best table. The tests ensure that the
+ * smallest free table that seats a party is booked, that only a party of more than 4 gets the
+ * special table, that the Reserving Best Table command answers with the table, that both booking
+ * modes and the JDBC backend give the same answers, and that of many guests reserving at once
+ * every free table is booked exactly once.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class BestTableTest {
+
+    private static final String USERS_FILE = "best_table_users.txt";
+
+    //Initialize restaurant files
+    @BeforeEach
+    public void setUp() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Reset test files
+    @AfterEach
+    public void tearDown() {
+        new File(USERS_FILE).delete();
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test that the smallest free table that fits is booked and what is answered when none is free
+    @Test
+    public void testSmallestTableThatFits() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        Assertions.assertEquals("Reservation Made At Table 1", db.reserveBestTable("Amy", "monday", 2, 12,
+            "Not Needed"));
+        Assertions.assertEquals("Reservation Made At Table 4", db.reserveBestTable("Bob", "monday", 3, 12,
+            "Not Needed"));
+        Assertions.assertEquals("Invalid Credit Card Number", db.reserveBestTable("Cal", "monday", 6, 12,
+            "Not Needed"));
+        Assertions.assertEquals("Reservation Made At Table 8", db.reserveBestTable("Cal", "monday", 6, 12,
+            "1234567812345678"));
+        Assertions.assertEquals("No Table Fits", db.reserveBestTable("Dan", "monday", 5, 12, "1234567812345678"));
+        Assertions.assertEquals("No Table Fits", db.reserveBestTable("Dan", "monday", 9, 13, "1234567812345678"));
+        Assertions.assertEquals("User Already Has Reservation For This Day", db.reserveBestTable("Amy", "monday",
+            2, 13, "Not Needed"));
+        Assertions.assertEquals("Invalid Day", db.reserveBestTable("Amy", "someday", 2, 12, "Not Needed"));
+        Assertions.assertEquals("Invalid Time", db.reserveBestTable("Eve", "monday", 2, 15, "Not Needed"));
+
+        //With the tables for two gone a party of two gets the smallest table left, and never the special one
+        db.reserveBestTable("Eve", "monday", 2, 12, "Not Needed");
+        db.reserveBestTable("Fay", "monday", 2, 12, "Not Needed");
+        Assertions.assertEquals("Reservation Made At Table 5", db.reserveBestTable("Gus", "monday", 1, 12,
+            "Not Needed"));
+        for (String user : new String[] {"Hal", "Ivy"}) {
+            db.reserveBestTable(user, "monday", 4, 12, "Not Needed");
+        }
+        Assertions.assertEquals("No Table Fits", db.reserveBestTable("Jon", "monday", 2, 12, "Not Needed"));
+        Assertions.assertEquals(0L, db.getFreeTableMask("monday", 12));
+    }
+
+    //Test the Reserving Best Table command alone and in a batch
+    @Test
+    public void testProtocolCommand() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        ReservationProtocol protocol = new ReservationProtocol(new UserDatabase(USERS_FILE, db), db);
+        List<String> request = List.of(ReservationProtocol.RESERVE_BEST_TABLE, "Amy", "friday", "4", "18",
+            "Not Needed");
+        Assertions.assertEquals(5, ReservationProtocol.getArgumentCount(ReservationProtocol.RESERVE_BEST_TABLE));
+        Assertions.assertEquals(6, ReservationProtocol.getRequestLength(request.subList(0, 1)));
+        Assertions.assertEquals("Reservation Made At Table 4", protocol.executeRequest(request).getResponse());
+
+        List<String> batch = List.of(ReservationProtocol.BATCH, "2",
+            ReservationProtocol.RESERVE_BEST_TABLE, "Bob", "friday", "7", "18", "1234567812345678",
+            ReservationProtocol.RESERVE_BEST_TABLE, "Cal", "friday", "7", "18", "1234567812345678");
+        Assertions.assertEquals("Reservation Made At Table 8" + System.lineSeparator() + "No Table Fits",
+            protocol.executeRequest(batch).getResponse());
+    }
+
+    //Test that both booking modes and the JDBC backend give the same answers
+    @Test
+    public void testSameAnswersEverywhere() throws SQLException {
+        RestaurantDatabase locking = new RestaurantDatabase(new MemoryDayStore(), null,
+            RestaurantDatabase.BookingMode.LOCKING);
+        RestaurantDatabase optimistic = new RestaurantDatabase(new MemoryDayStore(), null,
+            RestaurantDatabase.BookingMode.OPTIMISTIC);
+        JdbcRestaurantDatabase jdbc = new JdbcRestaurantDatabase(JdbcRestaurantDatabase.DEFAULT_URL);
+        Object[][] bookings = {
+            {"Amy", 2, 11, "Not Needed"},
+            {"Bob", 4, 11, "Not Needed"},
+            {"Amy", 2, 12, "Not Needed"},
+            {"Cal", 8, 11, "1234"},
+            {"Cal", 8, 11, "1234567812345678"},
+            {"Dan", 6, 11, "1234567812345678"},
+            {"Dan", 2, 11, "Not Needed"},
+            {"Eve", 2, 11, "Not Needed"},
+            {"Fay", 3, 11, "Not Needed"},
+        };
+        try {
+            for (Object[] b : bookings) {
+                String expected = locking.reserveBestTable((String) b[0], "tuesday", (int) b[1], (int) b[2],
+                    (String) b[3]);
+                Assertions.assertEquals(expected, optimistic.reserveBestTable((String) b[0], "tuesday", (int) b[1],
+                    (int) b[2], (String) b[3]), Arrays.toString(b));
+                Assertions.assertEquals(expected, jdbc.reserveBestTable((String) b[0], "tuesday", (int) b[1],
+                    (int) b[2], (String) b[3]), Arrays.toString(b));
+            }
+        } finally {
+            jdbc.close();
+        }
+    }
+
+    //Test that of 16 guests reserving one time slot at once every table is booked once in both modes
+    @Test
+    public void testConcurrentReservations() throws Exception {
+        for (RestaurantDatabase.BookingMode mode : RestaurantDatabase.BookingMode.values()) {
+            RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null, mode);
+            ExecutorService pool = Executors.newFixedThreadPool(16);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String user = "guest" + i;
+                int partySize = i < 12 ? 2 : 6;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return db.reserveBestTable(user, "sunday", partySize, 19, "1234567812345678");
+                }));
+            }
+            start.countDown();
+
+            Set<String> tables = new HashSet<>();
+            int noTable = 0;
+            for (Future<String> future : futures) {
+                String result = future.get(30, TimeUnit.SECONDS);
+                if (result.equals("No Table Fits")) {
+                    noTable++;
+                } else {
+                    Assertions.assertTrue(result.startsWith("Reservation Made At Table "), result);
+                    Assertions.assertTrue(tables.add(result), result);
+                }
+            }
+            pool.shutdown();
+
+            Assertions.assertEquals(8, tables.size(), mode.name());
+            Assertions.assertEquals(8, noTable, mode.name());
+            Assertions.assertEquals(0L, db.getFreeTableMask("sunday", 19), mode.name());
+            Assertions.assertEquals(List.of(), db.validate(), mode.name());
+            db.close();
+        }
+    }
+}
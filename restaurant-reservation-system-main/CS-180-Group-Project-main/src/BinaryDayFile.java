@@ -0,0 +1,239 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is the binary layout of a day file. Every row is a fixed-width record of numbers, and
+ * the usernames and credit card columns are kept once each in a string table at the end of the file
+ * that records point into by id, so reading a day parses no text.
+ *
+ * <p>The file is a header, the records, and then the string table:</p>
+ * <pre>
+ * header   magic "RDAY" (int), format version (short), record size (short), record count (int),
+ *          string table offset (int)
+ * record   tableNum (short), tableSize (short), partySize (short, -1 for none), flags (byte,
+ *          1 special, 2 booked), time (byte), bookedBy id (int), creditCard id (int), cost (int)
+ * strings  string count (int), then each string as its UTF-8 length (short) and bytes
+ * </pre>
+ *
+ * <p>Records sit at a fixed position so one of them can be changed without touching the others.
+ * Running this class converts between the text and binary layouts:
+ * java BinaryDayFile to-binary monday.txt monday.dat, or to-text monday.dat monday.txt</p>
+ *
+ * @version Dec 16, 2025
+ */
+
+public class BinaryDayFile {
+    public static final int MAGIC = 0x52444159;
+    public static final short FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 20;
+    public static final String EXTENSION = ".dat";
+
+    private static final byte SPECIAL = 1;
+    private static final byte BOOKED = 2;
+    private static final short NO_PARTY = -1;
+
+    private BinaryDayFile() {
+    }
+
+    /**
+     * Writes rows in the binary layout
+     *
+     * @param rows the rows in file order
+     * @return the bytes of the file
+     * @throws IllegalArgumentException if a number does not fit its field
+     */
+    public static byte[] encode(List<TableSlot> rows) {
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> ids = new HashMap<>();
+        ByteBuffer records = ByteBuffer.allocate(rows.size() * RECORD_SIZE);
+        for (TableSlot row : rows) {
+            writeRecord(records, row, intern(row.getBookedBy(), strings, ids),
+                intern(row.getCreditCard(), strings, ids));
+        }
+
+        byte[] table = encodeStrings(strings);
+        ByteBuffer file = ByteBuffer.allocate(HEADER_SIZE + records.capacity() + table.length);
+        file.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) RECORD_SIZE).putInt(rows.size())
+                .putInt(HEADER_SIZE + records.capacity());
+        file.put(records.array()).put(table);
+        return file.array();
+    }
+
+    /**
+     * Reads rows written by encode
+     *
+     * @param file the bytes of the file
+     * @return the rows in file order
+     * @throws IllegalArgumentException if the bytes are not a day file
+     */
+    public static List<TableSlot> decode(ByteBuffer file) {
+        try {
+            if (file.getInt(0) != MAGIC || file.getShort(4) != FORMAT_VERSION || file.getShort(6) != RECORD_SIZE) {
+                throw new IllegalArgumentException("Not a binary day file");
+            }
+            int count = file.getInt(8);
+            String[] strings = decodeStrings(file, file.getInt(12));
+
+            List<TableSlot> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(readRecord(file, HEADER_SIZE + i * RECORD_SIZE, strings));
+            }
+            return rows;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Binary day file is cut short", e);
+        }
+    }
+
+    /**
+     * Converts the lines of a text day file to the binary layout
+     *
+     * @param lines the lines of the text file
+     * @return the bytes of the binary file
+     * @throws IllegalArgumentException if a line is not a valid row
+     */
+    public static byte[] fromText(List<String> lines) {
+        List<TableSlot> rows = new ArrayList<>();
+        for (String line : lines) {
+            if (!line.isEmpty()) {
+                rows.add(TableSlot.fromLine(line));
+            }
+        }
+        return encode(rows);
+    }
+
+    /**
+     * Converts a binary day file to the lines of the text layout
+     *
+     * @param file the bytes of the binary file
+     * @return the lines of the text file
+     * @throws IllegalArgumentException if the bytes are not a day file
+     */
+    public static List<String> toText(byte[] file) {
+        List<String> lines = new ArrayList<>();
+        for (TableSlot row : decode(ByteBuffer.wrap(file))) {
+            lines.add(row.toLine());
+        }
+        return lines;
+    }
+
+    /**
+     * Writes one row as a record at the buffer's position
+     *
+     * @param buffer      where to write
+     * @param row         the row
+     * @param bookedById  the string table id of the username
+     * @param cardId      the string table id of the credit card column
+     */
+    static void writeRecord(ByteBuffer buffer, TableSlot row, int bookedById, int cardId) {
+        buffer.putShort(toShort(row.getTableNum()))
+                .putShort(toShort(row.getTableSize()))
+                .putShort(row.getPartySize() == TableSlot.NO_PARTY ? NO_PARTY : toShort(row.getPartySize()))
+                .put((byte) ((row.isSpecial() ? SPECIAL : 0) | (row.isBooked() ? BOOKED : 0)))
+                .put(toByte(row.getTime()))
+                .putInt(bookedById)
+                .putInt(cardId)
+                .putInt(row.getCost());
+    }
+
+    /**
+     * Reads the record that starts at an offset
+     *
+     * @param buffer  the file
+     * @param offset  where the record starts
+     * @param strings the string table
+     * @return the row
+     */
+    static TableSlot readRecord(ByteBuffer buffer, int offset, String[] strings) {
+        short partySize = buffer.getShort(offset + 4);
+        byte flags = buffer.get(offset + 6);
+        return new TableSlot(strings[buffer.getInt(offset + 8)], buffer.getShort(offset), buffer.getShort(offset + 2),
+                partySize == NO_PARTY ? TableSlot.NO_PARTY : partySize, (flags & SPECIAL) != 0,
+                buffer.get(offset + 7), (flags & BOOKED) != 0, strings[buffer.getInt(offset + 12)],
+                buffer.getInt(offset + 16));
+    }
+
+    static byte[] encodeStrings(List<String> strings) {
+        int size = 4;
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("String too long for a day file: " + s);
+            }
+            encoded.add(bytes);
+            size += 2 + bytes.length;
+        }
+
+        ByteBuffer table = ByteBuffer.allocate(size);
+        table.putInt(strings.size());
+        for (byte[] bytes : encoded) {
+            table.putShort((short) bytes.length).put(bytes);
+        }
+        return table.array();
+    }
+
+    static String[] decodeStrings(ByteBuffer buffer, int offset) {
+        int count = buffer.getInt(offset);
+        String[] strings = new String[count];
+        int at = offset + 4;
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getShort(at);
+            byte[] bytes = new byte[length];
+            buffer.get(at + 2, bytes);
+            //Interned so every row booked by one user shares one String
+            strings[i] = new String(bytes, StandardCharsets.UTF_8).intern();
+            at += 2 + length;
+        }
+        return strings;
+    }
+
+    private static int intern(String s, List<String> strings, Map<String, Integer> ids) {
+        Integer id = ids.get(s);
+        if (id == null) {
+            id = strings.size();
+            strings.add(s);
+            ids.put(s, id);
+        }
+        return id;
+    }
+
+    private static short toShort(int value) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Value does not fit a day file record: " + value);
+        }
+        return (short) value;
+    }
+
+    private static byte toByte(int value) {
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Time does not fit a day file record: " + value);
+        }
+        return (byte) value;
+    }
+
+    /**
+     * Converts a day file between the text and binary layouts
+     *
+     * @param args to-binary or to-text, the file to read, and the file to write
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !(args[0].equals("to-binary") || args[0].equals("to-text"))) {
+            System.out.println("Usage: java BinaryDayFile to-binary|to-text <from> <to>");
+            return;
+        }
+
+        if (args[0].equals("to-binary")) {
+            Files.write(Paths.get(args[2]), fromText(Files.readAllLines(Paths.get(args[1]))));
+        } else {
+            Files.write(Paths.get(args[2]), toText(Files.readAllBytes(Paths.get(args[1]))));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+
+/**
+ * This class keeps each day in a binary day file, monday.dat and so on, in the fixed-width layout of
+ * BinaryDayFile. A day that only has a text file is read from it, and the binary file is written the
+ * first time the day is saved.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class BinaryDayStore implements DayStoreInterface {
+    private final TextDayStore text;
+
+    //This constructor keeps the day files in the working directory
+    public BinaryDayStore() {
+        this(Paths.get(""));
+    }
+
+    /**
+     * This constructor keeps the binary and text day files in a directory
+     *
+     * @param directory the directory of the day files
+     */
+    public BinaryDayStore(Path directory) {
+        this.text = new TextDayStore(directory);
+    }
+
+    public static String fileName(String day) {
+        return day + BinaryDayFile.EXTENSION;
+    }
+
+    private Path path(String day) {
+        return text.getDirectory().resolve(fileName(day));
+    }
+
+    /**
+     * Reads a binary day file, or the text day file if the day has no binary file yet
+     *
+     * @param day the name of the day
+     * @return the DayInventory or null if the file can not be read
+     */
+    public DayInventory load(String day) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path(day));
+        } catch (NoSuchFileException e) {
+            return text.load(day);
+        } catch (IOException e) {
+            return null;
+        }
+
+        DayInventory inventory = new DayInventory(day);
+        try {
+            for (TableSlot row : BinaryDayFile.decode(ByteBuffer.wrap(bytes))) {
+                inventory.addSlot(row);
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return inventory;
+    }
+
+    public boolean contains(String day) {
+        return Files.exists(path(day)) || text.contains(day);
+    }
+
+    public Set<String> storedDates() {
+        Set<String> dates = TextDayStore.storedDates(text.getDirectory(), BinaryDayFile.EXTENSION);
+        dates.addAll(text.storedDates());
+        return dates;
+    }
+
+    public boolean archive(String day) {
+        return TextDayStore.archiveFile(text.getDirectory(), fileName(day)) && text.archive(day);
+    }
+
+    /**
+     * Writes a day to its binary day file
+     *
+     * @param inventory the day to write
+     * @return true if the file was written
+     */
+    public boolean save(DayInventory inventory) {
+        byte[] bytes;
+        try {
+            bytes = BinaryDayFile.encode(inventory.getAllSlots());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return TextDayStore.writeAtomically(path(inventory.getDay()), ByteBuffer.wrap(bytes));
+    }
+}
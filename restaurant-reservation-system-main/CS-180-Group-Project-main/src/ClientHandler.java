@@ -1,21 +1,23 @@
 import java.io.*;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Handles client connections and processes restaurant reservation system commands.
- * Each instance runs in a separate thread to manage an individual client session.
+ * Each instance runs as a task on the server's executor to manage an individual client session.
+ * An admin session is handed to an AdminHandler on the same thread.
  *
  * @version 1.0
  */
 public class ClientHandler implements Runnable, ClientHandlerInterface {
 
     private Socket socket;
-    private RestaurantDatabase restaurantDB;
-    private UserDatabase userDB;
     private BufferedReader in;
     private PrintWriter out;
     private boolean handOffToAdmin = false;
+    private AdminHandler adminHandler;
+    private ReservationProtocol protocol;
 
     /**
      * Constructs a new ClientHandler for managing a client connection.
@@ -25,51 +27,64 @@ public class ClientHandler implements Runnable, ClientHandlerInterface {
      * @param restaurantDB the restaurant database for reservation management
      */
     public ClientHandler(Socket socket, UserDatabase userDB,
-                         RestaurantDatabase restaurantDB) {
+                         RestaurantDatabaseInterface restaurantDB) {
+        this(socket, userDB, new RestaurantRegistry(restaurantDB));
+    }
+
+    /**
+     * Constructs a new ClientHandler for a client that can book at every restaurant of a registry.
+     *
+     * @param socket the client socket connection
+     * @param userDB the user database for authentication and account management
+     * @param restaurants the restaurants the client can book at
+     */
+    public ClientHandler(Socket socket, UserDatabase userDB, RestaurantRegistry restaurants) {
         this.socket = socket;
-        this.userDB = userDB;
-        this.restaurantDB = restaurantDB;
+        this.protocol = new ReservationProtocol(userDB, restaurants);
     }
 
     /**
-     * Main execution method that listens for client commands and routes them
-     * to appropriate handler methods. Runs continuously until the client
-     * disconnects or deletes their account.
+     * Main execution method that serves the client and then runs the admin
+     * session on the same thread if the client logged in as the admin.
      */
     @Override
     public void run() {
+        serveClient();
+
+        if (adminHandler != null) {
+            adminHandler.run();
+        }
+    }
+
+    /**
+     * Listens for client requests and answers each one through the shared
+     * ReservationProtocol. Requests the client sent back to back without
+     * waiting are all answered before the output is flushed once. Runs
+     * continuously until the client disconnects, deletes their account, or
+     * is handed off to the admin handler.
+     */
+    private void serveClient() {
         try {
             in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            out = new PrintWriter(socket.getOutputStream(), true);
+            out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream())));
 
             while (true) {
-                String command = in.readLine();
-                if (command == null) break;
+                List<String> request = readRequest();
+                if (request == null) break;
+
+                ReservationProtocol.Result result = protocol.executeRequest(request);
+                out.println(result.getResponse());
+                if (result.isAdminHandOff() || result.isCloseAfter() || !in.ready()) {
+                    out.flush();
+                }
 
-                switch (command) {
-                    case "Logging in":
-                        handleLogin();
-                        if (handOffToAdmin) return;
-                        break;
-                    case "Deleting account":
-                        handleDeleteAccount();
-                        return; // client ends after delete
-                    case "Making account":
-                        handleMakeAccount();
-                        break;
-                    case "Canceling Reservation":
-                        handleCancelReservation();
-                        break;
-                    case "Getting All Available Tables":
-                        handleGetTables();
-                        break;
-                    case "Making Reservation":
-                        handleMakeReservation();
-                        break;
-                    default:
-                        out.println("Failed");
-                        break;
+                if (result.isAdminHandOff()) {
+                    handOffToAdmin = true;
+                    //The admin session runs on this handler's thread once serveClient returns
+                    adminHandler = new AdminHandler(socket, protocol, result.getRestaurant(), in, out);
+                    return;
                 }
+                if (result.isCloseAfter()) return; // client ends after delete
             }
         } catch (IOException e) {
             System.out.println("Client disconnected unexpectedly.");
@@ -79,124 +94,24 @@ public class ClientHandler implements Runnable, ClientHandlerInterface {
     }
 
     /**
-     * Processes user login requests by reading credentials from the client
-     * and validating them against the user database.
-     *
-     * @throws IOException if an I/O error occurs during communication
-     */
-    private void handleLogin() throws IOException {
-        String username = in.readLine();
-        String password = in.readLine();
-        boolean success = userDB.login(username, password);
-
-        if (success && username.equals("Admin")) {
-            out.println("Admin HandOff");
-            handOffToAdmin = true;
-            Thread newThread = new Thread(new AdminHandler(socket, userDB, restaurantDB, in, out));
-            newThread.start();
-            return;
-        }
-        if (success) out.println("Success");
-        else out.println("Failed");
-    }
-
-    /**
-     * Handles account deletion requests by verifying credentials and
-     * removing the user from the database. Terminates the client connection
-     * after deletion.
-     *
-     * @throws IOException if an I/O error occurs during communication
-     */
-    private void handleDeleteAccount() throws IOException {
-        String username = in.readLine();
-        String password = in.readLine();
-        String result = userDB.deleteUser(username, password);
-
-        if (result.equals("Success"))
-            out.println("Success");
-        else
-            out.println("Failed");
-    }
-
-    /**
-     * Creates a new user account with the provided credentials.
-     *
-     * @throws IOException if an I/O error occurs during communication
-     */
-    private void handleMakeAccount() throws IOException {
-        String username = in.readLine();
-        String password = in.readLine();
-        String result = userDB.addUser(username, password);
-
-        if (result.equals("Success"))
-            out.println("Success");
-        else
-            out.println("Failed");
-    }
-
-    /**
-     * Cancels an existing reservation for a user on a specified day.
-     *
-     * @throws IOException if an I/O error occurs during communication
-     */
-    private void handleCancelReservation() throws IOException {
-        String username = in.readLine();
-        String day = in.readLine();
-        String result = restaurantDB.cancelReservation(username, day);
-
-        if (result.equals("Cancellation Made"))
-            out.println("Success");
-        else
-            out.println("Failed");
-    }
-
-    /**
-     * Retrieves and sends a list of available tables for a specific day and time.
-     * Tables are returned as a semicolon-delimited string, or an empty string
-     * if no tables are available.
+     * Reads the lines of one request, which is a command and its arguments
+     * or a whole batch.
      *
+     * @return the request lines, or null if the client disconnected first
      * @throws IOException if an I/O error occurs during communication
      */
-    private void handleGetTables() throws IOException {
-        String day = in.readLine();
-        int time = Integer.parseInt(in.readLine());
-        ArrayList<String> tables =
-                restaurantDB.getAllAvailableTablesForDayAndTime(day, time);
-
-        if (tables == null || tables.isEmpty()) {
-            out.println("");
-            return;
-        }
-
-        // Construct "table;table;table"
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < tables.size(); i++) {
-            sb.append(tables.get(i));
-            if (i < tables.size() - 1) sb.append(";");
+    private List<String> readRequest() throws IOException {
+        List<String> request = new ArrayList<>();
+        int length = -1;
+        while (length < 0 || request.size() < length) {
+            String line = in.readLine();
+            if (line == null) return null;
+            request.add(line);
+            if (length < 0) {
+                length = ReservationProtocol.getRequestLength(request);
+            }
         }
-        out.println(sb.toString());
-    }
-
-    /**
-     * Creates a new reservation with the specified details including table number,
-     * party size, time, and payment information. Automatically identifies special
-     * table requests (table 8).
-     *
-     * @throws IOException if an I/O error occurs during communication
-     */
-    private void handleMakeReservation() throws IOException {
-        String username = in.readLine();
-        String day = in.readLine();
-        int tableNum = Integer.parseInt(in.readLine());
-        int partySize = Integer.parseInt(in.readLine());
-        int time = Integer.parseInt(in.readLine());
-        String creditCard = in.readLine();
-
-        boolean isSpecial = tableNum == 8;
-        String result = restaurantDB.makeReservation(username, day, tableNum,
-                partySize, time, isSpecial, creditCard);
-
-        out.println(result);
+        return request;
     }
 
     /**
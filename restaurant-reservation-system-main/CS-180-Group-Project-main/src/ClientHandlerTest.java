@@ -145,4 +145,30 @@ public class ClientHandlerTest {
 
         assertTrue(socket.isClosedFlag());
     }
+
+    // Tests that a batch is answered with one line per request, in order.
+    @Test
+    public void testBatchAnsweredInOrder() {
+        String inputData = "Batch\n3\nLogging in\nUser\npassword\nNot a command\n"
+                + "Getting All Available Tables\nmonday\n3\n";
+        MockSocket socket = new MockSocket(inputData);
+
+        ClientHandler handler = new ClientHandler(socket, new AdminUserDBStub(), new RestaurantDatabase());
+        handler.run();
+
+        //The restaurant is closed at 3 so the last response is an empty line
+        assertArrayEquals(new String[]{"Success", "Failed", "", ""}, socket.getOutputAsString().split("\\R", -1));
+    }
+
+    // Tests that requests sent back to back are all answered.
+    @Test
+    public void testPipelinedRequestsAnswered() {
+        String inputData = "Logging in\nUser\npassword\nNot a command\nLogging in\nUser\npassword\n";
+        MockSocket socket = new MockSocket(inputData);
+
+        ClientHandler handler = new ClientHandler(socket, new AdminUserDBStub(), new RestaurantDatabase());
+        handler.run();
+
+        assertArrayEquals(new String[]{"Success", "Failed", "Success"}, socket.getOutputAsString().split("\\R"));
+    }
 }
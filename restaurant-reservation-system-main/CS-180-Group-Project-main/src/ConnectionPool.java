@@ -0,0 +1,155 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is a fixed-size pool of JDBC connections. Every connection is opened once and
+ * keeps the statements prepared on it, so a query is parsed and planned once per connection
+ * instead of once per request. A connection is borrowed as a Lease and goes back to the pool
+ * when the lease is closed, rolled back first if it was left inside a transaction.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class ConnectionPool implements AutoCloseable {
+    public static final int DEFAULT_SIZE = 8;
+    public static final long BORROW_TIMEOUT_MILLIS = 5000;
+
+    private final String url;
+    private final BlockingQueue<Lease> idle;
+    private volatile boolean closed;
+
+    /**
+     * This class is one pooled connection and the statements prepared on it. Only the thread
+     * that borrowed it may use it until it is closed.
+     */
+    public class Lease implements AutoCloseable {
+        private Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private Lease() throws SQLException {
+            this.connection = DriverManager.getConnection(url);
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Gets the statement for some SQL, preparing it the first time this connection sees it
+         *
+         * @param sql the SQL of the statement
+         * @return the prepared statement with its parameters cleared
+         * @throws SQLException if the statement can not be prepared
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+            return statement;
+        }
+
+        /**
+         * Gives the connection back to the pool, opening a new one in its place if it broke
+         */
+        public void close() {
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                reopen();
+            }
+
+            if (closed) {
+                closeConnection();
+            } else {
+                idle.offer(this);
+            }
+        }
+
+        private void reopen() {
+            closeConnection();
+            try {
+                connection = DriverManager.getConnection(url);
+            } catch (SQLException e) {
+                System.out.println("Error reopening database connection: " + e.getMessage());
+            }
+        }
+
+        private void closeConnection() {
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                //The connection is being thrown away anyway
+            }
+        }
+    }
+
+    /**
+     * This constructor opens every connection of the pool
+     *
+     * @param url  the JDBC URL of the database
+     * @param size how many connections to keep open
+     * @throws SQLException if a connection can not be opened
+     */
+    public ConnectionPool(String url, int size) throws SQLException {
+        this.url = url;
+        this.idle = new ArrayBlockingQueue<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                idle.add(new Lease());
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrows a connection, waiting for one to be given back if they are all in use
+     *
+     * @return the borrowed connection, to be closed when done
+     * @throws SQLException if the pool is closed or no connection is given back in time
+     */
+    public Lease borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        Lease lease;
+        try {
+            lease = idle.poll(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database connection", e);
+        }
+        if (lease == null) {
+            throw new SQLException("No database connection was free for " + BORROW_TIMEOUT_MILLIS + " ms");
+        }
+        return lease;
+    }
+
+    /**
+     * Closes every connection that is not borrowed, borrowed ones are closed when they are given back
+     */
+    public void close() {
+        closed = true;
+        Lease lease;
+        while ((lease = idle.poll()) != null) {
+            lease.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,561 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * This class holds every table of one day in memory grouped by time slot. The rows of a time slot
+ * keep the order they had in the day file so writing the day back gives the same file.
+ *
+ * <p>The rows of each time slot are kept in an array that is copied and swapped whenever a row
+ * changes, so reads never lock and always see a whole time slot as it was at one moment. Changes
+ * to one time slot must be made while holding that slot's lock from ReservationLocks, or without a
+ * lock through compareAndSetSlots, which swaps the array only if the rows it changes are still the
+ * ones the caller read. Time slots are only added or removed while a day is being built, before
+ * SeatInventory hands it out.</p>
+ *
+ * <p>An index from username to the user's time slot and table is kept up to date by every change,
+ * so checking for or finding a user's reservation does not scan the day. A reservation that stays
+ * longer than one time slot books its table in each of the time slots one after another, and the
+ * index holds the first of them.</p>
+ *
+ * <p>The free tables of a time slot are worked out once per version of its rows, as a bit mask with
+ * one 64 bit word for every 64 table numbers, as
+ * the text answer to a table lookup, and as an index from table size to the free tables of that
+ * size, so a lookup allocates nothing until the slot changes and finding the smallest table for a
+ * party does not scan the rows. The timeline of a table is its bit in the mask of every time slot,
+ * so whether a table is free for a longer stay is a few bit operations however many tables are booked.</p>
+ *
+ * @version Dec 19, 2025
+ */
+
+public class DayInventory {
+    private final String day;
+    private final TreeMap<Integer, TimeSlotRows> slots;
+    private final ConcurrentHashMap<String, int[]> users;
+
+    /**
+     * This constructor makes an empty day
+     *
+     * @param day the name of the day
+     */
+    public DayInventory(String day) {
+        this.day = day;
+        this.slots = new TreeMap<>();
+        this.users = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Builds a day from the lines of its day file
+     *
+     * @param day   the name of the day
+     * @param lines the lines of the day file
+     * @return the DayInventory holding every row
+     * @throws IllegalArgumentException if a line is not a valid row
+     */
+    public static DayInventory fromLines(String day, List<String> lines) {
+        DayInventory inventory = new DayInventory(day);
+        for (String line : lines) {
+            if (!line.isEmpty()) {
+                inventory.addSlot(TableSlot.fromLine(line));
+            }
+        }
+        return inventory;
+    }
+
+    /**
+     * Gives the lines of the day file for this day
+     *
+     * @return the lines ordered by time
+     */
+    public List<String> toLines() {
+        List<String> lines = new ArrayList<>();
+        for (TableSlot row : getAllSlots()) {
+            lines.add(row.toLine());
+        }
+        return lines;
+    }
+
+    /**
+     * Makes a copy of this day that can be changed without changing this day
+     *
+     * @return the copy
+     */
+    public DayInventory copy() {
+        DayInventory inventory = new DayInventory(day);
+        for (TableSlot row : getAllSlots()) {
+            inventory.addSlot(row);
+        }
+        return inventory;
+    }
+
+    public String getDay() {
+        return day;
+    }
+
+    /**
+     * Gets the rows of a time slot without locking
+     *
+     * @param time the hour of the time slot
+     * @return the rows in file order, empty if the restaurant has nothing at that time
+     */
+    public List<TableSlot> getSlots(int time) {
+        TimeSlotRows rows = slots.get(time);
+        if (rows == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(rows.rows));
+    }
+
+    /**
+     * Gets the hours of every time slot of the day in order
+     *
+     * @return the hours, a view that must not be changed
+     */
+    public Set<Integer> getTimes() {
+        return Collections.unmodifiableSet(slots.keySet());
+    }
+
+    /**
+     * Gets which of the tables numbered 1 to 64 are free in a time slot without locking or allocating.
+     * getFreeSet gives every table.
+     *
+     * @param time the hour of the time slot
+     * @return a mask with bit tableNum - 1 set for every free table numbered 1 to 64, 0 if the
+     *     restaurant has nothing at that time
+     */
+    public long getFreeMask(int time) {
+        TimeSlotRows rows = slots.get(time);
+        return rows == null ? 0L : rows.freeTables().mask[0];
+    }
+
+    /**
+     * Gets which tables of a time slot are free without locking, however many tables there are
+     *
+     * @param time the hour of the time slot
+     * @return a set with bit tableNum - 1 set for every free table, empty if the restaurant has
+     *     nothing at that time
+     */
+    public BitSet getFreeSet(int time) {
+        TimeSlotRows rows = slots.get(time);
+        return rows == null ? new BitSet() : BitSet.valueOf(rows.freeTables().mask);
+    }
+
+    /**
+     * Writes which tables of a time slot are free as one hex number with bit tableNum - 1 set for every
+     * free table, without locking
+     *
+     * @param sb   where to write the number
+     * @param time the hour of the time slot
+     */
+    public void appendFreeMask(StringBuilder sb, int time) {
+        TimeSlotRows rows = slots.get(time);
+        appendHex(sb, rows == null ? new long[0] : rows.freeTables().mask);
+    }
+
+    /**
+     * Writes a mask kept as 64 bit words, lowest word first, as one hex number without leading zeros
+     *
+     * @param sb    where to write the number
+     * @param words the words of the mask
+     */
+    static void appendHex(StringBuilder sb, long[] words) {
+        int top = words.length - 1;
+        while (top > 0 && words[top] == 0L) {
+            top--;
+        }
+        sb.append(Long.toHexString(top < 0 ? 0L : words[top]));
+        for (int i = top - 1; i >= 0; i--) {
+            String hex = Long.toHexString(words[i]);
+            for (int pad = hex.length(); pad < 16; pad++) {
+                sb.append('0');
+            }
+            sb.append(hex);
+        }
+    }
+
+    /**
+     * Finds the smallest free table of a time slot that seats a party without locking. Of the free
+     * tables of that size the first in file order is given.
+     *
+     * @param time      the hour of the time slot
+     * @param partySize how many people the table must seat
+     * @param special   whether to look among the special tables instead of the others
+     * @return the table number, or -1 if no free table seats the party
+     */
+    public int findFreeTable(int time, int partySize, boolean special) {
+        TimeSlotRows rows = slots.get(time);
+        if (rows == null) {
+            return -1;
+        }
+        FreeTables free = rows.freeTables();
+        Map.Entry<Integer, Integer> fits = (special ? free.specialBySize : free.bySize).ceilingEntry(partySize);
+        return fits == null ? -1 : fits.getValue();
+    }
+
+    /**
+     * Finds the smallest table that is free for a stay of several time slots in a row without
+     * locking. Of the free tables of that size the lowest numbered one is given.
+     *
+     * @param time      the hour of the first time slot
+     * @param hours     how many time slots the stay takes
+     * @param partySize how many people the table must seat
+     * @param special   whether to look among the special tables instead of the others
+     * @return the table number, or -1 if no table is free for the whole stay and seats the party
+     */
+    public int findFreeTable(int time, int hours, int partySize, boolean special) {
+        if (hours <= 1) {
+            return findFreeTable(time, partySize, special);
+        }
+        TimeSlotRows rows = slots.get(time);
+        if (rows == null) {
+            return -1;
+        }
+        FreeTables free = rows.freeTables();
+        long[] later = free.mask.clone();
+        for (int hour = time + 1; hour < time + hours; hour++) {
+            TimeSlotRows next = slots.get(hour);
+            long[] words = next == null ? new long[0] : next.freeTables().mask;
+            for (int i = 0; i < later.length; i++) {
+                later[i] &= i < words.length ? words[i] : 0L;
+            }
+        }
+        //A mask of one size only has tables that are free in the first time slot, so it is never longer than later
+        for (long[] tables : (special ? free.specialMasks : free.masks).tailMap(partySize).values()) {
+            for (int i = 0; i < tables.length; i++) {
+                long fits = tables[i] & later[i];
+                if (fits != 0) {
+                    return (i << 6) + Long.numberOfTrailingZeros(fits) + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the free rows of a time slot as their day file lines separated by ';' without locking
+     *
+     * @param time the hour of the time slot
+     * @return the free rows in file order, empty if no table is free
+     */
+    public String getFreeTables(int time) {
+        TimeSlotRows rows = slots.get(time);
+        return rows == null ? "" : rows.freeTables().text;
+    }
+
+    /**
+     * Gets every row of the day ordered by time
+     *
+     * @return every row of the day
+     */
+    public List<TableSlot> getAllSlots() {
+        List<TableSlot> all = new ArrayList<>();
+        for (TimeSlotRows rows : slots.values()) {
+            all.addAll(Arrays.asList(rows.rows));
+        }
+        return all;
+    }
+
+    /**
+     * Replaces one row of a time slot. The caller must hold the lock for the time slot.
+     *
+     * @param time  the hour of the time slot
+     * @param index the position of the row inside the time slot
+     * @param slot  the new row
+     */
+    public void setSlot(int time, int index, TableSlot slot) {
+        TimeSlotRows rows = slots.get(time);
+        TableSlot[] changed = rows.rows.clone();
+        TableSlot old = changed[index];
+        changed[index] = slot;
+        rows.rows = changed;
+        unindex(old);
+        index(slot);
+    }
+
+    /**
+     * Replaces rows of a time slot only if each of them is still the row the caller read, without
+     * taking a lock. Rows are never changed in place, so a row that is still the same object has not
+     * changed. A change to another row of the time slot in the meantime does not stop this one.
+     *
+     * @param time     the hour of the time slot
+     * @param expected the rows the caller read keyed by their position inside the time slot
+     * @param changes  the new rows keyed by the same positions
+     * @return true if the rows were replaced, false if one of them had already changed
+     */
+    public boolean compareAndSetSlots(int time, Map<Integer, TableSlot> expected, Map<Integer, TableSlot> changes) {
+        TimeSlotRows rows = slots.get(time);
+        if (rows == null) {
+            return false;
+        }
+
+        while (true) {
+            TableSlot[] current = rows.rows;
+            TableSlot[] changed = current.clone();
+            for (Map.Entry<Integer, TableSlot> change : changes.entrySet()) {
+                int index = change.getKey();
+                if (index >= current.length || current[index] != expected.get(index)) {
+                    return false;
+                }
+                changed[index] = change.getValue();
+            }
+
+            if (TimeSlotRows.ROWS.compareAndSet(rows, current, changed)) {
+                for (Map.Entry<Integer, TableSlot> change : changes.entrySet()) {
+                    unindex(expected.get(change.getKey()));
+                    indexIfAbsent(rows, change.getKey(), change.getValue());
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Marks a user as booking a table of this day before the booking is made, so two bookings by the
+     * same user at once can not both be made. The booking replaces the claim in the username index.
+     *
+     * @param username the username booking
+     * @param time     the hour of the time slot being booked
+     * @param tableNum the table being booked
+     * @return the claim to hand to releaseClaim if the booking is not made, or null if the user
+     *     already has a booking or claim on this day
+     */
+    public Object claimUser(String username, int time, int tableNum) {
+        if (TableSlot.NO_USER.equals(username)) {
+            return null;
+        }
+        int[] claim = {time, tableNum};
+        return users.putIfAbsent(username, claim) == null ? claim : null;
+    }
+
+    /**
+     * Takes back a claim from claimUser whose booking was not made
+     *
+     * @param username the username that claimed
+     * @param claim    the claim claimUser gave
+     */
+    public void releaseClaim(String username, Object claim) {
+        users.remove(username, claim);
+    }
+
+    /**
+     * Adds a row after every other row of its time slot while the day is being built
+     *
+     * @param slot the row to add
+     */
+    public void addSlot(TableSlot slot) {
+        TimeSlotRows rows = slots.computeIfAbsent(slot.getTime(), t -> new TimeSlotRows());
+        TableSlot[] changed = Arrays.copyOf(rows.rows, rows.rows.length + 1);
+        changed[changed.length - 1] = slot;
+        rows.rows = changed;
+        index(slot);
+    }
+
+    /**
+     * Removes every row of a time slot while the day is being built
+     *
+     * @param time the hour of the time slot
+     */
+    public void removeTime(int time) {
+        TimeSlotRows rows = slots.remove(time);
+        if (rows != null) {
+            for (TableSlot row : rows.rows) {
+                unindex(row);
+            }
+        }
+    }
+
+    /**
+     * Checks if a user has booked any table on this day. N/A is what free rows hold in the
+     * username column so it always counts as booked, the same as when the day file was scanned.
+     *
+     * @param username the username to look for
+     * @return true if a row is booked by the user
+     */
+    public boolean hasUser(String username) {
+        return TableSlot.NO_USER.equals(username) || findUserTime(username) != null;
+    }
+
+    /**
+     * Checks the day for a time slot the restaurant does not have, a table with a user that is not
+     * marked booked, or a user holding more than one table. A table the user also holds the hour
+     * before is the same reservation staying longer.
+     *
+     * @return one line per problem, empty if the day is sound
+     */
+    public List<String> validate() {
+        List<String> problems = new ArrayList<>();
+        Map<String, Integer> tablesPerUser = new HashMap<>();
+        Map<String, int[]> lastRow = new HashMap<>();
+        for (Map.Entry<Integer, TimeSlotRows> slot : slots.entrySet()) {
+            int time = slot.getKey();
+            if (Arrays.stream(DayTemplate.TIMES).noneMatch(open -> open == time)) {
+                problems.add(day + " " + time + ":00: the restaurant is not open then");
+            }
+            for (TableSlot row : slot.getValue().rows) {
+                if (row.getBookedBy().equals(TableSlot.NO_USER)) {
+                    continue;
+                }
+                if (!row.isBooked()) {
+                    problems.add(day + " " + time + ":00: table " + row.getTableNum() + " has user "
+                        + row.getBookedBy() + " but is not booked");
+                }
+                int[] last = lastRow.put(row.getBookedBy(), new int[] {time, row.getTableNum()});
+                if (last == null || last[0] != time - 1 || last[1] != row.getTableNum()) {
+                    tablesPerUser.merge(row.getBookedBy(), 1, Integer::sum);
+                }
+            }
+        }
+        for (Map.Entry<String, Integer> user : tablesPerUser.entrySet()) {
+            if (user.getValue() > 1) {
+                problems.add(day + ": " + user.getKey() + " has " + user.getValue() + " tables");
+            }
+        }
+        return problems;
+    }
+
+    //This method checks if any table of this day is booked or being booked, by a user or by an admin change
+    public boolean hasBookings() {
+        if (!users.isEmpty()) {
+            return true;
+        }
+        for (TimeSlotRows slot : slots.values()) {
+            for (TableSlot row : slot.rows) {
+                if (row.isBooked()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the time slot a user has booked on this day
+     *
+     * @param username the username to look for
+     * @return the hour of the user's time slot or null if the user has not booked
+     */
+    public Integer findUserTime(String username) {
+        int[] booking = username == null ? null : users.get(username);
+        return booking == null ? null : booking[0];
+    }
+
+    /**
+     * Finds the table a user has booked on this day
+     *
+     * @param username the username to look for
+     * @return the user's table number or null if the user has not booked
+     */
+    public Integer findUserTable(String username) {
+        int[] booking = username == null ? null : users.get(username);
+        return booking == null ? null : booking[1];
+    }
+
+    //This method adds a row's user to the username index, which keeps the first time slot of a longer stay
+    private void index(TableSlot row) {
+        if (!row.getBookedBy().equals(TableSlot.NO_USER)) {
+            users.merge(row.getBookedBy(), new int[] {row.getTime(), row.getTableNum()},
+                (old, booking) -> booking[0] < old[0] ? booking : old);
+        }
+    }
+
+    /**
+     * Adds a row swapped in without a lock to the username index. A booking's claim from claimUser is
+     * already its entry and is kept, and an entry of another booking by the user is never replaced.
+     * If a cancellation swapped the row out again before it was indexed, it found nothing to take out
+     * of the index, so the entry put in here is taken out again.
+     */
+    private void indexIfAbsent(TimeSlotRows rows, int index, TableSlot row) {
+        if (row.getBookedBy().equals(TableSlot.NO_USER)) {
+            return;
+        }
+        int[] booking = {row.getTime(), row.getTableNum()};
+        if (users.putIfAbsent(row.getBookedBy(), booking) == null && rows.rows[index] != row) {
+            users.remove(row.getBookedBy(), booking);
+        }
+    }
+
+    //This method takes a row's user out of the username index if the index still points at the row
+    private void unindex(TableSlot row) {
+        int[] booking = users.get(row.getBookedBy());
+        if (booking != null && booking[0] == row.getTime() && booking[1] == row.getTableNum()) {
+            users.remove(row.getBookedBy(), booking);
+        }
+    }
+
+    //This class holds the rows of one time slot, the array is swapped and never changed in place
+    private static class TimeSlotRows {
+        private static final AtomicReferenceFieldUpdater<TimeSlotRows, TableSlot[]> ROWS =
+            AtomicReferenceFieldUpdater.newUpdater(TimeSlotRows.class, TableSlot[].class, "rows");
+
+        private volatile TableSlot[] rows = new TableSlot[0];
+        private volatile FreeTables free;
+
+        //Two readers may both build the free tables for new rows, they build the same thing
+        private FreeTables freeTables() {
+            TableSlot[] current = rows;
+            FreeTables cached = free;
+            if (cached == null || cached.rows != current) {
+                cached = new FreeTables(current);
+                free = cached;
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * This class is the free tables of one version of a time slot's rows. bySize and specialBySize
+     * give the first free table of each table size and hold only sizes that have one, so the first
+     * size at least as big as a party is the smallest free table that seats it. mask holds bit
+     * tableNum - 1 of every free table in 64 bit words, lowest word first and always at least one.
+     * masks and specialMasks give the free tables of each size as a mask for stays of several time slots.
+     */
+    private static class FreeTables {
+        private final TableSlot[] rows;
+        private final long[] mask;
+        private final String text;
+        private final TreeMap<Integer, Integer> bySize = new TreeMap<>();
+        private final TreeMap<Integer, Integer> specialBySize = new TreeMap<>();
+        private final TreeMap<Integer, long[]> masks = new TreeMap<>();
+        private final TreeMap<Integer, long[]> specialMasks = new TreeMap<>();
+
+        private FreeTables(TableSlot[] rows) {
+            this.rows = rows;
+            long[] freeMask = new long[1];
+            StringBuilder sb = new StringBuilder();
+            for (TableSlot row : rows) {
+                if (row.isBooked()) {
+                    continue;
+                }
+                (row.isSpecial() ? specialBySize : bySize).putIfAbsent(row.getTableSize(), row.getTableNum());
+                if (row.getTableNum() >= 1) {
+                    freeMask = withBit(freeMask, row.getTableNum() - 1);
+                    TreeMap<Integer, long[]> sized = row.isSpecial() ? specialMasks : masks;
+                    sized.put(row.getTableSize(), withBit(sized.getOrDefault(row.getTableSize(), new long[1]),
+                        row.getTableNum() - 1));
+                }
+                if (sb.length() > 0) {
+                    sb.append(';');
+                }
+                row.appendLine(sb);
+            }
+            this.mask = freeMask;
+            this.text = sb.toString();
+        }
+
+        //Sets a bit of a mask, making the mask longer first if the bit is past its end
+        private static long[] withBit(long[] words, int bit) {
+            int word = bit >>> 6;
+            long[] changed = word < words.length ? words : Arrays.copyOf(words, word + 1);
+            changed[word] |= 1L << bit;
+            return changed;
+        }
+    }
+}
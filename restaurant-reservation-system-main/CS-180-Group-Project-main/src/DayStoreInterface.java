@@ -0,0 +1,75 @@
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This interface is where SeatInventory keeps its days. SeatInventory holds every day in memory and
+ * decides when a day is saved, and a store only reads and writes days, so the same booking rules run
+ * over any store. RestaurantDriver picks the store when the server starts.
+ *
+ * <p>Every method for a day is called while holding that day's file lock in SeatInventory, so a store
+ * never sees two calls for one day at once.</p>
+ *
+ * @version Dec 19, 2025
+ */
+
+public interface DayStoreInterface extends AutoCloseable {
+
+    /**
+     * Reads a day
+     *
+     * @param day the name of the day
+     * @return the DayInventory or null if the day can not be read
+     */
+    DayInventory load(String day);
+
+    /**
+     * Saves a whole day. The saved day is either the old one or the new one, never part of each.
+     *
+     * @param inventory the day to save
+     * @return true if the day was saved
+     */
+    boolean save(DayInventory inventory);
+
+    /**
+     * Saves changed rows of one time slot. A store that can not change single rows saves the whole day.
+     *
+     * @param inventory the day, already holding the changes
+     * @param time      the hour of the time slot
+     * @param changes   the new rows keyed by their position inside the time slot
+     * @return true if the changes were saved
+     */
+    default boolean saveRows(DayInventory inventory, int time, Map<Integer, TableSlot> changes) {
+        return save(inventory);
+    }
+
+    /**
+     * Checks if the store holds a day, so a date the store has never saved can be built from DayTemplate
+     * while a day the store holds but can not read is not
+     *
+     * @param day the name of the day
+     * @return true if the store holds the day
+     */
+    boolean contains(String day);
+
+    /**
+     * Gets every date the store holds, which are the dates that were ever changed
+     *
+     * @return the dates, written as yyyy-MM-dd
+     */
+    Set<String> storedDates();
+
+    /**
+     * Moves a past day out of the store into the archive directory
+     *
+     * @param day the name of the day
+     * @return true if the day was archived or the store did not hold it
+     */
+    boolean archive(String day);
+
+    /**
+     * Lets go of any files the store holds open
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * This class provides jUnit test cases for the day stores. The tests ensure that
+ * every store RestaurantDriver offers keeps bookings and admin changes across a
+ * restart, that the memory store leaves the files alone, and that the key-value
+ * store cuts off a record that was only partly written.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class DayStoreTest {
+
+    private static final String[] BACKENDS = {"text", "binary", "mapped", "keyvalue"};
+
+    //Initialize restaurant files
+    @BeforeEach
+    public void setUp() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Reset test files
+    @AfterEach
+    public void tearDown() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test that every store keeps bookings, cancellations and admin changes across a restart
+    @Test
+    public void testStoresKeepChanges() {
+        for (String backend : BACKENDS) {
+            InitializeRestaurantFiles.initializeFiles();
+            RestaurantDatabase db = new RestaurantDatabase(RestaurantDriver.openStore(backend), null);
+            Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "monday", 1, 2, 11, false,
+                "Not Needed"), backend);
+            Assertions.assertEquals("Reservation Made", db.makeReservation("Amy", "monday", 2, 2, 12, false,
+                "Not Needed"), backend);
+            Assertions.assertEquals("Cancellation Made", db.cancelReservation("Amy", "monday"), backend);
+            Assertions.assertEquals("Change Successful", db.adminChange("tuesday", false), backend);
+            db.close();
+
+            db = new RestaurantDatabase(RestaurantDriver.openStore(backend), null);
+            Assertions.assertEquals(0xfeL, db.getFreeTableMask("monday", 11), backend);
+            Assertions.assertEquals(0xffL, db.getFreeTableMask("monday", 12), backend);
+            Assertions.assertEquals(0L, db.getFreeTableMask("tuesday", 21), backend);
+            Assertions.assertEquals("Cancellation Made", db.cancelReservation("Bob", "monday"), backend);
+            db.close();
+        }
+    }
+
+    //Test that the journal works over a store that is not text day files
+    @Test
+    public void testJournalOverStore() throws IOException {
+        RestaurantDatabase db = new RestaurantDatabase(new BinaryDayStore(),
+            new ReservationJournal(ReservationJournal.DEFAULT_FILE));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "friday", 1, 2, 11, false,
+            "Not Needed"));
+        db.close();
+
+        Assertions.assertTrue(Files.exists(Paths.get("friday.dat")));
+        db = new RestaurantDatabase(new BinaryDayStore(), null);
+        Assertions.assertEquals(0xfeL, db.getFreeTableMask("friday", 11));
+        db.close();
+    }
+
+    //Test that the memory store changes nothing on disk
+    @Test
+    public void testMemoryStoreLeavesFiles() throws IOException {
+        List<String> before = Files.readAllLines(Paths.get("monday.txt"));
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "monday", 1, 2, 11, false,
+            "Not Needed"));
+        Assertions.assertEquals(0xfeL, db.getFreeTableMask("monday", 11));
+        db.close();
+        Assertions.assertEquals(before, Files.readAllLines(Paths.get("monday.txt")));
+    }
+
+    //Test that a memory store in a directory only sees the day files of that directory
+    @Test
+    public void testMemoryStoreUsesItsDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("memory-store");
+        Path dated = directory.resolve(TextDayStore.fileName("2030-01-07"));
+        try {
+            Files.copy(Paths.get("monday.txt"), dated);
+            MemoryDayStore store = new MemoryDayStore(directory);
+            Assertions.assertTrue(store.contains("2030-01-07"));
+            Assertions.assertFalse(store.contains("monday"));
+            Assertions.assertEquals(Set.of("2030-01-07"), store.storedDates());
+            Assertions.assertFalse(new MemoryDayStore().storedDates().contains("2030-01-07"));
+        } finally {
+            Files.deleteIfExists(dated);
+            Files.delete(directory);
+        }
+    }
+
+    //Test that a partly written record at the end of the key-value log is cut off
+    @Test
+    public void testKeyValueStoreCutsTornRecord() throws IOException {
+        try (KeyValueStore store = new KeyValueStore(KeyValueDayStore.DEFAULT_FILE)) {
+            store.write(Map.of("a", "1", "b", "2"), List.of());
+            store.write(Map.of("a", "3"), List.of("b"));
+        }
+        long size = Files.size(Paths.get(KeyValueDayStore.DEFAULT_FILE));
+        try (OutputStream out = new FileOutputStream(KeyValueDayStore.DEFAULT_FILE, true)) {
+            out.write(new byte[] {0, 0, 0, 40, 1, 2, 3});
+        }
+
+        try (KeyValueStore store = new KeyValueStore(KeyValueDayStore.DEFAULT_FILE)) {
+            Assertions.assertEquals("3", store.get("a"));
+            Assertions.assertNull(store.get("b"));
+            Assertions.assertEquals(size, Files.size(Paths.get(KeyValueDayStore.DEFAULT_FILE)));
+            store.write(Map.of("c", "4"), List.of());
+        }
+        try (KeyValueStore store = new KeyValueStore(KeyValueDayStore.DEFAULT_FILE)) {
+            Assertions.assertEquals("4", store.get("c"));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is the layout every day starts from: every table of the restaurant's FloorPlan at
+ * 11:00 to 14:00 and 17:00 to 21:00, by default tables 1 to 3 for two people, tables 4 to 7 for
+ * four, and the special party room, table 8, for eight. InitializeRestaurantFiles writes it into
+ * the weekday files, and a date that has never been changed is built from it in memory without
+ * any file. Every time slot is an hour, and a party that stays longer holds its table for every
+ * time slot its stay reaches into.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class DayTemplate {
+    public static final int[] TIMES = {11, 12, 13, 14, 17, 18, 19, 20, 21};
+    public static final int SLOT_MINUTES = 60;
+    public static final int MAX_STAY_MINUTES = 240;
+
+    private DayTemplate() {
+    }
+
+    /**
+     * Works out how many time slots a stay takes, which are the time slots it reaches into. A stay
+     * must end by the time the restaurant closes in between or at night.
+     *
+     * @param time    the hour of the first time slot
+     * @param minutes how long the party stays, 1 to MAX_STAY_MINUTES
+     * @return the number of time slots, or -1 if the stay is too short or too long or a time slot it
+     *     reaches into is not open
+     */
+    public static int getTimeSlots(int time, int minutes) {
+        if (minutes < 1 || minutes > MAX_STAY_MINUTES) {
+            return -1;
+        }
+        int hours = (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        for (int i = 0; i < hours; i++) {
+            int hour = time + i;
+            if (Arrays.stream(TIMES).noneMatch(open -> open == hour)) {
+                return -1;
+            }
+        }
+        return hours;
+    }
+
+    /**
+     * Makes every free row of the template with the default floor plan in day file order
+     *
+     * @return the rows ordered by time and then table
+     */
+    public static List<TableSlot> rows() {
+        return rows(FloorPlan.DEFAULT);
+    }
+
+    /**
+     * Makes every free row of the template with a floor plan in day file order
+     *
+     * @param plan the tables of the restaurant
+     * @return the rows ordered by time and then table
+     */
+    public static List<TableSlot> rows(FloorPlan plan) {
+        List<TableSlot> rows = new ArrayList<>();
+        for (int time : TIMES) {
+            rows.addAll(plan.rows(time));
+        }
+        return rows;
+    }
+
+    /**
+     * Builds a day with every table of the default floor plan free
+     *
+     * @param day the name of the day
+     * @return the new DayInventory
+     */
+    public static DayInventory build(String day) {
+        return build(day, FloorPlan.DEFAULT);
+    }
+
+    /**
+     * Builds a day with every table of a floor plan free
+     *
+     * @param day  the name of the day
+     * @param plan the tables of the restaurant
+     * @return the new DayInventory
+     */
+    public static DayInventory build(String day, FloorPlan plan) {
+        DayInventory inventory = new DayInventory(day);
+        for (TableSlot row : rows(plan)) {
+            inventory.addSlot(row);
+        }
+        return inventory;
+    }
+}
@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is the tables of one restaurant: the number, how many people each table seats, and
+ * whether it is special, which means it needs a credit card and is paid for. It is read when the
+ * server starts from floorplan.txt in the restaurant's directory, one table per line written as
+ * tableNum,capacity,special, for example 8,8,Yes. Blank lines and lines starting with # are skipped.
+ * A restaurant without the file has DEFAULT, the tables the restaurant has always had.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class FloorPlan {
+    public static final String FILE = "floorplan.txt";
+    public static final FloorPlan DEFAULT = defaultPlan();
+
+    private final List<Table> tables;
+    private final Map<Integer, Table> byNumber;
+
+    /**
+     * This class is one table of the floor plan
+     */
+    public static class Table {
+        private final int number;
+        private final int capacity;
+        private final boolean special;
+
+        /**
+         * This constructor initializes a table
+         *
+         * @param number   the table number, from 1
+         * @param capacity how many people the table seats
+         * @param special  whether the table is special
+         */
+        public Table(int number, int capacity, boolean special) {
+            this.number = number;
+            this.capacity = capacity;
+            this.special = special;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public boolean isSpecial() {
+            return special;
+        }
+    }
+
+    /**
+     * This constructor makes a floor plan from its tables
+     *
+     * @param tables the tables in the order their rows are written in a day file
+     * @throws IllegalArgumentException if there are no tables, a number is used twice, or a number or
+     *     capacity is below 1
+     */
+    public FloorPlan(List<Table> tables) {
+        if (tables.isEmpty()) {
+            throw new IllegalArgumentException("A floor plan needs a table");
+        }
+        Map<Integer, Table> numbers = new TreeMap<>();
+        for (Table table : tables) {
+            if (table.number < 1 || table.capacity < 1) {
+                throw new IllegalArgumentException("Table " + table.number + " must have a number and capacity of "
+                    + "at least 1");
+            }
+            if (numbers.put(table.number, table) != null) {
+                throw new IllegalArgumentException("Table " + table.number + " is on the floor plan twice");
+            }
+        }
+        this.tables = Collections.unmodifiableList(new ArrayList<>(tables));
+        this.byNumber = numbers;
+    }
+
+    //Tables 1 to 3 for two people, tables 4 to 7 for four, and the special party room, table 8, for eight
+    private static FloorPlan defaultPlan() {
+        List<Table> tables = new ArrayList<>();
+        for (int j = 1; j < 4; j++) {
+            tables.add(new Table(j, 2, false));
+        }
+        for (int j = 4; j < 8; j++) {
+            tables.add(new Table(j, 4, false));
+        }
+        tables.add(new Table(8, 8, true));
+        return new FloorPlan(tables);
+    }
+
+    /**
+     * Reads the floor plan of a restaurant from FILE in its directory
+     *
+     * @param directory the directory of the restaurant's files
+     * @return the floor plan, DEFAULT if the directory has no FILE
+     * @throws IOException              if the file can not be read
+     * @throws IllegalArgumentException if a line is not a valid table
+     */
+    public static FloorPlan load(Path directory) throws IOException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(directory.resolve(FILE), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return DEFAULT;
+        }
+
+        List<Table> tables = new ArrayList<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] pieces = trimmed.split(",");
+            if (pieces.length != 3 || !(pieces[2].equals("Yes") || pieces[2].equals("No"))) {
+                throw new IllegalArgumentException("Not a table: " + line);
+            }
+            try {
+                tables.add(new Table(Integer.parseInt(pieces[0].trim()), Integer.parseInt(pieces[1].trim()),
+                    pieces[2].equals("Yes")));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a table: " + line);
+            }
+        }
+        return new FloorPlan(tables);
+    }
+
+    /**
+     * Writes the floor plan into FILE in a directory
+     *
+     * @param directory the directory of the restaurant's files
+     * @throws IOException if the file can not be written
+     */
+    public void save(Path directory) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("#tableNum,capacity,special");
+        for (Table table : tables) {
+            lines.add(table.number + "," + table.capacity + "," + (table.special ? "Yes" : "No"));
+        }
+        Files.write(directory.resolve(FILE), lines, StandardCharsets.UTF_8);
+    }
+
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    /**
+     * Finds a table by its number
+     *
+     * @param number the table number
+     * @return the table or null if the floor plan has no such table
+     */
+    public Table getTable(int number) {
+        return byNumber.get(number);
+    }
+
+    public boolean isSpecial(int number) {
+        Table table = byNumber.get(number);
+        return table != null && table.special;
+    }
+
+    /**
+     * Makes a free row for every table at one time
+     *
+     * @param time the hour of the time slot
+     * @return the rows in floor plan order
+     */
+    public List<TableSlot> rows(int time) {
+        List<TableSlot> rows = new ArrayList<>(tables.size());
+        for (Table table : tables) {
+            rows.add(TableSlot.freeTable(table.number, table.capacity, table.special, time));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,219 @@
+import org.junit.jupiter.api.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * This class provides jUnit test cases for FloorPlan. The tests ensure that floor plans are read
+ * and written, that a restaurant with many tables of its own sizes can be booked, that the capacity
+ * index finds the smallest free table that seats a party, that tables numbered above 64 are seen
+ * as free and given to stays, that closing later adds the tables of the floor plan, and that the
+ * special tables come from the floor plan and not from the table number.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class FloorPlanTest {
+
+    private static final String USERS_FILE = "floorplan_users.txt";
+
+    private Path directory;
+
+    //Make an empty directory for a restaurant
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("floorplan");
+    }
+
+    //Delete the restaurant's directory
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.deleteIfExists(Paths.get(USERS_FILE));
+    }
+
+    //Test that a missing file is the default floor plan, a saved one reads back and bad lines are refused
+    @Test
+    public void testLoadAndSave() throws IOException {
+        Assertions.assertSame(FloorPlan.DEFAULT, FloorPlan.load(directory));
+        Assertions.assertEquals(8, FloorPlan.DEFAULT.getTables().size());
+        Assertions.assertTrue(FloorPlan.DEFAULT.isSpecial(8));
+        Assertions.assertFalse(FloorPlan.DEFAULT.isSpecial(9));
+
+        largePlan().save(directory);
+        FloorPlan loaded = FloorPlan.load(directory);
+        Assertions.assertEquals(60, loaded.getTables().size());
+        Assertions.assertEquals(6, loaded.getTable(45).getCapacity());
+        Assertions.assertTrue(loaded.isSpecial(60));
+
+        Files.write(directory.resolve(FloorPlan.FILE), List.of("# patio", "", "1,2,No", "2,two,No"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> FloorPlan.load(directory));
+        Files.write(directory.resolve(FloorPlan.FILE), List.of("1,2,No", "1,4,No"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> FloorPlan.load(directory));
+        Files.write(directory.resolve(FloorPlan.FILE), List.of("1,0,Maybe"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> FloorPlan.load(directory));
+        Files.write(directory.resolve(FloorPlan.FILE), List.of("# no tables"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> FloorPlan.load(directory));
+        Assertions.assertSame(FloorPlan.DEFAULT, InitializeRestaurantFiles.loadFloorPlan(directory));
+    }
+
+    //Test that a restaurant with sixty tables gets them in its day files and can book any of them
+    @Test
+    public void testLargeFloorPlan() {
+        RestaurantDatabase db = open(largePlan());
+        Assertions.assertEquals(List.of(), db.validate());
+        Assertions.assertEquals(60, Long.bitCount(db.getFreeTableMask("monday", 19)));
+
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Amy", "monday", 45, 5, 19, false,
+            "Not Needed"));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "monday", 60, 10, 19, true,
+            "1234567812345678"));
+        Assertions.assertEquals("Party Too Big", db.makeReservation("Cat", "monday", 12, 3, 19, false,
+            "Not Needed"));
+        Assertions.assertEquals("Party Too Big", db.makeReservation("Cat", "monday", 59, 13, 19, true,
+            "1234567812345678"));
+        Assertions.assertEquals(58, Long.bitCount(db.getFreeTableMask("monday", 19)));
+        Assertions.assertEquals(0L, db.getFreeTableMask("monday", 19) & (1L << 44 | 1L << 59));
+        db.close();
+    }
+
+    //Test that tables numbered above 64 show up as free and booked like the others
+    @Test
+    public void testMoreThan64Tables() {
+        RestaurantDatabase db = open(hundredTables());
+        Assertions.assertEquals(100, db.getFreeTableSet("monday", 19).cardinality());
+        Assertions.assertEquals(-1L, db.getFreeTableMask("monday", 19));
+
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Amy", "monday", 90, 2, 19, false,
+            "Not Needed"));
+        BitSet free = db.getFreeTableSet("monday", 19);
+        Assertions.assertEquals(99, free.cardinality());
+        Assertions.assertFalse(free.get(89));
+        Assertions.assertTrue(free.get(99));
+        Assertions.assertTrue(db.getWeekAvailability().contains(",19=ffdffffffffffffffffffffff,"));
+        Assertions.assertEquals(List.of(), db.validate());
+        db.close();
+    }
+
+    //Test that a stay gets a table numbered above 64 when every lower table is booked for part of it
+    @Test
+    public void testStayAbove64Tables() {
+        RestaurantDatabase db = open(hundredTables());
+        for (int table = 1; table <= 65; table++) {
+            Assertions.assertEquals("Reservation Made", db.makeReservation("guest" + table, "monday", table, 2, 19,
+                false, "Not Needed"));
+        }
+        Assertions.assertEquals("Reservation Made At Table 66", db.reserveBestTable("Amy", "monday", 2, 18, 120,
+            "Not Needed"));
+        Assertions.assertEquals("Reservation Made At Table 67", db.reserveBestTable("Bob", "monday", 2, 19, 90,
+            "Not Needed"));
+        Assertions.assertFalse(db.getFreeTableSet("monday", 20).get(66));
+        Assertions.assertEquals(List.of(), db.validate());
+        db.close();
+    }
+
+    //Test that the capacity index gives the smallest free table that fits and keeps up with bookings
+    @Test
+    public void testFindFreeTable() {
+        RestaurantDatabase db = open(largePlan());
+        Assertions.assertEquals(1, db.findFreeTable("monday", 19, 2, false));
+        Assertions.assertEquals(41, db.findFreeTable("monday", 19, 3, false));
+        Assertions.assertEquals(59, db.findFreeTable("monday", 19, 10, true));
+        Assertions.assertEquals(-1, db.findFreeTable("monday", 19, 7, false));
+        Assertions.assertEquals(-1, db.findFreeTable("monday", 15, 2, false));
+        Assertions.assertEquals(-1, db.findFreeTable("someday", 19, 2, false));
+
+        db.makeReservation("Amy", "monday", 41, 3, 19, false, "Not Needed");
+        db.makeReservation("Bob", "monday", 59, 10, 19, true, "1234567812345678");
+        Assertions.assertEquals(42, db.findFreeTable("monday", 19, 3, false));
+        Assertions.assertEquals(60, db.findFreeTable("monday", 19, 10, true));
+        Assertions.assertEquals(41, db.findFreeTable("monday", 20, 3, false));
+        db.cancelReservation("Amy", "monday");
+        Assertions.assertEquals(41, db.findFreeTable("monday", 19, 3, false));
+        db.close();
+
+        InitializeRestaurantFiles.initializeFiles();
+        RestaurantDatabase defaultDB = new RestaurantDatabase(new MemoryDayStore(), null);
+        Assertions.assertEquals(4, defaultDB.findFreeTable("friday", 12, 3, false));
+        Assertions.assertEquals(8, defaultDB.findFreeTable("friday", 12, 6, true));
+        defaultDB.close();
+    }
+
+    //Test that closing later adds every table of the floor plan at 21:00
+    @Test
+    public void testCloseLaterUsesFloorPlan() {
+        RestaurantDatabase db = open(largePlan());
+        Assertions.assertEquals("Change Successful", db.adminChange("monday", false));
+        Assertions.assertEquals(0L, db.getFreeTableMask("monday", 21));
+        Assertions.assertEquals("Change Successful", db.adminChange("monday", true));
+        Assertions.assertEquals(60, Long.bitCount(db.getFreeTableMask("monday", 21)));
+        Assertions.assertEquals(59, db.findFreeTable("monday", 21, 9, true));
+        Assertions.assertEquals(List.of(), db.validate());
+        db.close();
+    }
+
+    //Test that the protocol books the floor plan's special table as special whatever its number
+    @Test
+    public void testProtocolSpecialFromFloorPlan() {
+        FloorPlan plan = new FloorPlan(List.of(new FloorPlan.Table(1, 2, false), new FloorPlan.Table(2, 6, true),
+            new FloorPlan.Table(8, 8, false)));
+        RestaurantDatabase db = open(plan);
+        ReservationProtocol protocol = new ReservationProtocol(new UserDatabase(USERS_FILE, db), db);
+
+        Assertions.assertEquals("Invalid Credit Card Number", protocol.executeRequest(List.of(
+            ReservationProtocol.MAKE_RESERVATION, "Amy", "tuesday", "2", "5", "18", "Not Needed")).getResponse());
+        Assertions.assertEquals("Reservation Made", protocol.executeRequest(List.of(
+            ReservationProtocol.MAKE_RESERVATION, "Amy", "tuesday", "2", "5", "18", "1234567812345678")).getResponse());
+        Assertions.assertEquals("Reservation Made", protocol.executeRequest(List.of(
+            ReservationProtocol.MAKE_RESERVATION, "Bob", "tuesday", "8", "3", "18", "Not Needed")).getResponse());
+        Assertions.assertEquals(0x1L, db.getFreeTableMask("tuesday", 18));
+        db.close();
+    }
+
+    //Test that days written for one floor plan are reported when opened with another
+    @Test
+    public void testValidateFindsOtherFloorPlan() {
+        InitializeRestaurantFiles.initializeMissingDays(new TextDayStore(directory), directory);
+        RestaurantDatabase db = new RestaurantDatabase(new TextDayStore(directory), null,
+            RestaurantDatabase.BookingMode.LOCKING, new ReservationCalendar(), largePlan());
+        List<String> problems = db.validate();
+        Assertions.assertFalse(problems.isEmpty());
+        Assertions.assertTrue(problems.contains("monday 11:00: table 4 is not the table on the floor plan"));
+        db.close();
+    }
+
+    //Tables 1 to 40 for two people, 41 to 58 for six, and two special rooms, 59 and 60, for twelve
+    private static FloorPlan largePlan() {
+        List<FloorPlan.Table> tables = new ArrayList<>();
+        for (int i = 1; i <= 60; i++) {
+            tables.add(new FloorPlan.Table(i, i <= 40 ? 2 : i <= 58 ? 6 : 12, i > 58));
+        }
+        return new FloorPlan(tables);
+    }
+
+    //Tables 1 to 100 for two people
+    private static FloorPlan hundredTables() {
+        List<FloorPlan.Table> tables = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            tables.add(new FloorPlan.Table(i, 2, false));
+        }
+        return new FloorPlan(tables);
+    }
+
+    //Opens a restaurant whose days are written from a floor plan in the test directory
+    private RestaurantDatabase open(FloorPlan plan) {
+        try {
+            plan.save(directory);
+        } catch (IOException e) {
+            Assertions.fail(e);
+        }
+        InitializeRestaurantFiles.initializeMissingDays(new TextDayStore(directory), directory);
+        return new RestaurantDatabase(new TextDayStore(directory), null, RestaurantDatabase.BookingMode.LOCKING,
+            new ReservationCalendar(), plan);
+    }
+}
@@ -47,7 +47,10 @@ public class GUIClient extends Frame implements GUIClientInterface {
     private String time;
     private int partySize;
     private int tableNum;
+    private int stayMinutes = 60;
     private String creditCard = "";
+    private Timer notificationTimer;
+    private boolean onReservationMenu;
     private final String[] days = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
 
     /**
@@ -309,10 +312,80 @@ public class GUIClient extends Frame implements GUIClientInterface {
 
     /**
      * Displays the reservation menu where the user can choose to create or delete a reservation.
+     * Tables the waitlist booked for the user are shown when the menu is and every half minute while
+     * it stays shown.
      */
     private void showReservationMenu() {
         initializeReservationMenu();
         cardLayout.show(accountManagement, "Reservation Menu");
+        onReservationMenu = true;
+        checkNotifications();
+        if (notificationTimer == null) {
+            notificationTimer = new Timer(30000, e -> {
+                if (onReservationMenu) {
+                    checkNotifications();
+                }
+            });
+            notificationTimer.start();
+        }
+    }
+
+    /**
+     * Writes the get notifications command to the server along with the username. The server responds
+     * with the tables the waitlist booked for the user separated by ';', or nothing.
+     */
+    private void checkNotifications() {
+        out.println("Getting Notifications");
+        out.println(user);
+        out.flush();
+
+        try {
+            String response = in.readLine();
+            if (response != null && !response.isEmpty()) {
+                onReservationMenu = false;
+                showMessage("   A table freed up and the waitlist booked it for you:\n   "
+                    + response.replace(";", "\n   "));
+                onReservationMenu = true;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Asks the user whether to wait for a table at the chosen day, time and party size and if so writes
+     * the join waitlist command to the server. The server responds Added To Waitlist, Already On Waitlist,
+     * Table Available if a table is free after all, or why the user can not wait.
+     */
+    private void offerWaitlist() {
+        int choice = JOptionPane.showConfirmDialog(this, "No table is free then. Would you like to join the "
+            + "waitlist and get the next table that frees up?", "Waitlist", JOptionPane.YES_NO_OPTION);
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        out.println("Joining Waitlist");
+        out.println(user);
+        out.println(day);
+        out.println(partySize);
+        out.println(time);
+        out.println(creditCard.isEmpty() ? "0" : creditCard);
+        out.flush();
+
+        try {
+            String response = in.readLine();
+            if (response.equals("Added To Waitlist")) {
+                showMessage("   You are on the waitlist. You will be told when a table is booked for you.");
+            } else if (response.equals("Already On Waitlist")) {
+                showMessage("   You are already on the waitlist for this day.");
+            } else if (response.equals("Table Available")) {
+                showMessage("   A table just freed up. Please try booking again.");
+            } else {
+                showMessage("   You could not join the waitlist.");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
@@ -351,12 +424,21 @@ public class GUIClient extends Frame implements GUIClientInterface {
         Label partyLabel = new Label("Party Size:");
         TextField partyField = new TextField();
 
+        Label stayLabel = new Label("Stay:");
+        Choice stayChoice = new Choice();
+        stayChoice.add("1 hour");
+        stayChoice.add("1 hour 30 minutes");
+        stayChoice.add("2 hours");
+        stayChoice.add("2 hours 30 minutes");
+
         formPanel.add(dayLabel);
         formPanel.add(dayChoice);
         formPanel.add(timeLabel);
         formPanel.add(timeChoice);
         formPanel.add(partyLabel);
         formPanel.add(partyField);
+        formPanel.add(stayLabel);
+        formPanel.add(stayChoice);
 
         createReservationPanel.add(formPanel, BorderLayout.CENTER);
 
@@ -380,7 +462,7 @@ public class GUIClient extends Frame implements GUIClientInterface {
 
         Panel buttonPanel = new Panel(new FlowLayout());
         Button cancelButton = new Button("Cancel");
-        cancelButton.addActionListener(e -> cardLayout.show(accountManagement, "Reservation Menu"));
+        cancelButton.addActionListener(e -> showReservationMenu());
 
         Button createButton = new Button("Pick the Table");
         createButton.addActionListener(e -> {
@@ -419,6 +501,7 @@ public class GUIClient extends Frame implements GUIClientInterface {
             }
 
             partySize = size;
+            stayMinutes = 60 + 30 * stayChoice.getSelectedIndex();
             showTableSelection();
 
         });
@@ -431,31 +514,41 @@ public class GUIClient extends Frame implements GUIClientInterface {
 
     /**
      * Displays all the valid tables for requested day and time by writing the command out
-     * to the server along with the day and time. The server responds a string that contains
+     * to the server along with the day and time. The tables at 9:00 are asked for in the same
+     * batch so both answers come back in one round trip. The server responds a string that contains
      * the table numbers available for the user if there are none a screen pops up saying that.
      * If the party room is already or unable to be booked a screen is displayed for that.
      */
     private void showTableSelection() {
+        out.println("Batch");
+        out.println(2);
         out.println("Getting All Available Tables");
         out.println(day);
         out.println(time);
+        out.println("Getting All Available Tables");
+        out.println(day);
+        out.println(21);
         out.flush();
         ArrayList<String> tablesSearch = new ArrayList<>();
 
         try {
             String response = in.readLine();
+            String nineResponse = in.readLine();
+            boolean nineAvailable = nineResponse != null && !nineResponse.trim().isEmpty();
             String[] parts = response.split(";");
 
             for (int i = 0; i < parts.length; i++) {
                 String[] extracted = parts[i].split(",");
-                tablesSearch.add(extracted[1]);
+                if (extracted.length > 1) {
+                    tablesSearch.add(extracted[1]);
+                }
             }
 
             String[] tableNumbers = tablesSearch.toArray(new String[tablesSearch.size()]);
 
-            List<Integer> usableTables = filterTables(tableNumbers);
+            List<Integer> usableTables = filterTables(tableNumbers, nineAvailable);
 
-            if (partySize > 4 && !isHourNineAva(day)) {
+            if (partySize > 4 && !nineAvailable) {
                 showMessage("   The party room is not available for this day. " +
                     "Please try booking a different day.");
                 return;
@@ -464,7 +557,7 @@ public class GUIClient extends Frame implements GUIClientInterface {
                     "Please try booking a different day.");
                 return;
             } else if (usableTables.isEmpty()) {
-                showMessage("   No available tables for this time and party size.");
+                offerWaitlist();
                 return;
             }
 
@@ -478,8 +571,9 @@ public class GUIClient extends Frame implements GUIClientInterface {
     /**
      *Gets the table numbers that are acceptable for the party size
      *@param tableNumbers an array of table numbers that are not booked
+     *@param nineAvailable whether the restaurant is open at 9:00 on the day
      */
-    private List<Integer> filterTables(String[] tableNumbers) {
+    private List<Integer> filterTables(String[] tableNumbers, boolean nineAvailable) {
         List<Integer> result = new ArrayList<>();
 
         for (String t : tableNumbers) {
@@ -490,7 +584,7 @@ public class GUIClient extends Frame implements GUIClientInterface {
                 result.add(tableNum);
             } else if (partySize <= 4 && partySize > 2 && tableNum >= 4 && tableNum <= 7) {
                 result.add(tableNum);
-            } else if (partySize > 4 && tableNum == 8 && isHourNineAva(day)) {
+            } else if (partySize > 4 && tableNum == 8 && nineAvailable) {
                 result.add(tableNum);
             }
         }
@@ -501,18 +595,22 @@ public class GUIClient extends Frame implements GUIClientInterface {
     /**
      * If the user is booking the party room then the user is prompted to enter their
      * credit card number for payment. Displays the tables so the user can click on one
-     * to decide where they will sit.
+     * to decide where they will sit, or Best Table to let the server pick the smallest
+     * table that fits when the reservation is made.
      * @param tables a list of tables to be displayed for choosing
      */
     private void displayTableSelection(List<Integer> tables) {
         Panel tablePanel = new Panel(new GridLayout(2, 4, 10, 10));
 
-        for (int table : tables) {
-            tableNum = table;
-            Button tableButton = new Button("Table " + tableNum);
+        //Table 0 stands for the best table
+        List<Integer> choices = new ArrayList<>(tables);
+        choices.add(0);
+        for (int table : choices) {
+            Button tableButton = new Button(table == 0 ? "Best Table" : "Table " + table);
             tableButton.setBackground(Color.LIGHT_GRAY);
 
             tableButton.addActionListener(e -> {
+                tableNum = table;
                 if (partySize > 4) {
                     showCreditCardScreen();
                 } else {
@@ -573,7 +671,7 @@ public class GUIClient extends Frame implements GUIClientInterface {
         Button cancelButton = new Button("Close");
         cancelButton.addActionListener(e -> {
             showMessage("   Are you sure you want to stop making the reservation?");
-            cardLayout.show(accountManagement, "Reservation Menu");
+            showReservationMenu();
         });
 
         Button submit = new Button("Submit");
@@ -603,17 +701,29 @@ public class GUIClient extends Frame implements GUIClientInterface {
     /**
      * Completes the reservation by writing the command to the server along with the
      * username, day, table number, party size, time, and credit card number if gathered
-     * from the user if not a 0 in its place. The server responds Reservation made,
+     * from the user if not a 0 in its place. For the best table the table number is left
+     * out and the server books the smallest free table that fits. A stay longer than an hour
+     * is sent with its minutes so the table is held for all of it. The server responds Reservation made,
      * reservation failed, or user already has a reservation for this day
      */
     private void completeReservation() {
         try {
-            out.println("Making Reservation");
-            out.println(user);
-            out.println(day);
-            out.println(tableNum);
+            boolean timed = stayMinutes != 60;
+            if (tableNum == 0) {
+                out.println(timed ? "Reserving Best Timed Table" : "Reserving Best Table");
+                out.println(user);
+                out.println(day);
+            } else {
+                out.println(timed ? "Making Timed Reservation" : "Making Reservation");
+                out.println(user);
+                out.println(day);
+                out.println(tableNum);
+            }
             out.println(partySize);
             out.println(time);
+            if (timed) {
+                out.println(stayMinutes);
+            }
             if (partySize < 5) {
                 creditCard = "0";
             }
@@ -622,10 +732,18 @@ public class GUIClient extends Frame implements GUIClientInterface {
 
             String response = in.readLine();
 
-            if (response.equals("Reservation Made")) {
+            if (response.startsWith("Reservation Made At Table ")) {
+                showThankYouPanel(" Thank you for your Reservation at table "
+                    + response.substring("Reservation Made At Table ".length()) + "! See you soon.");
+            } else if (response.equals("Reservation Made")) {
                 showThankYouPanel(" Thank you for your Reservation! See you soon.");
             } else if (response.equals("User Already Has Reservation For This Day")) {
                 showThankYouPanel(" You already have a reservation");
+            } else if ((response.equals("Table Already Booked") || response.equals("No Table Fits"))
+                    && stayMinutes == 60) {
+                offerWaitlist();
+                showReservationMenu();
+                return;
             } else {
                 showThankYouPanel(" Reservation Failed. Taking you back to the Login screen.");
             }
@@ -739,7 +857,7 @@ public class GUIClient extends Frame implements GUIClientInterface {
         });
 
         Button cancelButton = new Button("Cancel");
-        cancelButton.addActionListener(r -> cardLayout.show(accountManagement, "Reservation Menu"));
+        cancelButton.addActionListener(r -> showReservationMenu());
 
         cancelReservationPanel.add(header, BorderLayout.NORTH);
         cancelReservationPanel.add(dayChoice, BorderLayout.CENTER);
@@ -771,6 +889,7 @@ public class GUIClient extends Frame implements GUIClientInterface {
      * Displays the cancel reservation screen.
      */
     private void showCancelReservationScreen() {
+        onReservationMenu = false;
         initializeCancelReservationScreen();
         cardLayout.show(accountManagement, "Cancel Reservation");
     }
@@ -779,6 +898,7 @@ public class GUIClient extends Frame implements GUIClientInterface {
      * Displays the create reservation screen.
      */
     private void showCreateReservationScreen() {
+        onReservationMenu = false;
         initializeCreateReservationScreen();
         cardLayout.show(accountManagement, "Create Reservation");
     }
@@ -901,6 +1021,11 @@ public class GUIClient extends Frame implements GUIClientInterface {
      * Stops the user session by closing the socket and reconnects to the server.
      */
     private void endUserSession() {
+        onReservationMenu = false;
+        if (notificationTimer != null) {
+            notificationTimer.stop();
+            notificationTimer = null;
+        }
         try {
             if (socket != null && !socket.isClosed()) {
                 socket.close();
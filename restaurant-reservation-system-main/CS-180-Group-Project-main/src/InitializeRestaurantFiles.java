@@ -1,7 +1,15 @@
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  *This class initializes the RestaurantDatabase files for easy testing if needed.
+ * The reservation journal, the key-value store, the SQL database, binary and mapped day files, and
+ * the files of dates that were booked are deleted too so they are not read instead of the fresh files.
+ * The server only writes the days that are missing, see initializeMissingDays. Every table of the
+ * floor plan in the directory is written, the default tables if it has no floorplan.txt.
  *
  * @version Nov 4, 2025
  */
@@ -13,44 +21,68 @@ public class InitializeRestaurantFiles {
 
     //This method initializes the RestaurantDatabase files
     public static void initializeFiles() {
+        new File(ReservationJournal.DEFAULT_FILE).delete();
+        new File(KeyValueDayStore.DEFAULT_FILE).delete();
+        new File(JdbcRestaurantDatabase.DATABASE_FILE).delete();
+        for (String extension : new String[] {TextDayStore.EXTENSION, BinaryDayFile.EXTENSION,
+            MappedDayStore.EXTENSION}) {
+            for (String date : TextDayStore.storedDates(extension)) {
+                new File(date + extension).delete();
+            }
+        }
+        FloorPlan plan = loadFloorPlan(Paths.get(""));
+        TextDayStore text = new TextDayStore();
         for (int i = 0; i < DAYS.length; i++) {
-            File f = new File(DAYS[i]);
-            try (PrintWriter pw = new PrintWriter(new FileOutputStream(f))) {
-                for (int a = 11; a <= 14; a++) {
-                    for (int j = 1; j < 4; j++) {
-                        //whoBooked,tableNum,tableSize,partySize,isSpecial,time,isBooked,creditCard,cost
-                        String table = String.format("N/A,%d,2,N/A,No,%d,No,Not Needed,0", j, a);
-                        pw.println(table);
-                    }
-
-                    for (int j = 4; j < 8; j++) {
-                        String table = String.format("N/A,%d,4,N/A,No,%d,No,Not Needed,0", j, a);
-                        pw.println(table);
-                    }
-
-                    String finalTable = String.format("N/A,%d,8,N/A,Yes,%d,No,N/A,0", 8, a);
-                    pw.println(finalTable);
-                }
-
-                for (int a = 17; a <= 21; a++) {
-                    for (int j = 1; j < 4; j++) {
-                        //whoBooked,tableNum,tableSize,partySize,isSpecial,time,isBooked,creditCard,cost
-                        String table = String.format("N/A,%d,2,N/A,No,%d,No,Not Needed,0", j, a);
-                        pw.println(table);
-                    }
-
-                    for (int j = 4; j < 8; j++) {
-                        String table = String.format("N/A,%d,4,N/A,No,%d,No,Not Needed,0", j, a);
-                        pw.println(table);
-                    }
+            new File(DAYS[i].replace(".txt", BinaryDayFile.EXTENSION)).delete();
+            new File(DAYS[i].replace(".txt", MappedDayStore.EXTENSION)).delete();
+            if (!text.save(DayTemplate.build(SeatInventory.DAYS[i], plan))) {
+                return;
+            }
+        }
+    }
 
-                    String finalTable = String.format("N/A,%d,8,N/A,Yes,%d,No,N/A,0", 8, a);
-                    pw.println(finalTable);
-                }
+    /**
+     * Writes a fresh day file for every weekday the store does not hold and leaves every other day as
+     * it is, so starting the server never loses reservations
+     *
+     * @param store where the days are kept
+     * @return the weekdays that were written
+     */
+    public static List<String> initializeMissingDays(DayStoreInterface store) {
+        return initializeMissingDays(store, Paths.get(""));
+    }
 
-            } catch (Exception e) {
-                return;
+    /**
+     * Writes a fresh day file into a directory for every weekday the store does not hold
+     *
+     * @param store     where the days are kept
+     * @param directory the directory the day files are written to
+     * @return the weekdays that were written
+     */
+    public static List<String> initializeMissingDays(DayStoreInterface store, Path directory) {
+        TextDayStore text = new TextDayStore(directory);
+        FloorPlan plan = loadFloorPlan(directory);
+        List<String> written = new ArrayList<>();
+        for (String day : SeatInventory.DAYS) {
+            if (!store.contains(day) && text.save(DayTemplate.build(day, plan))) {
+                written.add(day);
             }
         }
+        return written;
+    }
+
+    /**
+     * Reads the floor plan of a directory, the default one if it can not be read
+     *
+     * @param directory the directory of the restaurant's files
+     * @return the floor plan
+     */
+    public static FloorPlan loadFloorPlan(Path directory) {
+        try {
+            return FloorPlan.load(directory);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Invalid floor plan, using the default tables: " + e.getMessage());
+            return FloorPlan.DEFAULT;
+        }
     }
 }
@@ -0,0 +1,580 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is a RestaurantDatabase kept in an embedded SQL database instead of day files. Every
+ * row of every day file is a row of the table slots, keyed by day, time and table number, with a
+ * unique index on day and username.
+ *
+ * <p>No Java lock is taken. A booking is one conditional UPDATE that only changes the row while the
+ * table is still free, so two users booking the same table can not both get it, and the unique index
+ * on day and username makes the database refuse a second booking by the same user on the same day.
+ * A cancellation is one UPDATE found through the same index. Connections come from a ConnectionPool
+ * that keeps every statement prepared.</p>
+ *
+ * <p>The database only needs a JDBC driver on the class path, H2 by default. When the table is empty
+ * it is filled from the text day files, and {@code java JdbcRestaurantDatabase import <url>} does the
+ * same on its own, replacing what the database had for each day.</p>
+ *
+ * @version Dec 19, 2025
+ */
+
+public class JdbcRestaurantDatabase implements RestaurantDatabaseInterface {
+    public static final String DEFAULT_URL = "jdbc:h2:./restaurant;DB_CLOSE_ON_EXIT=FALSE";
+    public static final String DATABASE_FILE = "restaurant.mv.db";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS slots (day_name VARCHAR(16) NOT NULL, slot_time INT NOT NULL, "
+            + "position INT NOT NULL, table_num INT NOT NULL, table_size INT NOT NULL, special BOOLEAN NOT NULL, "
+            + "booked BOOLEAN NOT NULL, username VARCHAR(255), party_size INT, credit_card VARCHAR(255) NOT NULL, "
+            + "cost INT NOT NULL, PRIMARY KEY (day_name, slot_time, table_num))",
+        "CREATE UNIQUE INDEX IF NOT EXISTS slots_by_user ON slots (day_name, username)"
+    };
+
+    private static final String ROW_COLUMNS = "username, table_num, table_size, party_size, special, slot_time, "
+        + "booked, credit_card, cost";
+    private static final String FIND_USER = "SELECT 1 FROM slots WHERE day_name = ? AND username = ?";
+    private static final String FIND_TABLE = "SELECT table_size, special, booked FROM slots "
+        + "WHERE day_name = ? AND slot_time = ? AND table_num = ?";
+    private static final String BOOK = "UPDATE slots SET booked = TRUE, username = ?, party_size = ?, "
+        + "credit_card = CASE WHEN special THEN ? ELSE credit_card END, "
+        + "cost = CASE WHEN special THEN ? ELSE cost END "
+        + "WHERE day_name = ? AND slot_time = ? AND table_num = ? AND booked = FALSE AND table_size >= ?";
+    private static final String CANCEL_SET = "UPDATE slots SET booked = FALSE, username = NULL, party_size = NULL, "
+        + "credit_card = CASE WHEN special THEN 'N/A' ELSE credit_card END, "
+        + "cost = CASE WHEN special THEN 0 ELSE cost END ";
+    private static final String CANCEL = CANCEL_SET + "WHERE day_name = ? AND username = ?";
+    private static final String CANCEL_ALL = CANCEL_SET + "WHERE username = ?";
+    private static final String FREE_ROWS = "SELECT " + ROW_COLUMNS + " FROM slots "
+        + "WHERE day_name = ? AND slot_time = ? AND booked = FALSE ORDER BY position";
+    private static final String FREE_TABLES = "SELECT table_num FROM slots "
+        + "WHERE day_name = ? AND slot_time = ? AND booked = FALSE";
+    private static final String WEEK = "SELECT day_name, slot_time, table_num, booked FROM slots";
+    private static final String COUNT_TIME = "SELECT COUNT(*) FROM slots WHERE day_name = ? AND slot_time = ?";
+    private static final String DELETE_TIME = "DELETE FROM slots WHERE day_name = ? AND slot_time = ?";
+    private static final String DELETE_DAY = "DELETE FROM slots WHERE day_name = ?";
+    private static final String RESET_TABLE = "UPDATE slots SET booked = ?, username = NULL, party_size = NULL, "
+        + "credit_card = 'N/A', cost = 0 WHERE day_name = ? AND table_num = ?";
+    private static final String INSERT = "INSERT INTO slots (day_name, position, " + ROW_COLUMNS + ") "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String COUNT_ALL = "SELECT COUNT(*) FROM slots";
+
+    private final ConnectionPool pool;
+    private final Set<String> days = new HashSet<>(Arrays.asList(SeatInventory.DAYS));
+    private final AtomicLong version = new AtomicLong();
+    private volatile String weekAvailability;
+    private volatile long weekVersion = -1;
+
+    /**
+     * This constructor opens the database with a pool of ConnectionPool.DEFAULT_SIZE connections
+     *
+     * @param url the JDBC URL of the database
+     * @throws SQLException if the database can not be opened
+     */
+    public JdbcRestaurantDatabase(String url) throws SQLException {
+        this(url, ConnectionPool.DEFAULT_SIZE);
+    }
+
+    /**
+     * This constructor opens the database, makes the table and index if they do not exist, and fills
+     * the table from the text day files if it is empty
+     *
+     * @param url      the JDBC URL of the database
+     * @param poolSize how many connections to keep open
+     * @throws SQLException if the database can not be opened
+     */
+    public JdbcRestaurantDatabase(String url, int poolSize) throws SQLException {
+        this.pool = new ConnectionPool(url, poolSize);
+        try {
+            long rows;
+            try (ConnectionPool.Lease lease = pool.borrow();
+                 Statement statement = lease.getConnection().createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+                try (ResultSet rs = statement.executeQuery(COUNT_ALL)) {
+                    rs.next();
+                    rows = rs.getLong(1);
+                }
+            }
+            if (rows == 0) {
+                importDays(new TextDayStore());
+            }
+        } catch (SQLException e) {
+            pool.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Replaces the rows of every day with the rows a store reads for it. Each day is replaced in one
+     * transaction, and a day the store can not read is left as it was.
+     *
+     * @param source the store to read the days from
+     * @return how many rows were imported
+     * @throws SQLException if a day can not be written
+     */
+    public int importDays(DayStoreInterface source) throws SQLException {
+        int imported = 0;
+        for (String day : SeatInventory.DAYS) {
+            DayInventory inventory = source.load(day);
+            if (inventory == null) {
+                System.out.println("Could not read " + day + ", leaving it as it was");
+                continue;
+            }
+
+            try (ConnectionPool.Lease lease = pool.borrow()) {
+                Connection connection = lease.getConnection();
+                connection.setAutoCommit(false);
+                PreparedStatement delete = lease.prepare(DELETE_DAY);
+                delete.setString(1, day);
+                delete.executeUpdate();
+
+                PreparedStatement insert = lease.prepare(INSERT);
+                Set<Long> keys = new HashSet<>();
+                for (int time : inventory.getTimes()) {
+                    List<TableSlot> rows = inventory.getSlots(time);
+                    for (int position = 0; position < rows.size(); position++) {
+                        TableSlot row = rows.get(position);
+                        //The table is keyed by time and table, so a row repeated in the file is kept once
+                        if (!keys.add(((long) time << 32) | row.getTableNum())) {
+                            continue;
+                        }
+                        insert.setString(1, day);
+                        insert.setInt(2, position);
+                        bindRow(insert, 3, row);
+                        insert.addBatch();
+                        imported++;
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+        }
+        version.incrementAndGet();
+        return imported;
+    }
+
+    /**
+     * Allows a user to make a reservation
+     *
+     * @param username   the username of the person making a reservation
+     * @param day        the day the user wants to make a reservation for
+     * @param tableNum   the table number of the table the user wants to book
+     * @param partySize  the size of the users party
+     * @param time       the time the user wants to book the reservation
+     * @param isSpecial  whether the table the user is booking is special which means requiring credit card and payment
+     * @param creditCard the user's credit card which is used if user is reserving special table.
+     * @return A String telling the status of the attempt to reserve the table
+     */
+    public String makeReservation(String username, String day, int tableNum, int partySize, int time,
+                                  boolean isSpecial, String creditCard) {
+        if (!days.contains(day)) {
+            return "Invalid Day";
+        }
+
+        if (!((time >= 11 && time <= 14) || (time >= 17 && time <= 21))) {
+            return "Invalid Time";
+        }
+
+        if (TableSlot.NO_USER.equals(username)) {
+            return "User Already Has Reservation For This Day";
+        }
+
+        try (ConnectionPool.Lease lease = pool.borrow()) {
+            PreparedStatement findUser = lease.prepare(FIND_USER);
+            findUser.setString(1, day);
+            findUser.setString(2, username);
+            try (ResultSet rs = findUser.executeQuery()) {
+                if (rs.next()) {
+                    return "User Already Has Reservation For This Day";
+                }
+            }
+
+            PreparedStatement findTable = lease.prepare(FIND_TABLE);
+            findTable.setString(1, day);
+            findTable.setInt(2, time);
+            findTable.setInt(3, tableNum);
+            int tableSize;
+            boolean special;
+            try (ResultSet rs = findTable.executeQuery()) {
+                if (!rs.next()) {
+                    return "Reservation Failed";
+                }
+                if (rs.getBoolean(3)) {
+                    return "Table Already Booked";
+                }
+                tableSize = rs.getInt(1);
+                special = rs.getBoolean(2);
+            }
+
+            if (partySize > tableSize) {
+                return "Party Too Big";
+            }
+            if (isSpecial && (partySize > 8 || partySize <= 4)) {
+                return "Party Can't Book Special";
+            }
+            if (isSpecial != special) {
+                return "Reservation Failed";
+            }
+            if (isSpecial && creditCard.length() != 16) {
+                return "Invalid Credit Card Number";
+            }
+
+            //The row only changes if the table is still free, so of two bookings at once only one gets it
+            PreparedStatement book = lease.prepare(BOOK);
+            book.setString(1, username);
+            book.setInt(2, partySize);
+            book.setString(3, creditCard);
+            book.setInt(4, 100);
+            book.setString(5, day);
+            book.setInt(6, time);
+            book.setInt(7, tableNum);
+            book.setInt(8, partySize);
+            if (book.executeUpdate() == 0) {
+                return "Table Already Booked";
+            }
+            version.incrementAndGet();
+            return "Reservation Made";
+        } catch (SQLException e) {
+            if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                return "User Already Has Reservation For This Day";
+            }
+            return "Reservation Failed";
+        }
+    }
+
+    /**
+     * Allows a user to cancel a reservation
+     *
+     * @param username the username of the person that made a reservation
+     * @param day      the day the user wants to cancel the reservation for
+     * @return A String telling the status of the attempt to cancel the reservation
+     */
+    public String cancelReservation(String username, String day) {
+        if (!days.contains(day)) {
+            return "Invalid Day";
+        }
+
+        try (ConnectionPool.Lease lease = pool.borrow()) {
+            PreparedStatement cancel = lease.prepare(CANCEL);
+            cancel.setString(1, day);
+            cancel.setString(2, username);
+            if (cancel.executeUpdate() == 0) {
+                return "Cancellation Failed";
+            }
+            version.incrementAndGet();
+            return "Cancellation Made";
+        } catch (SQLException e) {
+            return "Cancellation Failed";
+        }
+    }
+
+    /**
+     * Cancels every reservation a user has on any day with one UPDATE
+     *
+     * @param username the username of the person whose reservations are canceled
+     * @return how many reservations were canceled
+     */
+    public int cancelAllReservations(String username) {
+        try (ConnectionPool.Lease lease = pool.borrow()) {
+            PreparedStatement cancel = lease.prepare(CANCEL_ALL);
+            cancel.setString(1, username);
+            int canceled = cancel.executeUpdate();
+            if (canceled > 0) {
+                version.incrementAndGet();
+            }
+            return canceled;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Gets all available tables for a given day and time
+     *
+     * @param day  the day the user wants to make a reservation for
+     * @param time the time the user wants to book the reservation
+     * @return An ArrayList of type String with strings for each available table, or null if the day is
+     *     not valid or can not be read
+     */
+    public ArrayList<String> getAllAvailableTablesForDayAndTime(String day, int time) {
+        if (!days.contains(day)) {
+            return null;
+        }
+
+        try (ConnectionPool.Lease lease = pool.borrow()) {
+            PreparedStatement free = lease.prepare(FREE_ROWS);
+            free.setString(1, day);
+            free.setInt(2, time);
+            ArrayList<String> lines = new ArrayList<>();
+            try (ResultSet rs = free.executeQuery()) {
+                while (rs.next()) {
+                    lines.add(readRow(rs).toLine());
+                }
+            }
+            return lines;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the free tables of a day and time as their day file lines separated by ';'
+     *
+     * @param day  the day the user wants to make a reservation for
+     * @param time the time the user wants to book the reservation
+     * @return the free tables, empty if none are free, or null if the day is not valid or can not be read
+     */
+    public String getAvailableTables(String day, int time) {
+        ArrayList<String> lines = getAllAvailableTablesForDayAndTime(day, time);
+        return lines == null ? null : String.join(";", lines);
+    }
+
+    /**
+     * Gets which of the tables numbered 1 to 64 of a day and time are free as a bit mask
+     *
+     * @param day  the day to look at
+     * @param time the hour of the time slot
+     * @return a mask with bit tableNum - 1 set for every free table numbered 1 to 64, 0 if none are free
+     *     or the day is not valid or can not be read
+     */
+    public long getFreeTableMask(String day, int time) {
+        if (!days.contains(day)) {
+            return 0L;
+        }
+
+        try (ConnectionPool.Lease lease = pool.borrow()) {
+            PreparedStatement free = lease.prepare(FREE_TABLES);
+            free.setString(1, day);
+            free.setInt(2, time);
+            long mask = 0L;
+            try (ResultSet rs = free.executeQuery()) {
+                while (rs.next()) {
+                    mask |= tableBit(rs.getInt(1));
+                }
+            }
+            return mask;
+        } catch (SQLException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Gets which tables of a day and time are free, however many tables there are
+     *
+     * @param day  the day to look at
+     * @param time the hour of the time slot
+     * @return a set with bit tableNum - 1 set for every free table, empty if none are free or the day is
+     *     not valid or can not be read
+     */
+    public BitSet getFreeTableSet(String day, int time) {
+        BitSet tables = new BitSet();
+        if (!days.contains(day)) {
+            return tables;
+        }
+
+        try (ConnectionPool.Lease lease = pool.borrow()) {
+            PreparedStatement free = lease.prepare(FREE_TABLES);
+            free.setString(1, day);
+            free.setInt(2, time);
+            try (ResultSet rs = free.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getInt(1) >= 1) {
+                        tables.set(rs.getInt(1) - 1);
+                    }
+                }
+            }
+            return tables;
+        } catch (SQLException e) {
+            return new BitSet();
+        }
+    }
+
+    /**
+     * Gets which tables are free at every time slot of every day in one string, in the same form as
+     * RestaurantDatabase.getWeekAvailability. The string is made again only after a change made
+     * through this object.
+     *
+     * @return the availability of the whole week
+     */
+    public String getWeekAvailability() {
+        long current = version.get();
+        String cached = weekAvailability;
+        if (cached != null && weekVersion == current) {
+            return cached;
+        }
+
+        Map<String, TreeMap<Integer, BitSet>> masks = new TreeMap<>();
+        try (ConnectionPool.Lease lease = pool.borrow(); ResultSet rs = lease.prepare(WEEK).executeQuery()) {
+            while (rs.next()) {
+                BitSet free = masks.computeIfAbsent(rs.getString(1), name -> new TreeMap<>())
+                    .computeIfAbsent(rs.getInt(2), time -> new BitSet());
+                if (!rs.getBoolean(4) && rs.getInt(3) >= 1) {
+                    free.set(rs.getInt(3) - 1);
+                }
+            }
+        } catch (SQLException e) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String day : SeatInventory.DAYS) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(day).append(':');
+
+            boolean first = true;
+            for (Map.Entry<Integer, BitSet> slot : masks.getOrDefault(day, new TreeMap<>()).entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(slot.getKey()).append('=');
+                DayInventory.appendHex(sb, slot.getValue().toLongArray());
+                first = false;
+            }
+        }
+
+        String text = sb.toString();
+        weekAvailability = text;
+        weekVersion = current;
+        return text;
+    }
+
+    /**
+     * Executes action specified by the admin to change times and seatings in one transaction. Closing
+     * later when the day already has the 21:00 time slot only opens the party room back up.
+     *
+     * @param day          the day the admin wants to look at
+     * @param closingLater whether the admin wants to close later(true) or the admin wants to close early(false)
+     * @return A string telling if action was successful or not.
+     */
+    public String adminChange(String day, boolean closingLater) {
+        if (!days.contains(day)) {
+            return "Invalid Day";
+        }
+
+        try (ConnectionPool.Lease lease = pool.borrow()) {
+            Connection connection = lease.getConnection();
+            connection.setAutoCommit(false);
+            if (closingLater) {
+                PreparedStatement count = lease.prepare(COUNT_TIME);
+                count.setString(1, day);
+                count.setInt(2, 21);
+                long existing;
+                try (ResultSet rs = count.executeQuery()) {
+                    rs.next();
+                    existing = rs.getLong(1);
+                }
+                if (existing == 0) {
+                    PreparedStatement insert = lease.prepare(INSERT);
+                    for (int j = 1; j <= 8; j++) {
+                        insert.setString(1, day);
+                        insert.setInt(2, j - 1);
+                        bindRow(insert, 3, TableSlot.freeTable(j, j < 4 ? 2 : j < 8 ? 4 : 8, j == 8, 21));
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            } else {
+                PreparedStatement delete = lease.prepare(DELETE_TIME);
+                delete.setString(1, day);
+                delete.setInt(2, 21);
+                delete.executeUpdate();
+            }
+
+            //The party room opens back up when closing later and is taken off the books when closing early
+            PreparedStatement reset = lease.prepare(RESET_TABLE);
+            reset.setBoolean(1, !closingLater);
+            reset.setString(2, day);
+            reset.setInt(3, 8);
+            reset.executeUpdate();
+            connection.commit();
+            version.incrementAndGet();
+            return "Change Successful";
+        } catch (SQLException e) {
+            return "Change Failed";
+        }
+    }
+
+    /**
+     * Closes every connection of the pool
+     */
+    public void close() {
+        pool.close();
+    }
+
+    private static long tableBit(int tableNum) {
+        return tableNum >= 1 && tableNum <= 64 ? 1L << (tableNum - 1) : 0L;
+    }
+
+    //Binds the columns of ROW_COLUMNS starting at parameter index first
+    private static void bindRow(PreparedStatement statement, int first, TableSlot row) throws SQLException {
+        boolean hasUser = !TableSlot.NO_USER.equals(row.getBookedBy());
+        if (hasUser) {
+            statement.setString(first, row.getBookedBy());
+        } else {
+            statement.setNull(first, Types.VARCHAR);
+        }
+        statement.setInt(first + 1, row.getTableNum());
+        statement.setInt(first + 2, row.getTableSize());
+        if (row.getPartySize() == TableSlot.NO_PARTY) {
+            statement.setNull(first + 3, Types.INTEGER);
+        } else {
+            statement.setInt(first + 3, row.getPartySize());
+        }
+        statement.setBoolean(first + 4, row.isSpecial());
+        statement.setInt(first + 5, row.getTime());
+        statement.setBoolean(first + 6, row.isBooked());
+        statement.setString(first + 7, row.getCreditCard());
+        statement.setInt(first + 8, row.getCost());
+    }
+
+    //Reads the columns of ROW_COLUMNS back into a TableSlot
+    private static TableSlot readRow(ResultSet rs) throws SQLException {
+        String username = rs.getString(1);
+        int partySize = rs.getInt(4);
+        if (rs.wasNull()) {
+            partySize = TableSlot.NO_PARTY;
+        }
+        return new TableSlot(username == null ? TableSlot.NO_USER : username, rs.getInt(2), rs.getInt(3), partySize,
+            rs.getBoolean(5), rs.getInt(6), rs.getBoolean(7), rs.getString(8), rs.getInt(9));
+    }
+
+    /**
+     * Imports the text day files into a database, replacing what it had for each day
+     *
+     * @param args import and the JDBC URL, which is DEFAULT_URL if left out
+     * @throws SQLException if the database can not be written
+     */
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 1 || args.length > 2 || !args[0].equals("import")) {
+            System.out.println("Usage: java JdbcRestaurantDatabase import [jdbc-url]");
+            return;
+        }
+
+        String url = args.length == 2 ? args[1] : DEFAULT_URL;
+        JdbcRestaurantDatabase db = new JdbcRestaurantDatabase(url, 1);
+        try {
+            System.out.println("Imported " + db.importDays(new TextDayStore()) + " rows into " + url);
+        } finally {
+            db.close();
+        }
+    }
+}
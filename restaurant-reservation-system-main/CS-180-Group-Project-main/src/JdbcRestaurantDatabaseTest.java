@@ -0,0 +1,151 @@
+import org.junit.jupiter.api.*;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class provides jUnit test cases for JdbcRestaurantDatabase. The tests ensure that
+ * it answers every request the same way RestaurantDatabase does, that only one of many
+ * bookings at once gets a table or a user's day, that bookings are kept after the database
+ * is opened again, and that importing the day files replaces what the database had.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class JdbcRestaurantDatabaseTest {
+
+    private JdbcRestaurantDatabase db;
+
+    //Initialize restaurant files and open the database, which imports them
+    @BeforeEach
+    public void setUp() throws SQLException {
+        InitializeRestaurantFiles.initializeFiles();
+        db = new JdbcRestaurantDatabase(JdbcRestaurantDatabase.DEFAULT_URL);
+    }
+
+    //Close the database and reset test files
+    @AfterEach
+    public void tearDown() {
+        db.close();
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test that every request gets the same answer as from RestaurantDatabase
+    @Test
+    public void testSameAnswersAsRestaurantDatabase() {
+        RestaurantDatabase memory = new RestaurantDatabase(new MemoryDayStore(), null);
+        String[][] bookings = {
+            {"Bob", "monday", "1", "2", "11", "false", "Not Needed"},
+            {"Bob", "monday", "2", "2", "12", "false", "Not Needed"},
+            {"Amy", "monday", "1", "2", "11", "false", "Not Needed"},
+            {"Amy", "monday", "1", "3", "12", "false", "Not Needed"},
+            {"Amy", "monday", "8", "6", "12", "true", "1234"},
+            {"Amy", "monday", "8", "3", "12", "true", "1234567812345678"},
+            {"Amy", "monday", "4", "4", "12", "true", "1234567812345678"},
+            {"Amy", "monday", "8", "6", "12", "false", "Not Needed"},
+            {"Amy", "monday", "8", "6", "12", "true", "1234567812345678"},
+            {"Cal", "monday", "9", "2", "12", "false", "Not Needed"},
+            {"Cal", "someday", "1", "2", "12", "false", "Not Needed"},
+            {"Cal", "monday", "1", "2", "15", "false", "Not Needed"},
+            {"N/A", "monday", "3", "2", "13", "false", "Not Needed"},
+            {"Cal", "monday", "1", "2", "21", "false", "Not Needed"},
+        };
+        for (String[] b : bookings) {
+            String expected = memory.makeReservation(b[0], b[1], Integer.parseInt(b[2]), Integer.parseInt(b[3]),
+                Integer.parseInt(b[4]), Boolean.parseBoolean(b[5]), b[6]);
+            Assertions.assertEquals(expected, db.makeReservation(b[0], b[1], Integer.parseInt(b[2]),
+                Integer.parseInt(b[3]), Integer.parseInt(b[4]), Boolean.parseBoolean(b[5]), b[6]),
+                String.join(",", b));
+        }
+
+        Assertions.assertEquals(memory.getAvailableTables("monday", 12), db.getAvailableTables("monday", 12));
+        Assertions.assertEquals(memory.getAllAvailableTablesForDayAndTime("monday", 11),
+            db.getAllAvailableTablesForDayAndTime("monday", 11));
+        Assertions.assertEquals(memory.getFreeTableMask("monday", 12), db.getFreeTableMask("monday", 12));
+        Assertions.assertNull(db.getAvailableTables("someday", 12));
+
+        Assertions.assertEquals(memory.cancelReservation("Amy", "monday"), db.cancelReservation("Amy", "monday"));
+        Assertions.assertEquals(memory.cancelReservation("Amy", "monday"), db.cancelReservation("Amy", "monday"));
+        Assertions.assertEquals(memory.cancelReservation("N/A", "monday"), db.cancelReservation("N/A", "monday"));
+        Assertions.assertEquals(memory.cancelReservation("Amy", "someday"), db.cancelReservation("Amy", "someday"));
+        Assertions.assertEquals(memory.getAvailableTables("monday", 12), db.getAvailableTables("monday", 12));
+
+        Assertions.assertEquals(memory.makeReservation("Dee", "tuesday", 3, 2, 17, false, "Not Needed"),
+            db.makeReservation("Dee", "tuesday", 3, 2, 17, false, "Not Needed"));
+        Assertions.assertEquals(memory.cancelAllReservations("Bob"), db.cancelAllReservations("Bob"));
+        Assertions.assertEquals(memory.adminChange("tuesday", false), db.adminChange("tuesday", false));
+        Assertions.assertEquals(memory.adminChange("wednesday", true), db.adminChange("wednesday", true));
+        Assertions.assertEquals(memory.adminChange("someday", true), db.adminChange("someday", true));
+        Assertions.assertEquals(memory.getWeekAvailability(), db.getWeekAvailability());
+        memory.close();
+    }
+
+    //Test that of many users booking one table at once exactly one gets it
+    @Test
+    public void testOneBookingWinsATable() throws Exception {
+        List<String> results = runAtOnce(16, i -> db.makeReservation("user" + i, "friday", 3, 2, 18, false,
+            "Not Needed"));
+        Assertions.assertEquals(1, Collections.frequency(results, "Reservation Made"));
+        Assertions.assertEquals(15, Collections.frequency(results, "Table Already Booked"));
+        Assertions.assertEquals(0xfbL, db.getFreeTableMask("friday", 18));
+    }
+
+    //Test that of one user booking many tables of a day at once exactly one booking is made
+    @Test
+    public void testOneBookingPerUserPerDay() throws Exception {
+        List<String> results = runAtOnce(7, i -> db.makeReservation("Bob", "friday", i + 1, 2, 11 + i % 4, false,
+            "Not Needed"));
+        Assertions.assertEquals(1, Collections.frequency(results, "Reservation Made"));
+        Assertions.assertEquals(6, Collections.frequency(results, "User Already Has Reservation For This Day"));
+        Assertions.assertEquals("Cancellation Made", db.cancelReservation("Bob", "friday"));
+        Assertions.assertEquals("Cancellation Failed", db.cancelReservation("Bob", "friday"));
+    }
+
+    //Test that bookings and admin changes are kept when the database is opened again
+    @Test
+    public void testKeepsChangesAfterReopen() throws SQLException {
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "sunday", 8, 6, 19, true,
+            "1234567812345678"));
+        Assertions.assertEquals("Change Successful", db.adminChange("saturday", false));
+        db.close();
+
+        db = new JdbcRestaurantDatabase(JdbcRestaurantDatabase.DEFAULT_URL);
+        Assertions.assertEquals(0x7fL, db.getFreeTableMask("sunday", 19));
+        Assertions.assertEquals("", db.getAvailableTables("saturday", 21));
+        Assertions.assertEquals("Change Successful", db.adminChange("saturday", true));
+        Assertions.assertEquals(0xffL, db.getFreeTableMask("saturday", 21));
+        Assertions.assertEquals("Change Successful", db.adminChange("saturday", true));
+        Assertions.assertEquals(8, db.getAllAvailableTablesForDayAndTime("saturday", 21).size());
+    }
+
+    //Test that importing the day files replaces the rows the database had
+    @Test
+    public void testImportReplacesDays() throws SQLException {
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "monday", 1, 2, 11, false,
+            "Not Needed"));
+        Assertions.assertEquals(7 * 72, db.importDays(new TextDayStore()));
+        Assertions.assertEquals(0xffL, db.getFreeTableMask("monday", 11));
+        Assertions.assertEquals("Cancellation Failed", db.cancelReservation("Bob", "monday"));
+    }
+
+    private static List<String> runAtOnce(int count, java.util.function.IntFunction<String> task)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(count);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                return task.apply(index);
+            }));
+        }
+        start.countDown();
+        List<String> results = new ArrayList<>();
+        for (Future<String> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        return results;
+    }
+}
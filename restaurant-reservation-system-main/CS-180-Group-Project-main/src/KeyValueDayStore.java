@@ -0,0 +1,223 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class keeps days in a KeyValueStore. Every row is its own key, day/time/index, holding the
+ * row's day file line, and the key day holds which time slots the day has and how many rows each
+ * has, for example 11:8,12:8. A booking writes only the rows it changes. A day that is not in the
+ * store yet is read from its text day file and put in the store. A past date is archived as a text
+ * day file in the archive directory and its keys are removed.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class KeyValueDayStore implements DayStoreInterface {
+    public static final String DEFAULT_FILE = "days.kv";
+
+    private final KeyValueStore store;
+    private final TextDayStore text;
+
+    /**
+     * This constructor opens the key-value store and reads days it does not have from the working
+     * directory
+     *
+     * @param fileName the log file of the store
+     * @throws IOException if the store can not be opened
+     */
+    public KeyValueDayStore(String fileName) throws IOException {
+        this.store = new KeyValueStore(fileName);
+        this.text = new TextDayStore();
+    }
+
+    /**
+     * This constructor opens the key-value store DEFAULT_FILE in a directory and reads days it does not
+     * have from the text day files there
+     *
+     * @param directory the directory of the store and the day files
+     * @throws IOException if the store can not be opened
+     */
+    public KeyValueDayStore(Path directory) throws IOException {
+        this.store = new KeyValueStore(directory.resolve(DEFAULT_FILE).toString());
+        this.text = new TextDayStore(directory);
+    }
+
+    /**
+     * Reads a day from the store, or from its text day file if the store does not have it yet
+     *
+     * @param day the name of the day
+     * @return the DayInventory or null if the day can not be read
+     */
+    public DayInventory load(String day) {
+        String layout = store.get(day);
+        if (layout == null) {
+            DayInventory inventory = text.load(day);
+            if (inventory != null) {
+                save(inventory);
+            }
+            return inventory;
+        }
+
+        DayInventory inventory = new DayInventory(day);
+        try {
+            for (String slot : layout.isEmpty() ? new String[0] : layout.split(",")) {
+                String[] pieces = slot.split(":");
+                int time = Integer.parseInt(pieces[0]);
+                int rows = Integer.parseInt(pieces[1]);
+                for (int index = 0; index < rows; index++) {
+                    String line = store.get(rowKey(day, time, index));
+                    if (line == null) {
+                        return null;
+                    }
+                    inventory.addSlot(TableSlot.fromLine(line));
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+        return inventory;
+    }
+
+    /**
+     * Writes every row of a day and its layout as one batch, removing rows of time slots it no longer has
+     *
+     * @param inventory the day to write
+     * @return true if the day was written
+     */
+    public boolean save(DayInventory inventory) {
+        String day = inventory.getDay();
+        Map<String, String> puts = new HashMap<>();
+        StringBuilder layout = new StringBuilder();
+        for (int time : inventory.getTimes()) {
+            List<TableSlot> rows = inventory.getSlots(time);
+            if (layout.length() > 0) {
+                layout.append(',');
+            }
+            layout.append(time).append(':').append(rows.size());
+            for (int index = 0; index < rows.size(); index++) {
+                puts.put(rowKey(day, time, index), rows.get(index).toLine());
+            }
+        }
+        puts.put(day, layout.toString());
+
+        List<String> removes = new ArrayList<>();
+        String old = store.get(day);
+        if (old != null && !old.isEmpty()) {
+            for (String slot : old.split(",")) {
+                String[] pieces = slot.split(":");
+                for (int index = 0; index < Integer.parseInt(pieces[1]); index++) {
+                    String key = day + "/" + pieces[0] + "/" + index;
+                    if (!puts.containsKey(key)) {
+                        removes.add(key);
+                    }
+                }
+            }
+        }
+        return write(puts, removes);
+    }
+
+    /**
+     * Writes only the changed rows as one batch
+     *
+     * @param inventory the day, already holding the changes
+     * @param time      the hour of the time slot
+     * @param changes   the new rows keyed by their position inside the time slot
+     * @return true if the rows were written
+     */
+    public boolean saveRows(DayInventory inventory, int time, Map<Integer, TableSlot> changes) {
+        if (store.get(inventory.getDay()) == null) {
+            return save(inventory);
+        }
+
+        Map<String, String> puts = new HashMap<>();
+        for (Map.Entry<Integer, TableSlot> change : changes.entrySet()) {
+            puts.put(rowKey(inventory.getDay(), time, change.getKey()), change.getValue().toLine());
+        }
+        return write(puts, new ArrayList<>());
+    }
+
+    public boolean contains(String day) {
+        return store.get(day) != null || text.contains(day);
+    }
+
+    public Set<String> storedDates() {
+        Set<String> dates = text.storedDates();
+        for (String key : store.keys()) {
+            if (ReservationCalendar.toDate(key) != null) {
+                dates.add(key);
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Writes a past day as a text day file in the archive directory and removes its keys
+     *
+     * @param day the name of the day
+     * @return true if the day was archived or the store did not hold it
+     */
+    public boolean archive(String day) {
+        String layout = store.get(day);
+        if (layout == null) {
+            return text.archive(day);
+        }
+
+        DayInventory inventory = load(day);
+        if (inventory == null) {
+            return false;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (TableSlot row : inventory.getAllSlots()) {
+            row.appendLine(sb).append(System.lineSeparator());
+        }
+        List<String> removes = new ArrayList<>();
+        removes.add(day);
+        for (String slot : layout.isEmpty() ? new String[0] : layout.split(",")) {
+            String[] pieces = slot.split(":");
+            for (int index = 0; index < Integer.parseInt(pieces[1]); index++) {
+                removes.add(rowKey(day, Integer.parseInt(pieces[0]), index));
+            }
+        }
+
+        try {
+            Path archive = Files.createDirectories(text.getDirectory().resolve(TextDayStore.ARCHIVE_DIR));
+            if (!TextDayStore.writeAtomically(archive.resolve(TextDayStore.fileName(day)),
+                    ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)))) {
+                return false;
+            }
+            //The store held a newer copy of the day than a text day file left from before the import
+            Files.deleteIfExists(text.path(day));
+        } catch (IOException e) {
+            return false;
+        }
+        return write(new HashMap<>(), removes);
+    }
+
+    public void close() {
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.out.println("Error closing key-value store: " + e.getMessage());
+        }
+    }
+
+    private boolean write(Map<String, String> puts, List<String> removes) {
+        try {
+            store.write(puts, removes);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String rowKey(String day, int time, int index) {
+        return day + "/" + time + "/" + index;
+    }
+}
@@ -0,0 +1,246 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * This class is a small embedded key-value store of strings kept in one append-only log file. Every
+ * value is also held in memory, so a get never reads the file.
+ *
+ * <p>A write is one batch of puts and removes appended to the log as one record with a CRC32 and
+ * forced to disk, so a batch is either all there after a crash or not there at all. Opening the
+ * store replays the log and cuts off a record that was only partly written. Once the log is mostly
+ * old values it is compacted by writing the live values to a new log and moving it over the old
+ * one.</p>
+ *
+ * <pre>
+ * record  length of the rest (int), CRC32 of the rest (int), entry count (int), then entries
+ * entry   1 to put or 2 to remove (byte), key length (short), key, then for a put the value length
+ *         (int) and value, all UTF-8
+ * </pre>
+ *
+ * @version Dec 19, 2025
+ */
+
+public class KeyValueStore implements AutoCloseable {
+    public static final long COMPACT_MIN_BYTES = 64 * 1024;
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final Path path;
+    private final ConcurrentHashMap<String, String> values;
+    private FileChannel channel;
+    private long liveBytes;
+
+    /**
+     * This constructor opens the log, creating it if it does not exist, and replays it into memory
+     *
+     * @param fileName the log file
+     * @throws IOException if the log can not be opened or read
+     */
+    public KeyValueStore(String fileName) throws IOException {
+        this.path = Paths.get(fileName);
+        this.values = new ConcurrentHashMap<>();
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            replay();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Gets every key in the store
+     *
+     * @return a view of the keys that follows later writes
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    /**
+     * Puts and removes keys as one batch and forces it to disk
+     *
+     * @param puts    the keys to set and their values
+     * @param removes the keys to remove
+     * @throws IOException if the batch can not be written
+     */
+    public synchronized void write(Map<String, String> puts, Collection<String> removes) throws IOException {
+        ByteBuffer record = ByteBuffer.wrap(recordBytes(puts, removes));
+        long start = channel.position();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            //A partly written record would hide every record after it from replay
+            channel.truncate(start);
+            channel.position(start);
+            throw e;
+        }
+
+        for (String key : removes) {
+            forget(key);
+        }
+        for (Map.Entry<String, String> put : puts.entrySet()) {
+            forget(put.getKey());
+            values.put(put.getKey(), put.getValue());
+            liveBytes += 7 + utf8Length(put.getKey()) + utf8Length(put.getValue());
+        }
+
+        if (channel.size() > COMPACT_MIN_BYTES && channel.size() > 4 * liveBytes) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes only the live values to a new log and moves it over the old one
+     *
+     * @throws IOException if the new log can not be written
+     */
+    public synchronized void compact() throws IOException {
+        ByteBuffer log = ByteBuffer.wrap(recordBytes(values, Collections.emptyList()));
+        if (!TextDayStore.writeAtomically(path, log)) {
+            throw new IOException("Could not write " + path);
+        }
+
+        FileChannel old = channel;
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        old.close();
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads every whole record of the log into memory and cuts off a record that was only partly written
+     */
+    private void replay() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        long position = 0;
+        long size = channel.size();
+        while (position + 8 <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 4 || position + 8 + length > size) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(length);
+            while (body.hasRemaining() && channel.read(body, position + 8 + body.position()) >= 0) {
+                //Keep reading until the record is whole
+            }
+            body.flip();
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            apply(body);
+            position += 8 + length;
+        }
+
+        if (position < size) {
+            System.out.println("Cutting off a partly written record at byte " + position + " of " + path);
+            channel.truncate(position);
+            channel.force(false);
+        }
+        channel.position(position);
+    }
+
+    private void apply(ByteBuffer body) {
+        int count = body.getInt();
+        for (int i = 0; i < count; i++) {
+            byte op = body.get();
+            String key = readString(body, body.getShort() & 0xFFFF);
+            forget(key);
+            if (op == PUT) {
+                String value = readString(body, body.getInt());
+                values.put(key, value);
+                liveBytes += 7 + utf8Length(key) + utf8Length(value);
+            }
+        }
+    }
+
+    private void forget(String key) {
+        String old = values.remove(key);
+        if (old != null) {
+            liveBytes -= 7 + utf8Length(key) + utf8Length(old);
+        }
+    }
+
+    private static byte[] recordBytes(Map<String, String> puts, Collection<String> removes) {
+        List<byte[]> entries = new ArrayList<>();
+        int size = 4;
+        for (Map.Entry<String, String> put : puts.entrySet()) {
+            byte[] entry = entry(PUT, put.getKey(), put.getValue());
+            entries.add(entry);
+            size += entry.length;
+        }
+        for (String key : removes) {
+            byte[] entry = entry(REMOVE, key, null);
+            entries.add(entry);
+            size += entry.length;
+        }
+        ByteBuffer body = ByteBuffer.allocate(size);
+        body.putInt(entries.size());
+        for (byte[] entry : entries) {
+            body.put(entry);
+        }
+        body.flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(8 + size);
+        record.putInt(size).putInt((int) crc.getValue()).put(body);
+        return record.array();
+    }
+
+    private static byte[] entry(byte op, String key, String value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Key too long: " + key);
+        }
+        byte[] valueBytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(3 + keyBytes.length + (valueBytes == null ? 0 : 4 + valueBytes.length));
+        entry.put(op).putShort((short) keyBytes.length).put(keyBytes);
+        if (valueBytes != null) {
+            entry.putInt(valueBytes.length).put(valueBytes);
+        }
+        return entry.array();
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,402 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * This class keeps day files mapped into memory so a booking changes only the bytes of its own row.
+ * A change is written into the mapping and forced to disk before it counts, and the page cache does
+ * the rest, so a booking writes one page instead of the whole day.
+ *
+ * <p>Every row has two copies of the BinaryDayFile record, each with a sequence number and a CRC32.
+ * A change always overwrites the older copy, so a crash in the middle of a write can only damage the
+ * copy being written, and loading picks the newest copy whose checksum is good. A row whose copies
+ * are both bad means the file itself is damaged and the day is not loaded.</p>
+ *
+ * <p>The file is a header, the rows, and then the string table of BinaryDayFile, which new usernames
+ * are added to the end of. The file is made bigger than it needs to be so adding a string rarely has
+ * to map it again. Admin changes add or remove rows, so they write a whole new file and map that.</p>
+ * <pre>
+ * header   magic "RMAP" (int), format version (short), copy size (short), row count (int),
+ *          string count (int), CRC32 of the first 12 bytes (int), then 12 reserved bytes
+ * row      two copies of: BinaryDayFile record, sequence number (int), CRC32 of both (int)
+ * strings  each string as its UTF-8 length (short) and bytes
+ * </pre>
+ *
+ * <p>A day that has no mapped file yet is read from its text day file and written as a mapped file
+ * right away.</p>
+ *
+ * @version Dec 19, 2025
+ */
+
+public class MappedDayStore implements DayStoreInterface {
+    public static final int MAGIC = 0x524d4150;
+    public static final short FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int COPY_SIZE = BinaryDayFile.RECORD_SIZE + 8;
+    public static final int ROW_SIZE = 2 * COPY_SIZE;
+    public static final int SPARE_BYTES = 4096;
+    public static final String EXTENSION = ".map";
+
+    private static final int STRING_COUNT = 12;
+    private static final int HEADER_CHECKSUM = 16;
+
+    private final ConcurrentHashMap<String, MappedDay> days = new ConcurrentHashMap<>();
+    private final TextDayStore text;
+
+    /**
+     * This class is one mapped day file and what is needed to change it in place
+     */
+    private static class MappedDay {
+        private final FileChannel channel;
+        private MappedByteBuffer buffer;
+        private final Map<Integer, Integer> firstRow;
+        private final int[] sequences;
+        private final Map<String, Integer> ids;
+        private int stringEnd;
+        private int savedStrings;
+        private int savedStringEnd;
+
+        private MappedDay(FileChannel channel, MappedByteBuffer buffer, int rowCount) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.firstRow = new HashMap<>();
+            this.sequences = new int[rowCount];
+            this.ids = new HashMap<>();
+        }
+    }
+
+    //This constructor keeps the day files in the working directory
+    public MappedDayStore() {
+        this(Paths.get(""));
+    }
+
+    /**
+     * This constructor keeps the mapped and text day files in a directory
+     *
+     * @param directory the directory of the day files
+     */
+    public MappedDayStore(Path directory) {
+        this.text = new TextDayStore(directory);
+    }
+
+    public static String fileName(String day) {
+        return day + EXTENSION;
+    }
+
+    private Path path(String day) {
+        return text.getDirectory().resolve(fileName(day));
+    }
+
+    /**
+     * Maps a day file and reads it into memory, making the file from the text day file if the day has
+     * no mapped file yet
+     *
+     * @param day the name of the day
+     * @return the DayInventory or null if the file can not be read or is damaged
+     */
+    public DayInventory load(String day) {
+        Path path = path(day);
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (NoSuchFileException e) {
+            DayInventory inventory = text.load(day);
+            //A day that can not be mapped yet is written as a whole file on its first change
+            if (inventory != null) {
+                save(inventory);
+            }
+            return inventory;
+        } catch (IOException e) {
+            return null;
+        }
+
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            DayInventory inventory = new DayInventory(day);
+            MappedDay mapped = read(channel, buffer, inventory);
+            swap(day, mapped);
+            return inventory;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            System.out.println("Day file " + path + " is damaged: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes changed rows of one time slot in place and forces them to disk. A day that is not mapped
+     * yet or does not have the time slot is written as a whole new file instead.
+     *
+     * @param inventory the day, already holding the changes
+     * @param time      the hour of the time slot
+     * @param changes   the new rows keyed by their position inside the time slot
+     * @return true if the changes are on disk
+     */
+    public boolean saveRows(DayInventory inventory, int time, Map<Integer, TableSlot> changes) {
+        MappedDay mapped = days.get(inventory.getDay());
+        if (mapped == null || !mapped.firstRow.containsKey(time)) {
+            return save(inventory);
+        }
+
+        try {
+            //New strings must be on disk before the header counts them and before a row points at them
+            for (TableSlot row : changes.values()) {
+                addString(mapped, row.getBookedBy());
+                addString(mapped, row.getCreditCard());
+            }
+            if (mapped.ids.size() != mapped.savedStrings) {
+                mapped.buffer.force(mapped.savedStringEnd, mapped.stringEnd - mapped.savedStringEnd);
+                mapped.buffer.putInt(STRING_COUNT, mapped.ids.size());
+                mapped.buffer.force(0, HEADER_SIZE);
+                mapped.savedStrings = mapped.ids.size();
+                mapped.savedStringEnd = mapped.stringEnd;
+            }
+
+            for (Map.Entry<Integer, TableSlot> change : changes.entrySet()) {
+                int row = mapped.firstRow.get(time) + change.getKey();
+                int sequence = mapped.sequences[row] + 1;
+                int offset = HEADER_SIZE + row * ROW_SIZE + (sequence & 1) * COPY_SIZE;
+                writeCopy(mapped.buffer, offset, change.getValue(), sequence, mapped.ids);
+                //The copy is in the mapping now and may reach the disk even if forcing it fails
+                mapped.sequences[row] = sequence;
+                mapped.buffer.force(offset, COPY_SIZE);
+            }
+            return true;
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes a whole day as a new file and maps it. The file is written to a temporary file first and
+     * then moved over the day file so a crash never leaves half a day behind.
+     *
+     * @param inventory the day to write
+     * @return true if the file was written and mapped
+     */
+    public boolean save(DayInventory inventory) {
+        List<TableSlot> rows = inventory.getAllSlots();
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> ids = new HashMap<>();
+        for (TableSlot row : rows) {
+            ids.computeIfAbsent(row.getBookedBy(), s -> add(strings, s));
+            ids.computeIfAbsent(row.getCreditCard(), s -> add(strings, s));
+        }
+
+        byte[] table;
+        try {
+            table = BinaryDayFile.encodeStrings(strings);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        int stringStart = HEADER_SIZE + rows.size() * ROW_SIZE;
+        //The string table of BinaryDayFile starts with its count, which lives in the header here
+        ByteBuffer file = ByteBuffer.allocate(stringStart + table.length - 4 + SPARE_BYTES);
+        writeHeader(file, rows.size(), strings.size());
+        for (int i = 0; i < rows.size(); i++) {
+            writeCopy(file, HEADER_SIZE + i * ROW_SIZE, rows.get(i), 0, ids);
+        }
+        file.put(stringStart, table, 4, table.length - 4);
+
+        Path target = path(inventory.getDay());
+        if (!TextDayStore.writeAtomically(target, file)) {
+            return false;
+        }
+
+        try {
+            FileChannel channel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                swap(inventory.getDay(), read(channel, buffer, new DayInventory(inventory.getDay())));
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    public boolean contains(String day) {
+        return Files.exists(path(day)) || text.contains(day);
+    }
+
+    public Set<String> storedDates() {
+        Set<String> dates = TextDayStore.storedDates(text.getDirectory(), EXTENSION);
+        dates.addAll(text.storedDates());
+        return dates;
+    }
+
+    /**
+     * Unmaps a past day and moves its files into the archive directory
+     *
+     * @param day the name of the day
+     * @return true if the files were moved or did not exist
+     */
+    public boolean archive(String day) {
+        MappedDay mapped = days.remove(day);
+        if (mapped != null) {
+            closeQuietly(mapped.channel);
+        }
+        return TextDayStore.archiveFile(text.getDirectory(), fileName(day)) && text.archive(day);
+    }
+
+    /**
+     * Unmaps nothing but closes every file channel. The mappings go away once they are no longer used.
+     */
+    public void close() {
+        for (MappedDay mapped : days.values()) {
+            closeQuietly(mapped.channel);
+        }
+        days.clear();
+    }
+
+    /**
+     * Checks a mapped file and reads every row into a day
+     *
+     * @param channel   the open file
+     * @param buffer    the whole file mapped
+     * @param inventory the empty day to add the rows to
+     * @return the mapped day
+     * @throws IOException if the header or a row is damaged
+     */
+    private static MappedDay read(FileChannel channel, MappedByteBuffer buffer, DayInventory inventory)
+            throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != FORMAT_VERSION || buffer.getShort(6) != COPY_SIZE
+                || buffer.getInt(HEADER_CHECKSUM) != checksum(buffer, 0, 12)) {
+            throw new IOException("bad header");
+        }
+        int rowCount = buffer.getInt(8);
+        int stringCount = buffer.getInt(STRING_COUNT);
+        MappedDay mapped = new MappedDay(channel, buffer, rowCount);
+
+        if (rowCount < 0 || stringCount < 0 || HEADER_SIZE + (long) rowCount * ROW_SIZE > buffer.capacity()) {
+            throw new IOException("bad counts");
+        }
+        int at = HEADER_SIZE + rowCount * ROW_SIZE;
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            int length = buffer.getShort(at);
+            byte[] bytes = new byte[length];
+            buffer.get(at + 2, bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8).intern();
+            mapped.ids.put(strings[i], i);
+            at += 2 + length;
+        }
+        mapped.stringEnd = at;
+        mapped.savedStrings = stringCount;
+        mapped.savedStringEnd = at;
+
+        for (int row = 0; row < rowCount; row++) {
+            int offset = HEADER_SIZE + row * ROW_SIZE;
+            boolean firstGood = isGood(buffer, offset, stringCount);
+            boolean secondGood = isGood(buffer, offset + COPY_SIZE, stringCount);
+            if (!firstGood && !secondGood) {
+                throw new IOException("row " + row + " has no good copy");
+            }
+
+            int first = buffer.getInt(offset + BinaryDayFile.RECORD_SIZE);
+            int second = buffer.getInt(offset + COPY_SIZE + BinaryDayFile.RECORD_SIZE);
+            boolean useSecond = secondGood && (!firstGood || second > first);
+            mapped.sequences[row] = useSecond ? second : first;
+            TableSlot slot = BinaryDayFile.readRecord(buffer, useSecond ? offset + COPY_SIZE : offset, strings);
+            mapped.firstRow.putIfAbsent(slot.getTime(), row);
+            inventory.addSlot(slot);
+        }
+        return mapped;
+    }
+
+    //This method checks a copy's checksum and that its strings are in the table
+    private static boolean isGood(ByteBuffer buffer, int offset, int stringCount) {
+        if (buffer.getInt(offset + BinaryDayFile.RECORD_SIZE + 4)
+                != checksum(buffer, offset, BinaryDayFile.RECORD_SIZE + 4)) {
+            return false;
+        }
+        int bookedBy = buffer.getInt(offset + 8);
+        int card = buffer.getInt(offset + 12);
+        return bookedBy >= 0 && bookedBy < stringCount && card >= 0 && card < stringCount;
+    }
+
+    private static void writeHeader(ByteBuffer buffer, int rowCount, int stringCount) {
+        buffer.putInt(0, MAGIC).putShort(4, FORMAT_VERSION).putShort(6, (short) COPY_SIZE).putInt(8, rowCount)
+                .putInt(STRING_COUNT, stringCount);
+        buffer.putInt(HEADER_CHECKSUM, checksum(buffer, 0, 12));
+    }
+
+    private static void writeCopy(ByteBuffer buffer, int offset, TableSlot row, int sequence,
+                                  Map<String, Integer> ids) {
+        BinaryDayFile.writeRecord(buffer.duplicate().position(offset), row, ids.get(row.getBookedBy()),
+                ids.get(row.getCreditCard()));
+        buffer.putInt(offset + BinaryDayFile.RECORD_SIZE, sequence);
+        buffer.putInt(offset + BinaryDayFile.RECORD_SIZE + 4, checksum(buffer, offset, BinaryDayFile.RECORD_SIZE + 4));
+    }
+
+    /**
+     * Adds a string to the end of the string table if it is not there yet, mapping a bigger file when
+     * the spare bytes run out. The string count in the header is not changed.
+     *
+     * @param mapped the day
+     * @param s      the string
+     * @throws IOException if the file can not be made bigger
+     */
+    private static void addString(MappedDay mapped, String s) throws IOException {
+        if (mapped.ids.containsKey(s)) {
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IOException("String too long for a day file");
+        }
+
+        int end = mapped.stringEnd + 2 + bytes.length;
+        if (end > mapped.buffer.capacity()) {
+            mapped.buffer = mapped.channel.map(FileChannel.MapMode.READ_WRITE, 0, end + SPARE_BYTES);
+        }
+        mapped.buffer.putShort(mapped.stringEnd, (short) bytes.length);
+        mapped.buffer.put(mapped.stringEnd + 2, bytes);
+        mapped.ids.put(s, mapped.ids.size());
+        mapped.stringEnd = end;
+    }
+
+    private static int add(List<String> strings, String s) {
+        strings.add(s);
+        return strings.size() - 1;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(offset + length).position(offset));
+        return (int) crc.getValue();
+    }
+
+    private void swap(String day, MappedDay mapped) {
+        MappedDay old = days.put(day, mapped);
+        if (old != null) {
+            closeQuietly(old.channel);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            //Nothing left to do with a channel that will not close
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.*;
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * This class provides jUnit test cases for the MappedDayStore. The tests ensure
+ * that bookings are written into the mapped file in place, that a damaged copy
+ * of a row falls back to the other copy, and that admin changes are kept.
+ *
+ * @version Dec 17, 2025
+ */
+
+public class MappedDayStoreTest {
+
+    //Initialize restaurant files
+    @BeforeEach
+    public void setUp() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Reset test files
+    @AfterEach
+    public void tearDown() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test that a booking is written in place and read back after a restart
+    @Test
+    public void testBookingWrittenInPlace() throws IOException {
+        List<String> text = Files.readAllLines(Paths.get("monday.txt"));
+        RestaurantDatabase db = new RestaurantDatabase(new MappedDayStore(), null);
+        long size = Files.size(Paths.get("monday.map"));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "monday", 1, 2, 11, false,
+            "Not Needed"));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Amy", "monday", 2, 2, 11, false,
+            "Not Needed"));
+        Assertions.assertEquals("Cancellation Made", db.cancelReservation("Amy", "monday"));
+        db.close();
+
+        Assertions.assertEquals(size, Files.size(Paths.get("monday.map")));
+        Assertions.assertEquals(text, Files.readAllLines(Paths.get("monday.txt")));
+        SeatInventory seats = new SeatInventory(new MappedDayStore(), null);
+        Assertions.assertEquals("Bob", seats.getDay("monday").getSlots(11).get(0).getBookedBy());
+        Assertions.assertFalse(seats.getDay("monday").getSlots(11).get(1).isBooked());
+        seats.close();
+    }
+
+    //Test that a torn copy of a row falls back to the copy written before it
+    @Test
+    public void testDamagedCopyFallsBack() throws IOException {
+        RestaurantDatabase db = new RestaurantDatabase(new MappedDayStore(), null);
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "tuesday", 1, 2, 11, false,
+            "Not Needed"));
+        db.close();
+
+        //The booking went to the second copy of the first row
+        flipByte(Paths.get("tuesday.map"), MappedDayStore.HEADER_SIZE + MappedDayStore.COPY_SIZE + 2);
+        SeatInventory seats = new SeatInventory(new MappedDayStore(), null);
+        Assertions.assertFalse(seats.getDay("tuesday").getSlots(11).get(0).isBooked());
+        seats.close();
+
+        flipByte(Paths.get("tuesday.map"), MappedDayStore.HEADER_SIZE + 2);
+        seats = new SeatInventory(new MappedDayStore(), null);
+        Assertions.assertNull(seats.getDay("tuesday"));
+        seats.close();
+    }
+
+    //Test that admin changes rewrite the mapped file and later bookings still go in place
+    @Test
+    public void testAdminChangeKept() {
+        RestaurantDatabase db = new RestaurantDatabase(new MappedDayStore(), null);
+        Assertions.assertEquals("Change Successful", db.adminChange("friday", false));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "friday", 1, 2, 20, false,
+            "Not Needed"));
+        Assertions.assertEquals("Change Successful", db.adminChange("friday", true));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Amy", "friday", 2, 2, 21, false,
+            "Not Needed"));
+        db.close();
+
+        SeatInventory seats = new SeatInventory(new MappedDayStore(), null);
+        Assertions.assertEquals("Bob", seats.getDay("friday").getSlots(20).get(0).getBookedBy());
+        Assertions.assertEquals(8, seats.getDay("friday").getSlots(21).size());
+        Assertions.assertEquals("Amy", seats.getDay("friday").getSlots(21).get(1).getBookedBy());
+        seats.close();
+    }
+
+    private static void flipByte(Path path, int offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            java.nio.ByteBuffer b = java.nio.ByteBuffer.allocate(1);
+            channel.read(b, offset);
+            b.put(0, (byte) (b.get(0) ^ 0xFF));
+            b.rewind();
+            channel.write(b, offset);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+
+/**
+ * This class keeps days only in memory. Each day starts from its text day file and nothing is
+ * written back, so every change is gone when the server stops. It is meant for tests, benchmarks,
+ * and demos where the files should stay as they are.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class MemoryDayStore implements DayStoreInterface {
+    private final TextDayStore text;
+
+    //This constructor starts each day from its text day file in the working directory
+    public MemoryDayStore() {
+        this(Paths.get(""));
+    }
+
+    /**
+     * This constructor starts each day from its text day file in a directory
+     *
+     * @param directory the directory of the day files
+     */
+    public MemoryDayStore(Path directory) {
+        this.text = new TextDayStore(directory);
+    }
+
+    /**
+     * Reads the starting state of a day from its text day file
+     *
+     * @param day the name of the day
+     * @return the DayInventory or null if the file can not be read
+     */
+    public DayInventory load(String day) {
+        return text.load(day);
+    }
+
+    /**
+     * Keeps nothing, SeatInventory already holds the day in memory
+     *
+     * @param inventory the day
+     * @return true
+     */
+    public boolean save(DayInventory inventory) {
+        return true;
+    }
+
+    /**
+     * Checks if the directory has a text day file for a day
+     *
+     * @param day the name of the day
+     * @return true if the day starts from a file
+     */
+    public boolean contains(String day) {
+        return text.contains(day);
+    }
+
+    /**
+     * Gets every date with a text day file in the directory
+     *
+     * @return the dates, written as yyyy-MM-dd
+     */
+    public Set<String> storedDates() {
+        return text.storedDates();
+    }
+
+    /**
+     * Leaves the text day file where it is, this store never changes files
+     *
+     * @param day the name of the day
+     * @return true
+     */
+    public boolean archive(String day) {
+        return true;
+    }
+}
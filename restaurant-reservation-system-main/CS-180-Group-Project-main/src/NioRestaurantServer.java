@@ -0,0 +1,502 @@
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is a non-blocking server that speaks the same line protocol as RestaurantServer and
+ * ClientHandler. One selector thread does all socket reads and writes, and only requests that have
+ * fully arrived are handed to a small pool of worker threads, so an idle client costs a channel and
+ * a few objects instead of a thread.
+ *
+ * <p>Each connection keeps the bytes of a line that has not finished arriving and the lines that
+ * have. Requests from one connection run one at a time and are answered in order. Once
+ * MAX_PENDING_LINES lines are waiting the server stops reading from that client until its requests
+ * catch up, so a client that sends faster than it is answered is slowed down instead of dropped.</p>
+ *
+ * <p>Responses are encoded into one reused buffer and written to the socket straight from it. Only
+ * the part a socket does not take right away is copied and kept with the connection.</p>
+ *
+ * @version Dec 18, 2025
+ */
+
+public class NioRestaurantServer implements Runnable, RestaurantServerInterface {
+    public static final int DEFAULT_WORKERS = 8;
+    public static final int MAX_LINE_LENGTH = 8192;
+    public static final int MAX_PENDING_LINES = 1024;
+
+    private static final byte[] LINE_END = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private ServerSocketChannel serverChannel;
+    private Selector selector;
+    private UserDatabase ud;
+    private ReservationProtocol protocol;
+    private ExecutorService workers;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(16 * 1024);
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(16 * 1024);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ConcurrentLinkedQueue<Connection> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeHandlers = new AtomicInteger();
+    private final AtomicInteger queuedHandlers = new AtomicInteger();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong acceptedConnections = new AtomicLong();
+    private volatile boolean shutDown;
+
+    /**
+     * This constructor opens the listening channel and initializes the databases and worker pool
+     * @param portNumber The port number for the server
+     * @param rd The restaurant database
+     * @param ud The user database
+     * @param workerCount How many threads run requests
+     */
+    public NioRestaurantServer(int portNumber, RestaurantDatabaseInterface rd, UserDatabase ud, int workerCount) {
+        this(portNumber, new RestaurantRegistry(rd), ud, workerCount);
+    }
+
+    /**
+     * This constructor opens the listening channel and initializes every restaurant the server hosts, the
+     * user database, and the worker pool
+     * @param portNumber The port number for the server
+     * @param restaurants The default restaurant and the restaurants clients name with At Restaurant
+     * @param ud The user database
+     * @param workerCount How many threads run requests
+     */
+    public NioRestaurantServer(int portNumber, RestaurantRegistry restaurants, UserDatabase ud, int workerCount) {
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(portNumber));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (Exception e) {
+            closeQuietly(selector);
+            closeQuietly(serverChannel);
+            serverChannel = null;
+            return;
+        }
+
+        this.ud = ud;
+        this.protocol = new ReservationProtocol(ud, restaurants);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "nio-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The selector loop accepts clients, reads their lines, hands full requests to the workers, and
+     * writes back responses until the server is shut down.
+     */
+    public void run() {
+        if (serverChannel == null) {
+            return;
+        }
+
+        try {
+            while (!shutDown) {
+                selector.select();
+                Connection done;
+                while ((done = finished.poll()) != null) {
+                    complete(done);
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(connection);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    /**
+     * Stops the selector loop and lets running requests finish for up to the given time
+     * @param timeoutSeconds How long to wait for running requests
+     */
+    public void shutdown(long timeoutSeconds) {
+        shutDown = true;
+        if (serverChannel == null) {
+            return;
+        }
+
+        selector.wakeup();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets how many requests the workers are running right now
+     * @return the number of running requests
+     */
+    public int getActiveHandlers() {
+        return activeHandlers.get();
+    }
+
+    /**
+     * Gets how many full requests are waiting for a worker
+     * @return the number of queued requests
+     */
+    public int getQueuedHandlers() {
+        return queuedHandlers.get();
+    }
+
+    /**
+     * Gets how many clients have been accepted since the server started
+     * @return the number of accepted connections
+     */
+    public long getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    /**
+     * Gets how many clients are connected right now
+     * @return the number of open connections
+     */
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            acceptedConnections.incrementAndGet();
+            openConnections.incrementAndGet();
+        }
+    }
+
+    //This method reads what the client sent, splits it into lines, and starts the next request
+    private void read(Connection connection) {
+        int count;
+        try {
+            readBuffer.clear();
+            count = connection.channel.read(readBuffer);
+        } catch (IOException e) {
+            close(connection);
+            return;
+        }
+
+        if (count < 0) {
+            //A channel at its end is always readable, so stop asking or the selector spins until it is closed
+            connection.inputClosed = true;
+            setInterest(connection);
+        } else {
+            readBuffer.flip();
+            if (!connection.addBytes(readBuffer)) {
+                close(connection);
+                return;
+            }
+            setInterest(connection);
+        }
+        dispatch(connection);
+    }
+
+    /**
+     * Hands the connection's next request to a worker if it has fully arrived and nothing else
+     * from the connection is running
+     */
+    private void dispatch(Connection connection) {
+        if (connection.busy || connection.closing) {
+            return;
+        }
+
+        int needed;
+        try {
+            needed = connection.admin ? ReservationProtocol.ADMIN_ARGUMENTS
+                    : ReservationProtocol.getRequestLength(connection.lines);
+        } catch (NumberFormatException e) {
+            close(connection);
+            return;
+        }
+        if (needed < 0 || connection.lines.size() < needed) {
+            if (connection.inputClosed) {
+                finishThenClose(connection);
+            }
+            return;
+        }
+
+        String[] request = new String[needed];
+        for (int i = 0; i < needed; i++) {
+            request[i] = connection.lines.poll();
+        }
+        setInterest(connection);
+
+        connection.busy = true;
+        queuedHandlers.incrementAndGet();
+        try {
+            workers.execute(() -> process(connection, request));
+        } catch (RejectedExecutionException e) {
+            queuedHandlers.decrementAndGet();
+            close(connection);
+        }
+    }
+
+    //This method runs on a worker thread and hands the result back to the selector thread
+    private void process(Connection connection, String[] request) {
+        queuedHandlers.decrementAndGet();
+        activeHandlers.incrementAndGet();
+        try {
+            if (connection.admin) {
+                connection.result = protocol.executeAdmin(connection.adminRestaurant, request[0], request[1]);
+            } else {
+                connection.result = protocol.executeRequest(Arrays.asList(request));
+            }
+        } catch (RuntimeException e) {
+            //A bad number ends the client the same way it ends a ClientHandler
+            connection.result = null;
+        } finally {
+            activeHandlers.decrementAndGet();
+        }
+
+        finished.add(connection);
+        selector.wakeup();
+    }
+
+    //This method queues a finished request's response and starts the connection's next request
+    private void complete(Connection connection) {
+        connection.busy = false;
+        ReservationProtocol.Result result = connection.result;
+        connection.result = null;
+        if (!connection.key.isValid()) {
+            return;
+        }
+        if (result == null) {
+            close(connection);
+            return;
+        }
+
+        if (!send(connection, result.getResponse())) {
+            return;
+        }
+        connection.admin = result.isAdminHandOff();
+        connection.adminRestaurant = result.getRestaurant();
+        if (result.isCloseAfter()) {
+            finishThenClose(connection);
+        }
+        write(connection);
+        dispatch(connection);
+    }
+
+    /**
+     * Encodes a response line into the write buffer a piece at a time and sends each piece, keeping a
+     * copy of whatever the socket does not take. This runs on the selector thread, which owns the
+     * write buffer and the encoder.
+     *
+     * @param connection the connection to answer
+     * @param response   the response line without its line end
+     * @return false if the connection was closed
+     */
+    private boolean send(Connection connection, String response) {
+        CharBuffer chars = CharBuffer.wrap(response);
+        encoder.reset();
+        boolean encoded = false;
+        while (true) {
+            writeBuffer.clear();
+            if (!encoded) {
+                encoded = encoder.encode(chars, writeBuffer, true).isUnderflow();
+                if (encoded) {
+                    encoder.flush(writeBuffer);
+                }
+            }
+            boolean last = encoded && writeBuffer.remaining() >= LINE_END.length;
+            if (last) {
+                writeBuffer.put(LINE_END);
+            }
+            writeBuffer.flip();
+
+            if (connection.output.isEmpty()) {
+                try {
+                    connection.channel.write(writeBuffer);
+                } catch (IOException e) {
+                    close(connection);
+                    return false;
+                }
+            }
+            if (writeBuffer.hasRemaining()) {
+                ByteBuffer rest = ByteBuffer.allocate(writeBuffer.remaining());
+                rest.put(writeBuffer).flip();
+                connection.output.add(rest);
+            }
+            if (last) {
+                return true;
+            }
+        }
+    }
+
+    //This method writes as much waiting output as the socket takes and waits for OP_WRITE for the rest
+    private void write(Connection connection) {
+        try {
+            while (!connection.output.isEmpty()) {
+                ByteBuffer buffer = connection.output.peek();
+                connection.channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    setInterest(connection);
+                    return;
+                }
+                connection.output.poll();
+            }
+        } catch (IOException e) {
+            close(connection);
+            return;
+        }
+
+        if (connection.closing) {
+            close(connection);
+        } else {
+            setInterest(connection);
+        }
+    }
+
+    /**
+     * Reads from the client only while it has not ended its input and fewer than MAX_PENDING_LINES
+     * lines are waiting, and waits to write only while output is left
+     */
+    private void setInterest(Connection connection) {
+        boolean reading = !connection.inputClosed && connection.lines.size() < MAX_PENDING_LINES;
+        int ops = reading ? SelectionKey.OP_READ : 0;
+        if (!connection.output.isEmpty()) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        connection.key.interestOps(ops);
+    }
+
+    private void finishThenClose(Connection connection) {
+        connection.closing = true;
+        if (connection.output.isEmpty() && !connection.busy) {
+            close(connection);
+        }
+    }
+
+    private void close(Connection connection) {
+        if (connection.key != null && connection.key.isValid()) {
+            openConnections.decrementAndGet();
+        }
+        closeQuietly(connection.key);
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        if (key == null) {
+            return;
+        }
+        key.cancel();
+        closeQuietly(key.channel());
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+
+    /**
+     * This class is the state of one client. Everything except result is only touched by the
+     * selector thread.
+     */
+    private static class Connection {
+        private final SocketChannel channel;
+        private final ArrayDeque<String> lines = new ArrayDeque<>();
+        private final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+        private SelectionKey key;
+        private ByteArrayOutputStream partialLine;
+        private boolean lastWasReturn;
+        private boolean busy;
+        private boolean admin;
+        private String adminRestaurant;
+        private boolean closing;
+        private boolean inputClosed;
+        private volatile ReservationProtocol.Result result;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Splits bytes into lines the way BufferedReader.readLine does, so \n, \r, and \r\n all
+         * end a line
+         *
+         * @return false if a line is longer than MAX_LINE_LENGTH
+         */
+        private boolean addBytes(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n' && lastWasReturn) {
+                    lastWasReturn = false;
+                    continue;
+                }
+                lastWasReturn = b == '\r';
+                if (b == '\n' || b == '\r') {
+                    lines.add(partialLine == null ? "" : partialLine.toString(StandardCharsets.UTF_8));
+                    partialLine = null;
+                    continue;
+                }
+
+                if (partialLine == null) {
+                    partialLine = new ByteArrayOutputStream(64);
+                }
+                partialLine.write(b);
+                if (partialLine.size() > MAX_LINE_LENGTH) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Field;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for NioRestaurantServer. Clients talk to a running server over real sockets and must get
+ * the same answers ClientHandler gives.
+ *
+ * @version Dec 12, 2025
+ */
+public class NioRestaurantServerTest {
+
+    private RestaurantDatabase rd;
+    private UserDatabase ud;
+    private NioRestaurantServer server;
+
+    @BeforeEach
+    public void setup() {
+        InitializeRestaurantFiles.initializeFiles();
+        rd = new RestaurantDatabase();
+        ud = new UserDatabase("users.txt", rd);
+        ud.addUser("Admin", "Admin");
+        ud.addUser("nioUser", "nioPass");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (server != null) {
+            server.shutdown(5);
+        }
+        ud.deleteUser("nioUser", "nioPass");
+        ud.deleteUser("Admin", "Admin");
+    }
+
+    private int start(int port) {
+        server = new NioRestaurantServer(port, rd, ud, 2);
+        new Thread(server).start();
+        return port;
+    }
+
+    /** Test that an invalid port leaves the channel null and run returns */
+    @Test
+    public void testInvalidPortResultsInNullChannel() throws Exception {
+        NioRestaurantServer nio = new NioRestaurantServer(-1, rd, ud, 2);
+
+        Field f = NioRestaurantServer.class.getDeclaredField("serverChannel");
+        f.setAccessible(true);
+        assertNull(f.get(nio));
+        nio.run();
+    }
+
+    /** Test that requests sent in one write and split across lines are answered in order */
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        int port = start(5101);
+
+        try (Socket socket = new Socket("localhost", port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            OutputStream out = socket.getOutputStream();
+            out.write(("Logging in\nnioUser\nnioPass\r\nMaking Reservation\r\nnioUser\nmonday\n1\n2\n11\nNo\n"
+                    + "Canceling Reservation\nnioUser\nmon").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            out.write("day\r".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            assertEquals("Success", in.readLine());
+            assertEquals("Reservation Made", in.readLine());
+            assertEquals("Success", in.readLine());
+        }
+    }
+
+    /** Test that responses bigger than the write buffer arrive whole and in order */
+    @Test
+    public void testLargeBatchResponse() throws Exception {
+        int port = start(5104);
+        String tables = rd.getAvailableTables("monday", 11);
+        int count = ReservationProtocol.MAX_BATCH_SIZE;
+
+        try (Socket socket = new Socket("localhost", port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            StringBuilder request = new StringBuilder("Batch\n" + count + "\n");
+            for (int i = 0; i < count; i++) {
+                request.append("Getting All Available Tables\nmonday\n11\n");
+            }
+            socket.getOutputStream().write(request.toString().getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+
+            assertTrue(tables.length() * count > 16 * 1024);
+            for (int i = 0; i < count; i++) {
+                assertEquals(tables, in.readLine());
+            }
+        }
+    }
+
+    /** Test that a client sending more than MAX_PENDING_LINES lines at once is slowed down, not dropped */
+    @Test
+    public void testManyPendingLines() throws Exception {
+        int port = start(5105);
+        int count = NioRestaurantServer.MAX_PENDING_LINES;
+
+        try (Socket socket = new Socket("localhost", port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            StringBuilder request = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                request.append("Logging in\nnioUser\nnioPass\n");
+            }
+            Thread writer = new Thread(() -> {
+                try {
+                    socket.getOutputStream().write(request.toString().getBytes(StandardCharsets.UTF_8));
+                    socket.getOutputStream().flush();
+                } catch (Exception ignored) {
+                    // The reads below fail if the request was not sent
+                }
+            });
+            writer.start();
+
+            for (int i = 0; i < count; i++) {
+                assertEquals("Success", in.readLine());
+            }
+            writer.join(5000);
+        }
+        assertEquals(1, server.getAcceptedConnections());
+    }
+
+    /** Test that a client that ends its input while a request runs gets the answer without the selector spinning */
+    @Test
+    public void testHalfCloseWhileRequestRuns() throws Exception {
+        RestaurantDatabase slow = new RestaurantDatabase() {
+            @Override
+            public String getAvailableTables(String day, int time) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getAvailableTables(day, time);
+            }
+        };
+        server = new NioRestaurantServer(5106, slow, ud, 2);
+        Thread selectorThread = new Thread(server);
+        selectorThread.start();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        try (Socket socket = new Socket("localhost", 5106)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            socket.getOutputStream().write("Getting All Available Tables\nmonday\n11\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+            long cpuBefore = threads.getThreadCpuTime(selectorThread.getId());
+
+            assertEquals(slow.getAvailableTables("monday", 11), in.readLine());
+            assertNull(in.readLine());
+            long cpuUsed = threads.getThreadCpuTime(selectorThread.getId()) - cpuBefore;
+            assertTrue(cpuUsed < 300_000_000L, "selector used " + cpuUsed + " ns");
+        }
+        slow.close();
+    }
+
+    /** Test that a batch gets one response line per request and a nested batch is Failed */
+    @Test
+    public void testBatch() throws Exception {
+        int port = start(5103);
+
+        try (Socket socket = new Socket("localhost", port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            out.print("Batch\n3\nLogging in\nnioUser\nnioPass\nBatch\n"
+                    + "Getting All Available Tables\nwednesday\n11\n");
+            out.flush();
+
+            assertEquals("Success", in.readLine());
+            assertEquals("Failed", in.readLine());
+            assertTrue(in.readLine().contains(";"));
+        }
+    }
+
+    /** Test that the admin gets handed off and the connection closes after the admin request */
+    @Test
+    public void testAdminHandOff() throws Exception {
+        int port = start(5102);
+
+        try (Socket socket = new Socket("localhost", port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            out.println("Logging in");
+            out.println("Admin");
+            out.println("Admin");
+            assertEquals("Admin HandOff", in.readLine());
+
+            out.println("tuesday");
+            out.println("Close Late");
+            assertEquals("Success", in.readLine());
+            assertNull(in.readLine());
+        }
+        assertEquals(1, server.getAcceptedConnections());
+    }
+}
@@ -0,0 +1,202 @@
+import org.junit.jupiter.api.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * This class provides jUnit test cases for RestaurantDatabase in OPTIMISTIC booking mode. The
+ * tests ensure that it answers every request the same way the locking mode does, that of many
+ * bookings for one table exactly one is made and the rest are told the table is booked, and that
+ * under heavy contention no table is ever booked twice, no user gets two tables of one day, and
+ * the journal keeps exactly the bookings that were made.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class OptimisticBookingTest {
+
+    private static final int[] TIMES = {11, 12, 13, 14, 17, 18, 19, 20};
+
+    //Initialize restaurant files
+    @BeforeEach
+    public void setUp() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Reset test files
+    @AfterEach
+    public void tearDown() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test that every request gets the same answer in both booking modes
+    @Test
+    public void testSameAnswersAsLocking() {
+        RestaurantDatabase locking = new RestaurantDatabase(new MemoryDayStore(), null,
+            RestaurantDatabase.BookingMode.LOCKING);
+        RestaurantDatabase optimistic = new RestaurantDatabase(new MemoryDayStore(), null,
+            RestaurantDatabase.BookingMode.OPTIMISTIC);
+        Object[][] bookings = {
+            {"Bob", 1, 2, 11, false, "Not Needed"},
+            {"Bob", 2, 2, 12, false, "Not Needed"},
+            {"Amy", 1, 2, 11, false, "Not Needed"},
+            {"Amy", 1, 3, 12, false, "Not Needed"},
+            {"Amy", 8, 6, 12, true, "1234"},
+            {"Amy", 8, 3, 12, true, "1234567812345678"},
+            {"Amy", 4, 4, 12, true, "1234567812345678"},
+            {"Amy", 8, 6, 12, false, "Not Needed"},
+            {"Amy", 9, 2, 12, false, "Not Needed"},
+            {"N/A", 3, 2, 12, false, "Not Needed"},
+            {"Amy", 8, 6, 12, true, "1234567812345678"},
+        };
+        for (Object[] b : bookings) {
+            Assertions.assertEquals(
+                locking.makeReservation((String) b[0], "monday", (int) b[1], (int) b[2], (int) b[3], (boolean) b[4],
+                    (String) b[5]),
+                optimistic.makeReservation((String) b[0], "monday", (int) b[1], (int) b[2], (int) b[3],
+                    (boolean) b[4], (String) b[5]), Arrays.toString(b));
+        }
+        Assertions.assertEquals(locking.cancelReservation("Amy", "monday"), optimistic.cancelReservation("Amy",
+            "monday"));
+        Assertions.assertEquals(locking.cancelReservation("Amy", "monday"), optimistic.cancelReservation("Amy",
+            "monday"));
+        Assertions.assertEquals(locking.cancelAllReservations("Bob"), optimistic.cancelAllReservations("Bob"));
+        Assertions.assertEquals(locking.adminChange("monday", false), optimistic.adminChange("monday", false));
+        Assertions.assertEquals(locking.getWeekAvailability(), optimistic.getWeekAvailability());
+        locking.close();
+        optimistic.close();
+    }
+
+    //Test that of many users booking one table at once exactly one gets it every time
+    @Test
+    public void testOneWinnerPerTable() throws Exception {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null,
+            RestaurantDatabase.BookingMode.OPTIMISTIC);
+        int threads = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 50; round++) {
+                CyclicBarrier start = new CyclicBarrier(threads);
+                List<Future<String>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    String user = "user" + i;
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        return db.makeReservation(user, "friday", 5, 4, 19, false, "Not Needed");
+                    }));
+                }
+
+                int made = 0;
+                String winner = null;
+                for (int i = 0; i < threads; i++) {
+                    String result = futures.get(i).get(30, TimeUnit.SECONDS);
+                    if (result.equals("Reservation Made")) {
+                        made++;
+                        winner = "user" + i;
+                    } else {
+                        Assertions.assertEquals("Table Already Booked", result);
+                    }
+                }
+                Assertions.assertEquals(1, made, "round " + round);
+                Assertions.assertEquals("Cancellation Made", db.cancelReservation(winner, "friday"));
+            }
+        } finally {
+            pool.shutdownNow();
+            db.close();
+        }
+    }
+
+    //Test that many threads booking and cancelling at random never book a table or a user twice
+    @Test
+    public void testNoDoubleBookingsUnderContention() throws Exception {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null,
+            RestaurantDatabase.BookingMode.OPTIMISTIC);
+        try {
+            int net = stress(db, 32, 3000, 48);
+            Assertions.assertEquals(net, bookedTables(db));
+            Assertions.assertEquals(net, cancelEveryone(db, 48));
+            Assertions.assertEquals(0, bookedTables(db));
+        } finally {
+            db.close();
+        }
+    }
+
+    //Test that the journal keeps exactly the bookings made under contention
+    @Test
+    public void testJournalKeepsContendedBookings() throws Exception {
+        RestaurantDatabase db = new RestaurantDatabase(new TextDayStore(),
+            new ReservationJournal(ReservationJournal.DEFAULT_FILE), RestaurantDatabase.BookingMode.OPTIMISTIC);
+        int net = stress(db, 8, 150, 24);
+        long[] masks = new long[TIMES.length];
+        for (int i = 0; i < TIMES.length; i++) {
+            masks[i] = db.getFreeTableMask("sunday", TIMES[i]);
+        }
+        db.close();
+
+        db = new RestaurantDatabase(new TextDayStore(), new ReservationJournal(ReservationJournal.DEFAULT_FILE),
+            RestaurantDatabase.BookingMode.OPTIMISTIC);
+        try {
+            for (int i = 0; i < TIMES.length; i++) {
+                Assertions.assertEquals(masks[i], db.getFreeTableMask("sunday", TIMES[i]));
+            }
+            Assertions.assertEquals(net, cancelEveryone(db, 24));
+        } finally {
+            db.close();
+        }
+    }
+
+    /**
+     * Runs threads that book random tables on sunday and cancel at random for users from one pool
+     *
+     * @return how many bookings were made minus how many were canceled
+     */
+    private static int stress(RestaurantDatabase db, int threads, int opsPerThread, int users) throws Exception {
+        AtomicInteger net = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < opsPerThread; i++) {
+                    String user = "user" + random.nextInt(users);
+                    if (random.nextInt(3) == 0) {
+                        if (db.cancelReservation(user, "sunday").equals("Cancellation Made")) {
+                            net.decrementAndGet();
+                        }
+                    } else if (db.makeReservation(user, "sunday", 1 + random.nextInt(7), 2,
+                            TIMES[random.nextInt(TIMES.length)], false, "Not Needed").equals("Reservation Made")) {
+                        net.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        return net.get();
+    }
+
+    //Counts the booked tables 1 to 7 on sunday
+    private static int bookedTables(RestaurantDatabase db) {
+        int booked = 0;
+        for (int time : TIMES) {
+            booked += 7 - Long.bitCount(db.getFreeTableMask("sunday", time) & 0x7fL);
+        }
+        return booked;
+    }
+
+    //Cancels every user once, which frees every table only if no user had two
+    private static int cancelEveryone(RestaurantDatabase db, int users) {
+        int canceled = 0;
+        for (int i = 0; i < users; i++) {
+            if (db.cancelReservation("user" + i, "sunday").equals("Cancellation Made")) {
+                canceled++;
+            }
+        }
+        return canceled;
+    }
+}
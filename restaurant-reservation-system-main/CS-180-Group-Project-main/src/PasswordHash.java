@@ -0,0 +1,112 @@
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * This class is a salted hash of a password as it is kept in memory and in the user file. The
+ * password itself is never stored, it can only be checked against the hash.
+ *
+ * <p>In the user file a hash is written as pbkdf2$iterations$salt$hash with the salt and hash in
+ * Base64, which never contains the comma that separates the username.</p>
+ *
+ * @version Dec 13, 2025
+ */
+
+public final class PasswordHash {
+    public static final String PREFIX = "pbkdf2";
+    public static final int ITERATIONS = 10000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+    private final byte[] salt;
+    private final byte[] hash;
+
+    private PasswordHash(int iterations, byte[] salt, byte[] hash) {
+        this.iterations = iterations;
+        this.salt = salt;
+        this.hash = hash;
+    }
+
+    /**
+     * Hashes a password with a new random salt
+     *
+     * @param password the password
+     * @return the hash
+     */
+    public static PasswordHash create(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        return new PasswordHash(ITERATIONS, salt, derive(password, salt, ITERATIONS));
+    }
+
+    /**
+     * Checks whether a field from the user file is a hash or an old plain text password
+     *
+     * @param field the password field of a user line
+     * @return true if the field is a hash
+     */
+    public static boolean isHash(String field) {
+        return field.startsWith(PREFIX + "$");
+    }
+
+    /**
+     * Reads a hash written by toField
+     *
+     * @param field the password field of a user line
+     * @return the hash
+     * @throws IllegalArgumentException if the field is not a hash
+     */
+    public static PasswordHash fromField(String field) {
+        String[] parts = field.split("\\$");
+        if (parts.length != 4 || !parts[0].equals(PREFIX)) {
+            throw new IllegalArgumentException("Not a password hash: " + field);
+        }
+        try {
+            return new PasswordHash(Integer.parseInt(parts[1]), Base64.getDecoder().decode(parts[2]),
+                    Base64.getDecoder().decode(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Not a password hash: " + field, e);
+        }
+    }
+
+    /**
+     * Checks a password against this hash in constant time
+     *
+     * @param password the password to check
+     * @return true if the password is the one that was hashed
+     */
+    public boolean matches(String password) {
+        if (password == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(hash, derive(password, salt, iterations));
+    }
+
+    /**
+     * Gets the hash as it is written in the user file
+     *
+     * @return the password field of a user line
+     */
+    public String toField() {
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class decides which days can be booked. The seven weekday names, monday to sunday, are the
+ * days the restaurant has always had and can always be booked. A date written as yyyy-MM-dd, for
+ * example 2026-01-15, can be booked from today until daysAhead days from today. Dates before today
+ * are past and are archived.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class ReservationCalendar {
+    public static final int DEFAULT_DAYS_AHEAD = 120;
+
+    private static final Set<String> WEEKDAYS = new HashSet<>(Arrays.asList(SeatInventory.DAYS));
+
+    private final Clock clock;
+    private final int daysAhead;
+
+    //This constructor opens DEFAULT_DAYS_AHEAD days from today on the system clock
+    public ReservationCalendar() {
+        this(Clock.systemDefaultZone(), DEFAULT_DAYS_AHEAD);
+    }
+
+    /**
+     * This constructor opens daysAhead days from today on the given clock
+     *
+     * @param clock     the clock that says what today is
+     * @param daysAhead how many days from today can be booked
+     */
+    public ReservationCalendar(Clock clock, int daysAhead) {
+        this.clock = clock;
+        this.daysAhead = daysAhead;
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * Gets the last date that can be booked
+     *
+     * @return today plus daysAhead minus one
+     */
+    public LocalDate lastDay() {
+        return today().plusDays(daysAhead - 1);
+    }
+
+    public static boolean isWeekday(String day) {
+        return WEEKDAYS.contains(day);
+    }
+
+    /**
+     * Reads a day written as a date
+     *
+     * @param day the name of the day
+     * @return the date or null if the day is not written as yyyy-MM-dd
+     */
+    public static LocalDate toDate(String day) {
+        if (day == null || day.length() != 10 || day.charAt(4) != '-' || day.charAt(7) != '-') {
+            return null;
+        }
+        try {
+            return LocalDate.parse(day);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks if a day can be booked now
+     *
+     * @param day the name of the day
+     * @return true if the day is a weekday name or a date from today to lastDay
+     */
+    public boolean isOpen(String day) {
+        if (isWeekday(day)) {
+            return true;
+        }
+        LocalDate date = toDate(day);
+        return date != null && isOpen(date);
+    }
+
+    /**
+     * Checks if a date can be booked now
+     *
+     * @param date the date
+     * @return true if the date is from today to lastDay
+     */
+    public boolean isOpen(LocalDate date) {
+        LocalDate today = today();
+        return !date.isBefore(today) && date.isBefore(today.plusDays(daysAhead));
+    }
+
+    /**
+     * Checks if a day is a date before today
+     *
+     * @param day the name of the day
+     * @return true if the day is a date that has passed
+     */
+    public boolean isPast(String day) {
+        LocalDate date = toDate(day);
+        return date != null && date.isBefore(today());
+    }
+}
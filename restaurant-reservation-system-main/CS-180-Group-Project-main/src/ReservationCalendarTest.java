@@ -0,0 +1,155 @@
+import org.junit.jupiter.api.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+
+/**
+ * This class provides jUnit test cases for ReservationCalendar and booking by date. The tests
+ * ensure that dates from today until the last open day can be booked and others can not, that a
+ * date gets a file only once it is booked and keeps its bookings after the database is opened
+ * again, and that sweeping the calendar archives past dates and drops unbooked dates from memory.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class ReservationCalendarTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    //Initialize restaurant files
+    @BeforeEach
+    public void setUp() throws IOException {
+        InitializeRestaurantFiles.initializeFiles();
+        deleteArchive();
+    }
+
+    //Reset test files
+    @AfterEach
+    public void tearDown() throws IOException {
+        InitializeRestaurantFiles.initializeFiles();
+        deleteArchive();
+    }
+
+    //Test which days the calendar has open
+    @Test
+    public void testOpenDays() {
+        ReservationCalendar calendar = calendar(TODAY);
+        Assertions.assertTrue(calendar.isOpen("monday"));
+        Assertions.assertTrue(calendar.isOpen("2026-03-01"));
+        Assertions.assertTrue(calendar.isOpen("2026-06-28"));
+        Assertions.assertEquals(LocalDate.of(2026, 6, 28), calendar.lastDay());
+        Assertions.assertFalse(calendar.isOpen("2026-06-29"));
+        Assertions.assertFalse(calendar.isOpen("2026-02-28"));
+        Assertions.assertFalse(calendar.isOpen("2026-02-30"));
+        Assertions.assertFalse(calendar.isOpen("2026-3-01"));
+        Assertions.assertFalse(calendar.isOpen("someday"));
+        Assertions.assertTrue(calendar.isPast("2026-02-28"));
+        Assertions.assertFalse(calendar.isPast("monday"));
+    }
+
+    //Test that a date 100 days ahead is booked and written only once it changes
+    @Test
+    public void testBookDateFarAhead() {
+        RestaurantDatabase db = open(new TextDayStore(), TODAY);
+        String date = TODAY.plusDays(100).toString();
+        Assertions.assertEquals(0xffL, db.getFreeTableMask(date, 19));
+        Assertions.assertEquals(8, db.getAllAvailableTablesForDayAndTime(date, 21).size());
+        Assertions.assertFalse(Files.exists(Paths.get(date + ".txt")));
+
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", date, 3, 2, 19, false, "Not Needed"));
+        Assertions.assertEquals(0xfbL, db.getFreeTableMask(date, 19));
+        Assertions.assertTrue(Files.exists(Paths.get(date + ".txt")));
+        Assertions.assertEquals("Invalid Day", db.makeReservation("Bob", "2026-02-28", 3, 2, 19, false,
+            "Not Needed"));
+        Assertions.assertEquals("Invalid Day", db.makeReservation("Bob", "2026-06-29", 3, 2, 19, false,
+            "Not Needed"));
+        Assertions.assertNull(db.getAvailableTables("2026-06-29", 19));
+        db.close();
+
+        db = open(new TextDayStore(), TODAY);
+        Assertions.assertEquals(0xfbL, db.getFreeTableMask(date, 19));
+        Assertions.assertEquals(1, db.cancelAllReservations("Bob"));
+        Assertions.assertEquals(0xffL, db.getFreeTableMask(date, 19));
+        db.close();
+    }
+
+    //Test that bookings of a date are replayed from the journal
+    @Test
+    public void testJournalKeepsDates() throws IOException {
+        String date = TODAY.plusDays(10).toString();
+        RestaurantDatabase db = new RestaurantDatabase(new TextDayStore(),
+            new ReservationJournal(ReservationJournal.DEFAULT_FILE), RestaurantDatabase.BookingMode.LOCKING,
+            calendar(TODAY));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Amy", date, 8, 6, 12, true,
+            "1234567812345678"));
+        Assertions.assertEquals("Change Successful", db.adminChange(date, false));
+        db.close();
+
+        db = new RestaurantDatabase(new TextDayStore(), new ReservationJournal(ReservationJournal.DEFAULT_FILE),
+            RestaurantDatabase.BookingMode.LOCKING, calendar(TODAY));
+        Assertions.assertEquals(0x7fL, db.getFreeTableMask(date, 12));
+        Assertions.assertEquals("", db.getAvailableTables(date, 21));
+        db.close();
+    }
+
+    //Test that sweeping archives a booked date once it is past and it can not be booked any more
+    @Test
+    public void testSweepArchivesPastDates() {
+        String date = TODAY.plusDays(2).toString();
+        RestaurantDatabase db = open(new TextDayStore(), TODAY);
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", date, 1, 2, 11, false, "Not Needed"));
+        Assertions.assertEquals(0, db.sweepCalendar());
+        db.close();
+
+        db = open(new TextDayStore(), TODAY.plusDays(3));
+        Assertions.assertEquals(1, db.sweepCalendar());
+        Assertions.assertFalse(Files.exists(Paths.get(date + ".txt")));
+        Assertions.assertTrue(Files.exists(Paths.get(TextDayStore.ARCHIVE_DIR, date + ".txt")));
+        Assertions.assertEquals("Invalid Day", db.cancelReservation("Bob", date));
+        Assertions.assertEquals(0, db.sweepCalendar());
+        db.close();
+    }
+
+    //Test that sweeping drops dates nobody booked from memory and keeps booked and closed dates
+    @Test
+    public void testSweepEvictsUnbookedDates() {
+        RestaurantDatabase db = open(new MemoryDayStore(), TODAY);
+        for (int i = 0; i < 30; i++) {
+            Assertions.assertEquals(0xffL, db.getFreeTableMask(TODAY.plusDays(i).toString(), 12));
+        }
+        String booked = TODAY.plusDays(5).toString();
+        String closed = TODAY.plusDays(6).toString();
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", booked, 4, 4, 17, false,
+            "Not Needed"));
+        Assertions.assertEquals("Change Successful", db.adminChange(closed, false));
+
+        Assertions.assertEquals(28, db.sweepCalendar());
+        Assertions.assertEquals(0xf7L, db.getFreeTableMask(booked, 17));
+        Assertions.assertEquals("", db.getAvailableTables(closed, 21));
+        Assertions.assertEquals(0xffL, db.getFreeTableMask(TODAY.plusDays(7).toString(), 12));
+        db.close();
+    }
+
+    private static ReservationCalendar calendar(LocalDate today) {
+        Clock clock = Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        return new ReservationCalendar(clock, 120);
+    }
+
+    private static RestaurantDatabase open(DayStoreInterface store, LocalDate today) {
+        return new RestaurantDatabase(store, null, RestaurantDatabase.BookingMode.LOCKING, calendar(today));
+    }
+
+    private static void deleteArchive() throws IOException {
+        Path archive = Paths.get(TextDayStore.ARCHIVE_DIR);
+        if (!Files.exists(archive)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(archive)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(archive);
+    }
+}
@@ -0,0 +1,272 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This class is an append-only journal of reservation changes. Each change is one line with a
+ * checksum so a line cut off by a crash is found and ignored when the journal is replayed.
+ *
+ * <p>Lines are written by one writer thread. Every line waiting when the writer wakes up is written
+ * and synced to disk together, so many bookings share one fsync (group commit). A caller waits in
+ * awaitDurable until its line is on disk.</p>
+ *
+ * @version Dec 9, 2025
+ */
+
+public class ReservationJournal implements AutoCloseable {
+    public static final String DEFAULT_FILE = "reservations.journal";
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Thread writer;
+    private List<String> pending;
+    private long appendedSeq;
+    private long durableSeq;
+    private int recordCount;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * This constructor opens the journal file, creating it if it does not exist, and starts the writer thread
+     *
+     * @param fileName the journal file
+     * @throws IOException if the journal file can not be opened
+     */
+    public ReservationJournal(String fileName) throws IOException {
+        this.path = Paths.get(fileName);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ);
+        this.pending = new ArrayList<>();
+        this.recordCount = readRecords().size();
+        this.channel.truncate(validLength());
+        this.channel.position(channel.size());
+        this.writer = new Thread(this::writeLoop, "journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Adds a record to the journal. The record is not durable until awaitDurable returns for its sequence number.
+     *
+     * @param record the record to add, which must not contain a line break
+     * @return the sequence number of the record
+     * @throws IOException if the journal is closed or a write has failed
+     */
+    public synchronized long append(String record) throws IOException {
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        pending.add(record);
+        appendedSeq++;
+        recordCount++;
+        notifyAll();
+        return appendedSeq;
+    }
+
+    /**
+     * Waits until a record and every record before it has been synced to disk
+     *
+     * @param seq the sequence number returned by append
+     * @throws IOException if the write failed or the thread was interrupted
+     */
+    public synchronized void awaitDurable(long seq) throws IOException {
+        while (durableSeq < seq) {
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for journal", e);
+            }
+        }
+    }
+
+    /**
+     * Gets how many records are in the journal since it was last truncated
+     *
+     * @return the number of records
+     */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Reads every complete record in the journal file. Reading stops at the first line whose checksum does not
+     * match because everything after a torn write can not be trusted.
+     *
+     * @return the records in the order they were appended
+     * @throws IOException if the file can not be read
+     */
+    public List<String> readRecords() throws IOException {
+        List<String> records = new ArrayList<>();
+        for (String line : readLines()) {
+            String record = decode(line);
+            if (record == null) {
+                break;
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Empties the journal once everything in it has been saved somewhere else. The caller must make sure
+     * no records are appended while this runs.
+     *
+     * @throws IOException if the file can not be truncated
+     */
+    public synchronized void truncate() throws IOException {
+        awaitDurable(appendedSeq);
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        recordCount = 0;
+    }
+
+    /**
+     * Writes out any waiting records and closes the journal file
+     *
+     * @throws IOException if the waiting records could not be written
+     */
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    //This method is the writer thread which writes and syncs every waiting record at once
+    private void writeLoop() {
+        while (true) {
+            List<String> batch;
+            long batchSeq;
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                batchSeq = appendedSeq;
+                pending = new ArrayList<>();
+            }
+
+            try {
+                StringBuilder sb = new StringBuilder();
+                for (String record : batch) {
+                    sb.append(encode(record)).append('\n');
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+
+                synchronized (this) {
+                    durableSeq = batchSeq;
+                    notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds how many bytes at the start of the file hold complete records so new records are written after
+     * them and not after a torn line
+     */
+    private long validLength() throws IOException {
+        long length = 0;
+        for (String line : readLines()) {
+            if (decode(line) == null) {
+                break;
+            }
+            length += line.getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+        return length;
+    }
+
+    /**
+     * Reads the lines of the journal file. A last line with no line break was cut off and is left out.
+     */
+    private List<String> readLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return lines;
+        }
+
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        int start = 0;
+        int end = content.indexOf('\n');
+        while (end >= 0) {
+            lines.add(content.substring(start, end));
+            start = end + 1;
+            end = content.indexOf('\n', start);
+        }
+        return lines;
+    }
+
+    private static String encode(String record) {
+        return checksum(record) + " " + record;
+    }
+
+    /**
+     * Checks the checksum of a line
+     *
+     * @return the record in the line or null if the line is damaged
+     */
+    private static String decode(String line) {
+        int space = line.indexOf(' ');
+        if (space < 0) {
+            return null;
+        }
+        String record = line.substring(space + 1);
+        if (!line.substring(0, space).equals(checksum(record))) {
+            return null;
+        }
+        return record;
+    }
+
+    private static String checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,138 @@
+import org.junit.jupiter.api.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * This class provides jUnit test cases for the ReservationJournal. The tests ensure
+ * that records are read back in order, that a record torn by a crash is ignored, and
+ * that a journaled RestaurantDatabase gets its reservations back after a crash and
+ * after compaction, also for usernames holding '|' or ';', and that a restart saves what it
+ * replayed so the next one replays nothing.
+ *
+ * @version Dec 9, 2025
+ */
+
+public class ReservationJournalTest {
+
+    private static final String TEST_JOURNAL = "test_reservations.journal";
+
+    //Initialize restaurant files and remove any old journal
+    @BeforeEach
+    public void setUp() throws IOException {
+        InitializeRestaurantFiles.initializeFiles();
+        Files.deleteIfExists(Paths.get(TEST_JOURNAL));
+    }
+
+    //Delete test files
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(TEST_JOURNAL));
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test that appended records are read back in order once durable
+    @Test
+    public void testAppendAndReadBack() throws IOException {
+        ReservationJournal journal = new ReservationJournal(TEST_JOURNAL);
+        journal.append("first");
+        journal.awaitDurable(journal.append("second"));
+        Assertions.assertEquals(List.of("first", "second"), journal.readRecords());
+        Assertions.assertEquals(2, journal.getRecordCount());
+        journal.close();
+    }
+
+    //Test that a record cut off part way through is ignored and written over
+    @Test
+    public void testTornRecordIgnored() throws IOException {
+        ReservationJournal journal = new ReservationJournal(TEST_JOURNAL);
+        journal.awaitDurable(journal.append("kept"));
+        journal.close();
+        Files.write(Paths.get(TEST_JOURNAL), "1234 torn".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        ReservationJournal reopened = new ReservationJournal(TEST_JOURNAL);
+        Assertions.assertEquals(List.of("kept"), reopened.readRecords());
+        reopened.awaitDurable(reopened.append("next"));
+        Assertions.assertEquals(List.of("kept", "next"), reopened.readRecords());
+        reopened.close();
+    }
+
+    //Test that a reservation is only in the journal until compaction and comes back after a crash
+    @Test
+    public void testReplayAfterCrash() throws IOException {
+        List<String> before = Files.readAllLines(Paths.get("monday.txt"));
+        RestaurantDatabase db = new RestaurantDatabase(new ReservationJournal(TEST_JOURNAL));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "monday", 1, 2, 11, false, "No"));
+        Assertions.assertEquals("Change Successful", db.adminChange("tuesday", false));
+        Assertions.assertEquals(before, Files.readAllLines(Paths.get("monday.txt")));
+
+        //db is never closed, like a server that crashed
+        RestaurantDatabase recovered = new RestaurantDatabase(new ReservationJournal(TEST_JOURNAL));
+        Assertions.assertEquals(7, recovered.getAllAvailableTablesForDayAndTime("monday", 11).size());
+        Assertions.assertEquals(0, recovered.getAllAvailableTablesForDayAndTime("tuesday", 21).size());
+        Assertions.assertEquals("User Already Has Reservation For This Day",
+            recovered.makeReservation("Bob", "monday", 2, 2, 12, false, "No"));
+        recovered.close();
+    }
+
+    //Test that a username holding the characters that split journal records comes back after a crash
+    @Test
+    public void testReplayKeepsOddUsernames() throws IOException {
+        RestaurantDatabase db = new RestaurantDatabase(new ReservationJournal(TEST_JOURNAL));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("a|b", "monday", 1, 2, 11, false, "No"));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("c;d%7C", "monday", 2, 2, 11, false, "No"));
+        Assertions.assertEquals("Change Successful", db.adminChange("monday", false));
+
+        //db is never closed, like a server that crashed
+        RestaurantDatabase recovered = new RestaurantDatabase(new ReservationJournal(TEST_JOURNAL));
+        //Closing early also takes the special table off the books
+        Assertions.assertEquals(5, recovered.getAllAvailableTablesForDayAndTime("monday", 11).size());
+        Assertions.assertEquals("Cancellation Made", recovered.cancelReservation("a|b", "monday"));
+        Assertions.assertEquals("Cancellation Made", recovered.cancelReservation("c;d%7C", "monday"));
+        recovered.close();
+        Assertions.assertEquals("a|b", SeatInventory.unescape(SeatInventory.escape("a|b")));
+        Assertions.assertEquals("50%", SeatInventory.unescape("50%"));
+    }
+
+    //Test that a restart saves what it replayed in the day files so the next restart replays nothing
+    @Test
+    public void testStartupSavesReplayedJournal() throws Exception {
+        RestaurantDatabase db = new RestaurantDatabase(new ReservationJournal(TEST_JOURNAL));
+        Assertions.assertEquals(0, db.getReplayedRecords());
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "monday", 1, 2, 11, false, "No"));
+
+        //db is never closed, like a server that crashed
+        RestaurantDatabase recovered = new RestaurantDatabase(new ReservationJournal(TEST_JOURNAL));
+        Assertions.assertEquals(1, recovered.getReplayedRecords());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (Files.size(Paths.get(TEST_JOURNAL)) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(0, Files.size(Paths.get(TEST_JOURNAL)));
+        Assertions.assertTrue(Files.readAllLines(Paths.get("monday.txt")).contains("Bob,1,2,2,No,11,Yes,Not Needed,0"));
+
+        RestaurantDatabase restarted = new RestaurantDatabase(new ReservationJournal(TEST_JOURNAL));
+        Assertions.assertEquals(0, restarted.getReplayedRecords());
+        Assertions.assertEquals(List.of(), restarted.validate());
+        Assertions.assertEquals(7, restarted.getAllAvailableTablesForDayAndTime("monday", 11).size());
+        restarted.close();
+        recovered.close();
+    }
+
+    //Test that closing compacts the journal into the day files
+    @Test
+    public void testCloseCompactsIntoDayFiles() throws IOException {
+        RestaurantDatabase db = new RestaurantDatabase(new ReservationJournal(TEST_JOURNAL));
+        db.makeReservation("Bob", "monday", 1, 2, 11, false, "No");
+        db.makeReservation("Amy", "monday", 2, 2, 11, false, "No");
+        db.cancelReservation("Amy", "monday");
+        db.close();
+
+        Assertions.assertEquals(0, Files.size(Paths.get(TEST_JOURNAL)));
+        List<String> lines = Files.readAllLines(Paths.get("monday.txt"));
+        Assertions.assertTrue(lines.contains("Bob,1,2,2,No,11,Yes,Not Needed,0"));
+        Assertions.assertFalse(lines.stream().anyMatch(line -> line.startsWith("Amy")));
+    }
+}
@@ -0,0 +1,143 @@
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class holds the locks RestaurantDatabase uses in place of one monitor per day, so bookings
+ * for different time slots of the same day run at the same time.
+ *
+ * <p>There are three kinds of lock and they are always taken in this order:</p>
+ * <ol>
+ *     <li>The day lock. Bookings and cancellations share its read lock, admin changes which add or
+ *     remove whole time slots take its write lock.</li>
+ *     <li>A user lock, one of USER_STRIPES per day picked by the username, so a user can not book
+ *     two time slots of one day at once.</li>
+ *     <li>The slot lock for one (day, time) which is held while a row of that time slot changes. A
+ *     stay of several time slots takes their slot locks from the earliest time on.</li>
+ * </ol>
+ *
+ * <p>Looking up available tables takes no lock at all.</p>
+ *
+ * <p>Weekdays always have their locks. A date gets its locks the first time it is asked for while
+ * ReservationCalendar has it open, and once it is past it has none, so it is not a valid day.</p>
+ *
+ * @version Dec 19, 2025
+ */
+
+public class ReservationLocks {
+    public static final int USER_STRIPES = 64;
+
+    private static final DayLocks RETIRED = new DayLocks(null);
+
+    private final ReservationCalendar calendar;
+    private final ConcurrentHashMap<String, DayLocks> dayLocks;
+    private final ConcurrentHashMap<String, ReentrantLock> slotLocks;
+
+    //This class is the day lock and user locks of one day, and the date of a day written as a date
+    private static class DayLocks {
+        private final LocalDate date;
+        private final ReentrantReadWriteLock dayLock = new ReentrantReadWriteLock();
+        private final ReentrantLock[] userLocks = new ReentrantLock[USER_STRIPES];
+
+        private DayLocks(LocalDate date) {
+            this.date = date;
+            for (int i = 0; i < userLocks.length; i++) {
+                userLocks[i] = new ReentrantLock();
+            }
+        }
+    }
+
+    //This constructor makes the day and user locks for every weekday with the calendar's clock
+    public ReservationLocks() {
+        this(new ReservationCalendar());
+    }
+
+    /**
+     * This constructor makes the day and user locks for every weekday. Locks for a date are made the
+     * first time the date is booked or looked at.
+     *
+     * @param calendar the calendar that decides which dates can be booked
+     */
+    public ReservationLocks(ReservationCalendar calendar) {
+        this.calendar = calendar;
+        this.dayLocks = new ConcurrentHashMap<>();
+        this.slotLocks = new ConcurrentHashMap<>();
+        for (String day : SeatInventory.DAYS) {
+            dayLocks.put(day, new DayLocks(null));
+        }
+    }
+
+    /**
+     * Gets the lock for a whole day
+     *
+     * @param day the name of the day
+     * @return the lock or null if the day is not a weekday or a date the calendar has open
+     */
+    public ReentrantReadWriteLock getDayLock(String day) {
+        DayLocks locks = getLocks(day);
+        return locks == null ? null : locks.dayLock;
+    }
+
+    /**
+     * Gets the lock that keeps a user's bookings for one day in order
+     *
+     * @param day      the name of the day
+     * @param username the username
+     * @return the user lock
+     */
+    public ReentrantLock getUserLock(String day, String username) {
+        //A date archived while the caller waited for its day lock is not found again, any lock will do
+        ReentrantLock[] stripes = dayLocks.getOrDefault(day, RETIRED).userLocks;
+        return stripes[Math.floorMod(Objects.hashCode(username), stripes.length)];
+    }
+
+    /**
+     * Gets the lock for one time slot of a day
+     *
+     * @param day  the name of the day
+     * @param time the hour of the time slot
+     * @return the slot lock
+     */
+    public ReentrantLock getSlotLock(String day, int time) {
+        return slotLocks.computeIfAbsent(day + "|" + time, key -> new ReentrantLock());
+    }
+
+    /**
+     * Gets the lock for a whole day even if the day is a past date, so the date can be archived once
+     * nothing is booking it any more
+     *
+     * @param day the name of the day
+     * @return the lock
+     */
+    public ReentrantReadWriteLock getPastDayLock(String day) {
+        return dayLocks.computeIfAbsent(day, key -> new DayLocks(ReservationCalendar.toDate(key))).dayLock;
+    }
+
+    /**
+     * Drops the locks of a day that has been archived
+     *
+     * @param day the name of the day
+     */
+    public void forget(String day) {
+        if (!ReservationCalendar.isWeekday(day)) {
+            dayLocks.remove(day);
+            slotLocks.keySet().removeIf(key -> key.startsWith(day + "|"));
+        }
+    }
+
+    //Weekday locks are always there, the locks of a date only while the calendar has it open
+    private DayLocks getLocks(String day) {
+        DayLocks locks = day == null ? null : dayLocks.get(day);
+        if (locks != null) {
+            return locks.date == null || calendar.isOpen(locks.date) ? locks : null;
+        }
+
+        LocalDate date = ReservationCalendar.toDate(day);
+        if (date == null || !calendar.isOpen(date)) {
+            return null;
+        }
+        return dayLocks.computeIfAbsent(day, key -> new DayLocks(date));
+    }
+}
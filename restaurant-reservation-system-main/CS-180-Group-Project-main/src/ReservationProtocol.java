@@ -0,0 +1,419 @@
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * This class is the line protocol spoken between clients and the server, kept in one place so the
+ * blocking ClientHandler and the NioRestaurantServer answer every command the same way.
+ *
+ * <p>A request is a command line followed by a fixed number of argument lines, and every request
+ * gets exactly one response line. After "Admin HandOff" the next request is an admin request of
+ * two lines, the day and the admin command.</p>
+ *
+ * <p>Several requests can be sent as one "Batch" request: the line Batch, a line with how many
+ * requests follow, and then the requests. Every request in a batch gets its response line, in
+ * order, and they are all sent together. Requests can also simply be sent back to back without
+ * waiting for each answer.</p>
+ *
+ * <p>A request goes to the default restaurant unless it starts with the line "At Restaurant" and a
+ * line with the id of a restaurant in the RestaurantRegistry. Logging in as the admin at a
+ * restaurant makes the admin request change that restaurant. A request at a restaurant that is not
+ * hosted is answered with Failed.</p>
+ *
+ * <p>The server never sends a line that was not asked for, so a client asks with "Getting
+ * Notifications" for the tables the waitlist booked for its user, answered as the notices
+ * separated by ';'.</p>
+ *
+ * @version Dec 12, 2025
+ */
+
+public class ReservationProtocol {
+    public static final String LOGIN = "Logging in";
+    public static final String DELETE_ACCOUNT = "Deleting account";
+    public static final String MAKE_ACCOUNT = "Making account";
+    public static final String CANCEL_RESERVATION = "Canceling Reservation";
+    public static final String GET_TABLES = "Getting All Available Tables";
+    public static final String MAKE_RESERVATION = "Making Reservation";
+    public static final String RESERVE_BEST_TABLE = "Reserving Best Table";
+    public static final String MAKE_TIMED_RESERVATION = "Making Timed Reservation";
+    public static final String RESERVE_BEST_TIMED_TABLE = "Reserving Best Timed Table";
+    public static final String GET_WEEK = "Getting Week Availability";
+    public static final String JOIN_WAITLIST = "Joining Waitlist";
+    public static final String GET_NOTIFICATIONS = "Getting Notifications";
+    public static final String BATCH = "Batch";
+    public static final String AT_RESTAURANT = "At Restaurant";
+    public static final int ADMIN_ARGUMENTS = 2;
+    public static final int MAX_BATCH_SIZE = 64;
+
+    private final UserDatabase userDB;
+    private final RestaurantRegistry restaurants;
+
+    /**
+     * This class is the answer to one request
+     */
+    public static class Result {
+        private final String response;
+        private final boolean closeAfter;
+        private final boolean adminHandOff;
+        private final String restaurant;
+
+        /**
+         * This constructor initializes the response line and what happens to the connection after it
+         *
+         * @param response     the response line
+         * @param closeAfter   whether the connection ends after the response
+         * @param adminHandOff whether the next request is an admin request
+         */
+        public Result(String response, boolean closeAfter, boolean adminHandOff) {
+            this(response, closeAfter, adminHandOff, null);
+        }
+
+        /**
+         * This constructor also initializes the restaurant the request ran at
+         *
+         * @param response     the response line
+         * @param closeAfter   whether the connection ends after the response
+         * @param adminHandOff whether the next request is an admin request
+         * @param restaurant   the id of the restaurant, or null for the default restaurant
+         */
+        public Result(String response, boolean closeAfter, boolean adminHandOff, String restaurant) {
+            this.response = response;
+            this.closeAfter = closeAfter;
+            this.adminHandOff = adminHandOff;
+            this.restaurant = restaurant;
+        }
+
+        public String getResponse() {
+            return response;
+        }
+
+        public boolean isCloseAfter() {
+            return closeAfter;
+        }
+
+        public boolean isAdminHandOff() {
+            return adminHandOff;
+        }
+
+        public String getRestaurant() {
+            return restaurant;
+        }
+    }
+
+    /**
+     * This constructor initializes the databases the commands run against
+     *
+     * @param userDB       the user database for authentication and account management
+     * @param restaurantDB the restaurant database for reservation management
+     */
+    public ReservationProtocol(UserDatabase userDB, RestaurantDatabaseInterface restaurantDB) {
+        this(userDB, new RestaurantRegistry(restaurantDB));
+    }
+
+    /**
+     * This constructor initializes the user database and the restaurants the commands run against
+     *
+     * @param userDB      the user database for authentication and account management
+     * @param restaurants the default restaurant and the restaurants named with At Restaurant
+     */
+    public ReservationProtocol(UserDatabase userDB, RestaurantRegistry restaurants) {
+        this.userDB = userDB;
+        this.restaurants = restaurants;
+    }
+
+    /**
+     * Gets how many argument lines follow a command
+     *
+     * @param command the command line
+     * @return the number of argument lines, 0 for an unknown command which is answered with Failed
+     */
+    public static int getArgumentCount(String command) {
+        switch (command) {
+            case LOGIN:
+            case DELETE_ACCOUNT:
+            case MAKE_ACCOUNT:
+            case CANCEL_RESERVATION:
+            case GET_TABLES:
+                return 2;
+            case MAKE_RESERVATION:
+                return 6;
+            case RESERVE_BEST_TABLE:
+            case JOIN_WAITLIST:
+                return 5;
+            case MAKE_TIMED_RESERVATION:
+                return 7;
+            case RESERVE_BEST_TIMED_TABLE:
+                return 6;
+            case GET_NOTIFICATIONS:
+                return 1;
+            case GET_WEEK:
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Gets how many lines the request at the start of lines takes
+     *
+     * @param lines the lines received so far, starting with a command line
+     * @return the number of lines in the request, or -1 if more lines must arrive to know
+     * @throws NumberFormatException if a batch size is not a number from 1 to MAX_BATCH_SIZE
+     */
+    public static int getRequestLength(Iterable<String> lines) {
+        Iterator<String> it = lines.iterator();
+        if (!it.hasNext()) {
+            return -1;
+        }
+        String command = it.next();
+        if (!command.equals(BATCH)) {
+            return getSingleLength(command, it);
+        }
+        if (!it.hasNext()) {
+            return -1;
+        }
+
+        int count = parseBatchSize(it.next());
+        int length = 2;
+        for (int i = 0; i < count; i++) {
+            if (!it.hasNext()) {
+                return -1;
+            }
+            String subCommand = it.next();
+            int requestLength = getSingleLength(subCommand, it);
+            if (requestLength < 0) {
+                return -1;
+            }
+            int read = subCommand.equals(AT_RESTAURANT) ? 3 : 1;
+            for (int j = read; j < requestLength; j++) {
+                if (!it.hasNext()) {
+                    return -1;
+                }
+                it.next();
+            }
+            length += requestLength;
+        }
+        return length;
+    }
+
+    /**
+     * Gets how many lines a request that is not a batch takes. After At Restaurant the restaurant
+     * and command lines are read from the iterator, and a batch or another At Restaurant there is
+     * an unknown command.
+     *
+     * @param command the command line
+     * @param it      the lines after the command line
+     * @return the number of lines in the request, or -1 if more lines must arrive to know
+     */
+    private static int getSingleLength(String command, Iterator<String> it) {
+        if (!command.equals(AT_RESTAURANT)) {
+            return 1 + getArgumentCount(command);
+        }
+        if (!it.hasNext()) {
+            return -1;
+        }
+        it.next();
+        if (!it.hasNext()) {
+            return -1;
+        }
+        return 3 + getArgumentCount(it.next());
+    }
+
+    /**
+     * Runs a request or a batch of requests. A batch is answered with one line per request. If a
+     * request in a batch ends the connection or hands off to the admin, the requests after it
+     * are answered with Failed.
+     *
+     * @param request the request lines, as many as getRequestLength gives
+     * @return the response lines and what happens to the connection
+     * @throws NumberFormatException if a number argument is not a number
+     */
+    public Result executeRequest(List<String> request) {
+        String command = request.get(0);
+        if (!command.equals(BATCH)) {
+            return executeSingle(request);
+        }
+
+        int count = parseBatchSize(request.get(1));
+        StringBuilder responses = new StringBuilder();
+        boolean closeAfter = false;
+        boolean adminHandOff = false;
+        int at = 2;
+        String restaurant = null;
+        for (int i = 0; i < count; i++) {
+            int requestLength = getSingleLength(request.get(at), request.subList(at + 1, request.size()).iterator());
+            List<String> subRequest = request.subList(at, at + requestLength);
+            at += requestLength;
+
+            if (i > 0) {
+                responses.append(System.lineSeparator());
+            }
+            if (closeAfter || adminHandOff) {
+                responses.append("Failed");
+                continue;
+            }
+            //A batch inside a batch is an unknown command and is answered with Failed
+            Result result = subRequest.get(0).equals(BATCH) ? reply("Failed") : executeSingle(subRequest);
+            responses.append(result.getResponse());
+            closeAfter = result.isCloseAfter();
+            adminHandOff = result.isAdminHandOff();
+            restaurant = result.getRestaurant();
+        }
+        return new Result(responses.toString(), closeAfter, adminHandOff, restaurant);
+    }
+
+    //Runs a request that is not a batch, at the restaurant it names or at the default restaurant
+    private Result executeSingle(List<String> request) {
+        if (!request.get(0).equals(AT_RESTAURANT)) {
+            return execute(request.get(0), request.subList(1, request.size()).toArray(new String[0]));
+        }
+        String restaurant = request.get(1);
+        String command = request.get(2);
+        String[] args = request.subList(3, request.size()).toArray(new String[0]);
+        if (command.equals(BATCH) || command.equals(AT_RESTAURANT)) {
+            return reply("Failed");
+        }
+        Result result = restaurants.apply(restaurant, restaurantDB -> execute(restaurantDB, command, args));
+        if (result == null) {
+            return reply("Failed");
+        }
+        return new Result(result.getResponse(), result.isCloseAfter(), result.isAdminHandOff(), restaurant);
+    }
+
+    /**
+     * Runs one request at the default restaurant
+     *
+     * @param command the command line
+     * @param args    the argument lines, as many as getArgumentCount gives
+     * @return the response and what happens to the connection
+     * @throws NumberFormatException if a number argument is not a number
+     */
+    public Result execute(String command, String[] args) {
+        return execute(restaurants.getDefault(), command, args);
+    }
+
+    private Result execute(RestaurantDatabaseInterface restaurantDB, String command, String[] args) {
+        switch (command) {
+            case LOGIN:
+                return login(args[0], args[1]);
+            case DELETE_ACCOUNT:
+                return new Result(userDB.deleteUser(args[0], args[1]).equals("Success") ? "Success" : "Failed",
+                        true, false);
+            case MAKE_ACCOUNT:
+                return reply(userDB.addUser(args[0], args[1]).equals("Success") ? "Success" : "Failed");
+            case CANCEL_RESERVATION:
+                return reply(restaurantDB.cancelReservation(args[0], args[1]).equals("Cancellation Made")
+                        ? "Success" : "Failed");
+            case GET_TABLES:
+                return reply(getTables(restaurantDB, args[0], Integer.parseInt(args[1])));
+            case MAKE_RESERVATION:
+                return reply(makeReservation(restaurantDB, args));
+            case RESERVE_BEST_TABLE:
+                return reply(restaurantDB.reserveBestTable(args[0], args[1], Integer.parseInt(args[2]),
+                        Integer.parseInt(args[3]), args[4]));
+            case MAKE_TIMED_RESERVATION:
+                return reply(makeTimedReservation(restaurantDB, args));
+            case RESERVE_BEST_TIMED_TABLE:
+                return reply(restaurantDB.reserveBestTable(args[0], args[1], Integer.parseInt(args[2]),
+                        Integer.parseInt(args[3]), Integer.parseInt(args[4]), args[5]));
+            case JOIN_WAITLIST:
+                return reply(restaurantDB.joinWaitlist(args[0], args[1], Integer.parseInt(args[2]),
+                        Integer.parseInt(args[3]), args[4]));
+            case GET_NOTIFICATIONS:
+                return reply(String.join(";", restaurantDB.takeNotifications(args[0])));
+            case GET_WEEK:
+                return reply(restaurantDB.getWeekAvailability());
+            default:
+                return reply("Failed");
+        }
+    }
+
+    /**
+     * Runs the admin request that follows "Admin HandOff" at the default restaurant. The connection ends after it.
+     *
+     * @param day     the day the admin wants to change
+     * @param command "Close Late" to close later, anything else to close early
+     * @return the response, Success or Failure
+     */
+    public Result executeAdmin(String day, String command) {
+        return executeAdmin(null, day, command);
+    }
+
+    /**
+     * Runs the admin request that follows "Admin HandOff" at the restaurant the admin logged in at.
+     * The connection ends after it.
+     *
+     * @param restaurant the id of the restaurant, or null for the default restaurant
+     * @param day        the day the admin wants to change
+     * @param command    "Close Late" to close later, anything else to close early
+     * @return the response, Success or Failure
+     */
+    public Result executeAdmin(String restaurant, String day, String command) {
+        boolean closingLater = command.equals("Close Late");
+        String result;
+        if (restaurant == null) {
+            result = restaurants.getDefault().adminChange(day, closingLater);
+        } else {
+            result = restaurants.apply(restaurant, restaurantDB -> restaurantDB.adminChange(day, closingLater));
+        }
+
+        return new Result("Change Successful".equals(result) ? "Success" : "Failure", true, false);
+    }
+
+    private Result login(String username, String password) {
+        boolean success = userDB.login(username, password);
+
+        if (success && username.equals("Admin")) {
+            return new Result("Admin HandOff", false, true);
+        }
+        return reply(success ? "Success" : "Failed");
+    }
+
+    /**
+     * Gets the available tables for a day and time as a semicolon-delimited string, or an empty
+     * string if no tables are available. The string is kept by the time slot until it changes.
+     */
+    private static String getTables(RestaurantDatabaseInterface restaurantDB, String day, int time) {
+        String tables = restaurantDB.getAvailableTables(day, time);
+        return tables == null ? "" : tables;
+    }
+
+    /**
+     * Makes a reservation from the argument lines username, day, table number, party size, time,
+     * and credit card. Whether the table is special comes from the restaurant's floor plan.
+     */
+    private static String makeReservation(RestaurantDatabaseInterface restaurantDB, String[] args) {
+        int tableNum = Integer.parseInt(args[2]);
+        int partySize = Integer.parseInt(args[3]);
+        int time = Integer.parseInt(args[4]);
+
+        boolean isSpecial = restaurantDB.getFloorPlan().isSpecial(tableNum);
+        return restaurantDB.makeReservation(args[0], args[1], tableNum, partySize, time, isSpecial, args[5]);
+    }
+
+    /**
+     * Makes a reservation from the argument lines username, day, table number, party size, time, how
+     * many minutes the party stays, and credit card
+     */
+    private static String makeTimedReservation(RestaurantDatabaseInterface restaurantDB, String[] args) {
+        int tableNum = Integer.parseInt(args[2]);
+        int partySize = Integer.parseInt(args[3]);
+        int time = Integer.parseInt(args[4]);
+        int minutes = Integer.parseInt(args[5]);
+
+        boolean isSpecial = restaurantDB.getFloorPlan().isSpecial(tableNum);
+        return restaurantDB.makeReservation(args[0], args[1], tableNum, partySize, time, minutes, isSpecial,
+                args[6]);
+    }
+
+    private static int parseBatchSize(String line) {
+        int count = Integer.parseInt(line);
+        if (count < 1 || count > MAX_BATCH_SIZE) {
+            throw new NumberFormatException("Batch size must be from 1 to " + MAX_BATCH_SIZE + ": " + line);
+        }
+        return count;
+    }
+
+    private static Result reply(String response) {
+        return new Result(response, false, false);
+    }
+}
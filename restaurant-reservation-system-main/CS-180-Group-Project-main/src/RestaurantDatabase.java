@@ -1,31 +1,153 @@
-import java.io.*;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  *This class is the RestaurantDatabase methods to make, cancel, and see
- * all possible reservations to make.
+ * all possible reservations to make. Bookings lock only the time slot they
+ * change, see ReservationLocks, and looking up tables takes no lock.
+ * The availability of the whole week is kept as a snapshot that is made
+ * again only after the seat inventory changes.
  *
- * @version Nov 4, 2025
+ * <p>In OPTIMISTIC booking mode bookings and cancellations take no user or
+ * slot lock. They read the time slot, check the booking, and swap in the
+ * changed row only if the row is still the one they read, so the loser of
+ * two bookings for one table is told "Table Already Booked" at once instead
+ * of waiting. Only an admin change, which rebuilds the whole day, holds them
+ * off.</p>
+ *
+ * <p>Besides the weekdays any date ReservationCalendar has open, written as
+ * yyyy-MM-dd, can be booked. sweepCalendar archives the past dates and drops
+ * dates nobody has booked from memory.</p>
+ *
+ * <p>A user who can not get a table can wait for one on the Waitlist. A
+ * cancellation hands each table it frees to the first user waiting for it in
+ * the same update, under the same slot locks or in the same swap, so the table
+ * is never free in between, and an admin change does the same before the day
+ * is saved.</p>
+ *
+ * @version Dec 19, 2025
  */
 
 public class RestaurantDatabase implements RestaurantDatabaseInterface {
-    private String monday;
-    private String tuesday;
-    private String wednesday;
-    private String thursday;
-    private String friday;
-    private String saturday;
-    private String sunday;
-
-    //This constructor initializes all the days to their text files
+    /**
+     * How bookings and cancellations keep from changing the same table at once
+     */
+    public enum BookingMode {
+        LOCKING,
+        OPTIMISTIC
+    }
+
+    private final SeatInventory seats;
+    private final ReservationLocks locks;
+    private final BookingMode mode;
+    private volatile WeekAvailability weekAvailability;
+    private final Waitlist waitlist = new Waitlist();
+
+    /**
+     * This class is the week availability text and the seat inventory version it was made from
+     */
+    private static class WeekAvailability {
+        private final long version;
+        private final String text;
+
+        private WeekAvailability(long version, String text) {
+            this.version = version;
+            this.text = text;
+        }
+    }
+
+    /**
+     * This class is a freed row booked for a waiter, and what keeps anyone else from booking for the
+     * waiter until the row is saved: their user lock in LOCKING mode or their claim in OPTIMISTIC mode
+     */
+    private static class Promotion {
+        private final Waitlist.Waiter waiter;
+        private final TableSlot row;
+        private final ReentrantLock userLock;
+        private final Object claim;
+
+        private Promotion(Waitlist.Waiter waiter, TableSlot row, ReentrantLock userLock, Object claim) {
+            this.waiter = waiter;
+            this.row = row;
+            this.userLock = userLock;
+            this.claim = claim;
+        }
+    }
+
+    //This constructor loads all the days from their text files into memory
     public RestaurantDatabase() {
-        this.monday = "monday.txt";
-        this.tuesday = "tuesday.txt";
-        this.wednesday = "wednesday.txt";
-        this.thursday = "thursday.txt";
-        this.friday = "friday.txt";
-        this.saturday = "saturday.txt";
-        this.sunday = "sunday.txt";
+        this(null);
+    }
+
+    /**
+     * This constructor loads all the days from their text files into memory, replaying the journal
+     * over them if one is given
+     *
+     * @param journal the journal that records every change, or null to rewrite the day file on every change
+     */
+    public RestaurantDatabase(ReservationJournal journal) {
+        this(new TextDayStore(), journal);
+    }
+
+    /**
+     * This constructor loads all the days from a store into memory, replaying the journal over them
+     * if one is given
+     *
+     * @param store   where the days are kept
+     * @param journal the journal that records every change, or null to save the day on every change
+     */
+    public RestaurantDatabase(DayStoreInterface store, ReservationJournal journal) {
+        this(store, journal, BookingMode.LOCKING);
+    }
+
+    /**
+     * This constructor loads all the days from a store into memory, replaying the journal over them
+     * if one is given, and books in the given mode
+     *
+     * @param store   where the days are kept
+     * @param journal the journal that records every change, or null to save the day on every change
+     * @param mode    whether bookings lock their time slot or swap rows optimistically
+     */
+    public RestaurantDatabase(DayStoreInterface store, ReservationJournal journal, BookingMode mode) {
+        this(store, journal, mode, new ReservationCalendar());
+    }
+
+    /**
+     * This constructor loads the days from a store and books dates the calendar has open
+     *
+     * @param store    where the days are kept
+     * @param journal  the journal to record changes in, or null to save days in the store on every change
+     * @param mode     how bookings keep from changing the same table at once
+     * @param calendar the calendar that decides which dates can be booked
+     */
+    public RestaurantDatabase(DayStoreInterface store, ReservationJournal journal, BookingMode mode,
+                              ReservationCalendar calendar) {
+        this(store, journal, mode, calendar, FloorPlan.DEFAULT);
+    }
+
+    /**
+     * This constructor loads the days from a store, books dates the calendar has open, and lays out
+     * new days and later closing times from a floor plan
+     *
+     * @param store     where the days are kept
+     * @param journal   the journal to record changes in, or null to save days in the store on every change
+     * @param mode      whether bookings take slot locks or compare and set rows
+     * @param calendar  the calendar that decides which dates can be booked
+     * @param floorPlan the tables of the restaurant
+     */
+    public RestaurantDatabase(DayStoreInterface store, ReservationJournal journal, BookingMode mode,
+                              ReservationCalendar calendar, FloorPlan floorPlan) {
+        this.seats = new SeatInventory(store, journal, calendar, floorPlan);
+        this.locks = new ReservationLocks(calendar);
+        this.mode = mode;
     }
 
     /**
@@ -43,111 +165,443 @@ public class RestaurantDatabase implements RestaurantDatabaseInterface {
 
     public String makeReservation(String username, String day, int tableNum, int partySize, int time,
                                   boolean isSpecial, String creditCard) {
-        Object lock = getLock(day);
+        return makeReservation(username, day, tableNum, partySize, time, DayTemplate.SLOT_MINUTES, isSpecial,
+                creditCard);
+    }
+
+    /**
+     * Allows a user to make a reservation for a stay of any length. The table is booked in every time
+     * slot the stay reaches into, so a party staying 90 minutes from 18:00 holds it at 18:00 and 19:00,
+     * and the reservation is made only if the table is free in all of them.
+     *
+     * @param username   the username of the person making a reservation
+     * @param day        the day the user wants to make a reservation for
+     * @param tableNum   the table number of the table the user wants to book
+     * @param partySize  the size of the users party
+     * @param time       the time the user wants to book the reservation
+     * @param minutes    how long the party stays, see DayTemplate.getTimeSlots
+     * @param isSpecial  whether the table the user is booking is special which means requiring credit card and payment
+     * @param creditCard the user's credit card which is used if user is reserving special table.
+     * @return A String telling the status of the attempt to reserve the table, Invalid Time also if the
+     *     stay is too long or runs past closing
+     */
+    public String makeReservation(String username, String day, int tableNum, int partySize, int time,
+                                  int minutes, boolean isSpecial, String creditCard) {
+        ReentrantReadWriteLock dayLock = locks.getDayLock(day);
 
-        if (lock == null) {
+        if (dayLock == null) {
             return "Invalid Day";
         }
 
-        if (!((time >= 11 && time <= 14) || (time >= 17 && time <= 21))) {
+        int hours = DayTemplate.getTimeSlots(time, minutes);
+        if (hours < 0) {
             return "Invalid Time";
         }
 
-        boolean reservationMade = false;
+        if (mode == BookingMode.OPTIMISTIC) {
+            dayLock.readLock().lock();
+            try {
+                DayInventory inventory = seats.getDay(day);
+                if (inventory == null) {
+                    return "Reservation Failed";
+                }
+                return stopWaiting(day, username, bookOptimistically(inventory, username, tableNum, partySize,
+                        time, hours, isSpecial, creditCard));
+            } finally {
+                dayLock.readLock().unlock();
+            }
+        }
+
+        dayLock.readLock().lock();
+        ReentrantLock userLock = locks.getUserLock(day, username);
+        userLock.lock();
+        try {
+            DayInventory inventory = seats.getDay(day);
+            if (inventory == null) {
+                return "Reservation Failed";
+            }
+
+            if (inventory.hasUser(username)) {
+                return "User Already Has Reservation For This Day";
+            }
+
+            List<ReentrantLock> slotLocks = lockSlots(day, time, hours);
+            try {
+                return stopWaiting(day, username, bookTable(inventory, username, tableNum, partySize, time, hours,
+                        isSpecial, creditCard));
+            } finally {
+                unlockSlots(slotLocks);
+            }
+        } finally {
+            userLock.unlock();
+            dayLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Books the smallest free table that seats a party in one call, so no other booking can take the
+     * table between choosing and booking it. A party of more than 4 that no other table seats gets a
+     * special table and pays with the credit card. With slot locks the table is chosen while holding
+     * the slot lock, and optimistically a table someone else just took is passed over for the next
+     * smallest one.
+     *
+     * @param username   the username of the person making a reservation
+     * @param day        the day the user wants to make a reservation for
+     * @param partySize  the size of the users party
+     * @param time       the time the user wants to book the reservation
+     * @param creditCard the user's credit card, used if a special table is booked
+     * @return "Reservation Made At Table " and the table number, "No Table Fits" if every table that
+     *     seats the party is booked, or why the reservation was not made as from makeReservation
+     */
+    public String reserveBestTable(String username, String day, int partySize, int time, String creditCard) {
+        return reserveBestTable(username, day, partySize, time, DayTemplate.SLOT_MINUTES, creditCard);
+    }
+
+    /**
+     * Books the smallest table that is free for a whole stay and seats a party in one call, the same
+     * way as for a stay of one time slot
+     *
+     * @param username   the username of the person making a reservation
+     * @param day        the day the user wants to make a reservation for
+     * @param partySize  the size of the users party
+     * @param time       the time the user wants to book the reservation
+     * @param minutes    how long the party stays, see DayTemplate.getTimeSlots
+     * @param creditCard the user's credit card, used if a special table is booked
+     * @return "Reservation Made At Table " and the table number, "No Table Fits" if every table that
+     *     seats the party is booked some time during the stay, or why the reservation was not made
+     */
+    public String reserveBestTable(String username, String day, int partySize, int time, int minutes,
+                                   String creditCard) {
+        ReentrantReadWriteLock dayLock = locks.getDayLock(day);
+
+        if (dayLock == null) {
+            return "Invalid Day";
+        }
+
+        int hours = DayTemplate.getTimeSlots(time, minutes);
+        if (hours < 0) {
+            return "Invalid Time";
+        }
 
-        synchronized (lock) {
-            String fileName = day + ".txt";
-            ArrayList<String> lines = new ArrayList<>();
-            try (BufferedReader bfr = new BufferedReader(new FileReader(new File(fileName)))) {
+        if (mode == BookingMode.OPTIMISTIC) {
+            dayLock.readLock().lock();
+            try {
+                DayInventory inventory = seats.getDay(day);
+                if (inventory == null) {
+                    return "Reservation Failed";
+                }
                 while (true) {
-                    String line = bfr.readLine();
-                    if (line == null) {
-                        break;
+                    int tableNum = chooseTable(inventory, time, hours, partySize);
+                    if (tableNum < 0) {
+                        return "No Table Fits";
+                    }
+                    String result = bookOptimistically(inventory, username, tableNum, partySize, time, hours,
+                            seats.getFloorPlan().isSpecial(tableNum), creditCard);
+                    //Someone else booked the table first, so the next smallest one is tried
+                    if (!result.equals("Table Already Booked")) {
+                        return stopWaiting(day, username,
+                                result.equals("Reservation Made") ? result + " At Table " + tableNum : result);
                     }
-                    lines.add(line);
                 }
-            } catch (Exception e) {
+            } finally {
+                dayLock.readLock().unlock();
+            }
+        }
+
+        dayLock.readLock().lock();
+        ReentrantLock userLock = locks.getUserLock(day, username);
+        userLock.lock();
+        try {
+            DayInventory inventory = seats.getDay(day);
+            if (inventory == null) {
                 return "Reservation Failed";
             }
 
-            for (int i = 0; i < lines.size(); i++) {
-                String line = lines.get(i);
-                String[] lineSplit = line.split(",");
-                String booked = lineSplit[0];
-                if (booked.equals(username)) {
-                    return "User Already Has Reservation For This Day";
+            if (inventory.hasUser(username)) {
+                return "User Already Has Reservation For This Day";
+            }
+
+            List<ReentrantLock> slotLocks = lockSlots(day, time, hours);
+            try {
+                int tableNum = chooseTable(inventory, time, hours, partySize);
+                if (tableNum < 0) {
+                    return "No Table Fits";
                 }
+                String result = bookTable(inventory, username, tableNum, partySize, time, hours,
+                        seats.getFloorPlan().isSpecial(tableNum), creditCard);
+                return stopWaiting(day, username,
+                        result.equals("Reservation Made") ? result + " At Table " + tableNum : result);
+            } finally {
+                unlockSlots(slotLocks);
             }
+        } finally {
+            userLock.unlock();
+            dayLock.readLock().unlock();
+        }
+    }
 
-            for (int i = 0; i < lines.size(); i++) {
-                String line = lines.get(i);
-                String[] lineSplit = line.split(",");
-                int reserveTime = Integer.parseInt(lineSplit[5]);
-                int reserveTableNum = Integer.parseInt(lineSplit[1]);
-                int tableSize = Integer.parseInt(lineSplit[2]);
-                String special = lineSplit[4];
-                String isBooked = lineSplit[6];
+    /**
+     * Puts a user on the waitlist for a day, time and party size. When a cancellation or an admin
+     * change frees a table that seats the party, the table is booked for the first user waiting for
+     * it and the user is told through takeNotifications. A user waits for one time slot a day and
+     * stops waiting once they book the day. A special table is only booked for a party of more than 4
+     * with a credit card number of 16 digits.
+     *
+     * @param username   the username of the person waiting
+     * @param day        the day the user wants a table for
+     * @param partySize  the size of the users party
+     * @param time       the time the user wants a table at
+     * @param creditCard the user's credit card, used if a special table is booked
+     * @return "Added To Waitlist", "Already On Waitlist", "Table Available" if a table that seats the
+     *     party is free now, "Party Too Big" if no table of the restaurant seats it, or why the user can
+     *     not wait as from makeReservation
+     */
+    public String joinWaitlist(String username, String day, int partySize, int time, String creditCard) {
+        ReentrantReadWriteLock dayLock = locks.getDayLock(day);
 
-                if (reserveTableNum == tableNum) {
-                    if (reserveTime == time) {
-                        if (isBooked.equals("Yes")) {
-                            return "Table Already Booked";
-                        }
+        if (dayLock == null) {
+            return "Invalid Day";
+        }
 
-                        if (partySize > tableSize) {
-                            return "Party Too Big";
-                        }
+        if (DayTemplate.getTimeSlots(time, DayTemplate.SLOT_MINUTES) < 0) {
+            return "Invalid Time";
+        }
 
-                        if (isSpecial) {
-                            if (partySize > 8 || partySize <= 4) {
-                                return "Party Can't Book Special";
-                            }
-
-                            if (special.equals("Yes")) {
-
-                                if (creditCard.length() != 16) {
-                                    return "Invalid Credit Card Number";
-                                }
-
-                                lineSplit[0] = username;
-                                lineSplit[3] = "" + partySize;
-                                lineSplit[6] = "Yes";
-                                lineSplit[7] = creditCard;
-                                lineSplit[8] = "100";
-
-                                String updatedLine = String.join(",", lineSplit);
-                                lines.set(i, updatedLine);
-                                reservationMade = true;
-                            }
-                        } else {
-                            if (special.equals("No")) {
-                                lineSplit[0] = username;
-                                lineSplit[3] = "" + partySize;
-                                lineSplit[6] = "Yes";
-
-                                String updatedLine = String.join(",", lineSplit);
-                                lines.set(i, updatedLine);
-                                reservationMade = true;
-                            }
-                        }
-                    }
+        dayLock.readLock().lock();
+        ReentrantLock userLock = mode == BookingMode.LOCKING ? locks.getUserLock(day, username) : null;
+        if (userLock != null) {
+            userLock.lock();
+        }
+        try {
+            DayInventory inventory = seats.getDay(day);
+            if (inventory == null) {
+                return "Reservation Failed";
+            }
+
+            if (inventory.getSlots(time).isEmpty()) {
+                return "Invalid Time";
+            }
+
+            if (inventory.hasUser(username)) {
+                return "User Already Has Reservation For This Day";
+            }
+
+            if (seats.getFloorPlan().getTables().stream().noneMatch(table -> table.getCapacity() >= partySize)) {
+                return "Party Too Big";
+            }
+
+            if (chooseTable(inventory, time, 1, partySize) >= 0) {
+                return "Table Available";
+            }
+
+            return waitlist.add(username, day, time, partySize, creditCard) ? "Added To Waitlist"
+                    : "Already On Waitlist";
+        } finally {
+            if (userLock != null) {
+                userLock.unlock();
+            }
+            dayLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the notices of the tables the waitlist booked for a user since they last asked
+     *
+     * @param username the username
+     * @return one notice per table, "Reservation Made At Table " and the table number, " On " and the day
+     *     and " At " and the time, empty if there are none
+     */
+    public List<String> takeNotifications(String username) {
+        return waitlist.takeNotices(username);
+    }
+
+    /**
+     * Checks if anyone is on the waitlist or has notices they have not taken
+     *
+     * @return true if closing the database would lose waiters or notices
+     */
+    public boolean hasWaiting() {
+        return !waitlist.isEmpty() || waitlist.hasNotices();
+    }
+
+    //A user who books a day stops waiting for a table that day
+    private String stopWaiting(String day, String username, String result) {
+        if (result.startsWith("Reservation Made")) {
+            waitlist.remove(day, username);
+        }
+        return result;
+    }
+
+    //Picks the smallest free table that seats the party, a special one only for more than 4 people no other table seats
+    private static int chooseTable(DayInventory inventory, int time, int hours, int partySize) {
+        int tableNum = inventory.findFreeTable(time, hours, partySize, false);
+        if (tableNum < 0 && partySize > 4) {
+            tableNum = inventory.findFreeTable(time, hours, partySize, true);
+        }
+        return tableNum;
+    }
+
+    //Takes the slot locks of a stay from its first time slot on, the order every stay takes them in
+    private List<ReentrantLock> lockSlots(String day, int time, int hours) {
+        List<ReentrantLock> slotLocks = new ArrayList<>(hours);
+        for (int hour = time; hour < time + hours; hour++) {
+            ReentrantLock slotLock = locks.getSlotLock(day, hour);
+            slotLock.lock();
+            slotLocks.add(slotLock);
+        }
+        return slotLocks;
+    }
+
+    private static void unlockSlots(List<ReentrantLock> slotLocks) {
+        for (int i = slotLocks.size() - 1; i >= 0; i--) {
+            slotLocks.get(i).unlock();
+        }
+    }
+
+    /**
+     * Books a table in every time slot of a stay once every lock for the booking is held. If a time
+     * slot can not be saved the time slots already booked are taken back.
+     *
+     * @return A String telling the status of the attempt to reserve the table
+     */
+    private String bookTable(DayInventory inventory, String username, int tableNum, int partySize, int time,
+                             int hours, boolean isSpecial, String creditCard) {
+        List<Map<Integer, TableSlot>> stay = new ArrayList<>(hours);
+        for (int hour = time; hour < time + hours; hour++) {
+            Map<Integer, TableSlot> booked = new HashMap<>();
+            String refused = planBooking(inventory.getSlots(hour), booked, username, tableNum, partySize, isSpecial,
+                    creditCard);
+            if (refused != null) {
+                return refused;
+            }
+            if (booked.isEmpty()) {
+                return "Reservation Failed";
+            }
+            stay.add(booked);
+        }
+
+        for (int i = 0; i < hours; i++) {
+            if (!seats.update(inventory, time + i, stay.get(i))) {
+                for (int j = i - 1; j >= 0; j--) {
+                    seats.update(inventory, time + j, cancel(stay.get(j)));
                 }
+                return "Reservation Failed";
             }
+        }
 
-            if (reservationMade) {
-                try (PrintWriter pw = new PrintWriter(new FileOutputStream(new File(fileName)))) {
-                    for (int i = 0; i < lines.size(); i++) {
-                        pw.println(lines.get(i));
-                    }
-                } catch (Exception e) {
+        return "Reservation Made";
+    }
+
+    /**
+     * Books a table without the user or slot lock. The user is claimed in the day's username index
+     * first, and the rows are swapped in only if they are still the free rows that were checked. The
+     * time slots of a longer stay are swapped in one after another, and if one of them was taken in
+     * the meantime the ones already swapped in are swapped back.
+     *
+     * @return A String telling the status of the attempt to reserve the table
+     */
+    private String bookOptimistically(DayInventory inventory, String username, int tableNum, int partySize,
+                                      int time, int hours, boolean isSpecial, String creditCard) {
+        Object claim = inventory.claimUser(username, time, tableNum);
+        if (claim == null) {
+            return "User Already Has Reservation For This Day";
+        }
+
+        boolean made = false;
+        try {
+            List<Map<Integer, TableSlot>> expected = new ArrayList<>(hours);
+            List<Map<Integer, TableSlot>> stay = new ArrayList<>(hours);
+            for (int hour = time; hour < time + hours; hour++) {
+                List<TableSlot> rows = inventory.getSlots(hour);
+                Map<Integer, TableSlot> booked = new HashMap<>();
+                String refused = planBooking(rows, booked, username, tableNum, partySize, isSpecial, creditCard);
+                if (refused != null) {
+                    return refused;
+                }
+                if (booked.isEmpty()) {
                     return "Reservation Failed";
                 }
 
-                return "Reservation Made";
+                Map<Integer, TableSlot> read = new HashMap<>();
+                for (Integer index : booked.keySet()) {
+                    read.put(index, rows.get(index));
+                }
+                expected.add(read);
+                stay.add(booked);
+            }
+
+            for (int i = 0; i < hours; i++) {
+                SeatInventory.SwapResult result = seats.compareAndUpdate(inventory, time + i, expected.get(i),
+                        stay.get(i));
+                if (result != SeatInventory.SwapResult.SWAPPED) {
+                    for (int j = i - 1; j >= 0; j--) {
+                        seats.compareAndUpdate(inventory, time + j, stay.get(j), expected.get(j));
+                    }
+                    return result == SeatInventory.SwapResult.CONFLICT ? "Table Already Booked" : "Reservation Failed";
+                }
+            }
+            made = true;
+            return "Reservation Made";
+        } finally {
+            if (!made) {
+                inventory.releaseClaim(username, claim);
             }
         }
+    }
 
-        return "Reservation Failed";
+    //Makes the canceled version of rows keyed the same way
+    private static Map<Integer, TableSlot> cancel(Map<Integer, TableSlot> rows) {
+        Map<Integer, TableSlot> canceled = new HashMap<>();
+        for (Map.Entry<Integer, TableSlot> row : rows.entrySet()) {
+            canceled.put(row.getKey(), row.getValue().cancel());
+        }
+        return canceled;
+    }
+
+    /**
+     * Checks a booking against the rows of its time slot and works out the booked rows
+     *
+     * @param rows   the rows of the time slot
+     * @param booked where to put the booked rows keyed by their position inside the time slot
+     * @return why the booking is refused, or null if it can be made with the rows in booked
+     */
+    private static String planBooking(List<TableSlot> rows, Map<Integer, TableSlot> booked, String username,
+                                      int tableNum, int partySize, boolean isSpecial, String creditCard) {
+        for (int i = 0; i < rows.size(); i++) {
+            TableSlot row = rows.get(i);
+
+            if (row.getTableNum() == tableNum) {
+                if (row.isBooked()) {
+                    return "Table Already Booked";
+                }
+
+                if (partySize > row.getTableSize()) {
+                    return "Party Too Big";
+                }
+
+                if (isSpecial) {
+                    //The table size already caps the party, so a bigger special room on the floor plan takes more
+                    if (partySize <= 4) {
+                        return "Party Can't Book Special";
+                    }
+
+                    if (row.isSpecial()) {
+
+                        if (creditCard.length() != 16) {
+                            return "Invalid Credit Card Number";
+                        }
+
+                        booked.put(i, row.book(username, partySize, creditCard, 100));
+                    }
+                } else {
+                    if (!row.isSpecial()) {
+                        booked.put(i, row.book(username, partySize, row.getCreditCard(), row.getCost()));
+                    }
+                }
+            }
+        }
+
+        return null;
     }
 
     /**
@@ -159,67 +613,248 @@ public class RestaurantDatabase implements RestaurantDatabaseInterface {
      */
 
     public String cancelReservation(String username, String day) {
-        Object lock = getLock(day);
+        ReentrantReadWriteLock dayLock = locks.getDayLock(day);
 
-        if (lock == null) {
+        if (dayLock == null) {
             return "Invalid Day";
         }
 
-        boolean reservationCanceled = false;
-
-        synchronized (lock) {
-            String fileName = day + ".txt";
-            ArrayList<String> lines = new ArrayList<>();
-            try (BufferedReader bfr = new BufferedReader(new FileReader(new File(fileName)))) {
-                while (true) {
-                    String line = bfr.readLine();
-                    if (line == null) {
-                        break;
-                    }
-                    lines.add(line);
-                }
-            } catch (Exception e) {
+        dayLock.readLock().lock();
+        ReentrantLock userLock = mode == BookingMode.LOCKING ? locks.getUserLock(day, username) : null;
+        if (userLock != null) {
+            userLock.lock();
+        }
+        try {
+            DayInventory inventory = seats.getDay(day);
+            if (inventory == null) {
                 return "Cancellation Failed";
             }
 
-            for (int i = 0; i < lines.size(); i++) {
-                String line = lines.get(i);
-                String[] lineSplit = line.split(",");
-                String booked = lineSplit[0];
+            return cancelBooking(inventory, username);
+        } finally {
+            if (userLock != null) {
+                userLock.unlock();
+            }
+            dayLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cancels every reservation a user has in one pass over the username index of each day and takes
+     * the user off the waitlist. Days the user has not booked are not touched.
+     *
+     * @param username the username of the person whose reservations are canceled
+     * @return how many reservations were canceled
+     */
+    public int cancelAllReservations(String username) {
+        waitlist.removeUser(username);
+        int canceled = 0;
+        for (String day : seats.getLoadedDays()) {
+            DayInventory current = seats.getDay(day);
+            if (current == null || current.findUserTime(username) == null) {
+                continue;
+            }
 
-                if (booked.equals(username)) {
-                    lineSplit[0] = "N/A";
-                    lineSplit[3] = "N/A";
-                    lineSplit[6] = "No";
-                    String special = lineSplit[4];
-                    if (special.equals("Yes")) {
-                        lineSplit[7] = "N/A";
-                        lineSplit[8] = "0";
-                    }
-                    String updatedLine = String.join(",", lineSplit);
-                    lines.set(i, updatedLine);
-                    reservationCanceled = true;
+            if (cancelReservation(username, day).equals("Cancellation Made")) {
+                canceled++;
+            }
+        }
+        return canceled;
+    }
+
+    /**
+     * Cancels a user's reservation once the day and user locks are held. The username index gives the
+     * first time slot and the table, and a longer stay holds the table in the time slots right after,
+     * so only those slots are locked and looked at. They are canceled from the last one on, so the
+     * index keeps the reservation until it is all canceled. In OPTIMISTIC mode the slots are not
+     * locked and each row is swapped back to free only if it is still the user's booking. Each freed
+     * row goes to the waitlist first, see promote.
+     *
+     * @return A String telling the status of the attempt to cancel the reservation
+     */
+    private String cancelBooking(DayInventory inventory, String username) {
+        Integer time = inventory.findUserTime(username);
+        Integer tableNum = inventory.findUserTable(username);
+        if (time == null || tableNum == null || username.equals(TableSlot.NO_USER)) {
+            return "Cancellation Failed";
+        }
+
+        int hours = 0;
+        while (!findRows(inventory.getSlots(time + hours), username, tableNum).isEmpty()) {
+            hours++;
+        }
+        if (hours == 0) {
+            return "Cancellation Failed";
+        }
+
+        if (mode == BookingMode.OPTIMISTIC) {
+            for (int hour = time + hours - 1; hour >= time; hour--) {
+                Map<Integer, TableSlot> expected = findRows(inventory.getSlots(hour), username, tableNum);
+                if (expected.isEmpty()) {
+                    return "Cancellation Failed";
+                }
+                Map<Integer, TableSlot> freed = cancel(expected);
+                List<Promotion> promoted = promote(inventory, freed);
+                boolean swapped = seats.compareAndUpdate(inventory, hour, expected, freed)
+                        == SeatInventory.SwapResult.SWAPPED;
+                finishPromotions(inventory, promoted, swapped);
+                if (!swapped) {
+                    return "Cancellation Failed";
                 }
             }
+            return "Cancellation Made";
+        }
 
-            if (reservationCanceled) {
-                try (PrintWriter pw = new PrintWriter(new FileOutputStream(new File(fileName)))) {
-                    for (int i = 0; i < lines.size(); i++) {
-                        pw.println(lines.get(i));
-                    }
-                } catch (Exception e) {
+        List<ReentrantLock> slotLocks = lockSlots(inventory.getDay(), time, hours);
+        try {
+            for (int hour = time + hours - 1; hour >= time; hour--) {
+                Map<Integer, TableSlot> booked = findRows(inventory.getSlots(hour), username, tableNum);
+                if (booked.isEmpty()) {
                     return "Cancellation Failed";
                 }
+                Map<Integer, TableSlot> freed = cancel(booked);
+                List<Promotion> promoted = promote(inventory, freed);
+                boolean saved = seats.update(inventory, hour, freed);
+                finishPromotions(inventory, promoted, saved);
+                if (!saved) {
+                    return "Cancellation Failed";
+                }
+            }
 
-                return "Cancellation Made";
+            return "Cancellation Made";
+        } finally {
+            unlockSlots(slotLocks);
+        }
+    }
+
+    /**
+     * Books the freed rows of a time slot for the waitlist in place of the free rows, so they are
+     * saved in the same update as the cancellation
+     *
+     * @param inventory the day being changed
+     * @param freed     the free rows keyed by their position, replaced by the booked rows
+     * @return the waiters booked, to hand to finishPromotions once the rows are saved or not
+     */
+    private List<Promotion> promote(DayInventory inventory, Map<Integer, TableSlot> freed) {
+        if (waitlist.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Promotion> promoted = new ArrayList<>();
+        for (Map.Entry<Integer, TableSlot> entry : freed.entrySet()) {
+            Promotion promotion = offer(inventory, entry.getValue());
+            if (promotion != null) {
+                entry.setValue(promotion.row);
+                promoted.add(promotion);
             }
         }
+        return promoted;
+    }
 
-        return "Cancellation Failed";
+    /**
+     * Books the free rows of a whole day for the waitlist while an admin change holds the day write lock
+     *
+     * @param inventory the changed copy of the day, not yet saved
+     * @return the waiters booked, to hand to finishPromotions once the day is saved or not
+     */
+    private List<Promotion> promoteDay(DayInventory inventory) {
+        if (waitlist.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Promotion> promoted = new ArrayList<>();
+        for (int time : inventory.getTimes()) {
+            List<TableSlot> rows = inventory.getSlots(time);
+            for (int i = 0; i < rows.size(); i++) {
+                Promotion promotion = rows.get(i).isBooked() ? null : offer(inventory, rows.get(i));
+                if (promotion != null) {
+                    inventory.setSlot(time, i, promotion.row);
+                    promoted.add(promotion);
+                }
+            }
+        }
+        return promoted;
     }
 
     /**
-     * Gets all available tables for a given day and time
+     * Books a free row for the first user waiting for its time slot whose party it seats and who can be
+     * booked now. In LOCKING mode the slot lock is already held, so a user whose lock is taken is passed
+     * over instead of waited for, and a user who booked the day meanwhile is dropped from the waitlist.
+     * In OPTIMISTIC mode the user is claimed in the day's username index like any other booking.
+     *
+     * @return the booking, or null if nobody waiting can have the row
+     */
+    private Promotion offer(DayInventory inventory, TableSlot row) {
+        for (Waitlist.Waiter waiter : waitlist.getWaiters(inventory.getDay(), row.getTime(), row.getTableSize())) {
+            if (row.isSpecial() && (waiter.getPartySize() <= 4 || waiter.getCreditCard().length() != 16)) {
+                continue;
+            }
+            TableSlot booked = row.isSpecial()
+                    ? row.book(waiter.getUsername(), waiter.getPartySize(), waiter.getCreditCard(), 100)
+                    : row.book(waiter.getUsername(), waiter.getPartySize(), row.getCreditCard(), row.getCost());
+
+            if (mode == BookingMode.OPTIMISTIC) {
+                Object claim = inventory.claimUser(waiter.getUsername(), row.getTime(), row.getTableNum());
+                if (claim == null) {
+                    continue;
+                }
+                if (!waitlist.take(waiter)) {
+                    inventory.releaseClaim(waiter.getUsername(), claim);
+                    continue;
+                }
+                return new Promotion(waiter, booked, null, claim);
+            }
+
+            ReentrantLock userLock = locks.getUserLock(inventory.getDay(), waiter.getUsername());
+            if (!userLock.tryLock()) {
+                continue;
+            }
+            if (inventory.hasUser(waiter.getUsername())) {
+                waitlist.take(waiter);
+                userLock.unlock();
+                continue;
+            }
+            if (!waitlist.take(waiter)) {
+                userLock.unlock();
+                continue;
+            }
+            return new Promotion(waiter, booked, userLock, null);
+        }
+        return null;
+    }
+
+    //Tells the booked waiters their table once it is saved, or puts them back in their place if it was not
+    private void finishPromotions(DayInventory inventory, List<Promotion> promoted, boolean saved) {
+        for (Promotion promotion : promoted) {
+            Waitlist.Waiter waiter = promotion.waiter;
+            if (saved) {
+                waitlist.addNotice(waiter.getUsername(), "Reservation Made At Table " + promotion.row.getTableNum()
+                        + " On " + waiter.getDay() + " At " + waiter.getTime());
+            } else {
+                if (promotion.claim != null) {
+                    inventory.releaseClaim(waiter.getUsername(), promotion.claim);
+                }
+                waitlist.putBack(waiter);
+            }
+            if (promotion.userLock != null) {
+                promotion.userLock.unlock();
+            }
+        }
+    }
+
+    //Finds the rows of a time slot where a user holds a table, keyed by their position inside the time slot
+    private static Map<Integer, TableSlot> findRows(List<TableSlot> rows, String username, int tableNum) {
+        Map<Integer, TableSlot> found = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            TableSlot row = rows.get(i);
+            if (row.getTableNum() == tableNum && row.getBookedBy().equals(username)) {
+                found.put(i, row);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets all available tables for a given day and time. This takes no lock, it reads the time slot
+     * as it was at one moment.
      *
      * @param day  the day the user wants to make a reservation for
      * @param time the time the user wants to book the reservation
@@ -227,63 +862,126 @@ public class RestaurantDatabase implements RestaurantDatabaseInterface {
      */
 
     public ArrayList<String> getAllAvailableTablesForDayAndTime(String day, int time) {
-        Object lock = getLock(day);
-
-        if (lock == null) {
+        if (locks.getDayLock(day) == null) {
             return null;
         }
 
-        synchronized (lock) {
-            String fileName = day + ".txt";
-            ArrayList<String> lines = new ArrayList<>();
-            try (BufferedReader bfr = new BufferedReader(new FileReader(new File(fileName)))) {
-                while (true) {
-                    String line = bfr.readLine();
-                    if (line == null) {
-                        break;
-                    }
-                    String[] linePieces = line.split(",");
-                    int lineTime = Integer.parseInt(linePieces[5]);
-                    String isBooked = linePieces[6];
-                    if (lineTime == time) {
-                        if (isBooked.equals("No")) {
-                            lines.add(line);
-                        }
-                    }
-                }
+        DayInventory inventory = seats.getDay(day);
+        if (inventory == null) {
+            return null;
+        }
 
-                return lines;
-            } catch (Exception e) {
-                return null;
+        ArrayList<String> lines = new ArrayList<>();
+        for (TableSlot row : inventory.getSlots(time)) {
+            if (!row.isBooked()) {
+                lines.add(row.toLine());
             }
         }
+
+        return lines;
+    }
+
+    /**
+     * Gets the free tables of a day and time as their day file lines separated by ';'. The text is
+     * kept with the time slot until it changes, so this takes no lock and allocates nothing.
+     *
+     * @param day  the day the user wants to make a reservation for
+     * @param time the time the user wants to book the reservation
+     * @return the free tables, empty if none are free, or null if the day is not valid or can not be read
+     */
+    public String getAvailableTables(String day, int time) {
+        DayInventory inventory = locks.getDayLock(day) == null ? null : seats.getDay(day);
+        return inventory == null ? null : inventory.getFreeTables(time);
+    }
+
+    /**
+     * Gets which of the tables numbered 1 to 64 of a day and time are free as a bit mask, taking no lock
+     * and allocating nothing
+     *
+     * @param day  the day to look at
+     * @param time the hour of the time slot
+     * @return a mask with bit tableNum - 1 set for every free table numbered 1 to 64, 0 if none are free
+     *     or the day is not valid or can not be read
+     */
+    public long getFreeTableMask(String day, int time) {
+        DayInventory inventory = locks.getDayLock(day) == null ? null : seats.getDay(day);
+        return inventory == null ? 0L : inventory.getFreeMask(time);
+    }
+
+    /**
+     * Gets which tables of a day and time are free, however many tables the floor plan has, taking no lock
+     *
+     * @param day  the day to look at
+     * @param time the hour of the time slot
+     * @return a set with bit tableNum - 1 set for every free table, empty if none are free or the day is
+     *     not valid or can not be read
+     */
+    public BitSet getFreeTableSet(String day, int time) {
+        DayInventory inventory = locks.getDayLock(day) == null ? null : seats.getDay(day);
+        return inventory == null ? new BitSet() : inventory.getFreeSet(time);
+    }
+
+    /**
+     * Finds the smallest free table of a day and time that seats a party through the capacity index of
+     * the time slot, taking no lock
+     *
+     * @param day       the day to look at
+     * @param time      the hour of the time slot
+     * @param partySize how many people the table must seat
+     * @param special   whether to look among the special tables instead of the others
+     * @return the table number, or -1 if no table fits or the day is not valid or can not be read
+     */
+    public int findFreeTable(String day, int time, int partySize, boolean special) {
+        DayInventory inventory = locks.getDayLock(day) == null ? null : seats.getDay(day);
+        return inventory == null ? -1 : inventory.findFreeTable(time, partySize, special);
+    }
+
+    public FloorPlan getFloorPlan() {
+        return seats.getFloorPlan();
     }
 
     /**
-     * Gets the synchronization lock for the given day
+     * Gets which tables are free at every time slot of every day in one string. Days are separated
+     * by ';' and written as day:time=mask,time=mask where mask is a hex number with bit tableNum - 1
+     * set when the table is free, for example monday:11=ff,12=7f;tuesday:... A day whose file can
+     * not be read has no time slots. The string is made again only after a reservation or admin change.
      *
-     * @param day the day the user wants to make a reservation for
-     * @return An Object which will be synchronized on
-     */
-    private Object getLock(String day) {
-        switch (day) {
-            case "monday":
-                return MONDAY_LOCK;
-            case "tuesday":
-                return TUESDAY_LOCK;
-            case "wednesday":
-                return WEDNESDAY_LOCK;
-            case "thursday":
-                return THURSDAY_LOCK;
-            case "friday":
-                return FRIDAY_LOCK;
-            case "saturday":
-                return SATURDAY_LOCK;
-            case "sunday":
-                return SUNDAY_LOCK;
+     * @return the availability of the whole week
+     */
+    public String getWeekAvailability() {
+        //The version is read first so a change made while building makes the next call build again
+        long version = seats.getVersion();
+        WeekAvailability cached = weekAvailability;
+        if (cached != null && cached.version == version) {
+            return cached.text;
         }
 
-        return null;
+        StringBuilder sb = new StringBuilder();
+        for (String day : SeatInventory.DAYS) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(day).append(':');
+
+            DayInventory inventory = seats.getDay(day);
+            if (inventory == null) {
+                continue;
+            }
+
+            boolean first = true;
+            for (int time : inventory.getTimes()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(time).append('=');
+                inventory.appendFreeMask(sb, time);
+                first = false;
+            }
+        }
+
+        String text = sb.toString();
+        weekAvailability = new WeekAvailability(version, text);
+        return text;
     }
 
     /**
@@ -294,78 +992,113 @@ public class RestaurantDatabase implements RestaurantDatabaseInterface {
      * @return A string telling if action was successful or not.
      */
     public String adminChange(String day, boolean closingLater) {
-        Object lock = getLock(day);
+        ReentrantReadWriteLock dayLock = locks.getDayLock(day);
 
-        if (lock == null) {
+        if (dayLock == null) {
             return "Invalid Day";
         }
 
-        synchronized (lock) {
-            String fileName = day + ".txt";
-            ArrayList<String> lines = new ArrayList<>();
-            try (BufferedReader bfr = new BufferedReader(new FileReader(new File(fileName)))) {
-                while (true) {
-                    String line = bfr.readLine();
-                    if (line == null) {
-                        break;
-                    }
-                    lines.add(line);
-                }
-            } catch (Exception e) {
+        dayLock.writeLock().lock();
+        try {
+            DayInventory current = seats.getDay(day);
+            if (current == null) {
                 return "Change Failed";
             }
 
+            DayInventory inventory = current.copy();
             if (closingLater) {
-                //add check if they are already there
-                for (int j = 1; j < 4; j++) {
-                    String table = String.format("N/A,%d,2,N/A,No,21,No,Not Needed,0", j);
-                    lines.add(table);
-                }
-                for (int j = 4; j < 8; j++) {
-                    String table = String.format("N/A,%d,4,N/A,No,21,No,Not Needed,0", j);
-                    lines.add(table);
+                //Only tables without a row at 21 get one, so closing later twice does not add them again
+                Set<Integer> open = new HashSet<>();
+                for (TableSlot row : inventory.getSlots(21)) {
+                    open.add(row.getTableNum());
                 }
-                lines.add("N/A,8,8,N/A,Yes,21,No,N/A,0");
-
-                for (int i = 0; i < lines.size(); i++) {
-                    String[] pieces = lines.get(i).split(",");
-                    if (pieces[1].equals("8")) {
-                        pieces[0] = "N/A";
-                        pieces[3] = "N/A";
-                        pieces[6] = "No";
-                        pieces[7] = "N/A";
-                        pieces[8] = "0";
-                        lines.set(i, String.join(",", pieces));
+                for (TableSlot row : seats.getFloorPlan().rows(21)) {
+                    if (!open.contains(row.getTableNum())) {
+                        inventory.addSlot(row);
                     }
                 }
+            } else {
+                inventory.removeTime(21);
             }
 
-            if (!closingLater) {
-                lines.removeIf(l -> l.split(",")[5].equals("21"));
-
-                for (int i = 0; i < lines.size(); i++) {
-                    String[] pieces = lines.get(i).split(",");
-                    int tableSize = Integer.parseInt(pieces[1]);
-                    if (tableSize == 8) {
-                        pieces[0] = "N/A";
-                        pieces[3] = "N/A";
-                        pieces[6] = "No";
-                        pieces[7] = "N/A";
-                        pieces[8] = "0";
-                        lines.set(i, String.join(",", pieces));
-                    }
+            //The special tables open back up when closing later and are taken off the books when closing early
+            for (TableSlot row : inventory.getAllSlots()) {
+                if (row.isSpecial()) {
+                    List<TableSlot> rows = inventory.getSlots(row.getTime());
+                    inventory.setSlot(row.getTime(), rows.indexOf(row), row.reset(!closingLater));
                 }
             }
 
-            try (PrintWriter pw = new PrintWriter(fileName)) {
-                for (String line : lines) {
-                    pw.println(line);
-                }
-            } catch (Exception e) {
+            //Tables the change opens go to the waitlist in the day that is saved
+            List<Promotion> promoted = promoteDay(inventory);
+            boolean saved = seats.replace(inventory);
+            finishPromotions(inventory, promoted, saved);
+            if (!saved) {
                 return "Change Failed";
             }
 
             return "Change Successful";
+        } finally {
+            dayLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Archives every past date and drops dates without bookings from memory, so memory and the store
+     * hold only the dates that are booked. Each date is changed under its day write lock, so no booking
+     * for it is running.
+     *
+     * @return how many dates were archived or dropped
+     */
+    public int sweepCalendar() {
+        int swept = 0;
+        for (String day : seats.getPastDays()) {
+            ReentrantReadWriteLock dayLock = locks.getPastDayLock(day);
+            dayLock.writeLock().lock();
+            try {
+                if (seats.archive(day)) {
+                    locks.forget(day);
+                    swept++;
+                }
+            } finally {
+                dayLock.writeLock().unlock();
+            }
+        }
+
+        for (String day : seats.getLoadedDays()) {
+            ReentrantReadWriteLock dayLock = ReservationCalendar.isWeekday(day) ? null : locks.getDayLock(day);
+            if (dayLock == null) {
+                continue;
+            }
+            dayLock.writeLock().lock();
+            try {
+                if (seats.evict(day)) {
+                    swept++;
+                }
+            } finally {
+                dayLock.writeLock().unlock();
+            }
         }
+        return swept;
+    }
+
+    /**
+     * Checks the loaded days for anything a booking could never have left behind
+     *
+     * @return one line per problem, empty if every day is sound
+     */
+    public List<String> validate() {
+        return seats.validate();
+    }
+
+    public int getReplayedRecords() {
+        return seats.getReplayedRecords();
+    }
+
+    /**
+     * Saves everything in the journal to the day files and closes the journal
+     */
+    public void close() {
+        seats.close();
     }
 }
@@ -1,8 +1,10 @@
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 /**
- *This interface provides the methods and synchronization obejcts for
- * RestaurantDatabase
+ *This interface provides the methods for RestaurantDatabase. Locking is done
+ * per time slot inside RestaurantDatabase with ReservationLocks.
  *
  * @version Nov 4, 2025
  */
@@ -24,6 +26,32 @@ public interface  RestaurantDatabaseInterface {
     String makeReservation(String username, String day, int tableNum, int partySize, int time, boolean isSpecial,
                            String creditCard);
 
+    /**
+     * Allows a user to make a reservation for a stay of any length, which holds the table in every
+     * time slot the stay reaches into. By default only a stay of one time slot can be booked.
+     *
+     * @param username the username of the person making a reservation
+     * @param day the day the user wants to make a reservation for
+     * @param tableNum the table number of the table the user wants to book
+     * @param partySize the size of the users party
+     * @param time the time the user wants to book the reservation
+     * @param minutes how long the party stays, see DayTemplate.getTimeSlots
+     * @param isSpecial whether the table the user is booking is special which means requiring credit card and payment
+     * @param creditCard the user's credit card which is used if user is reserving special table.
+     * @return A String telling the status of the attempt to reserve the table
+     */
+    default String makeReservation(String username, String day, int tableNum, int partySize, int time, int minutes,
+                                   boolean isSpecial, String creditCard) {
+        int hours = DayTemplate.getTimeSlots(time, minutes);
+        if (hours < 0) {
+            return "Invalid Time";
+        }
+        if (hours > 1) {
+            return "Reservation Failed";
+        }
+        return makeReservation(username, day, tableNum, partySize, time, isSpecial, creditCard);
+    }
+
     /**
      * Allows a user to cancel a reservation
      *
@@ -34,6 +62,14 @@ public interface  RestaurantDatabaseInterface {
 
     String cancelReservation(String username, String day);
 
+    /**
+     * Cancels every reservation a user has on any day and takes them off any waitlist
+     *
+     * @param username the username of the person whose reservations are canceled
+     * @return how many reservations were canceled
+     */
+    int cancelAllReservations(String username);
+
     /**
      * Gets all available tables for a given day and time
      *
@@ -43,6 +79,164 @@ public interface  RestaurantDatabaseInterface {
      */
     ArrayList<String> getAllAvailableTablesForDayAndTime(String day, int time);
 
+    /**
+     * Gets the free tables of a day and time as one string without building a list
+     *
+     * @param day the day the user wants to make a reservation for
+     * @param time the time the user wants to book the reservation
+     * @return the free tables separated by ';', empty if none are free, or null if the day is not valid
+     */
+    String getAvailableTables(String day, int time);
+
+    /**
+     * Gets which of the tables numbered 1 to 64 of a day and time are free as a bit mask
+     *
+     * @param day the day to look at
+     * @param time the hour of the time slot
+     * @return a mask with bit tableNum - 1 set for every free table numbered 1 to 64
+     */
+    long getFreeTableMask(String day, int time);
+
+    /**
+     * Gets which tables of a day and time are free, however many tables there are
+     *
+     * @param day the day to look at
+     * @param time the hour of the time slot
+     * @return a set with bit tableNum - 1 set for every free table
+     */
+    BitSet getFreeTableSet(String day, int time);
+
+    /**
+     * Finds the smallest free table of a day and time that seats a party. By default the free tables
+     * are looked through one by one.
+     *
+     * @param day the day to look at
+     * @param time the hour of the time slot
+     * @param partySize how many people the table must seat
+     * @param special whether to look among the special tables instead of the others
+     * @return the table number, or -1 if no table fits or the day is not valid
+     */
+    default int findFreeTable(String day, int time, int partySize, boolean special) {
+        List<String> free = getAllAvailableTablesForDayAndTime(day, time);
+        int best = -1;
+        int bestSize = Integer.MAX_VALUE;
+        for (String line : free == null ? List.<String>of() : free) {
+            TableSlot row = TableSlot.fromLine(line);
+            if (row.isSpecial() == special && row.getTableSize() >= partySize && row.getTableSize() < bestSize) {
+                best = row.getTableNum();
+                bestSize = row.getTableSize();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Books the smallest free table that seats a party. A party of more than 4 that no other table
+     * seats gets a special table. By default a table is found and then booked, and if someone else
+     * booked it in between the next smallest one is tried.
+     *
+     * @param username the username of the person making a reservation
+     * @param day the day the user wants to make a reservation for
+     * @param partySize the size of the users party
+     * @param time the time the user wants to book the reservation
+     * @param creditCard the user's credit card, used if a special table is booked
+     * @return "Reservation Made At Table " and the table number, "No Table Fits" if no free table
+     *     seats the party, or why the reservation was not made as from makeReservation
+     */
+    default String reserveBestTable(String username, String day, int partySize, int time, String creditCard) {
+        while (true) {
+            boolean special = false;
+            int tableNum = findFreeTable(day, time, partySize, false);
+            if (tableNum < 0 && partySize > 4) {
+                special = true;
+                tableNum = findFreeTable(day, time, partySize, true);
+            }
+            if (tableNum < 0) {
+                return "No Table Fits";
+            }
+            String result = makeReservation(username, day, tableNum, partySize, time, special, creditCard);
+            if (!result.equals("Table Already Booked")) {
+                return result.equals("Reservation Made") ? result + " At Table " + tableNum : result;
+            }
+        }
+    }
+
+    /**
+     * Books the smallest table that is free for a whole stay and seats a party. By default only a
+     * stay of one time slot can be booked.
+     *
+     * @param username the username of the person making a reservation
+     * @param day the day the user wants to make a reservation for
+     * @param partySize the size of the users party
+     * @param time the time the user wants to book the reservation
+     * @param minutes how long the party stays, see DayTemplate.getTimeSlots
+     * @param creditCard the user's credit card, used if a special table is booked
+     * @return "Reservation Made At Table " and the table number, "No Table Fits" if no table is free
+     *     for the whole stay and seats the party, or why the reservation was not made
+     */
+    default String reserveBestTable(String username, String day, int partySize, int time, int minutes,
+                                    String creditCard) {
+        int hours = DayTemplate.getTimeSlots(time, minutes);
+        if (hours < 0) {
+            return "Invalid Time";
+        }
+        if (hours > 1) {
+            return "Reservation Failed";
+        }
+        return reserveBestTable(username, day, partySize, time, creditCard);
+    }
+
+    /**
+     * Puts a user on the waitlist for a day, time and party size, so a table that frees up is booked
+     * for them. By default there is no waitlist.
+     *
+     * @param username the username of the person waiting
+     * @param day the day the user wants a table for
+     * @param partySize the size of the users party
+     * @param time the time the user wants a table at
+     * @param creditCard the user's credit card, used if a special table is booked
+     * @return "Added To Waitlist", or why the user can not wait, by default "Reservation Failed"
+     */
+    default String joinWaitlist(String username, String day, int partySize, int time, String creditCard) {
+        return "Reservation Failed";
+    }
+
+    /**
+     * Takes the notices of the tables the waitlist booked for a user since they last asked
+     *
+     * @param username the username
+     * @return the notices, by default none
+     */
+    default List<String> takeNotifications(String username) {
+        return List.of();
+    }
+
+    /**
+     * Checks if anyone is on the waitlist or has notices they have not taken. The waitlist is only kept
+     * in memory, so a restaurant is not closed while this is true. By default there is no waitlist.
+     *
+     * @return true if closing the database would lose waiters or notices
+     */
+    default boolean hasWaiting() {
+        return false;
+    }
+
+    /**
+     * Gets the tables of the restaurant
+     *
+     * @return the floor plan, by default the tables the restaurant has always had
+     */
+    default FloorPlan getFloorPlan() {
+        return FloorPlan.DEFAULT;
+    }
+
+    /**
+     * Gets which tables are free at every time slot of every day in one string
+     *
+     * @return the availability of the whole week as day:time=mask entries separated by ';'
+     */
+    String getWeekAvailability();
+
     /**
      * Executes action specified by the admin to change times and seatings
      *
@@ -52,11 +246,8 @@ public interface  RestaurantDatabaseInterface {
      */
     String adminChange(String day, boolean closingLater);
 
-    Object MONDAY_LOCK = new Object();
-    Object TUESDAY_LOCK = new Object();
-    Object WEDNESDAY_LOCK = new Object();
-    Object THURSDAY_LOCK = new Object();
-    Object FRIDAY_LOCK = new Object();
-    Object SATURDAY_LOCK = new Object();
-    Object SUNDAY_LOCK = new Object();
+    /**
+     * Saves anything not yet saved and lets go of the files or connections the database holds
+     */
+    void close();
 }
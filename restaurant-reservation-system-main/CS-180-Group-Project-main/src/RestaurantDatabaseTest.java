@@ -141,6 +141,28 @@ public class RestaurantDatabaseTest {
 
     }
 
+    //Test that cancelling every reservation of a user clears each day the user booked
+    @Test
+    public void testCancelAllReservations() {
+        db.makeReservation("George", "monday", 2, 2, 11, false, "No");
+        db.makeReservation("George", "friday", 5, 3, 19, false, "No");
+        db.makeReservation("Bob", "friday", 1, 2, 19, false, "No");
+
+        Assertions.assertEquals(2, db.cancelAllReservations("George"));
+        Assertions.assertEquals("Cancellation Failed", db.cancelReservation("George", "friday"));
+        Assertions.assertEquals("Cancellation Made", db.cancelReservation("Bob", "friday"));
+        Assertions.assertEquals(0, db.cancelAllReservations("George"));
+    }
+
+    //Test that a user whose party room booking is cleared by closing early can book again
+    @Test
+    public void testAdminChangeClearsUserFromIndex() {
+        db.makeReservation("Steve", "monday", 8, 6, 21, true, "0000000012345678");
+        Assertions.assertEquals("Change Successful", db.adminChange("monday", false));
+        Assertions.assertEquals("Cancellation Failed", db.cancelReservation("Steve", "monday"));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Steve", "monday", 1, 2, 11, false, "No"));
+    }
+
     //Test if all available tables for day and time can be found
     @Test
     public void testGetAllAvailableTablesForDayAndTime() {
@@ -150,6 +172,41 @@ public class RestaurantDatabaseTest {
         Assertions.assertEquals(8, availableTables.size());
     }
 
+    //Test that the week availability has every slot, is reused, and changes after a reservation or admin change
+    @Test
+    public void testGetWeekAvailability() {
+        String week = db.getWeekAvailability();
+        Assertions.assertEquals(7, week.split(";").length);
+        Assertions.assertTrue(week.startsWith("monday:11=ff,12=ff,"));
+        Assertions.assertTrue(week.split(";")[0].contains("21=ff"));
+        Assertions.assertSame(week, db.getWeekAvailability());
+
+        db.makeReservation("Bob", "monday", 1, 2, 11, false, "No");
+        Assertions.assertTrue(db.getWeekAvailability().startsWith("monday:11=fe,12=ff,"));
+
+        db.adminChange("monday", false);
+        Assertions.assertFalse(db.getWeekAvailability().split(";")[0].contains("21="));
+    }
+
+    //Test that the free tables text and mask match the list of free tables and follow bookings
+    @Test
+    public void testGetAvailableTablesAndMask() {
+        Assertions.assertEquals(String.join(";", db.getAllAvailableTablesForDayAndTime("monday", 11)),
+            db.getAvailableTables("monday", 11));
+        Assertions.assertSame(db.getAvailableTables("monday", 11), db.getAvailableTables("monday", 11));
+        Assertions.assertEquals(0xffL, db.getFreeTableMask("monday", 11));
+
+        db.makeReservation("Bob", "monday", 1, 2, 11, false, "No");
+        Assertions.assertEquals(0xfeL, db.getFreeTableMask("monday", 11));
+        Assertions.assertEquals(String.join(";", db.getAllAvailableTablesForDayAndTime("monday", 11)),
+            db.getAvailableTables("monday", 11));
+        Assertions.assertFalse(db.getAvailableTables("monday", 11).contains("Bob"));
+
+        Assertions.assertEquals("", db.getAvailableTables("monday", 3));
+        Assertions.assertEquals(0L, db.getFreeTableMask("monday", 3));
+        Assertions.assertNull(db.getAvailableTables("wenksday", 11));
+    }
+
     //Test if all available tables for an invalid day
     @Test
     public void testGetAllAvailableTablesForInvalidDay() {
@@ -157,6 +214,49 @@ public class RestaurantDatabaseTest {
         Assertions.assertNull(availableTables);
     }
 
+    //Test that bookings for different time slots of one day all go through at the same time
+    @Test
+    public void testConcurrentBookingsOnDifferentSlots() throws InterruptedException {
+        int[] times = {11, 12, 13, 14, 17, 18, 19, 20};
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < times.length; i++) {
+            String user = "User" + i;
+            int time = times[i];
+            threads.add(new Thread(() -> results.add(db.makeReservation(user, "saturday", 1, 2, time, false, "No"))));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(times.length, results.stream().filter(r -> r.equals("Reservation Made")).count());
+    }
+
+    //Test that a user racing to book two time slots of one day only gets one of them
+    @Test
+    public void testConcurrentBookingsBySameUser() throws InterruptedException {
+        int[] times = {11, 12, 13, 14, 17, 18, 19, 20};
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int time : times) {
+            threads.add(new Thread(() -> results.add(db.makeReservation("Steve", "saturday", 4, 3, time, false,
+                "No"))));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(1, results.stream().filter(r -> r.equals("Reservation Made")).count());
+        Assertions.assertEquals(times.length - 1,
+            results.stream().filter(r -> r.equals("User Already Has Reservation For This Day")).count());
+    }
+
     //Helper to read the maximum time value present in a day's file.
     private int getMaxTimeForDay(String fileName) {
         try {
@@ -201,7 +301,7 @@ public class RestaurantDatabaseTest {
             }
                ).count();
 
-            Assertions.assertEquals(16, count21);
+            Assertions.assertEquals(8, count21);
         } catch (IOException e) {
             Assertions.fail("Could not read monday.txt after adminChange close later");
         }
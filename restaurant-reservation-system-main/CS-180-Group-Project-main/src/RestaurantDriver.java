@@ -1,18 +1,198 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
- *This class provides a main method to run the static method initializeFiles which
- * initializes the restaurant database files. It also starts a server thread so we have
- * a server running.
+ *This class provides a main method that loads the restaurant database from what is
+ * already stored, writing fresh files only for days that are missing, and reports how
+ * long it took until clients are served. It also starts a server thread so we have
+ * a server running. Reservations are recorded in a journal which is saved back into
+ * the day store when the server stops. Which server runs and how it runs clients is read from system properties.
  *
- * @version Nov 20, 2025
+ * @version Dec 19, 2025
  */
 
 public class RestaurantDriver {
     public static void main(String[] args) {
-        InitializeRestaurantFiles.initializeFiles();
-        RestaurantDatabase rd = new RestaurantDatabase();
-        UserDatabase ud = new UserDatabase("users.txt");
+        long started = System.nanoTime();
+        //-Dstorage.reset=true wipes every reservation and starts from fresh day files
+        if (Boolean.getBoolean("storage.reset")) {
+            InitializeRestaurantFiles.initializeFiles();
+        }
+        //-Dstorage.backend picks where days are kept: text, binary, mapped, memory, keyvalue or sql.
+        //-Dstorage.journal=false saves every change in the store instead of journaling it,
+        //-Dstorage.url is the JDBC URL of the sql backend, and -Dbooking.mode=optimistic books
+        //without slot locks. -Dcalendar.daysAhead is how many days from today can be booked by date
+        String backend = System.getProperty("storage.backend", "text");
+        RestaurantDatabaseInterface rd = null;
+        if (backend.equalsIgnoreCase("sql")) {
+            //An empty SQL database is filled from the text day files
+            InitializeRestaurantFiles.initializeMissingDays(new TextDayStore());
+            try {
+                rd = new JdbcRestaurantDatabase(System.getProperty("storage.url", JdbcRestaurantDatabase.DEFAULT_URL));
+            } catch (SQLException e) {
+                System.out.println("Error opening SQL database, using text day files: " + e.getMessage());
+                backend = "text";
+            }
+        }
+        //floorplan.txt holds the tables of the restaurant, see FloorPlan, and every restaurant under
+        //restaurants can have its own
+        FloorPlan floorPlan = InitializeRestaurantFiles.loadFloorPlan(Paths.get(""));
+        if (rd == null) {
+            DayStoreInterface store = openStore(backend);
+            List<String> written = InitializeRestaurantFiles.initializeMissingDays(store);
+            if (!written.isEmpty()) {
+                System.out.println("Initialized missing days: " + String.join(", ", written));
+            }
+            rd = openDatabase(store, ReservationJournal.DEFAULT_FILE, floorPlan);
+        }
+        RestaurantDatabaseInterface database = rd;
+        int replayed = 0;
+        if (database instanceof RestaurantDatabase) {
+            replayed = ((RestaurantDatabase) database).getReplayedRecords();
+            for (String problem : ((RestaurantDatabase) database).validate()) {
+                System.out.println("Invalid day data, " + problem);
+            }
+        }
+
+        //Archive past dates and drop unbooked dates from memory every hour
+        if (database instanceof RestaurantDatabase) {
+            ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "calendar-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(((RestaurantDatabase) database)::sweepCalendar, 0, 1, TimeUnit.HOURS);
+        }
+        //Every directory under restaurants is a restaurant clients can book at with At Restaurant, each with its
+        //own day files and journal in the store the default restaurant uses. -Drestaurants=downtown,airport adds
+        //restaurants, and a restaurant nobody used for -Drestaurants.idleMinutes is closed until it is used again
+        String restaurantBackend = backend.equalsIgnoreCase("sql") ? "text" : backend;
+        RestaurantRegistry restaurants = new RestaurantRegistry(database, Paths.get(RestaurantRegistry.DEFAULT_ROOT),
+                directory -> openDatabase(openStore(restaurantBackend, directory),
+                        directory.resolve(RestaurantRegistry.JOURNAL_FILE).toString(),
+                        InitializeRestaurantFiles.loadFloorPlan(directory)));
+        for (String id : System.getProperty("restaurants", "").split(",")) {
+            if (!id.isBlank() && !restaurants.create(id.trim())) {
+                System.out.println("Invalid restaurant id: " + id);
+            }
+        }
+        long idleMillis = TimeUnit.MINUTES.toMillis(Long.getLong("restaurants.idleMinutes", 10));
+        ScheduledExecutorService idleCloser = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "restaurant-closer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        idleCloser.scheduleWithFixedDelay(() -> restaurants.closeIdle(idleMillis), 1, 1, TimeUnit.MINUTES);
+        UserDatabase ud = new UserDatabase("users.txt", restaurants);
+
+        //-Dserver.frontend=nio runs the non-blocking server with -Dserver.workers threads. Otherwise
+        //executor settings can be changed with -Dserver.executor=platform, -Dserver.poolSize and
+        //-Dserver.maxConnections
+        RestaurantServerInterface server;
+        Runnable serverLoop;
+        if (System.getProperty("server.frontend", "blocking").equalsIgnoreCase("nio")) {
+            int workers = Integer.getInteger("server.workers", NioRestaurantServer.DEFAULT_WORKERS);
+            NioRestaurantServer nioServer = new NioRestaurantServer(4242, restaurants, ud, workers);
+            server = nioServer;
+            serverLoop = nioServer;
+        } else {
+            RestaurantServer.ExecutorMode mode = RestaurantServer.ExecutorMode.valueOf(
+                    System.getProperty("server.executor", "virtual").toUpperCase());
+            int poolSize = Integer.getInteger("server.poolSize", RestaurantServer.DEFAULT_POOL_SIZE);
+            int maxConnections = Integer.getInteger("server.maxConnections",
+                    RestaurantServer.DEFAULT_MAX_CONNECTIONS);
+            RestaurantServer blockingServer = new RestaurantServer(4242, restaurants, ud, mode, poolSize,
+                    maxConnections);
+            server = blockingServer;
+            serverLoop = blockingServer;
+        }
+
+        //Let clients finish and save the journal back into the day files when the server stops
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.shutdown(10);
+            restaurants.close();
+            database.close();
+        }));
+
         //Start server
-        Thread serverThread = new Thread(new RestaurantServer(4242, rd, ud));
+        Thread serverThread = new Thread(serverLoop);
         serverThread.start();
+        //The server socket is bound by now, so clients are being accepted
+        System.out.printf("Serving on port 4242 %d ms after start (%s backend, %d journal records replayed)%n",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), backend, replayed);
+    }
+
+    /**
+     * Makes the RestaurantDatabase over a store, with the journal unless -Dstorage.journal=false and
+     * in the booking mode -Dbooking.mode names, booking dates -Dcalendar.daysAhead days ahead
+     *
+     * @param store       where the days are kept
+     * @param journalFile the journal file
+     * @param floorPlan   the tables of the restaurant
+     * @return the RestaurantDatabase
+     */
+    private static RestaurantDatabase openDatabase(DayStoreInterface store, String journalFile,
+                                                   FloorPlan floorPlan) {
+        RestaurantDatabase.BookingMode mode = RestaurantDatabase.BookingMode.valueOf(
+                System.getProperty("booking.mode", "locking").toUpperCase());
+        ReservationCalendar calendar = new ReservationCalendar(Clock.systemDefaultZone(),
+                Integer.getInteger("calendar.daysAhead", ReservationCalendar.DEFAULT_DAYS_AHEAD));
+        if (Boolean.parseBoolean(System.getProperty("storage.journal", "true"))) {
+            try {
+                return new RestaurantDatabase(store, new ReservationJournal(journalFile), mode,
+                        calendar, floorPlan);
+            } catch (IOException e) {
+                System.out.println("Error opening journal, saving every change in the store: " + e.getMessage());
+            }
+        }
+        return new RestaurantDatabase(store, null, mode, calendar, floorPlan);
+    }
+
+    /**
+     * Makes the store days are kept in
+     *
+     * @param backend text, binary, mapped, memory or keyvalue
+     * @return the store, text day files if the key-value store can not be opened
+     * @throws IllegalArgumentException if the backend is not one of these
+     */
+    public static DayStoreInterface openStore(String backend) {
+        return openStore(backend, Paths.get(""));
+    }
+
+    /**
+     * Makes the store the days of one restaurant are kept in
+     *
+     * @param backend   text, binary, mapped, memory or keyvalue
+     * @param directory the directory of the restaurant's files
+     * @return the store, text day files if the key-value store can not be opened
+     * @throws IllegalArgumentException if the backend is not one of these
+     */
+    public static DayStoreInterface openStore(String backend, Path directory) {
+        switch (backend.toLowerCase()) {
+            case "text":
+                return new TextDayStore(directory);
+            case "binary":
+                return new BinaryDayStore(directory);
+            case "mapped":
+                return new MappedDayStore(directory);
+            case "memory":
+                return new MemoryDayStore(directory);
+            case "keyvalue":
+                try {
+                    return new KeyValueDayStore(directory);
+                } catch (IOException e) {
+                    System.out.println("Error opening key-value store, using text day files: " + e.getMessage());
+                    return new TextDayStore(directory);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown storage backend: " + backend);
+        }
     }
 }
@@ -0,0 +1,348 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * This class holds every restaurant one server hosts. The default restaurant is the database the
+ * server always had, kept in the working directory. Every other restaurant has an id and keeps its
+ * day files and its journal in its own directory under the root, restaurants/downtown and so on, so
+ * each one has its own days, locks and journal and a request at one restaurant never waits for
+ * another.
+ *
+ * <p>A restaurant is opened the first time a request asks for it and closed again by closeIdle once
+ * nobody has used it for a while and nobody is on its waitlist, so memory and threads grow with
+ * the restaurants in use and not with how many there are. A user's bookings are cancelled at a closed
+ * restaurant by writing their name to its CANCELLATIONS_FILE, which the restaurant applies the next
+ * time it is opened, so deleting a user does not open every restaurant. close shuts every restaurant, waitlist or
+ * not, so each one saves its journal when the server stops.</p>
+ *
+ * @version Dec 19, 2025
+ */
+
+public class RestaurantRegistry implements AutoCloseable {
+    public static final String DEFAULT_ROOT = "restaurants";
+    public static final String JOURNAL_FILE = "reservations.journal";
+    public static final String CANCELLATIONS_FILE = "cancellations.txt";
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private final RestaurantDatabaseInterface defaultDB;
+    private final Path root;
+    private final Function<Path, RestaurantDatabaseInterface> opener;
+    private final Map<String, Restaurant> open = new ConcurrentHashMap<>();
+
+    /**
+     * This class is one restaurant that is open or being opened. users is how many requests are
+     * using it, or -1 once it is closed, and the database is opened and closed while holding the
+     * restaurant's monitor.
+     */
+    private static class Restaurant {
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile long lastUsed = System.nanoTime();
+        private RestaurantDatabaseInterface db;
+    }
+
+    /**
+     * This constructor hosts only the default restaurant
+     *
+     * @param defaultDB the database of the default restaurant
+     */
+    public RestaurantRegistry(RestaurantDatabaseInterface defaultDB) {
+        this(defaultDB, null, null);
+    }
+
+    /**
+     * This constructor hosts the default restaurant and every restaurant with a directory under root
+     *
+     * @param defaultDB the database of the default restaurant
+     * @param root      the directory holding a directory for each restaurant
+     * @param opener    opens the database of a restaurant from its directory
+     */
+    public RestaurantRegistry(RestaurantDatabaseInterface defaultDB, Path root,
+                              Function<Path, RestaurantDatabaseInterface> opener) {
+        this.defaultDB = defaultDB;
+        this.root = root;
+        this.opener = opener;
+    }
+
+    public RestaurantDatabaseInterface getDefault() {
+        return defaultDB;
+    }
+
+    public static boolean isValidId(String id) {
+        return id != null && ID.matcher(id).matches();
+    }
+
+    /**
+     * Checks if a restaurant is hosted here
+     *
+     * @param id the id of the restaurant
+     * @return true if the id is valid and the restaurant has a directory
+     */
+    public boolean exists(String id) {
+        return root != null && isValidId(id) && Files.isDirectory(root.resolve(id));
+    }
+
+    /**
+     * Gets the id of every restaurant hosted here besides the default one, open or not
+     *
+     * @return the ids, empty if there is no root or it can not be read
+     */
+    public List<String> getIds() {
+        List<String> ids = new ArrayList<>();
+        if (root == null || !Files.isDirectory(root)) {
+            return ids;
+        }
+        try (Stream<Path> directories = Files.list(root)) {
+            directories.forEach(directory -> {
+                String id = directory.getFileName().toString();
+                if (isValidId(id) && Files.isDirectory(directory)) {
+                    ids.add(id);
+                }
+            });
+        } catch (IOException e) {
+            System.out.println("Could not list restaurants: " + e.getMessage());
+        }
+        return ids;
+    }
+
+    /**
+     * Adds a restaurant with a day file for every weekday, or writes the weekdays a restaurant is missing
+     *
+     * @param id the id of the restaurant
+     * @return false if the id is not valid, there is no root, or the directory can not be made
+     */
+    public boolean create(String id) {
+        return create(id, null);
+    }
+
+    /**
+     * Adds a restaurant with its own tables, or writes the weekdays a restaurant is missing. The floor
+     * plan only lays out days that are not written yet, so it should be given when the restaurant is new.
+     *
+     * @param id   the id of the restaurant
+     * @param plan the tables of the restaurant, or null to keep its floor plan or use the default one
+     * @return false if the id is not valid, there is no root, or the directory can not be made
+     */
+    public boolean create(String id, FloorPlan plan) {
+        if (root == null || !isValidId(id)) {
+            return false;
+        }
+        Path directory = root.resolve(id);
+        try {
+            Files.createDirectories(directory);
+            if (plan != null) {
+                plan.save(directory);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        InitializeRestaurantFiles.initializeMissingDays(new TextDayStore(directory), directory);
+        return true;
+    }
+
+    /**
+     * Runs an action against a restaurant's database, opening the restaurant if it is not open. The
+     * restaurant is not closed while the action runs.
+     *
+     * @param id     the id of the restaurant
+     * @param action what to do with the database
+     * @param <T>    what the action gives back
+     * @return what the action gave back, or null if the restaurant is not hosted here
+     * @throws UncheckedIOException if the restaurant can not be opened
+     */
+    public <T> T apply(String id, Function<RestaurantDatabaseInterface, T> action) {
+        Restaurant restaurant = acquire(id);
+        if (restaurant == null) {
+            return null;
+        }
+        try {
+            return action.apply(restaurant.db);
+        } finally {
+            restaurant.lastUsed = System.nanoTime();
+            restaurant.users.decrementAndGet();
+        }
+    }
+
+    //Counts a new user of a restaurant and opens it if this is the first
+    private Restaurant acquire(String id) {
+        while (true) {
+            Restaurant restaurant = open.get(id);
+            if (restaurant == null) {
+                if (!exists(id)) {
+                    return null;
+                }
+                restaurant = open.computeIfAbsent(id, k -> new Restaurant());
+            }
+
+            int users = restaurant.users.get();
+            if (users < 0) {
+                //It is being closed, so wait until it is gone before opening it again. closeIdle may also
+                //keep it open after all, then it is used as it is
+                synchronized (restaurant) {
+                    if (restaurant.users.get() < 0) {
+                        open.remove(id, restaurant);
+                    }
+                }
+                continue;
+            }
+            if (!restaurant.users.compareAndSet(users, users + 1)) {
+                continue;
+            }
+
+            synchronized (restaurant) {
+                if (restaurant.db == null) {
+                    try {
+                        restaurant.db = opener.apply(root.resolve(id));
+                        applyCancellations(id, restaurant.db);
+                    } catch (RuntimeException e) {
+                        restaurant.users.decrementAndGet();
+                        throw e;
+                    }
+                }
+            }
+            return restaurant;
+        }
+    }
+
+    /**
+     * Cancels every booking of a user at every restaurant hosted here besides the default one. An open
+     * restaurant cancels them now and a closed one when it is next opened, so no restaurant is opened.
+     *
+     * @param username the user whose bookings are cancelled
+     */
+    public void cancelAllReservations(String username) {
+        for (String id : getIds()) {
+            try {
+                cancelAllReservations(id, username);
+            } catch (UncheckedIOException e) {
+                System.out.println("Could not cancel reservations at " + id + ": " + e.getMessage());
+            }
+        }
+    }
+
+    //Cancels a user's bookings at one restaurant, or leaves them to be cancelled when it is opened
+    private void cancelAllReservations(String id, String username) {
+        while (true) {
+            //Nobody can open the restaurant while compute holds its entry, so a closed one reads the name
+            //when it is opened
+            Restaurant restaurant = open.compute(id, (k, current) -> {
+                if (current == null) {
+                    addCancellation(id, username);
+                }
+                return current;
+            });
+            if (restaurant == null) {
+                return;
+            }
+
+            //closeIdle closes and opening opens while holding the monitor, so the restaurant stays as it is
+            synchronized (restaurant) {
+                if (restaurant.users.get() >= 0) {
+                    if (restaurant.db != null) {
+                        restaurant.db.cancelAllReservations(username);
+                    } else {
+                        addCancellation(id, username);
+                    }
+                    return;
+                }
+                open.remove(id, restaurant);
+            }
+        }
+    }
+
+    //Writes a user to the cancellations a restaurant applies when it is next opened
+    private void addCancellation(String id, String username) {
+        try {
+            Files.writeString(root.resolve(id).resolve(CANCELLATIONS_FILE), username + System.lineSeparator(),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Cancels the bookings of every user written to a restaurant's cancellations, then forgets them
+    private void applyCancellations(String id, RestaurantDatabaseInterface db) {
+        Path file = root.resolve(id).resolve(CANCELLATIONS_FILE);
+        try {
+            if (!Files.exists(file)) {
+                return;
+            }
+            for (String username : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!username.isEmpty()) {
+                    db.cancelAllReservations(username);
+                }
+            }
+            Files.delete(file);
+        } catch (IOException e) {
+            System.out.println("Could not apply cancellations at " + id + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes every restaurant nobody has used for a while, which saves its journal into its day files.
+     * A restaurant with anyone on its waitlist or a notice not yet taken stays open, because the
+     * waitlist is only kept in memory.
+     *
+     * @param idleMillis how long a restaurant must be unused to be closed
+     * @return how many restaurants were closed
+     */
+    public int closeIdle(long idleMillis) {
+        return closeIdle(idleMillis, false);
+    }
+
+    //Closes the restaurants unused for idleMillis, also the ones with a waitlist if force is true
+    private int closeIdle(long idleMillis, boolean force) {
+        long now = System.nanoTime();
+        int closed = 0;
+        for (Map.Entry<String, Restaurant> entry : open.entrySet()) {
+            Restaurant restaurant = entry.getValue();
+            if (now - restaurant.lastUsed < TimeUnit.MILLISECONDS.toNanos(idleMillis)) {
+                continue;
+            }
+            synchronized (restaurant) {
+                if (!restaurant.users.compareAndSet(0, -1)) {
+                    continue;
+                }
+                if (!force && restaurant.db != null && restaurant.db.hasWaiting()) {
+                    restaurant.users.set(0);
+                    continue;
+                }
+                if (restaurant.db != null) {
+                    restaurant.db.close();
+                }
+                open.remove(entry.getKey(), restaurant);
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Gets how many restaurants besides the default one are open
+     *
+     * @return the number of open restaurants
+     */
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    //This method closes every open restaurant, also one with a waitlist, but not the default one, which
+    //belongs to whoever made it. The waitlist is only kept in memory, so it is lost like on any restart
+    @Override
+    public void close() {
+        closeIdle(0, true);
+    }
+}
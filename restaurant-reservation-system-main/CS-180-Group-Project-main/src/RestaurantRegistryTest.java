@@ -0,0 +1,267 @@
+import org.junit.jupiter.api.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.Stream;
+
+/**
+ * This class provides jUnit test cases for RestaurantRegistry and the At Restaurant command. The
+ * tests ensure that every restaurant keeps its own bookings in its own directory, that a request
+ * names a restaurant with At Restaurant also inside a batch, that the admin changes the restaurant
+ * they logged in at, that closing idle restaurants while they are booked loses no booking, and that
+ * a restaurant with a waitlist is not closed while idle but is when the registry is closed.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class RestaurantRegistryTest {
+
+    private static final String USERS_FILE = "registry_users.txt";
+
+    private Path root;
+    private RestaurantDatabase defaultDB;
+    private RestaurantRegistry registry;
+
+    //Initialize restaurant files and an empty directory of restaurants
+    @BeforeEach
+    public void setUp() throws IOException {
+        InitializeRestaurantFiles.initializeFiles();
+        root = Files.createTempDirectory("restaurants");
+        defaultDB = new RestaurantDatabase(new MemoryDayStore(), null);
+        registry = new RestaurantRegistry(defaultDB, root, RestaurantRegistryTest::open);
+    }
+
+    //Reset test files
+    @AfterEach
+    public void tearDown() throws IOException {
+        registry.close();
+        defaultDB.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.deleteIfExists(Paths.get(USERS_FILE));
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test that the same table can be booked at two restaurants and the default one is left alone
+    @Test
+    public void testRestaurantsAreSeparate() {
+        Assertions.assertTrue(registry.create("downtown"));
+        Assertions.assertTrue(registry.create("airport"));
+        Assertions.assertFalse(registry.create("../elsewhere"));
+        Assertions.assertFalse(registry.create(""));
+        Assertions.assertTrue(Files.exists(root.resolve("downtown").resolve("monday.txt")));
+
+        Assertions.assertEquals("Reservation Made", registry.apply("downtown", db -> db.makeReservation("Bob",
+            "monday", 3, 2, 19, false, "Not Needed")));
+        Assertions.assertEquals("Reservation Made", registry.apply("airport", db -> db.makeReservation("Bob",
+            "monday", 3, 2, 19, false, "Not Needed")));
+        Assertions.assertEquals(0xfbL, (long) registry.apply("airport", db -> db.getFreeTableMask("monday", 19)));
+        Assertions.assertEquals(0xffL, defaultDB.getFreeTableMask("monday", 19));
+        Assertions.assertEquals(2, registry.getOpenCount());
+
+        Assertions.assertNull(registry.apply("harbor", db -> "opened"));
+        Assertions.assertFalse(registry.exists("harbor"));
+        Assertions.assertEquals(2, registry.getOpenCount());
+    }
+
+    //Test that a closed restaurant gets its bookings back from its own journal and day files
+    @Test
+    public void testCloseIdleKeepsBookings() {
+        registry.create("downtown");
+        Assertions.assertEquals("Reservation Made", registry.apply("downtown", db -> db.makeReservation("Amy",
+            "friday", 8, 6, 12, true, "1234567812345678")));
+        Assertions.assertEquals(0, registry.closeIdle(60_000));
+        Assertions.assertEquals(1, registry.closeIdle(0));
+        Assertions.assertEquals(0, registry.getOpenCount());
+
+        Assertions.assertEquals(0x7fL, (long) registry.apply("downtown", db -> db.getFreeTableMask("friday", 12)));
+        Assertions.assertEquals(0xffL, defaultDB.getFreeTableMask("friday", 12));
+    }
+
+    //Test At Restaurant alone, inside a batch, at an unknown restaurant, and for the admin
+    @Test
+    public void testAtRestaurantCommand() {
+        registry.create("downtown");
+        UserDatabase users = new UserDatabase(USERS_FILE, defaultDB);
+        users.addUser("Admin", "pw");
+        ReservationProtocol protocol = new ReservationProtocol(users, registry);
+
+        List<String> booking = Arrays.asList(ReservationProtocol.AT_RESTAURANT, "downtown",
+            ReservationProtocol.MAKE_RESERVATION, "Bob", "tuesday", "2", "2", "13", "Not Needed");
+        Assertions.assertEquals(-1, ReservationProtocol.getRequestLength(booking.subList(0, 2)));
+        Assertions.assertEquals(9, ReservationProtocol.getRequestLength(booking.subList(0, 3)));
+        Assertions.assertEquals("Reservation Made", protocol.executeRequest(booking).getResponse());
+        Assertions.assertEquals(0xfdL, (long) registry.apply("downtown", db -> db.getFreeTableMask("tuesday", 13)));
+
+        List<String> batch = new ArrayList<>(Arrays.asList(ReservationProtocol.BATCH, "3",
+            ReservationProtocol.GET_TABLES, "tuesday", "13",
+            ReservationProtocol.AT_RESTAURANT, "downtown", ReservationProtocol.GET_TABLES, "tuesday", "13",
+            ReservationProtocol.AT_RESTAURANT, "harbor", ReservationProtocol.GET_TABLES, "tuesday", "13"));
+        Assertions.assertEquals(-1, ReservationProtocol.getRequestLength(batch.subList(0, batch.size() - 1)));
+        Assertions.assertEquals(batch.size(), ReservationProtocol.getRequestLength(batch));
+        String[] responses = protocol.executeRequest(batch).getResponse().split(System.lineSeparator());
+        Assertions.assertEquals(defaultDB.getAvailableTables("tuesday", 13), responses[0]);
+        Assertions.assertFalse(responses[1].contains("2,2,N/A,No,13"));
+        Assertions.assertEquals("Failed", responses[2]);
+
+        ReservationProtocol.Result login = protocol.executeRequest(Arrays.asList(ReservationProtocol.AT_RESTAURANT,
+            "downtown", ReservationProtocol.LOGIN, "Admin", "pw"));
+        Assertions.assertTrue(login.isAdminHandOff());
+        Assertions.assertEquals("downtown", login.getRestaurant());
+        Assertions.assertEquals("Success", protocol.executeAdmin(login.getRestaurant(), "tuesday", "Close Early")
+            .getResponse());
+        Assertions.assertEquals("", registry.apply("downtown", db -> db.getAvailableTables("tuesday", 21)));
+        Assertions.assertNotEquals("", defaultDB.getAvailableTables("tuesday", 21));
+        Assertions.assertEquals("Failure", protocol.executeAdmin("harbor", "tuesday", "Close Early").getResponse());
+    }
+
+    //Test that a restaurant is not closed while anyone waits for a table or has a notice to take
+    @Test
+    public void testCloseIdleKeepsWaitlist() {
+        registry.create("downtown");
+        for (int table = 1; table <= 8; table++) {
+            String user = "guest" + table;
+            int number = table;
+            Assertions.assertEquals("Reservation Made", registry.apply("downtown", db -> db.makeReservation(user,
+                "monday", number, number == 8 ? 6 : 2, 18, number == 8, "1234567812345678")));
+        }
+        Assertions.assertEquals("Added To Waitlist", registry.apply("downtown", db -> db.joinWaitlist("Amy",
+            "monday", 2, 18, "0")));
+        Assertions.assertEquals(0, registry.closeIdle(0));
+
+        Assertions.assertEquals("Cancellation Made", registry.apply("downtown", db -> db.cancelReservation("guest1",
+            "monday")));
+        Assertions.assertEquals(0, registry.closeIdle(0));
+        Assertions.assertEquals(List.of("Reservation Made At Table 1 On monday At 18"), registry.apply("downtown",
+            db -> db.takeNotifications("Amy")));
+        Assertions.assertEquals(1, registry.closeIdle(0));
+        Assertions.assertEquals(0L, (long) registry.apply("downtown", db -> db.getFreeTableMask("monday", 18)));
+    }
+
+    //Test that closing the registry closes a restaurant with a waitlist and keeps its bookings
+    @Test
+    public void testCloseClosesWaitlist() {
+        registry.create("downtown");
+        for (int table = 1; table <= 8; table++) {
+            String user = "guest" + table;
+            int number = table;
+            Assertions.assertEquals("Reservation Made", registry.apply("downtown", db -> db.makeReservation(user,
+                "monday", number, number == 8 ? 6 : 2, 18, number == 8, "1234567812345678")));
+        }
+        Assertions.assertEquals("Added To Waitlist", registry.apply("downtown", db -> db.joinWaitlist("Amy",
+            "monday", 2, 18, "0")));
+        Assertions.assertEquals(0, registry.closeIdle(0));
+        Assertions.assertEquals(1, registry.getOpenCount());
+
+        registry.close();
+        Assertions.assertEquals(0, registry.getOpenCount());
+        Assertions.assertEquals(0L, (long) registry.apply("downtown", db -> db.getFreeTableMask("monday", 18)));
+        Assertions.assertFalse(registry.apply("downtown", RestaurantDatabaseInterface::hasWaiting));
+    }
+
+    //Test that deleting a user cancels their bookings at every restaurant, a closed one when it is opened
+    @Test
+    public void testDeleteUserCancelsEverywhere() {
+        registry.create("downtown");
+        registry.create("airport");
+        UserDatabase users = new UserDatabase(USERS_FILE, registry);
+        Assertions.assertEquals("Success", users.addUser("Bob", "pw"));
+        Assertions.assertEquals("Reservation Made", defaultDB.makeReservation("Bob", "monday", 1, 2, 11, false,
+            "Not Needed"));
+        Assertions.assertEquals("Reservation Made", registry.apply("downtown", db -> db.makeReservation("Bob",
+            "monday", 2, 2, 11, false, "Not Needed")));
+        Assertions.assertEquals("Reservation Made", registry.apply("airport", db -> db.makeReservation("Bob",
+            "monday", 3, 2, 11, false, "Not Needed")));
+        Assertions.assertEquals(2, registry.closeIdle(0));
+        Assertions.assertEquals("Reservation Made", registry.apply("downtown", db -> db.makeReservation("Bob",
+            "tuesday", 2, 2, 11, false, "Not Needed")));
+
+        Assertions.assertEquals(List.of("downtown", "airport"), registry.getIds().stream().sorted(
+            Comparator.reverseOrder()).toList());
+        Assertions.assertEquals("Success", users.deleteUser("Bob", "pw"));
+        Assertions.assertEquals(1, registry.getOpenCount());
+        Assertions.assertFalse(Files.exists(root.resolve("downtown").resolve(RestaurantRegistry.CANCELLATIONS_FILE)));
+        Assertions.assertTrue(Files.exists(root.resolve("airport").resolve(RestaurantRegistry.CANCELLATIONS_FILE)));
+        Assertions.assertEquals(0xffL, defaultDB.getFreeTableMask("monday", 11));
+        Assertions.assertEquals(0xffL, (long) registry.apply("downtown", db -> db.getFreeTableMask("monday", 11)));
+        Assertions.assertEquals(0xffL, (long) registry.apply("downtown", db -> db.getFreeTableMask("tuesday", 11)));
+
+        Assertions.assertEquals(0xffL, (long) registry.apply("airport", db -> db.getFreeTableMask("monday", 11)));
+        Assertions.assertFalse(Files.exists(root.resolve("airport").resolve(RestaurantRegistry.CANCELLATIONS_FILE)));
+        Assertions.assertEquals("Reservation Made", registry.apply("airport", db -> db.makeReservation("Bob",
+            "monday", 3, 2, 11, false, "Not Needed")));
+        Assertions.assertEquals(2, registry.closeIdle(0));
+        Assertions.assertEquals(0xfbL, (long) registry.apply("airport", db -> db.getFreeTableMask("monday", 11)));
+    }
+
+    //Test that bookings at many restaurants are all kept while idle restaurants keep being closed
+    @Test
+    public void testCloseIdleWhileBooking() throws Exception {
+        String[] ids = {"r0", "r1", "r2", "r3", "r4", "r5", "r6", "r7"};
+        for (String id : ids) {
+            registry.create(id);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger closes = new AtomicInteger();
+        Thread closer = new Thread(() -> {
+            while (running.get()) {
+                closes.addAndGet(registry.closeIdle(0));
+            }
+        });
+        closer.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(ids.length);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < ids.length; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                int made = 0;
+                for (int i = 0; i < 56; i++) {
+                    String id = ids[(thread + i) % ids.length];
+                    String user = "user" + thread + "-" + i;
+                    int table = 1 + i % 7;
+                    int time = DayTemplate.TIMES[thread];
+                    if ("Reservation Made".equals(registry.apply(id, db -> db.makeReservation(user, "saturday", table,
+                        2, time, false, "Not Needed")))) {
+                        made++;
+                    }
+                }
+                return made;
+            }));
+        }
+        int made = 0;
+        for (Future<Integer> future : futures) {
+            made += future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        running.set(false);
+        closer.join();
+
+        Assertions.assertEquals(ids.length * 56, made);
+        Assertions.assertTrue(closes.get() > 0);
+        int booked = 0;
+        for (String id : ids) {
+            for (int t = 0; t < ids.length; t++) {
+                int time = DayTemplate.TIMES[t];
+                booked += 7 - Long.bitCount(registry.apply(id, db -> db.getFreeTableMask("saturday", time)) & 0x7fL);
+            }
+        }
+        Assertions.assertEquals(made, booked);
+    }
+
+    //Opens a journaled restaurant from its directory
+    private static RestaurantDatabaseInterface open(Path directory) {
+        try {
+            return new RestaurantDatabase(new TextDayStore(directory), new ReservationJournal(
+                directory.resolve(RestaurantRegistry.JOURNAL_FILE).toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,50 +1,259 @@
 import java.io.*;
+import java.lang.reflect.Method;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  *This class is the server which implements the Runnable interface so a thread can be made for this
- * object and when run will have a server run infinitely and search for connections with clients.
+ * object and when run will have a server run until shutdown and search for connections with clients.
  *
- * @version Dec 2, 2025
+ * <p>Each client is handled by a task on an executor instead of a new thread. By default every client
+ * gets a virtual thread, or a bounded pool of platform threads can be used instead. At most
+ * maxConnections clients are handled at once, the server stops accepting until one leaves.</p>
+ *
+ * <p>If the port can not be opened the server is still made, the reason is printed, and run returns
+ * at once.</p>
+ *
+ * @version Dec 11, 2025
  */
 
 public class RestaurantServer implements Runnable, RestaurantServerInterface {
+    public static final int DEFAULT_POOL_SIZE = 200;
+    public static final int DEFAULT_MAX_CONNECTIONS = 10000;
+
+    /**
+     * How client handlers are run
+     */
+    public enum ExecutorMode {
+        VIRTUAL,
+        PLATFORM
+    }
+
     private ServerSocket serverSocket;
-    private RestaurantDatabase rd;
+    private RestaurantDatabaseInterface rd;
+    private RestaurantRegistry restaurants;
     private UserDatabase ud;
+    private ExecutorService executor;
+    private Semaphore connectionSlots;
+    private final AtomicInteger activeHandlers = new AtomicInteger();
+    private final AtomicInteger queuedHandlers = new AtomicInteger();
+    private final AtomicLong acceptedConnections = new AtomicLong();
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private volatile boolean shutDown;
+    private volatile boolean clientsClosed;
 
     /**
      * This constructor initializes the portNumber for the socket, the restaurant database, and the user database
+     * and runs clients on virtual threads
+     * @param portNumber The port number for the socket
+     * @param rd The restaurant database
+     * @param ud The user database
+     */
+    public RestaurantServer(int portNumber, RestaurantDatabaseInterface rd, UserDatabase ud) {
+        this(portNumber, rd, ud, ExecutorMode.VIRTUAL, DEFAULT_POOL_SIZE, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * This constructor initializes the portNumber for the socket, the restaurant database, the user database,
+     * and how clients are run
      * @param portNumber The port number for the socket
      * @param rd The restaurant database
      * @param ud The user database
+     * @param mode Whether clients run on virtual threads or a pool of platform threads
+     * @param poolSize How many platform threads the pool has, only used in PLATFORM mode
+     * @param maxConnections How many clients can be handled at once
+     */
+    public RestaurantServer(int portNumber, RestaurantDatabaseInterface rd, UserDatabase ud, ExecutorMode mode,
+                            int poolSize, int maxConnections) {
+        this(portNumber, new RestaurantRegistry(rd), ud, mode, poolSize, maxConnections);
+    }
+
+    /**
+     * This constructor initializes the portNumber for the socket, every restaurant the server hosts, the user
+     * database, and how clients are run
+     * @param portNumber The port number for the socket
+     * @param restaurants The default restaurant and the restaurants clients name with At Restaurant
+     * @param ud The user database
+     * @param mode Whether clients run on virtual threads or a pool of platform threads
+     * @param poolSize How many platform threads the pool has, only used in PLATFORM mode
+     * @param maxConnections How many clients can be handled at once
      */
-    public RestaurantServer(int portNumber, RestaurantDatabase rd, UserDatabase ud) {
+    public RestaurantServer(int portNumber, RestaurantRegistry restaurants, UserDatabase ud, ExecutorMode mode,
+                            int poolSize, int maxConnections) {
         try {
             serverSocket = new ServerSocket(portNumber);
         } catch (Exception e) {
+            System.out.println("Could not open port " + portNumber + ": " + e.getMessage());
             return;
         }
 
-        this.rd = rd;
+        this.rd = restaurants.getDefault();
+        this.restaurants = restaurants;
         this.ud = ud;
+        this.executor = createExecutor(mode, poolSize);
+        this.connectionSlots = new Semaphore(maxConnections);
     }
 
     /**
-     * The server runs forever and is constantly checking for connections with clients
-     * so it can start a ClientHandler thread to handle input from the client.
+     * The server runs until shutdown and is constantly checking for connections with clients
+     * so it can start a ClientHandler task to handle input from the client. While every connection
+     * slot is taken it checks once a second whether the server was shut down.
      */
     public void run() {
-        while (true) {
+        if (serverSocket == null) {
+            System.out.println("The server has no open port and is not running");
+            return;
+        }
+
+        while (!shutDown) {
+            Socket socket;
             try {
-                Socket socket = serverSocket.accept();
-                Thread newThread = new Thread(new ClientHandler(socket, ud, rd));
-                newThread.start();
+                if (!connectionSlots.tryAcquire(1, TimeUnit.SECONDS)) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
 
+            try {
+                socket = serverSocket.accept();
             } catch (Exception e) {
+                connectionSlots.release();
                 return;
             }
+
+            acceptedConnections.incrementAndGet();
+            queuedHandlers.incrementAndGet();
+            try {
+                executor.execute(() -> handle(socket));
+            } catch (RejectedExecutionException e) {
+                queuedHandlers.decrementAndGet();
+                connectionSlots.release();
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // The server is shutting down and the client is dropped
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting clients, lets connected clients finish for up to the given time, and then
+     * closes the sockets of the clients still connected. A handler waiting for a line does not
+     * notice an interrupt, but it does notice its socket closing.
+     * @param timeoutSeconds How long to wait for connected clients
+     */
+    public void shutdown(long timeoutSeconds) {
+        shutDown = true;
+        if (serverSocket == null) {
+            return;
+        }
+
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                closeClients();
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            closeClients();
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //This method closes every client socket still open so its handler stops reading
+    private void closeClients() {
+        clientsClosed = true;
+        for (Socket socket : clients) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Already closed
+            }
+        }
+    }
+
+    /**
+     * Gets how many clients are being handled right now
+     * @return the number of running handlers
+     */
+    public int getActiveHandlers() {
+        return activeHandlers.get();
+    }
+
+    /**
+     * Gets how many accepted clients are waiting for a thread from the pool
+     * @return the number of queued handlers
+     */
+    public int getQueuedHandlers() {
+        return queuedHandlers.get();
+    }
+
+    /**
+     * Gets how many clients have been accepted since the server started
+     * @return the number of accepted connections
+     */
+    public long getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    //This method runs one client and frees its connection slot when the client leaves
+    private void handle(Socket socket) {
+        queuedHandlers.decrementAndGet();
+        activeHandlers.incrementAndGet();
+        clients.add(socket);
+        try {
+            //A handler that starts after shutdown closed the clients closes its own client
+            if (clientsClosed) {
+                socket.close();
+            } else {
+                new ClientHandler(socket, ud, restaurants).run();
+            }
+        } catch (IOException ignored) {
+            // The client is dropped either way
+        } finally {
+            clients.remove(socket);
+            activeHandlers.decrementAndGet();
+            connectionSlots.release();
         }
     }
+
+    /**
+     * Makes the executor for client handlers. Virtual threads need Java 21, so on an older Java the
+     * platform pool is used instead.
+     */
+    private static ExecutorService createExecutor(ExecutorMode mode, int poolSize) {
+        if (mode == ExecutorMode.VIRTUAL) {
+            try {
+                Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) virtual.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads need Java 21, using a pool of " + poolSize + " threads");
+            }
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, r -> {
+            Thread thread = new Thread(r, "client-handler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
@@ -1,9 +1,33 @@
 /**
  *This interface provides the methods for RestaurantServer
  *
- * @version Dec 2, 2025
+ * @version Dec 11, 2025
  */
 
 public interface RestaurantServerInterface {
 
+    /**
+     * Stops accepting clients, lets connected clients finish for up to the given time, and then
+     * interrupts whatever is left.
+     * @param timeoutSeconds How long to wait for connected clients
+     */
+    void shutdown(long timeoutSeconds);
+
+    /**
+     * Gets how many clients are being handled right now
+     * @return the number of running handlers
+     */
+    int getActiveHandlers();
+
+    /**
+     * Gets how many accepted clients are waiting for a thread from the pool
+     * @return the number of queued handlers
+     */
+    int getQueuedHandlers();
+
+    /**
+     * Gets how many clients have been accepted since the server started
+     * @return the number of accepted connections
+     */
+    long getAcceptedConnections();
 }
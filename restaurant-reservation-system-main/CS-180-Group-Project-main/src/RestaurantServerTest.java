@@ -122,4 +122,58 @@ public class RestaurantServerTest {
 
         blocker.close();
     }
+
+    /** Test that run returns at once when the port could not be opened */
+    @Test
+    public void testRunWithoutPortReturns() {
+        RestaurantServer rs = new RestaurantServer(-7, rd, ud);
+        assertDoesNotThrow(rs::run);
+    }
+
+    /** Test that shutdown stops a server whose connection slots are all taken */
+    @Test
+    public void testShutdownWhileFull() throws Exception {
+        RestaurantServer rs = new RestaurantServer(5008, new RestaurantRegistry(rd), ud,
+            RestaurantServer.ExecutorMode.PLATFORM, 2, 1);
+        Thread serverThread = new Thread(rs);
+        serverThread.start();
+
+        try (java.net.Socket client = new java.net.Socket("localhost", 5008)) {
+            assertTrue(client.isConnected());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (rs.getActiveHandlers() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, rs.getActiveHandlers());
+
+            rs.shutdown(0);
+            serverThread.join(5000);
+            assertFalse(serverThread.isAlive());
+        }
+    }
+
+    /** Test that shutdown closes a client that is still connected once the grace period is over */
+    @Test
+    public void testShutdownClosesIdleClients() throws Exception {
+        RestaurantServer rs = new RestaurantServer(5009, new RestaurantRegistry(rd), ud,
+            RestaurantServer.ExecutorMode.PLATFORM, 2, 10);
+        Thread serverThread = new Thread(rs);
+        serverThread.start();
+
+        try (java.net.Socket client = new java.net.Socket("localhost", 5009)) {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (rs.getActiveHandlers() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            rs.shutdown(1);
+            client.setSoTimeout(5000);
+            assertEquals(-1, client.getInputStream().read());
+            deadline = System.currentTimeMillis() + 5000;
+            while (rs.getActiveHandlers() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, rs.getActiveHandlers());
+        }
+        serverThread.join(5000);
+    }
 }
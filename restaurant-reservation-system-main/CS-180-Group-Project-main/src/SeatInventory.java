@@ -0,0 +1,649 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class is the in-memory seat inventory for RestaurantDatabase. Every day file is read once
+ * into a DayInventory and all reads are answered from memory.
+ *
+ * <p>Without a journal every change rewrites its day file. With a ReservationJournal a change is
+ * one journal record instead, and the day files are only rewritten when the journal is compacted.
+ * Compaction runs in the background every so often or once the journal gets long, and the journal
+ * is replayed over the day files when the inventory is loaded, so nothing synced to the journal is
+ * lost in a crash.</p>
+ *
+ * <p>A day whose file can not be read is tried again the next time it is asked for, so a missing
+ * file behaves the same way it did when every call read the file.</p>
+ *
+ * <p>Where days are kept is up to a DayStoreInterface, text day files by default. Without a journal
+ * a change hands the store only the rows it changed, so a store that can write single rows does.</p>
+ *
+ * <p>Besides the weekdays, any date ReservationCalendar has open can be booked. A date is built from
+ * DayTemplate with the restaurant's FloorPlan in memory the first time it is asked for and only
+ * reaches the store once it changes, so the store holds only dates that were changed. Past dates
+ * are archived, and dates without bookings can be dropped from memory and built again when asked
+ * for.</p>
+ *
+ * @version Dec 19, 2025
+ */
+
+public class SeatInventory implements AutoCloseable {
+    public static final String[] DAYS = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday",
+        "sunday"};
+    public static final int COMPACT_THRESHOLD = 1000;
+    public static final long COMPACT_INTERVAL_SECONDS = 30;
+
+    /**
+     * What a compareAndUpdate did
+     */
+    public enum SwapResult {
+        SWAPPED,
+        CONFLICT,
+        NOT_SAVED
+    }
+
+    private final ConcurrentHashMap<String, DayInventory> days;
+    private final ConcurrentHashMap<String, Object> fileLocks;
+    private final ReservationCalendar calendar;
+    private final FloorPlan floorPlan;
+    private final ReservationJournal journal;
+    private final DayStoreInterface store;
+    private final ReentrantReadWriteLock checkpointLock;
+    private final Set<String> dirtyDays;
+    private final AtomicBoolean compactionQueued;
+    private final AtomicLong version = new AtomicLong();
+    private final ScheduledExecutorService compactor;
+    private int replayedRecords;
+
+    //This constructor loads every day file that can be read and writes changes straight to the day files
+    public SeatInventory() {
+        this(null);
+    }
+
+    /**
+     * This constructor loads every day file that can be read and replays the journal over them
+     *
+     * @param journal the journal to record changes in, or null to rewrite day files on every change
+     */
+    public SeatInventory(ReservationJournal journal) {
+        this(new TextDayStore(), journal);
+    }
+
+    /**
+     * This constructor loads every day the store can read and replays the journal over them
+     *
+     * @param store   where the days are kept
+     * @param journal the journal to record changes in, or null to save days in the store on every change
+     */
+    public SeatInventory(DayStoreInterface store, ReservationJournal journal) {
+        this(store, journal, new ReservationCalendar());
+    }
+
+    /**
+     * This constructor loads every weekday and every open date the store can read and replays the
+     * journal over them
+     *
+     * @param store    where the days are kept
+     * @param journal  the journal to record changes in, or null to save days in the store on every change
+     * @param calendar the calendar that decides which dates can be booked
+     */
+    public SeatInventory(DayStoreInterface store, ReservationJournal journal, ReservationCalendar calendar) {
+        this(store, journal, calendar, FloorPlan.DEFAULT);
+    }
+
+    /**
+     * This constructor loads every weekday and every open date the store can read and replays the
+     * journal over them, building dates the store does not hold from a floor plan
+     *
+     * @param store     where the days are kept
+     * @param journal   the journal to record changes in, or null to save days in the store on every change
+     * @param calendar  the calendar that decides which dates can be booked
+     * @param floorPlan the tables of the restaurant
+     */
+    public SeatInventory(DayStoreInterface store, ReservationJournal journal, ReservationCalendar calendar,
+                         FloorPlan floorPlan) {
+        this.store = store;
+        this.days = new ConcurrentHashMap<>();
+        this.fileLocks = new ConcurrentHashMap<>();
+        this.calendar = calendar;
+        this.floorPlan = floorPlan;
+        this.journal = journal;
+        this.checkpointLock = new ReentrantReadWriteLock();
+        this.dirtyDays = new HashSet<>();
+        this.compactionQueued = new AtomicBoolean(false);
+        for (String day : DAYS) {
+            load(day);
+        }
+        //Only dates that were changed are in the store, so this grows with bookings and not the calendar
+        for (String day : store.storedDates()) {
+            if (calendar.isOpen(day)) {
+                load(day);
+            }
+        }
+
+        if (journal == null) {
+            this.compactor = null;
+            return;
+        }
+
+        replay();
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //What was replayed is saved in the store right away in the background, so the next start reads
+        //the days from the store and replays nothing
+        long firstCompaction = replayedRecords > 0 ? 0 : COMPACT_INTERVAL_SECONDS;
+        this.compactor.scheduleWithFixedDelay(this::compactQuietly, firstCompaction, COMPACT_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gets how many journal records were replayed when this inventory was made
+     *
+     * @return the number of records, 0 without a journal
+     */
+    public int getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    /**
+     * Checks the loaded days for anything a booking could never have left behind: a weekday that can
+     * not be read, a time slot the restaurant does not have, a table that is not the one on the floor
+     * plan, a table with a user that is not marked booked, or a user holding more than one table of a day
+     *
+     * @return one line per problem, empty if every day is sound
+     */
+    public List<String> validate() {
+        List<String> problems = new ArrayList<>();
+        for (String day : DAYS) {
+            if (!days.containsKey(day)) {
+                problems.add(day + ": can not be read");
+            }
+        }
+        for (DayInventory inventory : days.values()) {
+            problems.addAll(inventory.validate());
+            for (TableSlot row : inventory.getAllSlots()) {
+                FloorPlan.Table table = floorPlan.getTable(row.getTableNum());
+                if (table == null || table.getCapacity() != row.getTableSize()
+                    || table.isSpecial() != row.isSpecial()) {
+                    problems.add(inventory.getDay() + " " + row.getTime() + ":00: table " + row.getTableNum()
+                        + " is not the table on the floor plan");
+                }
+            }
+        }
+        return problems;
+    }
+
+    public FloorPlan getFloorPlan() {
+        return floorPlan;
+    }
+
+    /**
+     * Gets the inventory for a day without locking, loading the day file if it has not been loaded yet
+     *
+     * @param day the name of the day
+     * @return the DayInventory or null if the day file can not be read
+     */
+    public DayInventory getDay(String day) {
+        DayInventory inventory = days.get(day);
+        if (inventory == null && calendar.isOpen(day)) {
+            synchronized (fileLock(day)) {
+                inventory = days.get(day);
+                if (inventory == null) {
+                    inventory = load(day);
+                }
+            }
+        }
+        return inventory;
+    }
+
+    /**
+     * Gets the names of every day in memory, the weekdays and the dates that were loaded
+     *
+     * @return a copy of the names
+     */
+    public Set<String> getLoadedDays() {
+        return new HashSet<>(days.keySet());
+    }
+
+    /**
+     * Gets every past date in memory or in the store
+     *
+     * @return the past dates
+     */
+    public Set<String> getPastDays() {
+        Set<String> past = new HashSet<>();
+        for (String day : days.keySet()) {
+            if (calendar.isPast(day)) {
+                past.add(day);
+            }
+        }
+        for (String day : store.storedDates()) {
+            if (calendar.isPast(day)) {
+                past.add(day);
+            }
+        }
+        return past;
+    }
+
+    /**
+     * Saves a past date, moves it out of the store into the archive and drops it from memory. With a
+     * journal the journal is compacted first, so replaying it can never bring the date back. The caller
+     * must hold the write lock for the day.
+     *
+     * @param day the past date
+     * @return true if the day was archived
+     */
+    public boolean archive(String day) {
+        if (!calendar.isPast(day) || !compact()) {
+            return false;
+        }
+
+        synchronized (fileLock(day)) {
+            if (!store.archive(day)) {
+                return false;
+            }
+            days.remove(day);
+            fileLocks.remove(day);
+            return true;
+        }
+    }
+
+    /**
+     * Drops a date that has no bookings from memory. Nothing is lost, the date is read again from the
+     * store or built from DayTemplate the next time it is asked for. A date with changes the store does
+     * not have yet is kept. The caller must hold the write lock for the day.
+     *
+     * @param day the date
+     * @return true if the day was dropped
+     */
+    public boolean evict(String day) {
+        DayInventory inventory = days.get(day);
+        if (inventory == null || ReservationCalendar.isWeekday(day) || inventory.hasBookings()) {
+            return false;
+        }
+        synchronized (dirtyDays) {
+            if (dirtyDays.contains(day)) {
+                return false;
+            }
+            return days.remove(day, inventory);
+        }
+    }
+
+    /**
+     * Gets a number that goes up every time any day in memory changes, so a copy of the inventory
+     * made while the version stayed the same is still up to date
+     *
+     * @return the current version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Changes rows of one time slot and saves them. With a journal, memory is only changed once the
+     * change is in the journal. Without one the rows are changed in memory first, because a store
+     * saves the day from memory, and are put back if the save fails. Until then a reader of the day
+     * can see rows that are never saved, though no other booking can use the time slot. The caller
+     * must hold the slot lock for the time slot.
+     *
+     * @param inventory the day being changed
+     * @param time      the hour of the time slot
+     * @param changes   the new rows keyed by their position inside the time slot
+     * @return true if the change was saved
+     */
+    public boolean update(DayInventory inventory, int time, Map<Integer, TableSlot> changes) {
+        if (journal == null) {
+            //Slots of one day change at the same time, but the day file is written by one of them at a time
+            synchronized (fileLock(inventory.getDay())) {
+                List<TableSlot> rows = inventory.getSlots(time);
+                for (Map.Entry<Integer, TableSlot> change : changes.entrySet()) {
+                    inventory.setSlot(time, change.getKey(), change.getValue());
+                }
+
+                version.incrementAndGet();
+
+                if (!store.saveRows(inventory, time, changes)) {
+                    Map<Integer, TableSlot> old = new HashMap<>();
+                    for (Integer index : changes.keySet()) {
+                        inventory.setSlot(time, index, rows.get(index));
+                        old.put(index, rows.get(index));
+                    }
+                    version.incrementAndGet();
+                    //A store that writes in place may have part of the change already, so put the old rows back
+                    store.saveRows(inventory, time, old);
+                    return false;
+                }
+                return true;
+            }
+        }
+
+        checkpointLock.readLock().lock();
+        try {
+            long seq = 0;
+            for (Map.Entry<Integer, TableSlot> change : changes.entrySet()) {
+                seq = journal.append("ROW|" + inventory.getDay() + "|" + time + "|" + change.getKey() + "|"
+                        + escape(change.getValue().toLine()));
+            }
+            journal.awaitDurable(seq);
+
+            for (Map.Entry<Integer, TableSlot> change : changes.entrySet()) {
+                inventory.setSlot(time, change.getKey(), change.getValue());
+            }
+            version.incrementAndGet();
+            markDirty(inventory.getDay());
+        } catch (IOException e) {
+            return false;
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+
+        queueCompactionIfLong();
+        return true;
+    }
+
+    /**
+     * Changes rows of one time slot without the slot lock if they are still the rows the caller read,
+     * then saves them. Unlike update, memory changes first, because the swap in memory is what decides
+     * which of two changes to a row wins, and a change that can not be saved is taken back.
+     *
+     * @param inventory the day being changed
+     * @param time      the hour of the time slot
+     * @param expected  the rows the caller read keyed by their position inside the time slot
+     * @param changes   the new rows keyed by the same positions
+     * @return SWAPPED if the change was made and saved, CONFLICT if a row had already changed, or
+     *     NOT_SAVED if the change could not be saved and was taken back
+     */
+    public SwapResult compareAndUpdate(DayInventory inventory, int time, Map<Integer, TableSlot> expected,
+                                       Map<Integer, TableSlot> changes) {
+        if (journal == null) {
+            if (!inventory.compareAndSetSlots(time, expected, changes)) {
+                return SwapResult.CONFLICT;
+            }
+            version.incrementAndGet();
+
+            synchronized (fileLock(inventory.getDay())) {
+                if (store.saveRows(inventory, time, changes)) {
+                    return SwapResult.SWAPPED;
+                }
+                inventory.compareAndSetSlots(time, changes, expected);
+                version.incrementAndGet();
+                store.saveRows(inventory, time, expected);
+                return SwapResult.NOT_SAVED;
+            }
+        }
+
+        //The swap is made under the checkpoint lock so a compaction never saves a change the journal lacks
+        checkpointLock.readLock().lock();
+        try {
+            if (!inventory.compareAndSetSlots(time, expected, changes)) {
+                return SwapResult.CONFLICT;
+            }
+            version.incrementAndGet();
+
+            try {
+                long seq = 0;
+                for (Map.Entry<Integer, TableSlot> change : changes.entrySet()) {
+                    seq = journal.append("ROW|" + inventory.getDay() + "|" + time + "|" + change.getKey() + "|"
+                            + escape(change.getValue().toLine()));
+                }
+                journal.awaitDurable(seq);
+            } catch (IOException e) {
+                inventory.compareAndSetSlots(time, changes, expected);
+                version.incrementAndGet();
+                return SwapResult.NOT_SAVED;
+            }
+            markDirty(inventory.getDay());
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+
+        queueCompactionIfLong();
+        return SwapResult.SWAPPED;
+    }
+
+    /**
+     * Saves a whole new inventory for a day and swaps it in. This is used by admin changes which add
+     * or remove time slots. The caller must hold the write lock for the day.
+     *
+     * @param inventory the new inventory for the day
+     * @return true if the day was saved
+     */
+    public boolean replace(DayInventory inventory) {
+        if (journal == null) {
+            synchronized (fileLock(inventory.getDay())) {
+                if (!persist(inventory)) {
+                    return false;
+                }
+                days.put(inventory.getDay(), inventory);
+                version.incrementAndGet();
+                return true;
+            }
+        }
+
+        checkpointLock.readLock().lock();
+        try {
+            List<String> lines = new ArrayList<>();
+            for (String line : inventory.toLines()) {
+                lines.add(escape(line));
+            }
+            journal.awaitDurable(journal.append("DAY|" + inventory.getDay() + "|" + String.join(";", lines)));
+            days.put(inventory.getDay(), inventory);
+            version.incrementAndGet();
+            markDirty(inventory.getDay());
+        } catch (IOException e) {
+            return false;
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+
+        queueCompactionIfLong();
+        return true;
+    }
+
+    /**
+     * Writes every day changed since the last compaction back to its day file and empties the journal.
+     * Changes wait while this runs so the day files and the journal always agree.
+     *
+     * @return true if the days were saved and the journal emptied
+     */
+    public boolean compact() {
+        if (journal == null) {
+            return true;
+        }
+
+        checkpointLock.writeLock().lock();
+        try {
+            Set<String> toWrite;
+            synchronized (dirtyDays) {
+                toWrite = new HashSet<>(dirtyDays);
+            }
+            for (String day : toWrite) {
+                DayInventory inventory = days.get(day);
+                if (inventory != null && !persist(inventory)) {
+                    return false;
+                }
+            }
+
+            journal.truncate();
+            synchronized (dirtyDays) {
+                dirtyDays.clear();
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            checkpointLock.writeLock().unlock();
+            compactionQueued.set(false);
+        }
+    }
+
+    /**
+     * Saves a whole day in the store
+     *
+     * @param inventory the day to write
+     * @return true if the day was saved
+     */
+    public boolean persist(DayInventory inventory) {
+        return store.save(inventory);
+    }
+
+    /**
+     * Compacts the journal one last time, stops the compactor, closes the journal and closes the store
+     */
+    public void close() {
+        if (journal != null) {
+            compactor.shutdownNow();
+            compact();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Error closing journal: " + e.getMessage());
+            }
+        }
+
+        store.close();
+    }
+
+    /**
+     * Applies every record in the journal to the loaded days. Records set rows to a value, so applying a
+     * record that already made it into a day file leaves the day the same. A record that is not applied
+     * is printed.
+     */
+    private void replay() {
+        List<String> records;
+        try {
+            records = journal.readRecords();
+        } catch (IOException e) {
+            System.out.println("Error reading journal: " + e.getMessage());
+            return;
+        }
+        replayedRecords = records.size();
+
+        for (String record : records) {
+            String[] pieces = record.split("\\|", -1);
+            boolean applied = false;
+            try {
+                if (pieces[0].equals("ROW") && pieces.length == 5) {
+                    DayInventory inventory = days.containsKey(pieces[1]) ? days.get(pieces[1]) : load(pieces[1]);
+                    int time = Integer.parseInt(pieces[2]);
+                    int index = Integer.parseInt(pieces[3]);
+                    if (inventory != null && index >= 0 && index < inventory.getSlots(time).size()) {
+                        inventory.setSlot(time, index, TableSlot.fromLine(unescape(pieces[4])));
+                        dirtyDays.add(pieces[1]);
+                        applied = true;
+                    }
+                } else if (pieces[0].equals("DAY") && pieces.length == 3) {
+                    List<String> lines = new ArrayList<>();
+                    for (String line : pieces[2].split(";")) {
+                        lines.add(unescape(line));
+                    }
+                    days.put(pieces[1], DayInventory.fromLines(pieces[1], lines));
+                    dirtyDays.add(pieces[1]);
+                    applied = true;
+                }
+            } catch (IllegalArgumentException e) {
+                applied = false;
+            }
+            if (!applied) {
+                System.out.println("Skipping bad journal record: " + record);
+            }
+        }
+    }
+
+    /**
+     * Writes the characters that split journal records and DAY rows as %7C and %3B, and % as %25, so a
+     * username holding them stays inside its row
+     *
+     * @param line a day file line
+     * @return the line as it goes in the journal
+     */
+    static String escape(String line) {
+        if (line.indexOf('%') < 0 && line.indexOf('|') < 0 && line.indexOf(';') < 0) {
+            return line;
+        }
+        return line.replace("%", "%25").replace("|", "%7C").replace(";", "%3B");
+    }
+
+    /**
+     * Reads a line written by escape. A % that does not start one of its escapes is kept as it is, so
+     * records written before lines were escaped read the same.
+     *
+     * @param line the line as it is in the journal
+     * @return the day file line
+     */
+    static String unescape(String line) {
+        if (line.indexOf('%') < 0) {
+            return line;
+        }
+        StringBuilder sb = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            String code = c == '%' && i + 3 <= line.length() ? line.substring(i, i + 3) : "";
+            if (code.equals("%25") || code.equals("%7C") || code.equals("%3B")) {
+                sb.append(code.equals("%25") ? '%' : code.equals("%7C") ? '|' : ';');
+                i += 2;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private Object fileLock(String day) {
+        return fileLocks.computeIfAbsent(day, key -> new Object());
+    }
+
+    private void markDirty(String day) {
+        synchronized (dirtyDays) {
+            dirtyDays.add(day);
+        }
+    }
+
+    //This method starts a compaction in the background once the journal has grown long
+    private void queueCompactionIfLong() {
+        if (journal.getRecordCount() >= COMPACT_THRESHOLD && compactionQueued.compareAndSet(false, true)) {
+            compactor.execute(this::compactQuietly);
+        }
+    }
+
+    private void compactQuietly() {
+        if (journal.getRecordCount() > 0 && !compact()) {
+            System.out.println("Journal compaction failed, will try again");
+        }
+    }
+
+    /**
+     * Reads a day from the store into memory
+     *
+     * @param day the name of the day
+     * @return the loaded DayInventory or null if the file can not be read
+     */
+    private DayInventory load(String day) {
+        DayInventory inventory = store.load(day);
+        if (inventory == null && ReservationCalendar.toDate(day) != null && !store.contains(day)) {
+            //A date nobody has changed is only kept in memory until its first change is saved
+            inventory = DayTemplate.build(day, floorPlan);
+        }
+        if (inventory == null) {
+            return null;
+        }
+
+        days.put(day, inventory);
+        version.incrementAndGet();
+        return inventory;
+    }
+}
@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * This class provides jUnit test cases for the SeatInventory. The tests ensure
+ * that day files are loaded into memory without changing them, that rows keep
+ * their text layout, that the binary layout holds the same rows, that
+ * missing day files are handled and are the only ones initialized on startup,
+ * and that validating finds days no booking could have left behind.
+ *
+ * @version Dec 16, 2025
+ */
+
+public class SeatInventoryTest {
+
+    private static final String[] DAYS = {"monday.txt", "tuesday.txt", "wednesday.txt", "thursday.txt", "friday.txt",
+        "saturday.txt", "sunday.txt"};
+
+    //Initialize restaurant files
+    @BeforeEach
+    public void setUp() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Reset test files
+    @AfterEach
+    public void tearDown() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test that a row turns back into the same line it was read from
+    @Test
+    public void testTableSlotRoundTrip() {
+        String free = "N/A,4,4,N/A,No,17,No,Not Needed,0";
+        String booked = "Steve,8,8,6,Yes,20,Yes,0000000012345678,100";
+        Assertions.assertEquals(free, TableSlot.fromLine(free).toLine());
+        Assertions.assertEquals(booked, TableSlot.fromLine(booked).toLine());
+    }
+
+    //Test that a malformed line is rejected
+    @Test
+    public void testTableSlotMalformedLine() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TableSlot.fromLine("N/A,1,2"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> TableSlot.fromLine("N/A,one,2,N/A,No,11,No,Not Needed,0"));
+    }
+
+    //Test that writing a loaded day gives back the same file
+    @Test
+    public void testPersistKeepsFileLayout() throws IOException {
+        List<String> before = Files.readAllLines(Paths.get("monday.txt"));
+        SeatInventory seats = new SeatInventory();
+        Assertions.assertTrue(seats.persist(seats.getDay("monday")));
+        Assertions.assertEquals(before, Files.readAllLines(Paths.get("monday.txt")));
+    }
+
+    //Test that every time slot has all eight tables
+    @Test
+    public void testDayGroupedByTime() {
+        SeatInventory seats = new SeatInventory();
+        DayInventory monday = seats.getDay("monday");
+        Assertions.assertEquals(8, monday.getSlots(11).size());
+        Assertions.assertEquals(8, monday.getSlots(21).size());
+        Assertions.assertTrue(monday.getSlots(15).isEmpty());
+        Assertions.assertEquals(72, monday.getAllSlots().size());
+    }
+
+    //Test that a missing day file gives no inventory until it exists
+    @Test
+    public void testMissingDayFile() throws IOException {
+        Files.deleteIfExists(Paths.get(DAYS[0]));
+        SeatInventory seats = new SeatInventory();
+        Assertions.assertNull(seats.getDay("monday"));
+
+        InitializeRestaurantFiles.initializeFiles();
+        Assertions.assertNotNull(seats.getDay("monday"));
+    }
+
+    //Test that only missing days are initialized and booked days are left alone
+    @Test
+    public void testInitializeOnlyMissingDays() throws IOException {
+        List<String> fresh = Files.readAllLines(Paths.get("monday.txt"));
+        RestaurantDatabase db = new RestaurantDatabase();
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "tuesday", 1, 2, 11, false,
+            "Not Needed"));
+        db.close();
+        Files.delete(Paths.get("monday.txt"));
+
+        Assertions.assertEquals(List.of("monday"), InitializeRestaurantFiles.initializeMissingDays(new TextDayStore()));
+        Assertions.assertEquals(fresh, Files.readAllLines(Paths.get("monday.txt")));
+        Assertions.assertTrue(Files.readAllLines(Paths.get("tuesday.txt")).contains(
+            "Bob,1,2,2,No,11,Yes,Not Needed,0"));
+        Assertions.assertEquals(List.of(), InitializeRestaurantFiles.initializeMissingDays(new TextDayStore()));
+
+        SeatInventory binary = new SeatInventory(new BinaryDayStore(), null);
+        Assertions.assertTrue(binary.persist(binary.getDay("wednesday")));
+        binary.close();
+        Files.delete(Paths.get("wednesday.txt"));
+        Assertions.assertEquals(List.of(), InitializeRestaurantFiles.initializeMissingDays(new BinaryDayStore()));
+    }
+
+    //Test that validating finds unreadable days, unknown time slots and users with two tables
+    @Test
+    public void testValidateFindsBadDays() throws IOException {
+        SeatInventory seats = new SeatInventory(new MemoryDayStore(), null);
+        Assertions.assertEquals(List.of(), seats.validate());
+
+        List<String> lines = new ArrayList<>(Files.readAllLines(Paths.get("friday.txt")));
+        lines.set(0, "Bob,1,2,2,No,11,Yes,Not Needed,0");
+        lines.set(9, "Bob,2,2,2,No,12,Yes,Not Needed,0");
+        lines.add("N/A,1,2,N/A,No,15,No,Not Needed,0");
+        Files.write(Paths.get("friday.txt"), lines);
+        Files.write(Paths.get("saturday.txt"), List.of("not a row"));
+
+        List<String> problems = new SeatInventory(new MemoryDayStore(), null).validate();
+        Assertions.assertEquals(3, problems.size(), problems.toString());
+        Assertions.assertTrue(problems.contains("saturday: can not be read"));
+        Assertions.assertTrue(problems.contains("friday 15:00: the restaurant is not open then"));
+        Assertions.assertTrue(problems.contains("friday: Bob has 2 tables"));
+    }
+
+    //Test that a day file converted to binary and back gives the same lines
+    @Test
+    public void testBinaryDayFileRoundTrip() throws IOException {
+        List<String> lines = new ArrayList<>(Files.readAllLines(Paths.get("monday.txt")));
+        lines.set(0, "Steve,1,2,2,No,11,Yes,0000000012345678,0");
+        lines.set(7, "Steve,8,8,6,Yes,11,Yes,0000000012345678,100");
+        byte[] binary = BinaryDayFile.fromText(lines);
+        Assertions.assertEquals(BinaryDayFile.HEADER_SIZE + lines.size() * BinaryDayFile.RECORD_SIZE,
+            java.nio.ByteBuffer.wrap(binary).getInt(12));
+        Assertions.assertEquals(lines, BinaryDayFile.toText(binary));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> BinaryDayFile.toText(Arrays.copyOf(binary, 30)));
+    }
+
+    //Test that a binary inventory imports the text file and keeps changes in the binary file
+    @Test
+    public void testBinaryInventoryPersists() throws IOException {
+        List<String> text = Files.readAllLines(Paths.get("tuesday.txt"));
+        SeatInventory seats = new SeatInventory(new BinaryDayStore(), null);
+        DayInventory tuesday = seats.getDay("tuesday");
+        TableSlot booked = tuesday.getSlots(12).get(0).book("Bob", 2, "Not Needed", 0);
+        Assertions.assertTrue(seats.update(tuesday, 12, Map.of(0, booked)));
+        Assertions.assertEquals(text, Files.readAllLines(Paths.get("tuesday.txt")));
+
+        SeatInventory reloaded = new SeatInventory(new BinaryDayStore(), null);
+        Assertions.assertEquals(booked.toLine(), reloaded.getDay("tuesday").getSlots(12).get(0).toLine());
+        Assertions.assertEquals(tuesday.toLines(), reloaded.getDay("tuesday").toLines());
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * This class is one typed row of a day file, which is one table at one time slot.
+ * Objects of this class are never changed, a booking or cancellation makes a new TableSlot.
+ *
+ * <p>The text layout of a row is
+ * whoBooked,tableNum,tableSize,partySize,isSpecial,time,isBooked,creditCard,cost</p>
+ *
+ * @version Dec 8, 2025
+ */
+
+public class TableSlot {
+    public static final String NO_USER = "N/A";
+    public static final int NO_PARTY = Integer.MIN_VALUE;
+
+    private final String bookedBy;
+    private final int tableNum;
+    private final int tableSize;
+    private final int partySize;
+    private final boolean special;
+    private final int time;
+    private final boolean booked;
+    private final String creditCard;
+    private final int cost;
+
+    /**
+     * This constructor initializes every column of the row
+     *
+     * @param bookedBy   the username that booked the table or N/A
+     * @param tableNum   the table number
+     * @param tableSize  how many people fit at the table
+     * @param partySize  the size of the party booked or NO_PARTY
+     * @param special    whether the table is the special party room
+     * @param time       the hour of the time slot
+     * @param booked     whether the table is booked
+     * @param creditCard the credit card column
+     * @param cost       the cost of the booking
+     */
+    public TableSlot(String bookedBy, int tableNum, int tableSize, int partySize, boolean special, int time,
+                     boolean booked, String creditCard, int cost) {
+        this.bookedBy = bookedBy;
+        this.tableNum = tableNum;
+        this.tableSize = tableSize;
+        this.partySize = partySize;
+        this.special = special;
+        this.time = time;
+        this.booked = booked;
+        this.creditCard = creditCard;
+        this.cost = cost;
+    }
+
+    /**
+     * Parses one line of a day file
+     *
+     * @param line the line to parse
+     * @return the TableSlot for the line
+     * @throws IllegalArgumentException if the line is not a valid row
+     */
+    public static TableSlot fromLine(String line) {
+        String[] pieces = line.split(",");
+        if (pieces.length != 9) {
+            throw new IllegalArgumentException("Malformed table line: " + line);
+        }
+
+        try {
+            int partySize = pieces[3].equals("N/A") ? NO_PARTY : Integer.parseInt(pieces[3]);
+            return new TableSlot(pieces[0], Integer.parseInt(pieces[1]), Integer.parseInt(pieces[2]), partySize,
+                    pieces[4].equals("Yes"), Integer.parseInt(pieces[5]), pieces[6].equals("Yes"), pieces[7],
+                    Integer.parseInt(pieces[8]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed table line: " + line, e);
+        }
+    }
+
+    /**
+     * Makes a free row for a table at a time, the same way InitializeRestaurantFiles does
+     *
+     * @param tableNum  the table number
+     * @param tableSize how many people fit at the table
+     * @param special   whether the table is the special party room
+     * @param time      the hour of the time slot
+     * @return the free TableSlot
+     */
+    public static TableSlot freeTable(int tableNum, int tableSize, boolean special, int time) {
+        return new TableSlot(NO_USER, tableNum, tableSize, NO_PARTY, special, time, false,
+                special ? "N/A" : "Not Needed", 0);
+    }
+
+    /**
+     * Turns the row back into a line of the day file
+     *
+     * @return the line for this row
+     */
+    public String toLine() {
+        return appendLine(new StringBuilder(48)).toString();
+    }
+
+    /**
+     * Writes the line of the day file for this row onto the end of a StringBuilder
+     *
+     * @param sb where to write the line
+     * @return sb
+     */
+    public StringBuilder appendLine(StringBuilder sb) {
+        sb.append(bookedBy).append(',').append(tableNum).append(',').append(tableSize).append(',');
+        if (partySize == NO_PARTY) {
+            sb.append("N/A");
+        } else {
+            sb.append(partySize);
+        }
+        return sb.append(',').append(special ? "Yes" : "No").append(',').append(time).append(',')
+                .append(booked ? "Yes" : "No").append(',').append(creditCard).append(',').append(cost);
+    }
+
+    /**
+     * Makes the booked version of this row
+     *
+     * @param username   the username booking the table
+     * @param party      the size of the party
+     * @param card       the credit card column to store
+     * @param bookedCost the cost of the booking
+     * @return the booked TableSlot
+     */
+    public TableSlot book(String username, int party, String card, int bookedCost) {
+        return new TableSlot(username, tableNum, tableSize, party, special, time, true, card, bookedCost);
+    }
+
+    /**
+     * Makes the canceled version of this row. Payment columns are only cleared for the special table
+     * because that is the only table that stores them.
+     *
+     * @return the canceled TableSlot
+     */
+    public TableSlot cancel() {
+        return new TableSlot(NO_USER, tableNum, tableSize, NO_PARTY, special, time, false,
+                special ? "N/A" : creditCard, special ? 0 : cost);
+    }
+
+    /**
+     * Makes a version of this row with no user or payment which is used by admin changes
+     *
+     * @param closed whether the table should be marked as taken so nobody can book it
+     * @return the reset TableSlot
+     */
+    public TableSlot reset(boolean closed) {
+        return new TableSlot(NO_USER, tableNum, tableSize, NO_PARTY, special, time, closed, "N/A", 0);
+    }
+
+    public String getBookedBy() {
+        return bookedBy;
+    }
+
+    public int getTableNum() {
+        return tableNum;
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    public int getPartySize() {
+        return partySize;
+    }
+
+    public boolean isSpecial() {
+        return special;
+    }
+
+    public int getTime() {
+        return time;
+    }
+
+    public boolean isBooked() {
+        return booked;
+    }
+
+    public String getCreditCard() {
+        return creditCard;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+}
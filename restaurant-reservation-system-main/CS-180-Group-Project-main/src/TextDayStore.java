@@ -0,0 +1,201 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class keeps each day in its text day file, monday.txt and so on, one row per line in the
+ * layout whoBooked,tableNum,tableSize,partySize,isSpecial,time,isBooked,creditCard,cost. This is
+ * the layout the project has always used and the one the other stores import from. A date's file is
+ * named after the date, 2026-01-15.txt, and a past date's file is moved into the archive directory.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class TextDayStore implements DayStoreInterface {
+    public static final String EXTENSION = ".txt";
+    public static final String ARCHIVE_DIR = "archive";
+
+    private final Path directory;
+
+    //This constructor keeps the day files in the working directory
+    public TextDayStore() {
+        this(Paths.get(""));
+    }
+
+    /**
+     * This constructor keeps the day files in a directory, so every restaurant can have its own
+     *
+     * @param directory the directory of the day files
+     */
+    public TextDayStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public static String fileName(String day) {
+        return day + EXTENSION;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Path path(String day) {
+        return directory.resolve(fileName(day));
+    }
+
+    /**
+     * Reads a text day file
+     *
+     * @param day the name of the day
+     * @return the DayInventory or null if the file can not be read
+     */
+    public DayInventory load(String day) {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader bfr = new BufferedReader(new FileReader(path(day).toFile()))) {
+            while (true) {
+                String line = bfr.readLine();
+                if (line == null) {
+                    break;
+                }
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        try {
+            return DayInventory.fromLines(day, lines);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a day to its text day file
+     *
+     * @param inventory the day to write
+     * @return true if the file was written
+     */
+    public boolean save(DayInventory inventory) {
+        StringBuilder sb = new StringBuilder();
+        for (TableSlot row : inventory.getAllSlots()) {
+            row.appendLine(sb).append(System.lineSeparator());
+        }
+        return writeAtomically(path(inventory.getDay()),
+                ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public boolean contains(String day) {
+        return Files.exists(path(day));
+    }
+
+    public Set<String> storedDates() {
+        return storedDates(directory, EXTENSION);
+    }
+
+    public boolean archive(String day) {
+        return archiveFile(directory, fileName(day));
+    }
+
+    /**
+     * Finds the dates that have a file with an extension in the working directory
+     *
+     * @param extension the extension of the day files, for example .txt
+     * @return the dates, written as yyyy-MM-dd
+     */
+    static Set<String> storedDates(String extension) {
+        return storedDates(Paths.get(""), extension);
+    }
+
+    /**
+     * Finds the dates that have a file with an extension in a directory
+     *
+     * @param directory the directory of the day files
+     * @param extension the extension of the day files, for example .txt
+     * @return the dates, written as yyyy-MM-dd
+     */
+    static Set<String> storedDates(Path directory, String extension) {
+        Set<String> dates = new HashSet<>();
+        Path listed = directory.toString().isEmpty() ? Paths.get(".") : directory;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(listed, "*" + extension)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String day = name.substring(0, name.length() - extension.length());
+                if (ReservationCalendar.toDate(day) != null) {
+                    dates.add(day);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error listing day files: " + e.getMessage());
+        }
+        return dates;
+    }
+
+    /**
+     * Moves a file into the ARCHIVE_DIR of its directory, replacing an archived file of the same name
+     *
+     * @param directory the directory of the file
+     * @param fileName  the name of the file to move
+     * @return true if the file was moved or did not exist
+     */
+    static boolean archiveFile(Path directory, String fileName) {
+        Path source = directory.resolve(fileName);
+        if (!Files.exists(source)) {
+            return true;
+        }
+        try {
+            Path archive = Files.createDirectories(directory.resolve(ARCHIVE_DIR));
+            Files.move(source, archive.resolve(source.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error archiving " + fileName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes a file to a temporary file first and then moves it over the file, so a crash never leaves
+     * half a file behind
+     *
+     * @param target the file to write
+     * @param bytes  the new contents of the file
+     * @return true if the file was written
+     */
+    static boolean writeAtomically(Path target, ByteBuffer bytes) {
+        Path temp = Paths.get(target + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            return false;
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e2) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
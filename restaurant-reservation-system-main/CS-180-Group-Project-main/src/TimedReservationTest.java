@@ -0,0 +1,227 @@
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class provides jUnit test cases for stays longer than one time slot. The tests ensure that
+ * a stay is rounded up to whole time slots that must all be open, that it holds its table in every
+ * one of them or in none, that cancelling frees all of it, that the best table is free for the whole
+ * stay, that stays are kept across a restart, that the protocol commands book them, and that in both
+ * booking modes overlapping stays never share a table.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class TimedReservationTest {
+
+    private static final String USERS_FILE = "timed_users.txt";
+
+    //Initialize restaurant files
+    @BeforeEach
+    public void setUp() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Reset test files
+    @AfterEach
+    public void tearDown() {
+        new File(USERS_FILE).delete();
+        new File(ReservationJournal.DEFAULT_FILE).delete();
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test that minutes round up to time slots and that every time slot of the stay must be open
+    @Test
+    public void testTimeSlots() {
+        Assertions.assertEquals(1, DayTemplate.getTimeSlots(11, 60));
+        Assertions.assertEquals(1, DayTemplate.getTimeSlots(11, 45));
+        Assertions.assertEquals(2, DayTemplate.getTimeSlots(11, 90));
+        Assertions.assertEquals(4, DayTemplate.getTimeSlots(17, 240));
+        Assertions.assertEquals(-1, DayTemplate.getTimeSlots(14, 90));
+        Assertions.assertEquals(-1, DayTemplate.getTimeSlots(21, 61));
+        Assertions.assertEquals(-1, DayTemplate.getTimeSlots(15, 60));
+        Assertions.assertEquals(-1, DayTemplate.getTimeSlots(11, 0));
+        Assertions.assertEquals(-1, DayTemplate.getTimeSlots(11, 241));
+    }
+
+    //Test that a stay holds its table in every time slot, is refused whole on a conflict and is canceled whole
+    @Test
+    public void testStayHoldsEveryTimeSlot() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Amy", "monday", 1, 2, 17, 150, false,
+            "Not Needed"));
+        for (int time : new int[] {17, 18, 19}) {
+            Assertions.assertEquals(0L, db.getFreeTableMask("monday", time) & 1L, "" + time);
+        }
+        Assertions.assertEquals(1L, db.getFreeTableMask("monday", 20) & 1L);
+        Assertions.assertEquals("Table Already Booked", db.makeReservation("Bob", "monday", 1, 2, 18, false,
+            "Not Needed"));
+        Assertions.assertEquals("Invalid Time", db.makeReservation("Bob", "monday", 2, 2, 14, 90, false,
+            "Not Needed"));
+        Assertions.assertEquals("User Already Has Reservation For This Day", db.makeReservation("Amy", "monday",
+            2, 2, 20, 60, false, "Not Needed"));
+
+        //A stay that runs into a booking leaves none of its time slots booked
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Dan", "monday", 2, 2, 19, false,
+            "Not Needed"));
+        Assertions.assertEquals("Table Already Booked", db.makeReservation("Cal", "monday", 2, 2, 17, 180, false,
+            "Not Needed"));
+        Assertions.assertEquals(2L, db.getFreeTableMask("monday", 17) & 2L);
+        Assertions.assertEquals(2L, db.getFreeTableMask("monday", 18) & 2L);
+        Assertions.assertEquals(List.of(), db.validate());
+
+        Assertions.assertEquals("Cancellation Made", db.cancelReservation("Amy", "monday"));
+        for (int time : new int[] {17, 18, 19, 20}) {
+            Assertions.assertEquals(1L, db.getFreeTableMask("monday", time) & 1L, "" + time);
+        }
+        Assertions.assertEquals("Cancellation Failed", db.cancelReservation("Amy", "monday"));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Bob", "monday", 1, 2, 18, false,
+            "Not Needed"));
+        db.close();
+    }
+
+    //Test that the best table for a stay is the smallest one free for all of it
+    @Test
+    public void testBestTableForStay() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        db.makeReservation("Amy", "tuesday", 1, 2, 12, false, "Not Needed");
+        db.makeReservation("Bob", "tuesday", 3, 2, 13, false, "Not Needed");
+        Assertions.assertEquals("Reservation Made At Table 2", db.reserveBestTable("Cal", "tuesday", 2, 11, 120,
+            "Not Needed"));
+        Assertions.assertEquals("Reservation Made At Table 4", db.reserveBestTable("Dan", "tuesday", 2, 11, 180,
+            "Not Needed"));
+        Assertions.assertEquals("Reservation Made At Table 1", db.reserveBestTable("Eve", "tuesday", 2, 13, 120,
+            "Not Needed"));
+        Assertions.assertEquals("Reservation Made At Table 8", db.reserveBestTable("Fay", "tuesday", 6, 17, 240,
+            "1234567812345678"));
+        Assertions.assertEquals("No Table Fits", db.reserveBestTable("Gus", "tuesday", 6, 18, 90,
+            "1234567812345678"));
+        Assertions.assertEquals("Invalid Time", db.reserveBestTable("Gus", "tuesday", 2, 13, 150, "Not Needed"));
+        Assertions.assertEquals(List.of(), db.validate());
+        db.close();
+    }
+
+    //Test that a stay is kept across a restart and can still be canceled whole
+    @Test
+    public void testStayKeptAfterRestart() throws IOException {
+        RestaurantDatabase db = new RestaurantDatabase(new TextDayStore(),
+            new ReservationJournal(ReservationJournal.DEFAULT_FILE));
+        Assertions.assertEquals("Reservation Made", db.makeReservation("Amy", "friday", 8, 6, 18, 180, true,
+            "1234567812345678"));
+        db.close();
+
+        db = new RestaurantDatabase(new TextDayStore(), new ReservationJournal(ReservationJournal.DEFAULT_FILE));
+        try {
+            for (int time : new int[] {18, 19, 20}) {
+                Assertions.assertEquals(0L, db.getFreeTableMask("friday", time) & 0x80L, "" + time);
+            }
+            Assertions.assertEquals(List.of(), db.validate());
+            Assertions.assertEquals("User Already Has Reservation For This Day", db.makeReservation("Amy",
+                "friday", 1, 2, 11, false, "Not Needed"));
+            Assertions.assertEquals("Cancellation Made", db.cancelReservation("Amy", "friday"));
+            for (int time : new int[] {18, 19, 20}) {
+                Assertions.assertEquals(0x80L, db.getFreeTableMask("friday", time) & 0x80L, "" + time);
+            }
+        } finally {
+            db.close();
+        }
+    }
+
+    //Test the timed protocol commands alone and in a batch
+    @Test
+    public void testProtocolCommands() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        ReservationProtocol protocol = new ReservationProtocol(new UserDatabase(USERS_FILE, db), db);
+        Assertions.assertEquals(7, ReservationProtocol.getArgumentCount(ReservationProtocol.MAKE_TIMED_RESERVATION));
+        Assertions.assertEquals(6,
+            ReservationProtocol.getArgumentCount(ReservationProtocol.RESERVE_BEST_TIMED_TABLE));
+        Assertions.assertEquals("Reservation Made", protocol.executeRequest(List.of(
+            ReservationProtocol.MAKE_TIMED_RESERVATION, "Amy", "saturday", "8", "6", "11", "120",
+            "1234567812345678")).getResponse());
+        Assertions.assertEquals(0L, db.getFreeTableMask("saturday", 12) & 0x80L);
+
+        List<String> batch = List.of(ReservationProtocol.BATCH, "2",
+            ReservationProtocol.RESERVE_BEST_TIMED_TABLE, "Bob", "saturday", "2", "20", "120", "Not Needed",
+            ReservationProtocol.RESERVE_BEST_TIMED_TABLE, "Cal", "saturday", "2", "20", "180", "Not Needed");
+        Assertions.assertEquals("Reservation Made At Table 1" + System.lineSeparator() + "Invalid Time",
+            protocol.executeRequest(batch).getResponse());
+        db.close();
+    }
+
+    //Test that both booking modes give the same answers for stays
+    @Test
+    public void testSameAnswersInBothModes() {
+        RestaurantDatabase locking = new RestaurantDatabase(new MemoryDayStore(), null,
+            RestaurantDatabase.BookingMode.LOCKING);
+        RestaurantDatabase optimistic = new RestaurantDatabase(new MemoryDayStore(), null,
+            RestaurantDatabase.BookingMode.OPTIMISTIC);
+        Object[][] bookings = {
+            {"Amy", 1, 2, 11, 120, false, "Not Needed"},
+            {"Bob", 1, 2, 12, 60, false, "Not Needed"},
+            {"Bob", 1, 2, 13, 90, false, "Not Needed"},
+            {"Cal", 2, 2, 13, 120, false, "Not Needed"},
+            {"Dan", 8, 6, 17, 240, true, "1234"},
+            {"Dan", 8, 6, 17, 240, true, "1234567812345678"},
+            {"Eve", 8, 6, 20, 60, true, "1234567812345678"},
+            {"Eve", 4, 3, 21, 30, false, "Not Needed"},
+        };
+        for (Object[] b : bookings) {
+            String expected = locking.makeReservation((String) b[0], "wednesday", (int) b[1], (int) b[2],
+                (int) b[3], (int) b[4], (boolean) b[5], (String) b[6]);
+            Assertions.assertEquals(expected, optimistic.makeReservation((String) b[0], "wednesday", (int) b[1],
+                (int) b[2], (int) b[3], (int) b[4], (boolean) b[5], (String) b[6]), Arrays.toString(b));
+        }
+        for (String user : new String[] {"Amy", "Bob", "Dan", "Zed"}) {
+            Assertions.assertEquals(locking.cancelReservation(user, "wednesday"),
+                optimistic.cancelReservation(user, "wednesday"), user);
+        }
+        for (int time : DayTemplate.TIMES) {
+            Assertions.assertEquals(locking.getFreeTableMask("wednesday", time),
+                optimistic.getFreeTableMask("wednesday", time), "" + time);
+        }
+        locking.close();
+        optimistic.close();
+    }
+
+    //Test that of 16 guests booking overlapping stays at one table none share it in both modes
+    @Test
+    public void testConcurrentOverlappingStays() throws Exception {
+        for (RestaurantDatabase.BookingMode mode : RestaurantDatabase.BookingMode.values()) {
+            RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null, mode);
+            ExecutorService pool = Executors.newFixedThreadPool(16);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String user = "guest" + i;
+                int time = 11 + i % 3;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return db.makeReservation(user, "sunday", 1, 2, time, 120, false, "Not Needed");
+                }));
+            }
+            start.countDown();
+
+            int made = 0;
+            for (Future<String> future : futures) {
+                String result = future.get(30, TimeUnit.SECONDS);
+                if (result.equals("Reservation Made")) {
+                    made++;
+                } else {
+                    Assertions.assertEquals("Table Already Booked", result, mode.name());
+                }
+            }
+            pool.shutdown();
+
+            int booked = 0;
+            for (int time : new int[] {11, 12, 13, 14}) {
+                booked += (int) (~db.getFreeTableMask("sunday", time) & 1L);
+            }
+            Assertions.assertTrue(made >= 1 && made <= 2, mode.name() + " " + made);
+            Assertions.assertEquals(2 * made, booked, mode.name());
+            Assertions.assertEquals(List.of(), db.validate(), mode.name());
+            db.close();
+        }
+    }
+}
@@ -1,12 +1,21 @@
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles secure user registration, deletion, and authentication.
  * Data is stored in a plain text file where each line follows the format:
- * username,password
+ * username,passwordHash
  *
- * All file operations are synchronized for thread safety.
+ * The whole file is loaded into a concurrent map of salted password hashes
+ * when the database is created, so logins are checked in memory without
+ * reading the file or taking a lock. Only adding and deleting users write
+ * the file, one at a time. Lines from older files that still hold a plain
+ * text password are hashed and written back when the file is loaded.
  *
  * Example usage:
  * UserDatabase db = new UserDatabase("users.txt");
@@ -18,6 +27,10 @@ import java.util.*;
 public class UserDatabase {
 
     private final String fileName;
+    private final Map<String, PasswordHash> users = new ConcurrentHashMap<>();
+    private final Object fileLock = new Object();
+    private volatile RestaurantDatabaseInterface restaurantDB;
+    private final RestaurantRegistry restaurants;
 
     /**
      * Constructs a UserDatabase linked to the specified file.
@@ -25,47 +38,87 @@ public class UserDatabase {
      * @param fileName the file where user credentials are stored.
      */
     public UserDatabase(String fileName) {
+        this(fileName, (RestaurantDatabaseInterface) null);
+    }
+
+    /**
+     * Constructs a UserDatabase linked to the specified file that cancels the
+     * reservations of deleted users through the given restaurant database.
+     * The server must share its restaurant database here so the in-memory
+     * seat inventory sees the cancellations.
+     *
+     * @param fileName the file where user credentials are stored.
+     * @param restaurantDB the restaurant database holding reservations, or null
+     *                     to load a new one when a user is deleted.
+     */
+    public UserDatabase(String fileName, RestaurantDatabaseInterface restaurantDB) {
+        this(fileName, restaurantDB, null);
+    }
+
+    /**
+     * Constructs a UserDatabase linked to the specified file that cancels the
+     * reservations of deleted users at every restaurant the registry hosts,
+     * including the ones that are closed right now.
+     *
+     * @param fileName the file where user credentials are stored.
+     * @param restaurants the default restaurant and every other restaurant.
+     */
+    public UserDatabase(String fileName, RestaurantRegistry restaurants) {
+        this(fileName, restaurants.getDefault(), restaurants);
+    }
+
+    private UserDatabase(String fileName, RestaurantDatabaseInterface restaurantDB,
+                         RestaurantRegistry restaurants) {
+        this.restaurants = restaurants;
         this.fileName = fileName;
+        this.restaurantDB = restaurantDB;
         try {
             File file = new File(fileName);
             if (!file.exists()) {
                 file.createNewFile();
             }
+            if (loadUsers()) {
+                writeUsers();
+            }
         } catch (IOException e) {
             System.out.println("Error initializing database file: " + e.getMessage());
         }
     }
 
     /**
-     * Adds a new user if the username and password are unique.
+     * Adds a new user if the username is not taken. Other users' passwords
+     * are never compared, any number of users may share a password.
      *
      * @param username the username to register.
      * @param password the password for the user.
      * @return status message.
      */
-    public synchronized String addUser(String username, String password) {
+    public String addUser(String username, String password) {
         if (username == null || username.isEmpty() ||
             password == null || password.isEmpty()) {
             return "Invalid input";
         }
+        //These split the users file, the day files and the journal
+        if (username.indexOf(',') >= 0 || username.indexOf('|') >= 0 || username.indexOf(';') >= 0) {
+            return "Invalid input";
+        }
+        //Fail fast before spending time on the hash
+        if (users.containsKey(username)) {
+            return "This username is taken";
+        }
 
-        try {
-            List<String[]> users = readUsers();
-            for (String[] user : users) {
-                if (user[0].equals(username)) {
-                    return "This username is taken";
-                }
-                if (user[1].equals(password)) {
-                    return "This password is taken";
-                }
+        PasswordHash hash = PasswordHash.create(password);
+        synchronized (fileLock) {
+            if (users.putIfAbsent(username, hash) != null) {
+                return "This username is taken";
             }
-
             try (FileWriter fw = new FileWriter(fileName, true)) {
-                fw.write(username + "," + password + System.lineSeparator());
+                fw.write(username + "," + hash.toField() + System.lineSeparator());
+            } catch (IOException e) {
+                users.remove(username, hash);
+                return "File write error";
             }
             return "Success";
-        } catch (IOException e) {
-            return "File write error";
         }
     }
 
@@ -76,49 +129,41 @@ public class UserDatabase {
      * @param password the user's password.
      * @return status message.
      */
-    public synchronized String deleteUser(String username, String password) {
-        try {
-            List<String[]> users = readUsers();
-            boolean usernameFound = false;
-            boolean passwordMatch = false;
-
-            Iterator<String[]> iterator = users.iterator();
-            while (iterator.hasNext()) {
-                String[] user = iterator.next();
-                if (user[0].equals(username) && !user[1].equals("Admin")) {
-                    usernameFound = true;
-                    if (user[1].equals(password)) {
-                        passwordMatch = true;
-                        iterator.remove();
-                        RestaurantDatabase rb = new RestaurantDatabase();
-                        rb.cancelReservation(username, "monday");
-                        rb.cancelReservation(username, "tuesday");
-                        rb.cancelReservation(username, "wednesday");
-                        rb.cancelReservation(username, "thursday");
-                        rb.cancelReservation(username, "friday");
-                        rb.cancelReservation(username, "saturday");
-                        rb.cancelReservation(username, "sunday");
-                        break;
-                    }
-                }
-            }
+    public String deleteUser(String username, String password) {
+        PasswordHash hash = username == null ? null : users.get(username);
+        //The account whose password is Admin can never be deleted
+        if (hash == null || hash.matches("Admin")) {
+            return "No such username exists";
+        }
+        if (!hash.matches(password)) {
+            return "No such password exists";
+        }
 
-            if (!usernameFound) {
+        synchronized (fileLock) {
+            if (!users.remove(username, hash)) {
                 return "No such username exists";
             }
-            if (!passwordMatch) {
-                return "No such password exists";
+            try {
+                writeUsers();
+            } catch (IOException e) {
+                users.put(username, hash);
+                return "File write error";
             }
+        }
 
-            try (FileWriter fw = new FileWriter(fileName, false)) {
-                for (String[] user : users) {
-                    fw.write(user[0] + "," + user[1] + System.lineSeparator());
+        if (restaurantDB == null) {
+            synchronized (fileLock) {
+                if (restaurantDB == null) {
+                    restaurantDB = new RestaurantDatabase();
                 }
             }
-            return "Success";
-        } catch (IOException e) {
-            return "File write error";
         }
+        restaurantDB.cancelAllReservations(username);
+        if (restaurants != null) {
+            //A closed restaurant is not opened, it cancels the user's bookings when it is next opened
+            restaurants.cancelAllReservations(username);
+        }
+        return "Success";
     }
 
     /**
@@ -128,18 +173,12 @@ public class UserDatabase {
      * @param password the password.
      * @return true if credentials are correct, false otherwise.
      */
-    public synchronized boolean login(String username, String password) {
-        try {
-            List<String[]> users = readUsers();
-            for (String[] user : users) {
-                if (user[0].equals(username) && user[1].equals(password)) {
-                    return true;
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("Error reading file: " + e.getMessage());
+    public boolean login(String username, String password) {
+        if (username == null) {
+            return false;
         }
-        return false;
+        PasswordHash hash = users.get(username);
+        return hash != null && hash.matches(password);
     }
 
     /**
@@ -147,35 +186,63 @@ public class UserDatabase {
      *
      * @return list of usernames.
      */
-    public synchronized List<String> getAllUsers() {
-        List<String> usernames = new ArrayList<>();
-        try {
-            List<String[]> users = readUsers();
-            for (String[] user : users) {
-                usernames.add(user[0]);
-            }
-        } catch (IOException e) {
-            System.out.println("Error reading file: " + e.getMessage());
-        }
-        return usernames;
+    public List<String> getAllUsers() {
+        return new ArrayList<>(users.keySet());
     }
 
     /**
-     * Helper method: reads all users from file.
+     * Helper method: reads all users from file into the map.
+     *
+     * @return true if a line held a plain text password that was hashed
      */
-    private List<String[]> readUsers() throws IOException {
-        List<String[]> users = new ArrayList<>();
+    private boolean loadUsers() throws IOException {
+        boolean upgraded = false;
         try (Scanner sc = new Scanner(new File(fileName))) {
             while (sc.hasNextLine()) {
                 String line = sc.nextLine().trim();
                 if (line.contains(",")) {
                     String[] parts = line.split(",");
                     if (parts.length == 2 && !parts[0].isEmpty() && !parts[1].isEmpty()) {
-                        users.add(parts);
+                        if (PasswordHash.isHash(parts[1])) {
+                            try {
+                                users.put(parts[0], PasswordHash.fromField(parts[1]));
+                            } catch (IllegalArgumentException e) {
+                                // Skip a damaged hash like any other malformed line
+                            }
+                        } else {
+                            users.put(parts[0], PasswordHash.create(parts[1]));
+                            upgraded = true;
+                        }
                     }
                 }
             }
         }
-        return users;
+        return upgraded;
+    }
+
+    /**
+     * Helper method: writes every user to a temporary file and moves it over
+     * the user file so a crash never leaves half the users behind. Callers
+     * hold fileLock.
+     */
+    private void writeUsers() throws IOException {
+        Path target = Paths.get(fileName);
+        Path temp = Paths.get(fileName + ".tmp");
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, PasswordHash> user : users.entrySet()) {
+            sb.append(user.getKey()).append(",").append(user.getValue().toField()).append(System.lineSeparator());
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 }
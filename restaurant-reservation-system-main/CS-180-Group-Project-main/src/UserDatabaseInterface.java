@@ -12,7 +12,7 @@ import java.util.List;
 public interface UserDatabaseInterface {
 
     /**
-     * Adds a new user if the username and password are unique.
+     * Adds a new user if the username is not taken.
      *
      * @param username the username to register.
      * @param password the password for the user.
@@ -52,7 +52,8 @@ public class UserDatabaseTest {
         String result = db.addUser("alice", "pw1");
         Assertions.assertEquals("Success", result);
         List<String> lines = Files.readAllLines(Paths.get(TEST_FILE));
-        Assertions.assertTrue(lines.stream().anyMatch(l -> l.equals("alice,pw1")));
+        Assertions.assertTrue(lines.stream().anyMatch(l -> l.startsWith("alice," + PasswordHash.PREFIX + "$")));
+        Assertions.assertTrue(lines.stream().noneMatch(l -> l.contains("pw1")));
     }
 
     // Test addUser invalid input
@@ -62,6 +63,9 @@ public class UserDatabaseTest {
         Assertions.assertEquals("Invalid input", db.addUser("", "x"));
         Assertions.assertEquals("Invalid input", db.addUser("x", null));
         Assertions.assertEquals("Invalid input", db.addUser("x", ""));
+        Assertions.assertEquals("Invalid input", db.addUser("a,b", "x"));
+        Assertions.assertEquals("Invalid input", db.addUser("a|b", "x"));
+        Assertions.assertEquals("Invalid input", db.addUser("a;b", "x"));
     }
 
     // Test duplicate username in addUser
@@ -71,11 +75,13 @@ public class UserDatabaseTest {
         Assertions.assertEquals("This username is taken", db.addUser("bob", "pw3"));
     }
 
-    // Test duplicate password in addUser
+    // Test two users may share a password
     @Test
     public void testAddUserDuplicatePassword() {
         Assertions.assertEquals("Success", db.addUser("carol", "secret"));
-        Assertions.assertEquals("This password is taken", db.addUser("dave", "secret"));
+        Assertions.assertEquals("Success", db.addUser("dave", "secret"));
+        Assertions.assertTrue(db.login("carol", "secret"));
+        Assertions.assertTrue(db.login("dave", "secret"));
     }
 
     // Test successful login
@@ -118,7 +124,8 @@ public class UserDatabaseTest {
         String result = db.deleteUser("ivy", "pw8");
         Assertions.assertEquals("Success", result);
         List<String> lines = Files.readAllLines(Paths.get(TEST_FILE));
-        Assertions.assertTrue(lines.stream().noneMatch(l -> l.equals("ivy,pw8")));
+        Assertions.assertTrue(lines.stream().noneMatch(l -> l.startsWith("ivy,")));
+        Assertions.assertFalse(db.login("ivy", "pw8"));
     }
 
     // Test getAllUsers empty
@@ -173,6 +180,59 @@ public class UserDatabaseTest {
         Assertions.assertEquals("Success", db.addUser("newguy", "newpw"));
     }
 
+    // Test plain text passwords from an old file are hashed and still log in
+    @Test
+    public void testPlainTextPasswordsAreHashedOnLoad() throws Exception {
+        Files.write(Paths.get(TEST_FILE), Arrays.asList("olduser,oldpw"), StandardCharsets.UTF_8);
+        db = new UserDatabase(TEST_FILE);
+        Assertions.assertTrue(db.login("olduser", "oldpw"));
+        Assertions.assertFalse(db.login("olduser", "wrong"));
+
+        List<String> lines = Files.readAllLines(Paths.get(TEST_FILE));
+        Assertions.assertEquals(1, lines.size());
+        Assertions.assertTrue(lines.get(0).startsWith("olduser," + PasswordHash.PREFIX + "$"));
+    }
+
+    // Test login is checked in memory without reading the file
+    @Test
+    public void testLoginDoesNotReadFile() throws Exception {
+        db.addUser("oscar", "pw12");
+        Files.write(Paths.get(TEST_FILE), Arrays.asList("oscar,changed"), StandardCharsets.UTF_8);
+        Assertions.assertTrue(db.login("oscar", "pw12"));
+        Assertions.assertFalse(db.login("oscar", "changed"));
+    }
+
+    // Test only one of many threads adding the same username succeeds
+    @Test
+    public void testConcurrentAddsOfSameUsername() throws Exception {
+        int threadCount = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < threadCount; i++) {
+            final int idx = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    results.add(db.addUser("same", "pw" + idx));
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        Assertions.assertEquals(1, results.stream().filter("Success"::equals).count());
+        Assertions.assertEquals(threadCount - 1, results.stream().filter("This username is taken"::equals).count());
+        Assertions.assertEquals(1, Files.readAllLines(Paths.get(TEST_FILE)).size());
+    }
+
     // Test concurrency safety for addUser
     @Test
     public void testConcurrentAdds() throws Exception {
@@ -0,0 +1,250 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * This class is the waitlist of one restaurant. A user who could not get a table waits in the queue
+ * of the day, time and party size they asked for, so a table that frees up is only offered to the
+ * parties it seats, in the order they joined. A user waits for at most one time slot a day.
+ * RestaurantDatabase takes waiters off the queues when it books a table for them, and keeps a
+ * notice for the user until their client asks for it. The waitlist is kept in memory only, so
+ * RestaurantRegistry does not close a restaurant while anyone waits or a notice is kept.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class Waitlist {
+    private final Map<String, TreeMap<Integer, TreeMap<Long, Waiter>>> queues = new HashMap<>();
+    private final Map<String, Map<String, Waiter>> waitingByDay = new HashMap<>();
+    private final Map<String, Queue<String>> notices = new ConcurrentHashMap<>();
+    private volatile int size;
+    private long joined;
+
+    /**
+     * This class is one user waiting for a table
+     */
+    public static class Waiter {
+        private final String username;
+        private final String day;
+        private final int time;
+        private final int partySize;
+        private final String creditCard;
+        private final long order;
+
+        private Waiter(String username, String day, int time, int partySize, String creditCard, long order) {
+            this.username = username;
+            this.day = day;
+            this.time = time;
+            this.partySize = partySize;
+            this.creditCard = creditCard;
+            this.order = order;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getDay() {
+            return day;
+        }
+
+        public int getTime() {
+            return time;
+        }
+
+        public int getPartySize() {
+            return partySize;
+        }
+
+        public String getCreditCard() {
+            return creditCard;
+        }
+    }
+
+    /**
+     * Checks whether anyone is waiting without locking, so a cancellation with nobody waiting costs nothing
+     *
+     * @return true if nobody is waiting
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if a notice is kept that nobody has taken yet
+     *
+     * @return true if some user has a notice waiting
+     */
+    public boolean hasNotices() {
+        for (Queue<String> queue : notices.values()) {
+            if (!queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts a user at the end of the queue for a day, time and party size
+     *
+     * @param username   the username waiting
+     * @param day        the day they want
+     * @param time       the hour of the time slot they want
+     * @param partySize  the size of their party
+     * @param creditCard the credit card to book a special table with
+     * @return true if the user joined, false if they already wait for a time slot of the day
+     */
+    public synchronized boolean add(String username, String day, int time, int partySize, String creditCard) {
+        Map<String, Waiter> waiting = waitingByDay.computeIfAbsent(day, d -> new HashMap<>());
+        if (waiting.containsKey(username)) {
+            return false;
+        }
+        Waiter waiter = new Waiter(username, day, time, partySize, creditCard, joined++);
+        waiting.put(username, waiter);
+        queue(waiter).put(waiter.order, waiter);
+        size++;
+        return true;
+    }
+
+    /**
+     * Gets the waiters for a time slot whose party a table seats, in the order they joined
+     *
+     * @param day       the day of the time slot
+     * @param time      the hour of the time slot
+     * @param tableSize how many people the table seats
+     * @return the waiters, empty if nobody the table seats is waiting
+     */
+    public synchronized List<Waiter> getWaiters(String day, int time, int tableSize) {
+        TreeMap<Integer, TreeMap<Long, Waiter>> bySize = queues.get(key(day, time));
+        if (bySize == null) {
+            return Collections.emptyList();
+        }
+        List<Waiter> waiters = new ArrayList<>();
+        for (TreeMap<Long, Waiter> queue : bySize.headMap(tableSize, true).values()) {
+            waiters.addAll(queue.values());
+        }
+        waiters.sort(Comparator.comparingLong(w -> w.order));
+        return waiters;
+    }
+
+    /**
+     * Takes a waiter off their queue to book a table for them
+     *
+     * @param waiter the waiter from getWaiters
+     * @return true if they were still waiting, false if someone else took them or they left
+     */
+    public synchronized boolean take(Waiter waiter) {
+        Map<String, Waiter> waiting = waitingByDay.get(waiter.day);
+        if (waiting == null || !waiting.remove(waiter.username, waiter)) {
+            return false;
+        }
+        if (waiting.isEmpty()) {
+            waitingByDay.remove(waiter.day);
+        }
+
+        String key = key(waiter.day, waiter.time);
+        TreeMap<Integer, TreeMap<Long, Waiter>> bySize = queues.get(key);
+        TreeMap<Long, Waiter> queue = bySize.get(waiter.partySize);
+        queue.remove(waiter.order);
+        if (queue.isEmpty()) {
+            bySize.remove(waiter.partySize);
+            if (bySize.isEmpty()) {
+                queues.remove(key);
+            }
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Puts a taken waiter back in their place when the table could not be booked for them
+     *
+     * @param waiter the waiter given to take
+     */
+    public synchronized void putBack(Waiter waiter) {
+        Map<String, Waiter> waiting = waitingByDay.computeIfAbsent(waiter.day, d -> new HashMap<>());
+        if (waiting.putIfAbsent(waiter.username, waiter) == null) {
+            queue(waiter).put(waiter.order, waiter);
+            size++;
+        }
+    }
+
+    /**
+     * Takes a user off the waitlist of a day, which is done once they book the day
+     *
+     * @param day      the day
+     * @param username the username
+     */
+    public void remove(String day, String username) {
+        if (size == 0) {
+            return;
+        }
+        synchronized (this) {
+            Map<String, Waiter> waiting = waitingByDay.get(day);
+            Waiter waiter = waiting == null ? null : waiting.get(username);
+            if (waiter != null) {
+                take(waiter);
+            }
+        }
+    }
+
+    /**
+     * Takes a user off the waitlist of every day and drops their notices, which is done when the
+     * account is deleted
+     *
+     * @param username the username
+     */
+    public synchronized void removeUser(String username) {
+        for (Map<String, Waiter> waiting : new ArrayList<>(waitingByDay.values())) {
+            Waiter waiter = waiting.get(username);
+            if (waiter != null) {
+                take(waiter);
+            }
+        }
+        notices.remove(username);
+    }
+
+    /**
+     * Keeps a notice for a user until their client asks for it
+     *
+     * @param username the username
+     * @param notice   the notice, one line without ';'
+     */
+    public void addNotice(String username, String notice) {
+        notices.computeIfAbsent(username, u -> new ConcurrentLinkedQueue<>()).add(notice);
+    }
+
+    /**
+     * Takes every notice kept for a user
+     *
+     * @param username the username
+     * @return the notices in the order they were made, empty if there are none
+     */
+    public List<String> takeNotices(String username) {
+        Queue<String> queue = notices.get(username);
+        if (queue == null) {
+            return Collections.emptyList();
+        }
+        List<String> taken = new ArrayList<>();
+        for (String notice = queue.poll(); notice != null; notice = queue.poll()) {
+            taken.add(notice);
+        }
+        return taken;
+    }
+
+    private TreeMap<Long, Waiter> queue(Waiter waiter) {
+        return queues.computeIfAbsent(key(waiter.day, waiter.time), k -> new TreeMap<>())
+            .computeIfAbsent(waiter.partySize, p -> new TreeMap<>());
+    }
+
+    private static String key(String day, int time) {
+        return day + " " + time;
+    }
+}
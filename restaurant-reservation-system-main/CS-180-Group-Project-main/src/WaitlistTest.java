@@ -0,0 +1,217 @@
+import org.junit.jupiter.api.*;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class provides jUnit test cases for the waitlist. The tests ensure that users can only wait
+ * when no table that seats them is free, that a cancellation hands the table to the first waiter it
+ * seats without the table ever being free, that a special table only goes to a party that may book
+ * it, that a waiter who books the day stops waiting, that an admin change that opens tables books
+ * them for the waitlist, that the protocol commands join and tell, and that under concurrent
+ * cancellations no table is given twice in either booking mode.
+ *
+ * @version Dec 19, 2025
+ */
+
+public class WaitlistTest {
+
+    private static final String USERS_FILE = "waitlist_users.txt";
+
+    //Initialize restaurant files
+    @BeforeEach
+    public void setUp() {
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Reset test files
+    @AfterEach
+    public void tearDown() {
+        new File(USERS_FILE).delete();
+        InitializeRestaurantFiles.initializeFiles();
+    }
+
+    //Test the answers to joining the waitlist
+    @Test
+    public void testJoinWaitlist() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        Assertions.assertEquals("Invalid Day", db.joinWaitlist("Amy", "someday", 2, 18, "0"));
+        Assertions.assertEquals("Invalid Time", db.joinWaitlist("Amy", "monday", 2, 15, "0"));
+        Assertions.assertEquals("Table Available", db.joinWaitlist("Amy", "monday", 2, 18, "0"));
+        Assertions.assertEquals("Party Too Big", db.joinWaitlist("Amy", "monday", 9, 18, "0"));
+
+        fill(db, "monday", 18);
+        Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("Amy", "monday", 2, 18, "0"));
+        Assertions.assertEquals("Already On Waitlist", db.joinWaitlist("Amy", "monday", 4, 18, "0"));
+        Assertions.assertEquals("User Already Has Reservation For This Day", db.joinWaitlist("guest1", "monday",
+            2, 18, "0"));
+        Assertions.assertEquals("Change Successful", db.adminChange("monday", false));
+        Assertions.assertEquals("Invalid Time", db.joinWaitlist("Bob", "monday", 2, 21, "0"));
+        Assertions.assertEquals(List.of(), db.takeNotifications("Amy"));
+        db.close();
+    }
+
+    //Test that a canceled table goes to the first waiter it seats in both modes and is never free in between
+    @Test
+    public void testCancellationPromotes() {
+        for (RestaurantDatabase.BookingMode mode : RestaurantDatabase.BookingMode.values()) {
+            RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null, mode);
+            fill(db, "monday", 18);
+            Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("Amy", "monday", 2, 18, "0"));
+            Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("Bob", "monday", 4, 18, "0"));
+
+            Assertions.assertEquals("Cancellation Made", db.cancelReservation("guest5", "monday"), mode.name());
+            Assertions.assertEquals(0L, db.getFreeTableMask("monday", 18), mode.name());
+            Assertions.assertEquals(List.of("Reservation Made At Table 5 On monday At 18"),
+                db.takeNotifications("Amy"), mode.name());
+            Assertions.assertEquals(List.of(), db.takeNotifications("Amy"), mode.name());
+
+            //Bob's party of four does not fit the table for two, so it is left free for anyone
+            Assertions.assertEquals("Cancellation Made", db.cancelReservation("guest1", "monday"), mode.name());
+            Assertions.assertEquals(1L, db.getFreeTableMask("monday", 18), mode.name());
+            Assertions.assertEquals(List.of(), db.takeNotifications("Bob"), mode.name());
+
+            //Amy's table seats four, so when she cancels it goes to Bob
+            Assertions.assertEquals("Cancellation Made", db.cancelReservation("Amy", "monday"), mode.name());
+            Assertions.assertEquals(1L, db.getFreeTableMask("monday", 18), mode.name());
+            Assertions.assertEquals(List.of("Reservation Made At Table 5 On monday At 18"),
+                db.takeNotifications("Bob"), mode.name());
+            Assertions.assertEquals(List.of(), db.validate(), mode.name());
+            db.close();
+        }
+    }
+
+    //Test that waiting for a table never books the special table for a party that may not book it
+    @Test
+    public void testSpecialTableRules() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        fill(db, "friday", 12);
+        Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("Amy", "friday", 2, 12, "0"));
+        Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("Bob", "friday", 6, 12, "1234"));
+        Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("Cal", "friday", 6, 12, "1234567812345678"));
+
+        Assertions.assertEquals("Cancellation Made", db.cancelReservation("guest8", "friday"));
+        Assertions.assertEquals(List.of(), db.takeNotifications("Amy"));
+        Assertions.assertEquals(List.of(), db.takeNotifications("Bob"));
+        Assertions.assertEquals(List.of("Reservation Made At Table 8 On friday At 12"), db.takeNotifications("Cal"));
+        Assertions.assertEquals(0L, db.getFreeTableMask("friday", 12));
+        Assertions.assertEquals(List.of(), db.validate());
+        db.close();
+    }
+
+    //Test that a waiter who books the day stops waiting and a deleted user is taken off the waitlist
+    @Test
+    public void testBookingStopsWaiting() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        fill(db, "sunday", 18);
+        db.joinWaitlist("Amy", "sunday", 2, 18, "0");
+        db.joinWaitlist("Bob", "sunday", 2, 18, "0");
+        Assertions.assertEquals("Reservation Made At Table 1", db.reserveBestTable("Amy", "sunday", 2, 19,
+            "Not Needed"));
+        db.cancelAllReservations("Bob");
+
+        Assertions.assertEquals("Cancellation Made", db.cancelReservation("guest2", "sunday"));
+        Assertions.assertEquals(2L, db.getFreeTableMask("sunday", 18));
+        Assertions.assertEquals(List.of(), db.takeNotifications("Amy"));
+        Assertions.assertEquals(List.of(), db.takeNotifications("Bob"));
+        Assertions.assertEquals(List.of(), db.validate());
+        db.close();
+    }
+
+    //Test that an admin change that opens the special tables books them for the waitlist
+    @Test
+    public void testAdminChangePromotes() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        Assertions.assertEquals("Change Successful", db.adminChange("thursday", false));
+        Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("Bob", "thursday", 7, 13,
+            "1234567812345678"));
+        Assertions.assertEquals("Invalid Time", db.joinWaitlist("Cal", "thursday", 7, 21, "1234567812345678"));
+        Assertions.assertEquals("Change Successful", db.adminChange("thursday", true));
+        Assertions.assertEquals(List.of("Reservation Made At Table 8 On thursday At 13"),
+            db.takeNotifications("Bob"));
+        Assertions.assertEquals(0L, db.getFreeTableMask("thursday", 13) & 0x80L);
+        Assertions.assertEquals("User Already Has Reservation For This Day", db.makeReservation("Bob", "thursday",
+            1, 2, 11, false, "Not Needed"));
+        Assertions.assertEquals(List.of(), db.validate());
+        db.close();
+    }
+
+    //Test the waitlist protocol commands alone and in a batch
+    @Test
+    public void testProtocolCommands() {
+        RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null);
+        ReservationProtocol protocol = new ReservationProtocol(new UserDatabase(USERS_FILE, db), db);
+        Assertions.assertEquals(5, ReservationProtocol.getArgumentCount(ReservationProtocol.JOIN_WAITLIST));
+        Assertions.assertEquals(1, ReservationProtocol.getArgumentCount(ReservationProtocol.GET_NOTIFICATIONS));
+        fill(db, "saturday", 20);
+        fill(db, "sunday", 20);
+
+        Assertions.assertEquals("Added To Waitlist", protocol.executeRequest(List.of(
+            ReservationProtocol.JOIN_WAITLIST, "Amy", "saturday", "2", "20", "0")).getResponse());
+        Assertions.assertEquals("", protocol.executeRequest(List.of(
+            ReservationProtocol.GET_NOTIFICATIONS, "Amy")).getResponse());
+        Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("Amy", "sunday", 2, 20, "0"));
+
+        List<String> batch = List.of(ReservationProtocol.BATCH, "3",
+            ReservationProtocol.CANCEL_RESERVATION, "guest3", "saturday",
+            ReservationProtocol.CANCEL_RESERVATION, "guest1", "sunday",
+            ReservationProtocol.GET_NOTIFICATIONS, "Amy");
+        Assertions.assertEquals("Success" + System.lineSeparator() + "Success" + System.lineSeparator()
+                + "Reservation Made At Table 3 On saturday At 20;Reservation Made At Table 1 On sunday At 20",
+            protocol.executeRequest(batch).getResponse());
+        db.close();
+    }
+
+    //Test that of 8 tables canceled at once each goes to at most one waiter in both modes
+    @Test
+    public void testConcurrentCancellations() throws Exception {
+        for (RestaurantDatabase.BookingMode mode : RestaurantDatabase.BookingMode.values()) {
+            RestaurantDatabase db = new RestaurantDatabase(new MemoryDayStore(), null, mode);
+            fill(db, "wednesday", 19);
+            Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("waiter8", "wednesday", 6, 19,
+                "1234567812345678"));
+            for (int i = 1; i < 8; i++) {
+                Assertions.assertEquals("Added To Waitlist", db.joinWaitlist("waiter" + i, "wednesday", 2, 19, "0"));
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 1; i <= 8; i++) {
+                String user = "guest" + i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return db.cancelReservation(user, "wednesday");
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                Assertions.assertEquals("Cancellation Made", future.get(30, TimeUnit.SECONDS), mode.name());
+            }
+            pool.shutdown();
+
+            Set<String> tables = new HashSet<>();
+            for (int i = 1; i <= 8; i++) {
+                List<String> notices = db.takeNotifications("waiter" + i);
+                Assertions.assertTrue(notices.size() <= 1, mode.name() + " " + notices);
+                for (String notice : notices) {
+                    Assertions.assertTrue(tables.add(notice.split(" ")[4]), mode.name() + " " + notice);
+                    Assertions.assertEquals("User Already Has Reservation For This Day", db.makeReservation(
+                        "waiter" + i, "wednesday", 1, 2, 11, false, "Not Needed"), mode.name());
+                }
+            }
+            Assertions.assertEquals(8 - tables.size(), Long.bitCount(db.getFreeTableMask("wednesday", 19)),
+                mode.name());
+            Assertions.assertEquals(List.of(), db.validate(), mode.name());
+            db.close();
+        }
+    }
+
+    //Books every table of a day and time, table n for guestn, with the special table for a party of 6
+    private static void fill(RestaurantDatabase db, String day, int time) {
+        for (int table = 1; table <= 8; table++) {
+            Assertions.assertEquals("Reservation Made", db.makeReservation("guest" + table, day, table,
+                table == 8 ? 6 : 2, time, table == 8, "1234567812345678"));
+        }
+    }
+}